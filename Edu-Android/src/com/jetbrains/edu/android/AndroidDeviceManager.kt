@@ -0,0 +1,75 @@
+package com.jetbrains.edu.android
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.project.Project
+import org.jetbrains.annotations.TestOnly
+import java.util.concurrent.Future
+
+/**
+ * Keeps device used to run instrumented tests between checks,
+ * so it's launched only once and subsequent checks don't wait for emulator boot
+ */
+@Service
+class AndroidDeviceManager(private val project: Project) {
+  @Volatile
+  private var deviceLaunching: Future<out AndroidTestDevice>? = null
+
+  var deviceProvider: AndroidDeviceProvider = EmulatorDeviceProvider()
+    @TestOnly set
+
+  /**
+   * @return future of a device which is already launched or being launched, or `null` if no device can be launched
+   */
+  @Synchronized
+  fun getOrLaunchDevice(): Future<out AndroidTestDevice>? {
+    val current = deviceLaunching
+    if (current != null && (!current.isDone || current.launchedDevice()?.isOnline == true)) {
+      return current
+    }
+    var future: Future<out AndroidTestDevice>? = null
+    ApplicationManager.getApplication().invokeAndWait {
+      future = deviceProvider.launchDevice(project)
+    }
+    deviceLaunching = future
+    return future
+  }
+
+  /**
+   * @return device if it's already launched and ready to run tests, otherwise `null` without waiting for the launch
+   */
+  fun getLaunchedDevice(): AndroidTestDevice? {
+    val device = deviceLaunching?.takeIf { it.isDone }?.launchedDevice() ?: return null
+    return if (device.isOnline) device else null
+  }
+
+  /**
+   * Cancels device launching if it's not finished yet.
+   * Already launched device is kept to be reused by the next checks
+   */
+  fun cancelLaunching() {
+    val current = deviceLaunching ?: return
+    if (!current.isDone) {
+      current.cancel(true)
+      deviceLaunching = null
+    }
+  }
+
+  private fun Future<out AndroidTestDevice>.launchedDevice(): AndroidTestDevice? {
+    return try {
+      get()
+    }
+    catch (e: Exception) {
+      LOG.warn("Failed to launch emulator", e)
+      null
+    }
+  }
+
+  companion object {
+    private val LOG = Logger.getInstance(AndroidDeviceManager::class.java)
+
+    fun getInstance(project: Project): AndroidDeviceManager = project.service()
+  }
+}
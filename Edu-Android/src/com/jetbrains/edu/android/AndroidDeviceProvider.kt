@@ -0,0 +1,106 @@
+package com.jetbrains.edu.android
+
+import com.android.ddmlib.IDevice
+import com.android.sdklib.internal.avd.AvdInfo
+import com.android.tools.idea.adb.AdbService
+import com.android.tools.idea.avdmanager.AvdManagerConnection
+import com.android.tools.idea.avdmanager.AvdOptionsModel
+import com.android.tools.idea.avdmanager.AvdWizardUtils
+import com.android.tools.idea.run.LaunchableAndroidDevice
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.ui.Messages
+import com.jetbrains.edu.android.messages.EduAndroidBundle
+import org.jetbrains.android.sdk.AndroidSdkUtils
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
+/**
+ * Device to run instrumented tests on
+ */
+interface AndroidTestDevice {
+  val isOnline: Boolean
+}
+
+/**
+ * Provides devices to run instrumented tests of Android tasks
+ */
+interface AndroidDeviceProvider {
+  /**
+   * Finds already running device or launches a new one.
+   * Called on EDT since a user can be asked to create a new emulator
+   *
+   * @return future of launching device or `null` if there isn't any device to launch
+   */
+  fun launchDevice(project: Project): Future<out AndroidTestDevice>?
+}
+
+class EmulatorDeviceProvider : AndroidDeviceProvider {
+
+  override fun launchDevice(project: Project): Future<out AndroidTestDevice>? {
+    val future = startEmulatorIfExists(project) ?: createAndLaunchEmulator(project) ?: return null
+    return DeviceFuture(future)
+  }
+
+  private fun createAndLaunchEmulator(project: Project): Future<IDevice>? {
+    Messages.showInfoMessage(
+      project,
+      EduAndroidBundle.message("error.no.emulator.message"),
+      EduAndroidBundle.message("error.no.emulator.title")
+    )
+
+    val avdOptionsModel = AvdOptionsModel(null)
+    val dialog = AvdWizardUtils.createAvdWizard(null, project, avdOptionsModel)
+    return if (dialog.showAndGet()) {
+      launchEmulator(project, avdOptionsModel.createdAvd)
+    } else {
+      null
+    }
+  }
+
+  private fun startEmulatorIfExists(project: Project): Future<IDevice>? {
+    val adbFile = AndroidSdkUtils.getAdb(project)
+    if (adbFile == null) {
+      LOG.warn("Can't find adbFile location")
+      return null
+    }
+    val abd = AdbService.getInstance().getDebugBridge(adbFile).get()
+    val device = abd.devices.find { it.isEmulator && it.avdName != null }
+    if (device != null) {
+      return CompletableFuture.completedFuture(device)
+    }
+
+    for (avd in AvdManagerConnection.getDefaultAvdManagerConnection().getAvds(true)) {
+      return launchEmulator(project, avd) ?: continue
+    }
+    return null
+  }
+
+  private fun launchEmulator(project: Project, avd: AvdInfo): Future<IDevice>? {
+    return if (avd.status == AvdInfo.AvdStatus.OK) {
+      LaunchableAndroidDevice(avd).launch(project)
+    } else {
+      null
+    }
+  }
+
+  private class IDeviceWrapper(private val device: IDevice) : AndroidTestDevice {
+    override val isOnline: Boolean get() = device.isOnline
+  }
+
+  /**
+   * Maps launched device lazily, so no thread is blocked while emulator boots and cancellation stops the launch itself
+   */
+  private class DeviceFuture(private val future: Future<IDevice>) : Future<AndroidTestDevice> {
+    override fun cancel(mayInterruptIfRunning: Boolean): Boolean = future.cancel(mayInterruptIfRunning)
+    override fun isCancelled(): Boolean = future.isCancelled
+    override fun isDone(): Boolean = future.isDone
+    override fun get(): AndroidTestDevice = IDeviceWrapper(future.get())
+    override fun get(timeout: Long, unit: TimeUnit): AndroidTestDevice = IDeviceWrapper(future.get(timeout, unit))
+  }
+
+  companion object {
+    private val LOG = Logger.getInstance(EmulatorDeviceProvider::class.java)
+  }
+}
@@ -1,17 +1,9 @@
 package com.jetbrains.edu.android
 
-import com.android.ddmlib.IDevice
-import com.android.sdklib.internal.avd.AvdInfo
-import com.android.tools.idea.adb.AdbService
-import com.android.tools.idea.avdmanager.AvdManagerConnection
-import com.android.tools.idea.avdmanager.AvdOptionsModel
-import com.android.tools.idea.avdmanager.AvdWizardUtils
-import com.android.tools.idea.run.LaunchableAndroidDevice
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.ui.Messages
 import com.jetbrains.edu.android.messages.EduAndroidBundle
 import com.jetbrains.edu.jvm.gradle.checker.GradleCommandLine
 import com.jetbrains.edu.jvm.gradle.checker.GradleEduTaskChecker
@@ -20,17 +12,12 @@ import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.checker.EnvironmentChecker
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
-import org.jetbrains.android.sdk.AndroidSdkUtils
-import java.util.concurrent.CompletableFuture
-import java.util.concurrent.Future
+import java.util.concurrent.Callable
 
 class AndroidChecker(task: EduTask, envChecker: EnvironmentChecker, project: Project) : GradleEduTaskChecker(task, envChecker, project) {
 
-  @Volatile
-  private var deviceLaunching: Future<IDevice>? = null
-
   override fun check(indicator: ProgressIndicator): CheckResult {
-    val possibleError = envChecker.getEnvironmentError(project, task)
+    val possibleError = validateEnvironmentIfNeeded()
     if (possibleError != null) {
       return possibleError
     }
@@ -38,26 +25,34 @@ class AndroidChecker(task: EduTask, envChecker: EnvironmentChecker, project: Pro
     indicator.isIndeterminate = true
 
     val taskModuleName = getGradleProjectName(task)
-    val assembleTask = ":$taskModuleName:assemble"
+    val buildTasks = mutableListOf(":$taskModuleName:assemble", "$taskModuleName:testDebugUnitTest")
+    val instrumentedTestTask = "$taskModuleName:connectedDebugAndroidTest"
 
-    indicator.text = EduAndroidBundle.message("building.task")
-    val assembleResult = GradleCommandLine.create(project, assembleTask)?.launchAndCheck(indicator) ?: CheckResult.failedToCheck
-    if (assembleResult.status != CheckStatus.Solved) return assembleResult
+    // If device is already running, instrumented tests are launched by the same gradle invocation
+    val deviceManager = AndroidDeviceManager.getInstance(project)
+    val hasInstrumentedTests = hasInstrumentedTests()
+    val runInstrumentedTestsWithBuild = hasInstrumentedTests && deviceManager.getLaunchedDevice() != null
+    if (runInstrumentedTestsWithBuild) {
+      buildTasks += instrumentedTestTask
+    }
 
-    indicator.text = EduAndroidBundle.message("running.unit.tests")
-    val unitTestTask = "$taskModuleName:testDebugUnitTest"
-    val unitTestResult = GradleCommandLine.create(project, unitTestTask)?.launchAndCheck(indicator) ?: CheckResult.failedToCheck
-    if (unitTestResult.status != CheckStatus.Solved) return unitTestResult
+    // Otherwise, device is requested in parallel to boot it while the task is being built.
+    // Build and unit tests don't need a device, so they're checked even if there isn't any device to launch
+    val deviceRequest = if (hasInstrumentedTests && !runInstrumentedTestsWithBuild) {
+      ApplicationManager.getApplication().executeOnPooledThread(Callable { deviceManager.getOrLaunchDevice() })
+    }
+    else {
+      null
+    }
 
-    val hasInstrumentedTests = task.taskFiles.any { (path, _) -> path.startsWith("src/androidTest") && !path.endsWith("AndroidEduTestRunner.kt") }
-    if (!hasInstrumentedTests) return unitTestResult
+    indicator.text = EduAndroidBundle.message("building.task")
+    val buildResult = launchAndCheck(indicator, buildTasks)
+    if (buildResult.status != CheckStatus.Solved || deviceRequest == null) return buildResult
 
     indicator.text = EduAndroidBundle.message("launching.emulator")
-    ApplicationManager.getApplication().invokeAndWait {
-      deviceLaunching = launchEmulator()
-    }
     val emulatorLaunched = try {
-      deviceLaunching?.get() != null
+      val deviceLaunching = deviceRequest.get() ?: return CheckResult.failedToCheck
+      deviceLaunching.get()?.isOnline == true
     } catch (e: Exception) {
       LOG.warn("Failed to launch emulator", e)
       false
@@ -65,58 +60,20 @@ class AndroidChecker(task: EduTask, envChecker: EnvironmentChecker, project: Pro
     if (!emulatorLaunched) return CheckResult.failedToCheck
 
     indicator.text = EduAndroidBundle.message("running.instrumented.tests")
-    val instrumentedTestTask = "$taskModuleName:connectedDebugAndroidTest"
-    return GradleCommandLine.create(project, instrumentedTestTask)?.launchAndCheck(indicator) ?: CheckResult.failedToCheck
-  }
-
-  override fun clearState() {
-    deviceLaunching?.cancel(true)
-    deviceLaunching = null
+    return launchAndCheck(indicator, listOf(instrumentedTestTask))
   }
 
-  private fun launchEmulator(): Future<IDevice>? {
-    val future = startEmulatorIfExists()
-    if (future != null) return future
-
-    Messages.showInfoMessage(
-      project,
-      EduAndroidBundle.message("error.no.emulator.message"),
-      EduAndroidBundle.message("error.no.emulator.title")
-    )
-
-    val avdOptionsModel = AvdOptionsModel(null)
-    val dialog = AvdWizardUtils.createAvdWizard(null, project, avdOptionsModel)
-    return if (dialog.showAndGet()) {
-      launchEmulator(avdOptionsModel.createdAvd)
-    } else {
-      null
-    }
+  private fun hasInstrumentedTests(): Boolean {
+    return task.taskFiles.any { (path, _) -> path.startsWith("src/androidTest") && !path.endsWith("AndroidEduTestRunner.kt") }
   }
 
-  private fun startEmulatorIfExists(): Future<IDevice>? {
-    val adbFile = AndroidSdkUtils.getAdb(project)
-    if (adbFile == null) {
-      LOG.warn("Can't find adbFile location")
-      return null
-    }
-    val abd = AdbService.getInstance().getDebugBridge(adbFile).get()
-    val device = abd.devices.find { it.isEmulator && it.avdName != null }
-    if (device != null) {
-      return CompletableFuture.completedFuture(device)
-    }
-
-    for (avd in AvdManagerConnection.getDefaultAvdManagerConnection().getAvds(true)) {
-      return launchEmulator(avd) ?: continue
-    }
-    return null
+  private fun launchAndCheck(indicator: ProgressIndicator, gradleTasks: List<String>): CheckResult {
+    val commandLine = GradleCommandLine.create(project, gradleTasks.first(), *gradleTasks.drop(1).toTypedArray())
+    return commandLine?.launchAndCheck(indicator) ?: CheckResult.failedToCheck
   }
 
-  private fun launchEmulator(avd: AvdInfo): Future<IDevice>? {
-    return if (avd.status == AvdInfo.AvdStatus.OK) {
-      LaunchableAndroidDevice(avd).launch(project)
-    } else {
-      null
-    }
+  override fun clearState() {
+    AndroidDeviceManager.getInstance(project).cancelLaunching()
   }
 
   companion object {
@@ -0,0 +1,69 @@
+package com.jetbrains.edu.android
+
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.EduTestCase
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Future
+
+class AndroidDeviceManagerTest : EduTestCase() {
+
+  private val deviceProvider = FakeDeviceProvider()
+
+  override fun setUp() {
+    super.setUp()
+    AndroidDeviceManager.getInstance(project).deviceProvider = deviceProvider
+  }
+
+  fun `test launched device is reused`() {
+    val manager = AndroidDeviceManager.getInstance(project)
+    val device = manager.getOrLaunchDevice()!!.get()
+    assertSame(device, manager.getOrLaunchDevice()!!.get())
+    assertSame(device, manager.getLaunchedDevice())
+    assertEquals(1, deviceProvider.launchCount)
+  }
+
+  fun `test device is relaunched if it's offline`() {
+    val manager = AndroidDeviceManager.getInstance(project)
+    val device = manager.getOrLaunchDevice()!!.get() as FakeDevice
+    device.isOnline = false
+    assertNull(manager.getLaunchedDevice())
+
+    val newDevice = manager.getOrLaunchDevice()!!.get()
+    assertNotSame(device, newDevice)
+    assertEquals(2, deviceProvider.launchCount)
+  }
+
+  fun `test device being launched is not reported as launched`() {
+    deviceProvider.bootImmediately = false
+    val manager = AndroidDeviceManager.getInstance(project)
+    val future = manager.getOrLaunchDevice()!!
+    assertNull(manager.getLaunchedDevice())
+    assertSame(future, manager.getOrLaunchDevice())
+
+    manager.cancelLaunching()
+    assertTrue(future.isCancelled)
+    manager.getOrLaunchDevice()
+    assertEquals(2, deviceProvider.launchCount)
+  }
+
+  fun `test launched device is kept after check`() {
+    val manager = AndroidDeviceManager.getInstance(project)
+    val device = manager.getOrLaunchDevice()!!.get()
+    manager.cancelLaunching()
+    assertSame(device, manager.getLaunchedDevice())
+  }
+
+  private class FakeDevice : AndroidTestDevice {
+    override var isOnline: Boolean = true
+  }
+
+  private class FakeDeviceProvider : AndroidDeviceProvider {
+    var launchCount = 0
+    var bootImmediately = true
+
+    override fun launchDevice(project: Project): Future<out AndroidTestDevice> {
+      launchCount++
+      return if (bootImmediately) CompletableFuture.completedFuture(FakeDevice()) else CompletableFuture()
+    }
+  }
+}
@@ -1,39 +1,41 @@
 package com.jetbrains.edu.cpp.checker
 
+import com.intellij.execution.ExecutionTargetManager
 import com.intellij.execution.RunnerAndConfigurationSettings
 import com.intellij.execution.actions.ConfigurationContext
 import com.intellij.execution.configurations.ConfigurationFactory
+import com.intellij.execution.configurations.GeneralCommandLine
 import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
 import com.intellij.psi.util.PsiTreeUtil
-import com.intellij.psi.util.PsiUtilBase
+import com.jetbrains.cidr.cpp.execution.CMakeAppRunConfiguration
 import com.jetbrains.cidr.execution.CidrTargetRunConfigurationProducer
 import com.jetbrains.cidr.execution.OCTargetConfigurationHelper.isInEntryPointBody
 import com.jetbrains.cidr.lang.psi.OCFunctionDeclaration
 import com.jetbrains.edu.cpp.codeforces.CppCodeforcesRunConfiguration
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
+import com.jetbrains.edu.learning.Result
+import com.jetbrains.edu.learning.checker.BuiltExecutableCache
+import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.checker.DefaultCodeExecutor
+import com.jetbrains.edu.learning.checker.DirectProcessRunner
+import com.jetbrains.edu.learning.checker.TaskEntryPointIndex
 import com.jetbrains.edu.learning.codeforces.run.CodeforcesRunConfiguration
-import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.runReadActionInSmartMode
+import java.nio.file.Path
 
+/**
+ * The first run of a task is performed with CMake target run configuration which builds the task.
+ * The built executable is remembered and run directly while the task files are unchanged
+ */
 class CppCodeExecutor : DefaultCodeExecutor() {
   override fun createRunConfiguration(project: Project, task: Task): RunnerAndConfigurationSettings? {
-    val mainFunction = task.taskFiles
-      .mapNotNull { (_, taskFile) ->
-        val file = taskFile.getVirtualFile(project)
-        if (file == null) {
-          LOG.warn("Cannot get a virtual file from the task file '${taskFile.name}'")
-        }
-        file
-      }
-      .mapNotNull { file -> findMainFunction(file, project) }
-      .firstOrNull()
-
-    if (mainFunction == null) {
-      return null
-    }
+    val mainFunction = TaskEntryPointIndex.getInstance(project).findEntryPoint(task, ::findMainFunction) ?: return null
 
     val context = ConfigurationContext(mainFunction)
 
@@ -45,12 +47,58 @@ class CppCodeExecutor : DefaultCodeExecutor() {
     return configuration.configurationSettings
   }
 
+  override fun execute(project: Project, task: Task, indicator: ProgressIndicator, input: String?): Result<String, CheckResult> =
+    doExecute(project, task, indicator, input, null)
+
+  override fun execute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: (String) -> Boolean
+  ): Result<String, CheckResult> = doExecute(project, task, indicator, input, outputConsumer)
+
   override fun createCodeforcesConfiguration(project: Project, factory: ConfigurationFactory): CodeforcesRunConfiguration {
     return CppCodeforcesRunConfiguration(project, factory)
   }
 
-  private fun findMainFunction(virtualFile: VirtualFile, project: Project): PsiElement? {
-    val psiFile = PsiUtilBase.getPsiFile(project, virtualFile)
+  private fun doExecute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: ((String) -> Boolean)?
+  ): Result<String, CheckResult> {
+    val executableCache = BuiltExecutableCache.getInstance(project)
+    val contentHash = executableCache.computeContentHash(task)
+    val executable = executableCache.getExecutable(task, contentHash)
+    if (executable != null) {
+      val commandLine = GeneralCommandLine(executable.toString()).withWorkDirectory(executable.parent.toFile())
+      return when (val runResult = DirectProcessRunner.run(commandLine, indicator, input, outputConsumer)) {
+        is Err -> runResult
+        is Ok -> Ok(runResult.value.stdout.ifEmpty { DefaultCodeExecutor.NO_OUTPUT })
+      }
+    }
+
+    // The same configuration is used to find the executable it has built, so it isn't recreated after run
+    val settings = runReadActionInSmartMode(project) { createRunConfiguration(project, task) }
+    val result = executeConfiguration(project, settings, indicator, input, outputConsumer)
+    if (result is Ok && settings != null) {
+      val builtExecutable = findBuiltExecutable(project, settings)
+      if (builtExecutable != null) {
+        executableCache.putExecutable(task, contentHash, builtExecutable)
+      }
+    }
+    return result
+  }
+
+  private fun findBuiltExecutable(project: Project, settings: RunnerAndConfigurationSettings): Path? {
+    val configuration = settings.configuration as? CMakeAppRunConfiguration ?: return null
+    val target = ExecutionTargetManager.getActiveTarget(project)
+    return configuration.getBuildAndRunConfigurations(target)?.runFile?.toPath()
+  }
+
+  private fun findMainFunction(psiFile: PsiFile): PsiElement? {
     val functions = PsiTreeUtil.findChildrenOfType(psiFile, OCFunctionDeclaration::class.java)
     return functions.find { isInEntryPointBody(it) }
   }
@@ -58,4 +106,4 @@ class CppCodeExecutor : DefaultCodeExecutor() {
   companion object {
     private val LOG: Logger = Logger.getInstance(CppCodeExecutor::class.java)
   }
-}
\ No newline at end of file
+}
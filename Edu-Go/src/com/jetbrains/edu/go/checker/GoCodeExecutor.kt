@@ -1,23 +1,38 @@
 package com.jetbrains.edu.go.checker
 
 import com.goide.psi.GoFile
+import com.goide.sdk.GoSdkService
 import com.intellij.execution.RunnerAndConfigurationSettings
 import com.intellij.execution.actions.ConfigurationContext
 import com.intellij.execution.configurations.ConfigurationFactory
+import com.intellij.execution.configurations.GeneralCommandLine
+import com.intellij.execution.process.CapturingProcessHandler
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.module.ModuleUtil
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.SystemInfo
+import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.PsiFile
 import com.jetbrains.edu.go.checker.GoEduTaskChecker.Companion.GO_RUN_WITH_PTY
 import com.jetbrains.edu.go.codeforces.GoCodeforcesRunConfiguration
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
 import com.jetbrains.edu.learning.Result
-import com.jetbrains.edu.learning.checker.CheckResult
-import com.jetbrains.edu.learning.checker.DefaultCodeExecutor
+import com.jetbrains.edu.learning.checker.*
+import com.jetbrains.edu.learning.checker.CheckUtils.COMPILATION_FAILED_MESSAGE
+import com.jetbrains.edu.learning.checker.CodeExecutor.Companion.resultUnchecked
 import com.jetbrains.edu.learning.codeforces.run.CodeforcesRunConfiguration
-import com.jetbrains.edu.learning.courseFormat.ext.getDocument
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
-import com.jetbrains.edu.learning.toPsiFile
+import com.jetbrains.edu.learning.messages.EduCoreBundle
 import com.jetbrains.edu.learning.withRegistryKeyOff
+import java.nio.file.Path
 
+/**
+ * Builds the task with `go build` once per task content and runs the built executable directly.
+ * Falls back to the run configuration of the main file if Go SDK can't be found
+ */
 class GoCodeExecutor : DefaultCodeExecutor() {
   override fun createRunConfiguration(project: Project, task: Task): RunnerAndConfigurationSettings? {
     val psiFile = getMainFile(project, task) ?: return null
@@ -25,20 +40,75 @@ class GoCodeExecutor : DefaultCodeExecutor() {
   }
 
   override fun execute(project: Project, task: Task, indicator: ProgressIndicator, input: String?): Result<String, CheckResult> {
-    return withRegistryKeyOff(GO_RUN_WITH_PTY) { super.execute(project, task, indicator, input) }
+    return executeBuilt(project, task, indicator, input, null)
+           ?: withRegistryKeyOff(GO_RUN_WITH_PTY) { super.execute(project, task, indicator, input) }
+  }
+
+  override fun execute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: (String) -> Boolean
+  ): Result<String, CheckResult> {
+    return executeBuilt(project, task, indicator, input, outputConsumer)
+           ?: withRegistryKeyOff(GO_RUN_WITH_PTY) { super.execute(project, task, indicator, input, outputConsumer) }
   }
 
   override fun createCodeforcesConfiguration(project: Project, factory: ConfigurationFactory): CodeforcesRunConfiguration {
     return GoCodeforcesRunConfiguration(project)
   }
 
-  private fun getMainFile(project: Project, task: Task): PsiFile? {
-    for ((_, file) in task.taskFiles) {
-      val psiFile = file.getDocument(project)?.toPsiFile(project) ?: continue
-      if (psiFile is GoFile && psiFile.hasMainFunction()) {
-        return psiFile
-      }
+  /**
+   * @return `null` if the task can't be built directly and should be run with run configuration
+   */
+  private fun executeBuilt(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: ((String) -> Boolean)?
+  ): Result<String, CheckResult>? {
+    val mainDir = runReadAction { getMainFile(project, task)?.virtualFile?.parent } ?: return null
+    val goExecutable = runReadAction { findGoExecutable(project, mainDir) } ?: return null
+
+    val buildResult = BuiltExecutableCache.getInstance(project).getOrBuild(task) { outputDir ->
+      build(goExecutable, mainDir, outputDir, indicator)
+    }
+    val executable = when (buildResult) {
+      is Err -> return buildResult
+      is Ok -> buildResult.value
+    }
+
+    val commandLine = GeneralCommandLine(executable.toString()).withWorkDirectory(mainDir.path)
+    return when (val runResult = DirectProcessRunner.run(commandLine, indicator, input, outputConsumer)) {
+      is Err -> runResult
+      is Ok -> Ok(runResult.value.stdout.ifEmpty { DefaultCodeExecutor.NO_OUTPUT })
+    }
+  }
+
+  private fun build(goExecutable: String, mainDir: VirtualFile, outputDir: Path, indicator: ProgressIndicator): Result<Path, CheckResult> {
+    val executable = outputDir.resolve(if (SystemInfo.isWindows) "main.exe" else "main")
+    val commandLine = GeneralCommandLine(goExecutable, "build", "-o", executable.toString(), ".")
+      .withWorkDirectory(mainDir.path)
+      .withParentEnvironmentType(GeneralCommandLine.ParentEnvironmentType.CONSOLE)
+
+    val output = CapturingProcessHandler(commandLine).runProcessWithProgressIndicator(indicator)
+    return when {
+      output.isCancelled -> resultUnchecked(EduCoreBundle.message("error.execution.canceled"))
+      output.exitCode != 0 -> Err(CheckResult(CheckStatus.Failed, COMPILATION_FAILED_MESSAGE, output.stderr))
+      else -> Ok(executable)
     }
-    return null
   }
-}
\ No newline at end of file
+
+  private fun findGoExecutable(project: Project, mainDir: VirtualFile): String? {
+    val module = ModuleUtil.findModuleForFile(mainDir, project) ?: return null
+    return GoSdkService.getInstance(project).getSdk(module).goExecutablePath
+  }
+
+  private fun getMainFile(project: Project, task: Task): PsiFile? {
+    return TaskEntryPointIndex.getInstance(project).findEntryPoint(task) { psiFile ->
+      psiFile.takeIf { it is GoFile && it.hasMainFunction() }
+    } as? PsiFile
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Long-running Jest worker used to check JavaScript tasks.
+ *
+ * Usage: node eduJestWorker.js <course directory>
+ *
+ * Reads requests from stdin, one JSON object per line: {"id": 1, "testPaths": ["/abs/path/test.js"]}
+ * and writes one response line per request prefixed with RESPONSE_PREFIX:
+ * {"id": 1, "tests": [{"name": "...", "status": "passed|failed|pending", "message": "...", "expected": "...", "actual": "..."}]}
+ * or {"id": 1, "error": "...", "jestNotFound": true} if tests can't be run.
+ */
+'use strict';
+
+const path = require('path');
+const readline = require('readline');
+
+const RESPONSE_PREFIX = '##edu-jest-response ';
+const rootDir = process.argv[2];
+
+function loadJest() {
+  try {
+    return require(require.resolve('jest', {paths: [rootDir]}));
+  }
+  catch (e) {
+    return null;
+  }
+}
+
+function stringify(value) {
+  if (value === undefined) return undefined;
+  return typeof value === 'string' ? value : JSON.stringify(value, null, 2);
+}
+
+function removeStackTrace(message) {
+  const lines = message.split('\n');
+  const stackStart = lines.findIndex(line => /^\s+at /.test(line));
+  const result = (stackStart === -1 ? lines : lines.slice(0, stackStart)).join('\n').trim();
+  return result.replace(/^Error: /, '');
+}
+
+function toTest(assertion) {
+  const test = {name: assertion.fullName || assertion.title, status: assertion.status};
+  if (assertion.status === 'failed') {
+    const details = (assertion.failureDetails || [])[0];
+    const matcherResult = details && details.matcherResult;
+    test.message = details && details.message ? removeStackTrace(details.message) : removeStackTrace((assertion.failureMessages || []).join('\n'));
+    if (matcherResult && matcherResult.expected !== undefined && matcherResult.actual !== undefined) {
+      test.expected = stringify(matcherResult.expected);
+      test.actual = stringify(matcherResult.actual);
+    }
+  }
+  return test;
+}
+
+function toResponse(id, results) {
+  const tests = [];
+  for (const suite of results.testResults) {
+    if (suite.testExecError || (suite.failureMessage && suite.testResults.length === 0)) {
+      const message = suite.testExecError ? suite.testExecError.message : suite.failureMessage;
+      tests.push({name: path.basename(suite.testFilePath), status: 'failed', message: removeStackTrace(message)});
+      continue;
+    }
+    for (const assertion of suite.testResults) {
+      tests.push(toTest(assertion));
+    }
+  }
+  return {id, tests};
+}
+
+function respond(response) {
+  process.stdout.write(RESPONSE_PREFIX + JSON.stringify(response) + '\n');
+}
+
+let queue = Promise.resolve();
+
+readline.createInterface({input: process.stdin}).on('line', line => {
+  if (!line.trim()) return;
+  const request = JSON.parse(line);
+  queue = queue.then(async () => {
+    // Loaded on each request to pick up jest installed after the worker start
+    const jest = loadJest();
+    if (jest === null) {
+      respond({id: request.id, error: 'Cannot find jest in ' + rootDir, jestNotFound: true});
+      return;
+    }
+    try {
+      const argv = {
+        _: request.testPaths,
+        $0: 'jest',
+        runTestsByPath: true,
+        runInBand: true,
+        watchman: false,
+        ci: true,
+        silent: true
+      };
+      const {results} = await jest.runCLI(argv, [rootDir]);
+      respond(toResponse(request.id, results));
+    }
+    catch (e) {
+      respond({id: request.id, error: String(e && e.stack || e)});
+    }
+  });
+}).on('close', () => queue.then(() => process.exit(0)));
@@ -0,0 +1,66 @@
+package com.jetbrains.edu.javascript.learning
+
+import com.google.gson.JsonObject
+import com.google.gson.JsonParseException
+import com.google.gson.JsonParser
+import com.intellij.openapi.diagnostic.Logger
+
+/**
+ * Result of a test run received from Jest worker, see `jest/eduJestWorker.js`
+ */
+sealed class JestRunResult {
+  class Tests(val tests: List<JestTest>) : JestRunResult()
+  object JestNotFound : JestRunResult()
+  /**
+   * Worker didn't respond in [timeoutMs], e.g. learner's code doesn't terminate
+   */
+  class Timeout(val timeoutMs: Long) : JestRunResult()
+  class Error(val message: String) : JestRunResult()
+
+  class JestTest(val name: String, val status: String, val message: String?, val expected: String?, val actual: String?) {
+    val isFailed: Boolean get() = status == "failed"
+  }
+
+  companion object {
+    private val LOG = Logger.getInstance(JestRunResult::class.java)
+
+    const val RESPONSE_PREFIX = "##edu-jest-response "
+
+    /**
+     * @return id of request and its result or `null` if [line] doesn't contain a worker response.
+     * Response may follow output of learner's code printed without line break
+     */
+    fun parse(line: String): Pair<Int, JestRunResult>? {
+      val responseStart = line.lastIndexOf(RESPONSE_PREFIX)
+      if (responseStart == -1) return null
+      val json = try {
+        JsonParser.parseString(line.substring(responseStart + RESPONSE_PREFIX.length)) as? JsonObject ?: return null
+      }
+      catch (e: JsonParseException) {
+        LOG.warn("Failed to parse Jest worker response: $line", e)
+        return null
+      }
+      val id = json.get("id")?.asInt ?: return null
+      if (json.get("jestNotFound")?.asBoolean == true) return id to JestNotFound
+      val error = json.stringValue("error")
+      if (error != null) return id to Error(error)
+
+      val tests = json.getAsJsonArray("tests")?.mapNotNull { element ->
+        val test = element as? JsonObject ?: return@mapNotNull null
+        JestTest(
+          test.stringValue("name").orEmpty(),
+          test.stringValue("status").orEmpty(),
+          test.stringValue("message"),
+          test.stringValue("expected"),
+          test.stringValue("actual")
+        )
+      }.orEmpty()
+      return id to Tests(tests)
+    }
+
+    private fun JsonObject.stringValue(member: String): String? {
+      val element = get(member) ?: return null
+      return if (element.isJsonPrimitive && element.asJsonPrimitive.isString) element.asString else null
+    }
+  }
+}
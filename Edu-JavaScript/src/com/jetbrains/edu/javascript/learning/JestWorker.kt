@@ -0,0 +1,200 @@
+package com.jetbrains.edu.javascript.learning
+
+import com.google.gson.JsonArray
+import com.google.gson.JsonObject
+import com.intellij.execution.ExecutionException
+import com.intellij.execution.configurations.GeneralCommandLine
+import com.intellij.execution.process.OSProcessHandler
+import com.intellij.execution.process.ProcessAdapter
+import com.intellij.execution.process.ProcessEvent
+import com.intellij.execution.process.ProcessOutputTypes
+import com.intellij.javascript.nodejs.interpreter.NodeJsInterpreterManager
+import com.intellij.javascript.nodejs.interpreter.local.NodeJsLocalInterpreter
+import com.intellij.lang.javascript.ui.NodeModuleNamesUtil
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Key
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.learning.courseDir
+import java.io.File
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps Node.js process with Jest loaded (see `jest/eduJestWorker.js`) alive while the project is open,
+ * so checks of JavaScript tasks don't pay for Node.js startup and Jest initialization each time.
+ *
+ * The worker is restarted if `package.json` or installed dependencies were changed since it was started.
+ */
+@Service
+class JestWorker(private val project: Project) : Disposable {
+
+  private var worker: WorkerProcess? = null
+  private var lastRequestId = 0
+
+  /**
+   * @return results of tests from [testFiles], [JestRunResult.Timeout] if the worker didn't respond in [RESPONSE_TIMEOUT_MS]
+   * or `null` if tests can't be run by the worker or the run was canceled with [indicator].
+   * In the last case default test run configurations should be used
+   */
+  @Synchronized
+  fun runTests(testFiles: List<VirtualFile>, indicator: ProgressIndicator): JestRunResult? {
+    if (!Registry.`is`(REGISTRY_KEY, true) || testFiles.isEmpty()) return null
+    val worker = getOrStartWorker() ?: return null
+
+    val requestId = ++lastRequestId
+    val request = JsonObject().apply {
+      addProperty("id", requestId)
+      add("testPaths", JsonArray().apply { testFiles.forEach { add(it.path) } })
+    }
+    try {
+      worker.send(request.toString())
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to send request to Jest worker", e)
+      stopWorker()
+      return null
+    }
+
+    val deadline = System.currentTimeMillis() + RESPONSE_TIMEOUT_MS
+    while (true) {
+      if (indicator.isCanceled) {
+        // The worker is busy with the canceled run, so it's easier to start a new one next time
+        stopWorker()
+        return null
+      }
+      if (System.currentTimeMillis() > deadline) {
+        // Running the same tests with run configurations would most likely hang too
+        LOG.warn("Jest worker didn't respond in $RESPONSE_TIMEOUT_MS ms")
+        stopWorker()
+        return JestRunResult.Timeout(RESPONSE_TIMEOUT_MS)
+      }
+      val line = worker.responses.poll(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+      if (line == null) {
+        if (worker.handler.isProcessTerminated) {
+          LOG.warn("Jest worker terminated unexpectedly")
+          stopWorker()
+          return null
+        }
+        continue
+      }
+      val (id, result) = JestRunResult.parse(line) ?: continue
+      if (id != requestId) continue
+      if (result is JestRunResult.Error) {
+        LOG.warn("Jest worker failed to run tests: ${result.message}")
+        return null
+      }
+      return result
+    }
+  }
+
+  private fun getOrStartWorker(): WorkerProcess? {
+    val dependenciesStamp = computeDependenciesStamp()
+    val currentWorker = worker
+    if (currentWorker != null && !currentWorker.handler.isProcessTerminated && currentWorker.dependenciesStamp == dependenciesStamp) {
+      return currentWorker
+    }
+    stopWorker()
+
+    val interpreter = NodeJsInterpreterManager.getInstance(project).interpreter as? NodeJsLocalInterpreter ?: return null
+    val courseDir = project.courseDir.path
+    val script = try {
+      extractWorkerScript()
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to extract Jest worker script", e)
+      return null
+    }
+    val commandLine = GeneralCommandLine(interpreter.interpreterSystemDependentPath, script.path, courseDir)
+      .withWorkDirectory(courseDir)
+      .withCharset(StandardCharsets.UTF_8)
+      // Jest matchers color their messages, but colors can't be shown in task description
+      .withEnvironment("FORCE_COLOR", "0")
+    val handler = try {
+      OSProcessHandler(commandLine)
+    }
+    catch (e: ExecutionException) {
+      LOG.warn("Failed to start Jest worker", e)
+      return null
+    }
+    return WorkerProcess(handler, dependenciesStamp).also { worker = it }
+  }
+
+  private fun stopWorker() {
+    worker?.handler?.destroyProcess()
+    worker = null
+  }
+
+  private fun extractWorkerScript(): File {
+    val script = File(FileUtil.getTempDirectory(), WORKER_SCRIPT)
+    val content = JestWorker::class.java.getResourceAsStream("/jest/$WORKER_SCRIPT")?.use { it.readBytes() }
+                  ?: throw IOException("Failed to find $WORKER_SCRIPT")
+    FileUtil.writeToFile(script, content)
+    return script
+  }
+
+  private fun computeDependenciesStamp(): List<Long> {
+    val courseDir = File(project.courseDir.path)
+    return DEPENDENCY_FILES.map { File(courseDir, it).lastModified() }
+  }
+
+  override fun dispose() {
+    stopWorker()
+  }
+
+  private class WorkerProcess(val handler: OSProcessHandler, val dependenciesStamp: List<Long>) {
+    val responses = LinkedBlockingQueue<String>()
+    private val stdout = StringBuilder()
+
+    init {
+      handler.addProcessListener(object : ProcessAdapter() {
+        override fun onTextAvailable(event: ProcessEvent, outputType: Key<*>) {
+          if (outputType != ProcessOutputTypes.STDOUT) return
+          stdout.append(event.text)
+          while (true) {
+            val lineEnd = stdout.indexOf("\n")
+            if (lineEnd == -1) break
+            responses += stdout.substring(0, lineEnd).trimEnd('\r')
+            stdout.delete(0, lineEnd + 1)
+          }
+        }
+      })
+      handler.startNotify()
+    }
+
+    fun send(request: String) {
+      val input = handler.processInput ?: throw IOException("Jest worker doesn't accept input")
+      input.write("$request\n".toByteArray(StandardCharsets.UTF_8))
+      input.flush()
+    }
+  }
+
+  companion object {
+    private val LOG = Logger.getInstance(JestWorker::class.java)
+
+    private const val REGISTRY_KEY = "edu.javascript.jest.worker"
+    private const val WORKER_SCRIPT = "eduJestWorker.js"
+    private const val WAIT_TIMEOUT_MS = 100L
+    private val RESPONSE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1)
+    private const val NODE_MODULES = "node_modules"
+
+    private val DEPENDENCY_FILES = listOf(
+      NodeModuleNamesUtil.PACKAGE_JSON,
+      "package-lock.json",
+      "yarn.lock",
+      NODE_MODULES,
+      "$NODE_MODULES/.package-lock.json",
+      "$NODE_MODULES/jest/package.json"
+    )
+
+    fun getInstance(project: Project): JestWorker = project.service()
+  }
+}
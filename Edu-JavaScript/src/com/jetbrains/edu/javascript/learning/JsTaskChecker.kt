@@ -4,19 +4,87 @@ import com.intellij.execution.RunnerAndConfigurationSettings
 import com.intellij.execution.configurations.RuntimeConfigurationError
 import com.intellij.execution.testframework.sm.runner.SMTestProxy
 import com.intellij.lang.javascript.ui.NodeModuleNamesUtil
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.intellij.ui.HyperlinkAdapter
 import com.jetbrains.edu.javascript.learning.messages.EduJavaScriptBundle
+import com.jetbrains.edu.learning.checker.CheckPhase
 import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.checker.CheckResultDiff
+import com.jetbrains.edu.learning.checker.CheckUtils
+import com.jetbrains.edu.learning.checker.CheckUtils.fillWithIncorrect
 import com.jetbrains.edu.learning.checker.EduTaskCheckerBase
 import com.jetbrains.edu.learning.checker.EnvironmentChecker
 import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.ext.getAllTestVFiles
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
 import com.jetbrains.edu.learning.messages.EduCoreBundle
+import java.util.concurrent.TimeUnit
 import javax.swing.event.HyperlinkEvent
 
-open class JsTaskChecker(task: EduTask, envChecker: EnvironmentChecker, project: Project) : EduTaskCheckerBase(task, envChecker, project) {
+open class JsTaskChecker(
+  task: EduTask,
+  private val envChecker: EnvironmentChecker,
+  project: Project
+) : EduTaskCheckerBase(task, envChecker, project) {
+
+  // Set while tests are run with run configurations after the environment was validated by this check
+  private var isEnvironmentValidated = false
+
+  override fun check(indicator: ProgressIndicator): CheckResult {
+    // Custom run configurations may run tests in a way the worker doesn't support
+    if (CheckUtils.getCustomRunConfiguration(project, task) != null) return super.check(indicator)
+
+    val possibleError = validateEnvironmentIfNeeded()
+    if (possibleError != null) {
+      return possibleError
+    }
+
+    val testFiles = runReadAction { task.getAllTestVFiles(project) }
+    val runResult = runPhase(CheckPhase.RUN) { JestWorker.getInstance(project).runTests(testFiles, indicator) }
+    val result = runPhase(CheckPhase.EVALUATE) {
+      when (runResult) {
+        is JestRunResult.Tests -> runResult.toCheckResult()
+        is JestRunResult.JestNotFound -> installDependenciesResult()
+        is JestRunResult.Timeout -> timeoutResult(runResult.timeoutMs)
+        else -> null
+      }
+    }
+    if (indicator.isCanceled) return CheckResult.CANCELED
+    if (result != null) return result
+
+    isEnvironmentValidated = true
+    try {
+      return super.check(indicator)
+    }
+    finally {
+      isEnvironmentValidated = false
+    }
+  }
+
+  override fun validateEnvironment(): CheckResult? = if (isEnvironmentValidated) null else super.validateEnvironment()
+
+  private fun timeoutResult(timeoutMs: Long): CheckResult {
+    val message = EduJavaScriptBundle.message("error.tests.timeout", TimeUnit.MILLISECONDS.toSeconds(timeoutMs))
+    return CheckResult(CheckStatus.Failed, message)
+  }
+
+  private fun JestRunResult.Tests.toCheckResult(): CheckResult? {
+    if (tests.isEmpty()) return null
+    val firstFailedTest = tests.firstOrNull { it.isFailed } ?: return CheckResult(CheckStatus.Solved, CheckUtils.CONGRATULATIONS)
+    val errorMessage = firstFailedTest.message ?: EduCoreBundle.message("error.execution.failed")
+    val expected = firstFailedTest.expected
+    val actual = firstFailedTest.actual
+    return if (expected != null && actual != null) {
+      val diff = CheckResultDiff(expected, actual, firstFailedTest.name)
+      CheckResult(CheckStatus.Failed, fillWithIncorrect(extractComparisonErrorMessage(errorMessage)), diff = diff)
+    }
+    else {
+      CheckResult(CheckStatus.Failed, fillWithIncorrect(extractFailedMessage(errorMessage)))
+    }
+  }
 
   override fun createDefaultTestConfigurations(): List<RunnerAndConfigurationSettings> {
     return createTestConfigurationsForTestFiles()
@@ -25,9 +93,10 @@ open class JsTaskChecker(task: EduTask, envChecker: EnvironmentChecker, project:
   // It is tested only with Jest so may not work with other JS test frameworks
   override fun getComparisonErrorMessage(node: SMTestProxy): String = extractComparisonErrorMessage(node)
 
-  override fun getErrorMessage(node: SMTestProxy): String {
+  override fun getErrorMessage(node: SMTestProxy): String = extractFailedMessage(node.errorMessage.orEmpty())
+
+  private fun extractFailedMessage(errorMessage: String): String {
     val failedMessageStart = "Failed: \""
-    val errorMessage = node.errorMessage.orEmpty()
     return if (errorMessage.startsWith(failedMessageStart)) {
       errorMessage.substringAfter(failedMessageStart).substringBeforeLast('"').replace("\\\"", "\"")
     }
@@ -42,13 +111,17 @@ open class JsTaskChecker(task: EduTask, envChecker: EnvironmentChecker, project:
       null
     }
     catch (e: RuntimeConfigurationError) {
-      val packageJson = project.courseDir.findChild(NodeModuleNamesUtil.PACKAGE_JSON) ?: return null
-      val message = """${EduCoreBundle.message("check.no.tests")}. ${EduJavaScriptBundle.message("install.dependencies")}."""
-      CheckResult(CheckStatus.Unchecked, message, hyperlinkListener = object : HyperlinkAdapter() {
-        override fun hyperlinkActivated(e: HyperlinkEvent?) {
-          installNodeDependencies(project, packageJson)
-        }
-      })
+      installDependenciesResult()
     }
   }
+
+  private fun installDependenciesResult(): CheckResult? {
+    val packageJson = project.courseDir.findChild(NodeModuleNamesUtil.PACKAGE_JSON) ?: return null
+    val message = """${EduCoreBundle.message("check.no.tests")}. ${EduJavaScriptBundle.message("install.dependencies")}."""
+    return CheckResult(CheckStatus.Unchecked, message, hyperlinkListener = object : HyperlinkAdapter() {
+      override fun hyperlinkActivated(e: HyperlinkEvent?) {
+        installNodeDependencies(project, packageJson)
+      }
+    })
+  }
 }
@@ -0,0 +1,47 @@
+package com.jetbrains.edu.javascript.checker
+
+import com.jetbrains.edu.javascript.learning.JestRunResult
+import com.jetbrains.edu.javascript.learning.JestRunResult.Companion.RESPONSE_PREFIX
+import junit.framework.TestCase
+
+class JestRunResultTest : TestCase() {
+
+  fun `test parse test results`() {
+    val (id, result) = JestRunResult.parse(RESPONSE_PREFIX + """
+      {"id":3,"tests":[
+        {"name":"sum adds numbers","status":"passed"},
+        {"name":"sum handles zero","status":"failed","message":"expect(received).toBe(expected)","expected":"0","actual":"1"}
+      ]}
+    """.lines().joinToString("") { it.trim() })!!
+    assertEquals(3, id)
+    val tests = (result as JestRunResult.Tests).tests
+    assertEquals(2, tests.size)
+    assertFalse(tests[0].isFailed)
+    assertNull(tests[0].message)
+    val failedTest = tests[1]
+    assertTrue(failedTest.isFailed)
+    assertEquals("sum handles zero", failedTest.name)
+    assertEquals("expect(received).toBe(expected)", failedTest.message)
+    assertEquals("0", failedTest.expected)
+    assertEquals("1", failedTest.actual)
+  }
+
+  fun `test parse errors`() {
+    val (_, notFound) = JestRunResult.parse("""$RESPONSE_PREFIX{"id":1,"error":"Cannot find jest","jestNotFound":true}""")!!
+    assertSame(JestRunResult.JestNotFound, notFound)
+
+    val (_, error) = JestRunResult.parse("""$RESPONSE_PREFIX{"id":2,"error":"SyntaxError"}""")!!
+    assertEquals("SyntaxError", (error as JestRunResult.Error).message)
+  }
+
+  fun `test parse response after learner output`() {
+    val (id, result) = JestRunResult.parse("""printed without line break$RESPONSE_PREFIX{"id":4,"tests":[{"name":"test","status":"passed"}]}""")!!
+    assertEquals(4, id)
+    assertEquals(1, (result as JestRunResult.Tests).tests.size)
+  }
+
+  fun `test skip other output`() {
+    assertNull(JestRunResult.parse("""{"id":1,"tests":[]}"""))
+    assertNull(JestRunResult.parse("console output"))
+  }
+}
@@ -0,0 +1,130 @@
+package com.jetbrains.edu.javascript.slow.checker
+
+import com.intellij.lang.javascript.JavascriptLanguage
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.javascript.learning.JestRunResult
+import com.jetbrains.edu.javascript.learning.JestWorker
+import com.jetbrains.edu.javascript.learning.JsNewProjectSettings
+import com.jetbrains.edu.learning.checker.CheckersTestBase
+import com.jetbrains.edu.learning.checker.EduCheckerFixture
+import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseDir
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.ext.getAllTestVFiles
+import java.io.File
+
+// This test runs only when Node.js interpreter is configured
+class JestWorkerTest : CheckersTestBase<JsNewProjectSettings>() {
+
+  override fun createCheckerFixture(): EduCheckerFixture<JsNewProjectSettings> = JsCheckerFixture()
+
+  override fun createCourse(): Course = course(language = JavascriptLanguage.INSTANCE) {
+    lesson {
+      eduTask {
+        taskFile("task.js", """
+          function sum(a, b) {
+            return a + b;
+          }
+          module.exports = sum;
+        """)
+        taskFile("test/test.js", """
+          const sum = require('../task');
+          test('adds numbers', () => {
+            expect(sum(1, 2)).toBe(3);
+          });
+        """)
+      }
+      eduTask {
+        taskFile("task.js", """
+          function sum(a, b) {
+            return a - b;
+          }
+          module.exports = sum;
+        """)
+        taskFile("test/test.js", """
+          const sum = require('../task');
+          test('adds numbers', () => {
+            expect(sum(1, 2)).toBe(3);
+          });
+        """)
+      }
+    }
+    additionalFiles {
+      taskFile("package.json", """{"devDependencies": {"jest": "*"}}""")
+    }
+  }
+
+  fun `test jest not found`() {
+    val testFiles = getTestFiles(0)
+    val worker = JestWorker.getInstance(project)
+
+    // Dependencies aren't installed in tests, so the worker starts but can't load Jest
+    assertSame(JestRunResult.JestNotFound, worker.runTests(testFiles, EmptyProgressIndicator()))
+    // The same worker process serves the next request
+    assertSame(JestRunResult.JestNotFound, worker.runTests(testFiles, EmptyProgressIndicator()))
+  }
+
+  fun `test passed and failed tests`() {
+    installFakeJest()
+    val worker = JestWorker.getInstance(project)
+
+    val passed = worker.runTests(getTestFiles(0), EmptyProgressIndicator())
+    assertInstanceOf(passed, JestRunResult.Tests::class.java)
+    val passedTest = (passed as JestRunResult.Tests).tests.single()
+    assertEquals("adds numbers", passedTest.name)
+    assertFalse(passedTest.isFailed)
+
+    val failed = worker.runTests(getTestFiles(1), EmptyProgressIndicator())
+    assertInstanceOf(failed, JestRunResult.Tests::class.java)
+    val failedTest = (failed as JestRunResult.Tests).tests.single()
+    assertEquals("adds numbers", failedTest.name)
+    assertTrue(failedTest.isFailed)
+    assertEquals("3", failedTest.expected)
+    assertEquals("-1", failedTest.actual)
+  }
+
+  private fun getTestFiles(taskIndex: Int): List<VirtualFile> {
+    return myCourse.lessons.single().taskList[taskIndex].getAllTestVFiles(project)
+  }
+
+  /**
+   * Dependencies aren't installed in tests, so a minimal module with Jest `runCLI` API is put into `node_modules`.
+   * It supports only `test` and `expect(...).toBe(...)` and reports results in Jest format
+   */
+  private fun installFakeJest() {
+    val jestDir = File(project.courseDir.path, "node_modules/jest")
+    FileUtil.writeToFile(File(jestDir, "package.json"), """{"name": "jest", "main": "index.js"}""")
+    FileUtil.writeToFile(File(jestDir, "index.js"), """
+      exports.runCLI = async argv => {
+        const testResults = [];
+        for (const testFilePath of argv._) {
+          const assertions = [];
+          global.test = (title, fn) => {
+            try {
+              fn();
+              assertions.push({title: title, fullName: title, status: 'passed'});
+            }
+            catch (e) {
+              assertions.push({title: title, fullName: title, status: 'failed', failureMessages: [e.message],
+                               failureDetails: [{message: e.message, matcherResult: e.matcherResult}]});
+            }
+          };
+          global.expect = actual => ({
+            toBe: expected => {
+              if (actual === expected) return;
+              const error = new Error('expect(received).toBe(expected)\n\nExpected: ' + expected + '\nReceived: ' + actual);
+              error.matcherResult = {expected: expected, actual: actual};
+              throw error;
+            }
+          });
+          Object.keys(require.cache).forEach(key => delete require.cache[key]);
+          require(testFilePath);
+          testResults.push({testFilePath: testFilePath, testResults: assertions});
+        }
+        return {results: {testResults: testResults}};
+      };
+    """.trimIndent())
+  }
+}
@@ -0,0 +1,24 @@
+package com.jetbrains.edu.javascript.slow.checker
+
+import com.intellij.javascript.nodejs.interpreter.NodeJsInterpreter
+import com.intellij.javascript.nodejs.interpreter.NodeJsInterpreterManager
+import com.intellij.openapi.project.ProjectManager
+import com.jetbrains.edu.javascript.learning.JsNewProjectSettings
+import com.jetbrains.edu.learning.checker.EduCheckerFixture
+
+/**
+ * Uses Node.js interpreter configured for the default project
+ */
+class JsCheckerFixture : EduCheckerFixture<JsNewProjectSettings>() {
+
+  private val interpreter: NodeJsInterpreter? by lazy {
+    val defaultProject = ProjectManager.getInstance().defaultProject
+    NodeJsInterpreterManager.getInstance(defaultProject).interpreterRef.resolve(defaultProject)
+  }
+
+  override val projectSettings: JsNewProjectSettings get() = JsNewProjectSettings().apply { selectedInterpreter = interpreter }
+
+  override fun getSkipTestReason(): String? {
+    return if (interpreter == null) "Node.js interpreter is not configured" else super.getSkipTestReason()
+  }
+}
@@ -0,0 +1,181 @@
+package com.jetbrains.edu.rust.checker
+
+import com.google.gson.JsonObject
+import com.google.gson.JsonParseException
+import com.google.gson.JsonParser
+import com.intellij.execution.configurations.GeneralCommandLine
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
+import com.jetbrains.edu.learning.Result
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.checker.CheckUtils.COMPILATION_FAILED_MESSAGE
+import com.jetbrains.edu.learning.checker.CodeExecutor.Companion.resultUnchecked
+import com.jetbrains.edu.learning.courseDir
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.rust.messages.EduRustBundle
+import org.jetbrains.annotations.TestOnly
+import org.rust.cargo.CargoConstants
+import org.rust.cargo.project.settings.rustSettings
+import org.rust.cargo.project.workspace.CargoWorkspace
+import org.rust.cargo.toolchain.CargoCommandLine
+import org.rust.cargo.toolchain.tools.cargo
+import org.rust.openapiext.execute
+import org.rust.openapiext.isSuccess
+import org.rust.openapiext.pathAsPath
+import java.io.IOException
+import java.nio.file.*
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Builds executables of Rust tasks and keeps them while task sources are unchanged.
+ *
+ * All tasks of a course are built into the same target directory, so dependencies are compiled only once per course
+ * even if tasks are separate cargo packages. Since packages of different tasks usually have the same name,
+ * each built executable is copied to its own directory to be run later without rebuilding.
+ */
+@Service
+class RsBuildCache(private val project: Project) {
+
+  private val executables = ConcurrentHashMap<Path, CachedExecutable>()
+  private var buildCount = 0
+
+  val targetDir: Path get() = project.courseDir.pathAsPath.resolve(CargoConstants.ProjectLayout.target)
+
+  /**
+   * @return executable of binary [target] built from the current sources,
+   * or [Err] with check result to show if the target can't be built
+   */
+  @Synchronized
+  fun getOrBuildExecutable(target: CargoWorkspace.Target, indicator: ProgressIndicator): Result<RsExecutable, CheckResult> {
+    val packageRoot = target.pkg.rootDirectory
+    val stamp = computeSourcesStamp(packageRoot)
+    val cached = executables[packageRoot]
+    if (cached != null && cached.stamp == stamp && Files.isRegularFile(cached.executable.path)) {
+      return Ok(cached.executable)
+    }
+
+    indicator.checkCanceled()
+    val cargo = project.rustSettings.toolchain?.cargo() ?: return resultUnchecked(EduRustBundle.message("error.no.toolchain"))
+    val cmd = CargoCommandLine.forTarget(target, "build", listOf("--message-format=json-render-diagnostics"))
+    val commandLine = cargo.toGeneralCommandLine(project, cmd).withSharedTargetDir()
+    buildCount++
+    val processOutput = commandLine.execute(StudyTaskManager.getInstance(project))
+
+    val messages = processOutput.stdoutLines.filter { it.startsWith("{") }
+    val builtExecutable = messages.asSequence().mapNotNull { findExecutable(it, target.name) }.lastOrNull()
+    if (!processOutput.isSuccess || builtExecutable == null) {
+      val compilerOutput = (processOutput.stdoutLines - messages + processOutput.stderrLines).joinToString("\n")
+      if (compilerOutput.contains(COMPILATION_ERROR_MESSAGE, true)) {
+        return Err(CheckResult(CheckStatus.Failed, COMPILATION_FAILED_MESSAGE, compilerOutput))
+      }
+      LOG.warn("Failed to build `${target.name}` target:\n$compilerOutput")
+      return Err(CheckResult.failedToCheck)
+    }
+
+    val executablePath = try {
+      copyExecutable(packageRoot, builtExecutable)
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to copy executable $builtExecutable", e)
+      builtExecutable
+    }
+    val executable = RsExecutable(executablePath, cmd.workingDirectory)
+    executables[packageRoot] = CachedExecutable(stamp, executable)
+    return Ok(executable)
+  }
+
+  /**
+   * Makes cargo invoked by [this] command line use the same target directory as the checker does
+   */
+  fun GeneralCommandLine.withSharedTargetDir(): GeneralCommandLine =
+    withEnvironment(CARGO_TARGET_DIR, targetDir.toString())
+
+  private fun copyExecutable(packageRoot: Path, builtExecutable: Path): Path {
+    val dirName = "${packageRoot.fileName}-${Integer.toHexString(packageRoot.toString().hashCode())}"
+    val dir = Files.createDirectories(targetDir.resolve(EXECUTABLES_DIR).resolve(dirName))
+    val executable = dir.resolve(builtExecutable.fileName)
+    Files.copy(builtExecutable, executable, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES)
+    return executable
+  }
+
+  private fun computeSourcesStamp(packageRoot: Path): Long {
+    var stamp = project.rustSettings.toolchain?.location?.hashCode()?.toLong() ?: 0L
+
+    fun update(file: Path, attributes: BasicFileAttributes) {
+      stamp = 31 * stamp + file.toString().hashCode()
+      stamp = 31 * stamp + attributes.size()
+      stamp = 31 * stamp + attributes.lastModifiedTime().toMillis()
+    }
+
+    // Workspace manifest and lock file affect build of all task packages
+    val courseRoot = project.courseDir.pathAsPath
+    for (name in listOf(CargoConstants.MANIFEST_FILE, CargoConstants.LOCK_FILE)) {
+      val file = courseRoot.resolve(name)
+      if (file != packageRoot.resolve(name) && Files.isRegularFile(file)) {
+        update(file, Files.readAttributes(file, BasicFileAttributes::class.java))
+      }
+    }
+
+    // Order of visited files doesn't change while the directory content is the same
+    Files.walkFileTree(packageRoot, object : SimpleFileVisitor<Path>() {
+      override fun preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult {
+        return if (dir.fileName.toString() == CargoConstants.ProjectLayout.target) FileVisitResult.SKIP_SUBTREE else FileVisitResult.CONTINUE
+      }
+
+      override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
+        update(file, attrs)
+        return FileVisitResult.CONTINUE
+      }
+    })
+    return stamp
+  }
+
+  @TestOnly
+  fun getBuildCount(): Int = buildCount
+
+  private class CachedExecutable(val stamp: Long, val executable: RsExecutable)
+
+  companion object {
+    private val LOG = Logger.getInstance(RsBuildCache::class.java)
+
+    private const val CARGO_TARGET_DIR = "CARGO_TARGET_DIR"
+    private const val EXECUTABLES_DIR = "edu-executables"
+
+    fun getInstance(project: Project): RsBuildCache = project.service()
+
+    /**
+     * Finds path to executable of [targetName] binary in a cargo JSON message
+     */
+    fun findExecutable(message: String, targetName: String): Path? {
+      val json = try {
+        JsonParser.parseString(message) as? JsonObject ?: return null
+      }
+      catch (e: JsonParseException) {
+        LOG.warn("Failed to parse cargo message: $message", e)
+        return null
+      }
+      if (json.stringValue("reason") != "compiler-artifact") return null
+      val target = json.getAsJsonObject("target") ?: return null
+      if (target.stringValue("name") != targetName) return null
+      if (target.getAsJsonArray("kind")?.any { it.isJsonPrimitive && it.asString == "bin" } != true) return null
+      return json.stringValue("executable")?.let { Paths.get(it) }
+    }
+
+    private fun JsonObject.stringValue(member: String): String? {
+      val element = get(member) ?: return null
+      return if (element.isJsonPrimitive && element.asJsonPrimitive.isString) element.asString else null
+    }
+  }
+}
+
+/**
+ * @param workingDirectory directory to run [path] in. The same as `cargo run` uses
+ */
+class RsExecutable(val path: Path, val workingDirectory: Path)
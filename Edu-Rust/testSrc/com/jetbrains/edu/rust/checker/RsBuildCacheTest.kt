@@ -0,0 +1,27 @@
+package com.jetbrains.edu.rust.checker
+
+import junit.framework.TestCase
+import java.nio.file.Paths
+
+class RsBuildCacheTest : TestCase() {
+
+  fun `test find executable of binary target`() {
+    val message = artifactMessage("task", """["bin"]""", """"/course/target/debug/task"""")
+    assertEquals(Paths.get("/course/target/debug/task"), RsBuildCache.findExecutable(message, "task"))
+  }
+
+  fun `test skip artifacts of other targets`() {
+    assertNull(RsBuildCache.findExecutable(artifactMessage("rand", """["lib"]""", "null"), "task"))
+    assertNull(RsBuildCache.findExecutable(artifactMessage("task", """["lib"]""", "null"), "task"))
+    assertNull(RsBuildCache.findExecutable(artifactMessage("other", """["bin"]""", """"/course/target/debug/other""""), "task"))
+  }
+
+  fun `test skip other messages`() {
+    assertNull(RsBuildCache.findExecutable("""{"reason":"build-finished","success":true}""", "task"))
+    assertNull(RsBuildCache.findExecutable("""{"reason":"compiler-message","target":{"name":"task","kind":["bin"]}}""", "task"))
+    assertNull(RsBuildCache.findExecutable("""{"reason":""", "task"))
+  }
+
+  private fun artifactMessage(name: String, kind: String, executable: String): String =
+    """{"reason":"compiler-artifact","package_id":"$name 0.1.0","target":{"kind":$kind,"crate_types":$kind,"name":"$name","src_path":"/course/src/main.rs"},"filenames":[],"executable":$executable,"fresh":false}"""
+}
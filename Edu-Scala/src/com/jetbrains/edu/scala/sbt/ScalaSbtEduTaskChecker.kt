@@ -4,13 +4,16 @@ import com.intellij.execution.RunManager
 import com.intellij.execution.RunnerAndConfigurationSettings
 import com.intellij.execution.testframework.sm.runner.SMTestProxy
 import com.intellij.openapi.module.ModuleUtilCore
+import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiDirectory
+import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.checker.EduTaskCheckerBase
 import com.jetbrains.edu.learning.checker.EnvironmentChecker
 import com.jetbrains.edu.learning.courseFormat.ext.getAllTestDirectories
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
 import com.jetbrains.edu.learning.xmlEscaped
+import com.jetbrains.edu.scala.sbt.checker.SbtShellTestRunner
 import org.jetbrains.plugins.scala.testingSupport.test.scalatest.ScalaTestConfigurationType
 import org.jetbrains.plugins.scala.testingSupport.test.scalatest.ScalaTestRunConfiguration
 import org.jetbrains.plugins.scala.testingSupport.test.testdata.AllInPackageTestData
@@ -20,6 +23,12 @@ class ScalaSbtEduTaskChecker(
   envChecker: EnvironmentChecker,
   project: Project
 ) : EduTaskCheckerBase(task, envChecker, project) {
+
+  override fun check(indicator: ProgressIndicator): CheckResult {
+    // Test configurations are used if tests can't be run in sbt shell
+    return SbtShellTestRunner.getInstance(project).runTests(task, indicator) ?: super.check(indicator)
+  }
+
   override fun createDefaultTestConfigurations(): List<RunnerAndConfigurationSettings> {
     val configurations = createTestConfigurationsForTestDirectories().filter { it.configuration.type == preferredConfigurationType }
     return if (configurations.isEmpty()) {
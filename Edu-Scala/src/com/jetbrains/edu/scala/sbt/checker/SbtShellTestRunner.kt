@@ -0,0 +1,172 @@
+package com.jetbrains.edu.scala.sbt.checker
+
+import com.intellij.execution.process.BaseOSProcessHandler
+import com.intellij.execution.process.UnixProcessManager
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.module.ModuleUtilCore
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.util.SystemInfo
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.openapi.vfs.VirtualFile
+import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.checker.CheckUtils.COMPILATION_FAILED_MESSAGE
+import com.jetbrains.edu.learning.checker.LimitedOutputBuffer
+import com.jetbrains.edu.learning.courseDir
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.isUnitTestMode
+import org.jetbrains.sbt.SbtUtil
+import org.jetbrains.sbt.shell.Output
+import org.jetbrains.sbt.shell.SbtProcessManager
+import org.jetbrains.sbt.shell.SbtShellCommunication
+import org.jetbrains.sbt.shell.ShellEvent
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.runtime.AbstractFunction1
+import scala.runtime.AbstractFunction2
+import scala.runtime.BoxedUnit
+import scala.util.Try
+import java.io.IOException
+import java.net.URI
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Runs tests of sbt-based tasks in sbt shell of the project.
+ *
+ * sbt shell is a long-running sbt session managed by Scala plugin and disposed together with the project,
+ * so only the first check pays for sbt startup and project loading, and the next ones only compile changed sources.
+ * Test results are read from JUnit XML reports written by ScalaTest.
+ */
+@Service
+class SbtShellTestRunner(private val project: Project) {
+
+  /**
+   * @return check result or `null` if tests can't be run in sbt shell and default test configurations should be used
+   */
+  fun runTests(task: EduTask, indicator: ProgressIndicator): CheckResult? {
+    if (isUnitTestMode || !Registry.`is`(REGISTRY_KEY, true) || !SbtUtil.isSbtProject(project)) return null
+    val taskDir = task.getDir(project.courseDir) ?: return null
+    val projectRef = findSbtProjectRef(taskDir) ?: return null
+
+    // Each check has its own report dir, so reports of a canceled command can't be taken for the next check's ones
+    val reportDir = try {
+      FileUtil.createTempDirectory(REPORTS_DIR_PREFIX, null, true)
+    }
+    catch (e: IOException) {
+      LOG.warn("Failed to create directory for test reports", e)
+      return null
+    }
+    try {
+      val command = "$projectRef/testOnly -- -u \"${FileUtil.toSystemIndependentName(reportDir.path)}\""
+      val output = try {
+        val future = SbtShellCommunication.forProject(project).command(command, LimitedOutputBuffer(), OutputCollector, false)
+        ProgressIndicatorUtils.awaitWithCheckCanceled(future.toCompletableFuture(), indicator)
+      }
+      catch (e: ProcessCanceledException) {
+        cancelCommand()
+        return CheckResult.CANCELED
+      }
+      catch (e: Exception) {
+        LOG.warn("Failed to run `$command` in sbt shell", e)
+        return null
+      }
+
+      val result = SbtTestReport.parse(reportDir)
+      if (result != null) return result
+
+      val outputText = output.toString()
+      if (COMPILATION_ERROR in outputText) {
+        return CheckResult(CheckStatus.Failed, COMPILATION_FAILED_MESSAGE, outputText)
+      }
+      LOG.warn("No test reports found after `$command`:\n$outputText")
+      return null
+    }
+    finally {
+      FileUtil.delete(reportDir)
+    }
+  }
+
+  /**
+   * Task directory can have the same name in different lessons,
+   * so sbt project is referred by its build URI and id taken from imported sbt module data
+   */
+  private fun findSbtProjectRef(taskDir: VirtualFile): String? {
+    val module = runReadAction { ModuleUtilCore.findModuleForFile(taskDir, project) } ?: return null
+    val moduleData = SbtUtil.getSbtModuleData(module)
+    if (moduleData.isEmpty) {
+      LOG.warn("No sbt module data for `${module.name}` module")
+      return null
+    }
+    return sbtProjectRef(moduleData.get().buildURI(), moduleData.get().id())
+  }
+
+  /**
+   * sbt shell doesn't provide a way to cancel a single command, so the running one is interrupted as Ctrl+C does.
+   * If sbt is stopped by that, the shell is started again by the next command
+   */
+  private fun cancelCommand() {
+    try {
+      val handler = SbtProcessManager.forProject(project).acquireShellProcessHandler()
+      if (SystemInfo.isUnix && handler is BaseOSProcessHandler) {
+        UnixProcessManager.sendSigIntToProcessTree(handler.process)
+      }
+      else {
+        handler.destroyProcess()
+      }
+    }
+    catch (e: Exception) {
+      LOG.warn("Failed to cancel sbt shell command", e)
+    }
+  }
+
+  private fun <T> Future<T>.toCompletableFuture(): CompletableFuture<T> {
+    val result = CompletableFuture<T>()
+    onComplete(object : AbstractFunction1<Try<T>, BoxedUnit>() {
+      override fun apply(value: Try<T>): BoxedUnit {
+        if (value.isSuccess) result.complete(value.get()) else result.completeExceptionally(value.failed().get())
+        return BoxedUnit.UNIT
+      }
+    }, DirectExecutionContext)
+    return result
+  }
+
+  private object DirectExecutionContext : ExecutionContext {
+    override fun execute(runnable: Runnable) = runnable.run()
+    override fun reportFailure(cause: Throwable) = LOG.warn(cause)
+  }
+
+  /**
+   * Collects output of sbt command
+   */
+  private object OutputCollector : AbstractFunction2<LimitedOutputBuffer, ShellEvent, LimitedOutputBuffer>() {
+    override fun apply(output: LimitedOutputBuffer, event: ShellEvent): LimitedOutputBuffer {
+      if (event is Output) {
+        output.append(event.line())
+        output.append("\n")
+      }
+      return output
+    }
+  }
+
+  companion object {
+    private val LOG = Logger.getInstance(SbtShellTestRunner::class.java)
+
+    private const val REGISTRY_KEY = "edu.scala.sbt.shell.checker"
+    private const val REPORTS_DIR_PREFIX = "edu-sbt-test-reports-"
+    private const val COMPILATION_ERROR = "Compilation failed"
+
+    /**
+     * Build-qualified reference to sbt project, the same as sbt uses for `ProjectRef`
+     */
+    fun sbtProjectRef(buildUri: URI, projectId: String): String = "{$buildUri}$projectId"
+
+    fun getInstance(project: Project): SbtShellTestRunner = project.service()
+  }
+}
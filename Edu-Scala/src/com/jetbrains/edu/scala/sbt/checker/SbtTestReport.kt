@@ -0,0 +1,59 @@
+package com.jetbrains.edu.scala.sbt.checker
+
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.JDOMUtil
+import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.checker.CheckResultDiff
+import com.jetbrains.edu.learning.checker.CheckUtils
+import com.jetbrains.edu.learning.checker.CheckUtils.fillWithIncorrect
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.xmlEscaped
+import org.jdom.Element
+import java.io.File
+
+/**
+ * Reads test results written by ScalaTest JUnit XML reporter (`-u <directory>` argument)
+ */
+object SbtTestReport {
+
+  private val LOG = Logger.getInstance(SbtTestReport::class.java)
+
+  private val COMPARISON_FAILURE = Regex("Expected (.*), but got (.*)", RegexOption.DOT_MATCHES_ALL)
+
+  /**
+   * @return result of the first failed test or successful result if all tests passed,
+   * `null` if there isn't any test report in [reportDir]
+   */
+  fun parse(reportDir: File): CheckResult? {
+    val reports = reportDir.listFiles { file -> file.name.startsWith("TEST-") && file.extension == "xml" }
+                    ?.sortedBy { it.name }
+                    .orEmpty()
+    var hasTests = false
+    for (report in reports) {
+      val testSuite = try {
+        JDOMUtil.load(report)
+      }
+      catch (e: Exception) {
+        LOG.warn("Failed to read test report ${report.path}", e)
+        return null
+      }
+      val result = parseTestSuite(testSuite) ?: continue
+      if (result.status != CheckStatus.Solved) return result
+      hasTests = true
+    }
+    return if (hasTests) CheckResult(CheckStatus.Solved, CheckUtils.CONGRATULATIONS) else null
+  }
+
+  private fun parseTestSuite(testSuite: Element): CheckResult? {
+    val testCases = testSuite.getChildren("testcase")
+    if (testCases.isEmpty()) return null
+    for (testCase in testCases) {
+      val failure = testCase.getChild("failure") ?: testCase.getChild("error") ?: continue
+      val message = failure.getAttributeValue("message").orEmpty()
+      val comparisonFailure = COMPARISON_FAILURE.matchEntire(message)
+      val diff = comparisonFailure?.let { CheckResultDiff(expected = it.groupValues[1], actual = it.groupValues[2]) }
+      return CheckResult(CheckStatus.Failed, fillWithIncorrect(message.xmlEscaped), diff = diff)
+    }
+    return CheckResult(CheckStatus.Solved, CheckUtils.CONGRATULATIONS)
+  }
+}
@@ -0,0 +1,75 @@
+package com.jetbrains.edu.scala.sbt
+
+import com.intellij.openapi.util.io.FileUtil
+import com.jetbrains.edu.learning.checker.CheckResultDiff
+import com.jetbrains.edu.learning.checker.CheckUtils
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.scala.sbt.checker.SbtShellTestRunner
+import com.jetbrains.edu.scala.sbt.checker.SbtTestReport
+import junit.framework.TestCase
+import java.io.File
+import java.net.URI
+
+class SbtTestReportTest : TestCase() {
+
+  private lateinit var reportDir: File
+
+  override fun setUp() {
+    super.setUp()
+    reportDir = FileUtil.createTempDirectory("sbtReports", null)
+  }
+
+  override fun tearDown() {
+    try {
+      FileUtil.delete(reportDir)
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test all tests passed`() {
+    report("TestSpec", """
+      <testcase classname="TestSpec" name="first" time="0.01"/>
+      <testcase classname="TestSpec" name="second" time="0.01"/>
+    """)
+    val result = SbtTestReport.parse(reportDir)!!
+    assertEquals(CheckStatus.Solved, result.status)
+    assertEquals(CheckUtils.CONGRATULATIONS, result.message)
+  }
+
+  fun `test first failure is reported`() {
+    report("ATestSpec", """<testcase classname="ATestSpec" name="passed" time="0.01"/>""")
+    report("BTestSpec", """
+      <testcase classname="BTestSpec" name="failed" time="0.01">
+        <failure message="Expected 42, but got 43" type="org.scalatest.exceptions.TestFailedException">stacktrace</failure>
+      </testcase>
+      <testcase classname="BTestSpec" name="another" time="0.01">
+        <failure message="Another failure" type="org.scalatest.exceptions.TestFailedException">stacktrace</failure>
+      </testcase>
+    """)
+    val result = SbtTestReport.parse(reportDir)!!
+    assertEquals(CheckStatus.Failed, result.status)
+    assertEquals("Expected 42, but got 43", result.message)
+    assertEquals(CheckResultDiff(expected = "42", actual = "43"), result.diff)
+  }
+
+  fun `test no reports`() {
+    assertNull(SbtTestReport.parse(reportDir))
+    report("EmptySpec", "")
+    assertNull(SbtTestReport.parse(reportDir))
+  }
+
+  fun `test sbt project ref`() {
+    assertEquals("{file:/course/}task1", SbtShellTestRunner.sbtProjectRef(URI("file:/course/"), "task1"))
+  }
+
+  private fun report(suiteName: String, testCases: String) {
+    File(reportDir, "TEST-$suiteName.xml").writeText("""
+      <?xml version="1.0" encoding="UTF-8"?>
+      <testsuite name="$suiteName" tests="0" failures="0" errors="0">
+      $testCases
+      </testsuite>
+    """.trimIndent())
+  }
+}
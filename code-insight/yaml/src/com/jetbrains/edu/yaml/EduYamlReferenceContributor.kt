@@ -67,11 +67,11 @@ class EduYamlTaskFilePathReferenceProvider : EduPsiReferenceProvider() {
     }
 
     override fun createFileReference(range: TextRange?, index: Int, text: String?): FileReference? {
-      return super.createFileReference(range, index, text)?.let(::TaskFileReference)
+      return super.createFileReference(range, index, text)?.let { TaskFileReference(it, taskDir) }
     }
   }
 
-  private class TaskFileReference(fileReference: FileReference) : FileReference(fileReference) {
+  private class TaskFileReference(fileReference: FileReference, taskDir: VirtualFile) : CachedFileReference(fileReference, taskDir) {
     override fun createLookupItem(candidate: PsiElement): Any? {
       return if (candidate is PsiDirectory) {
         LookupElementBuilder.createWithSmartPointer("${candidate.name}/", candidate)
@@ -123,6 +123,10 @@ class ItemContainerContentReferenceProvider : EduPsiReferenceProvider() {
       val sequence = parentOfType<YAMLSequence>() ?: return emptyList()
       return sequence.items.mapNotNull { (it.value as? YAMLScalar)?.textValue }
     }
+
+    override fun createFileReference(range: TextRange?, index: Int, text: String?): FileReference? {
+      return super.createFileReference(range, index, text)?.let { CachedFileReference(it, itemContainerDir) }
+    }
   }
 
   companion object {
@@ -133,6 +137,26 @@ class ItemContainerContentReferenceProvider : EduPsiReferenceProvider() {
       )
   }}
 
+/**
+ * Resolves relative paths via [EduYamlResolveCache] relative to [baseDir]
+ * instead of walking file system from reference contexts each time
+ */
+internal open class CachedFileReference(fileReference: FileReference, private val baseDir: VirtualFile) : FileReference(fileReference) {
+  override fun innerResolve(caseSensitive: Boolean, containingFile: PsiFile): Array<ResolveResult> {
+    val references = fileReferenceSet.references
+    val segments = references.take(index + 1).map { it.text }
+    if (fileReferenceSet.isAbsolutePathReference || segments.any { it.isEmpty() }) {
+      return super.innerResolve(caseSensitive, containingFile)
+    }
+
+    val path = segments.joinToString(VfsUtil.VFS_SEPARATOR_CHAR.toString())
+    val file = EduYamlResolveCache.getInstance(element.project).findFile(baseDir, path) ?: return ResolveResult.EMPTY_ARRAY
+    val psiManager = element.manager
+    val psiItem = if (file.isDirectory) psiManager.findDirectory(file) else psiManager.findFile(file)
+    return if (psiItem != null) arrayOf(PsiElementResolveResult(psiItem)) else ResolveResult.EMPTY_ARRAY
+  }
+}
+
 private fun excludeFromArchive(project: Project, virtualFile: VirtualFile): Boolean {
   val course = StudyTaskManager.getInstance(project).course ?: return true
   val configurator = course.configurator ?: return true
@@ -0,0 +1,124 @@
+package com.jetbrains.edu.yaml
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.*
+import com.jetbrains.edu.learning.CourseSetListener
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.getContainingTask
+import com.jetbrains.edu.learning.yaml.YamlDeserializer
+import com.jetbrains.edu.learning.yaml.YamlListener
+import org.jetbrains.annotations.TestOnly
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Caches resolution of file paths and study item names used in course YAML configs,
+ * so inspections, references and schema providers don't resolve the same names against VFS and course on each highlighting pass.
+ *
+ * Paths are cached per directory they are relative to.
+ * Cached paths of a directory are dropped when a file is created, deleted, moved or renamed inside the directory,
+ * containing tasks of files are dropped when course structure is changed.
+ */
+@Service
+class EduYamlResolveCache(private val project: Project) : Disposable {
+
+  private val resolvedPaths = ConcurrentHashMap<VirtualFile, ConcurrentHashMap<String, Optional<VirtualFile>>>()
+  private val containingTasks = ConcurrentHashMap<VirtualFile, Optional<Task>>()
+  @Volatile
+  private var course: Course? = null
+  @Volatile
+  private var resolveCount = 0
+
+  init {
+    val connection = project.messageBus.connect(this)
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, object : BulkFileListener {
+      override fun after(events: List<VFileEvent>) {
+        for (event in events) {
+          if (event.isStructureChange()) {
+            invalidate(event)
+          }
+        }
+      }
+    })
+    connection.subscribe(StudyTaskManager.COURSE_SET, object : CourseSetListener {
+      override fun courseSet(course: Course) {
+        invalidateAll()
+      }
+    })
+    connection.subscribe(YamlDeserializer.YAML_LOAD_TOPIC, object : YamlListener {
+      override fun beforeYamlLoad(configFile: VirtualFile) {
+        containingTasks.clear()
+      }
+
+      override fun yamlFailedToLoad(configFile: VirtualFile, exception: String) {}
+    })
+  }
+
+  /**
+   * @return file or directory located at [path] relative to [baseDir]
+   */
+  fun findFile(baseDir: VirtualFile, path: String): VirtualFile? {
+    val paths = resolvedPaths.computeIfAbsent(baseDir) { ConcurrentHashMap() }
+    return paths.computeIfAbsent(path) {
+      resolveCount++
+      Optional.ofNullable(baseDir.findFileByRelativePath(path))
+    }.orElse(null)?.takeIf { it.isValid }
+  }
+
+  /**
+   * Cached version of [getContainingTask]
+   */
+  fun getContainingTask(file: VirtualFile): Task? {
+    val currentCourse = project.course
+    if (currentCourse !== course) {
+      course = currentCourse
+      containingTasks.clear()
+    }
+    return containingTasks.computeIfAbsent(file) { Optional.ofNullable(file.getContainingTask(project)) }.orElse(null)
+  }
+
+  private fun VFileEvent.isStructureChange(): Boolean {
+    return when (this) {
+      is VFileCreateEvent, is VFileDeleteEvent, is VFileMoveEvent, is VFileCopyEvent -> true
+      is VFilePropertyChangeEvent -> isRename
+      else -> false
+    }
+  }
+
+  private fun invalidate(event: VFileEvent) {
+    val changedPaths = when (event) {
+      is VFileMoveEvent -> listOf(event.oldPath, event.newPath)
+      is VFilePropertyChangeEvent -> listOf(event.oldPath, event.newPath)
+      else -> listOf(event.path)
+    }
+    // Cached paths of a directory can go through any changed file located inside the directory
+    resolvedPaths.keys.removeIf { dir ->
+      !dir.isValid || changedPaths.any { FileUtil.isAncestor(dir.path, it, false) }
+    }
+    containingTasks.clear()
+  }
+
+  private fun invalidateAll() {
+    resolvedPaths.clear()
+    containingTasks.clear()
+  }
+
+  @TestOnly
+  fun getResolveCount(): Int = resolveCount
+
+  override fun dispose() {}
+
+  companion object {
+    fun getInstance(project: Project): EduYamlResolveCache = project.service()
+  }
+}
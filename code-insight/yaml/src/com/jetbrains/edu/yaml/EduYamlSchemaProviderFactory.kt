@@ -5,10 +5,11 @@ import com.intellij.openapi.application.runReadAction
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.PsiManager
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
 import com.jetbrains.edu.coursecreator.CCUtils
 import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.courseFormat.tasks.choice.ChoiceTask
-import com.jetbrains.edu.learning.getContainingTask
 import com.jetbrains.edu.learning.yaml.YamlFormatSettings
 import com.jetbrains.jsonSchema.extension.JsonSchemaFileProvider
 import com.jetbrains.jsonSchema.extension.JsonSchemaProviderFactory
@@ -57,7 +58,7 @@ class EduYamlSchemaProviderFactory : JsonSchemaProviderFactory {
     override fun getName(): String = "${taskType.capitalize()} ${super.getName()}"
 
     override fun isAvailable(file: VirtualFile): Boolean {
-      val task = file.getContainingTask(project) ?: return false
+      val task = EduYamlResolveCache.getInstance(project).getContainingTask(file) ?: return false
       return super.isAvailable(file) && task.itemType == taskType
     }
 
@@ -71,7 +72,7 @@ class EduYamlSchemaProviderFactory : JsonSchemaProviderFactory {
     override fun isAvailable(file: VirtualFile): Boolean {
       // We need to exclude task types with specific Config Schema Provider
       // to make providers mapped one to one for every yaml file.
-      val task = file.getContainingTask(project) ?: return false
+      val task = EduYamlResolveCache.getInstance(project).getContainingTask(file) ?: return false
       return super.isAvailable(file) && !tasksWithSpecificProvider.contains(task.itemType)
     }
   }
@@ -99,9 +100,11 @@ class EduYamlSchemaProviderFactory : JsonSchemaProviderFactory {
 private fun VirtualFile.isFrameworkLessonConfig(project: Project): Boolean {
   return runReadAction {
     val psiFile = PsiManager.getInstance(project).findFile(this) as? YAMLFile ?: return@runReadAction false
-    val mapping = psiFile.documents.firstOrNull()?.topLevelValue as? YAMLMapping ?: return@runReadAction false
-    val typeKeyValue = mapping.getKeyValueByKey("type") ?: return@runReadAction false
-    typeKeyValue.valueText == EduNames.FRAMEWORK
+    CachedValuesManager.getCachedValue(psiFile) {
+      val mapping = psiFile.documents.firstOrNull()?.topLevelValue as? YAMLMapping
+      val isFramework = mapping?.getKeyValueByKey("type")?.valueText == EduNames.FRAMEWORK
+      CachedValueProvider.Result.create(isFramework, psiFile)
+    }
   }
 }
 
@@ -11,6 +11,7 @@ import com.intellij.psi.PsiFile
 import com.intellij.psi.impl.source.resolve.reference.impl.providers.FileReference
 import com.intellij.util.PathUtil
 import com.jetbrains.edu.learning.yaml.YamlFormatSettings.isEduYamlProject
+import com.jetbrains.edu.yaml.EduYamlResolveCache
 import org.jetbrains.yaml.psi.YAMLScalar
 import org.jetbrains.yaml.psi.YamlPsiElementVisitor
 
@@ -31,6 +32,14 @@ abstract class UnresolvedFileReferenceInspection : LocalInspectionTool() {
   }
 
   protected open fun checkPathElement(holder: ProblemsHolder, element: YAMLScalar) {
+    val path = element.textValue
+    val baseDir = element.containingFile.originalFile.virtualFile?.parent
+    if (baseDir != null && isPlainRelativePath(path)) {
+      if (EduYamlResolveCache.getInstance(element.project).findFile(baseDir, path) == null) {
+        registerProblem(holder, element)
+      }
+      return
+    }
     for (reference in element.references) {
       if (reference is FileReference && !reference.isSoft && reference.isLast && reference.multiResolve(false).isEmpty()) {
         registerProblem(holder, element)
@@ -38,6 +47,11 @@ abstract class UnresolvedFileReferenceInspection : LocalInspectionTool() {
     }
   }
 
+  // Paths like `/foo` or `foo//bar` are resolved by file references in a specific way, so they are checked via references
+  private fun isPlainRelativePath(path: String): Boolean {
+    return path.isNotEmpty() && path.split(VfsUtil.VFS_SEPARATOR_CHAR).none { it.isEmpty() }
+  }
+
   protected fun isValidFilePath(path: String): Boolean {
     val segments = path.split(VfsUtil.VFS_SEPARATOR_CHAR)
     for (segment in segments) {
@@ -0,0 +1,91 @@
+package com.jetbrains.edu.yaml
+
+import com.intellij.openapi.application.runWriteAction
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.courseDir
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.yaml.inspections.TaskFileNotFoundInspection
+import com.jetbrains.edu.yaml.inspections.YamlInspectionsTestBase
+
+class EduYamlResolveCacheTest : YamlInspectionsTestBase(TaskFileNotFoundInspection::class) {
+
+  private lateinit var course: Course
+
+  override fun setUp() {
+    super.setUp()
+    course = courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      lesson("lesson1") {
+        eduTask("task1") {
+          taskFile("src/Task.kt")
+        }
+      }
+    }
+  }
+
+  fun `test path isn't resolved again on rehighlighting`() {
+    val task = course.findTask("lesson1", "task1")
+    val cache = EduYamlResolveCache.getInstance(project)
+    val text = """
+      |type: edu
+      |files:
+      |- name: src/Task.kt
+      |  visible: true
+      |- name: <error descr="Cannot find `src/Missing.kt` file">src/Missing.kt</error>
+      |  visible: true
+    """.trimMargin("|")
+
+    testHighlighting(task, text)
+    val resolveCount = cache.getResolveCount()
+    testHighlighting(task, text)
+    assertEquals(resolveCount, cache.getResolveCount())
+  }
+
+  fun `test created file is resolved`() {
+    val task = course.findTask("lesson1", "task1")
+    val taskDir = task.dir()
+    assertNull(EduYamlResolveCache.getInstance(project).findFile(taskDir, "src/Missing.kt"))
+
+    runWriteAction { taskDir.findChild("src")!!.createChildData(this, "Missing.kt") }
+    testHighlighting(task, """
+      |type: edu
+      |files:
+      |- name: src/Task.kt
+      |  visible: true
+      |- name: src/Missing.kt
+      |  visible: true
+    """.trimMargin("|"))
+  }
+
+  fun `test deleted file isn't resolved`() {
+    val task = course.findTask("lesson1", "task1")
+    val taskDir = task.dir()
+    val cache = EduYamlResolveCache.getInstance(project)
+    assertNotNull(cache.findFile(taskDir, "src/Task.kt"))
+
+    runWriteAction { taskDir.findFileByRelativePath("src/Task.kt")!!.delete(this) }
+    assertNull(cache.findFile(taskDir, "src/Task.kt"))
+  }
+
+  fun `test unrelated changes keep cached paths`() {
+    val task = course.findTask("lesson1", "task1")
+    val taskDir = task.dir()
+    val cache = EduYamlResolveCache.getInstance(project)
+    assertNotNull(cache.findFile(taskDir, "src/Task.kt"))
+    val resolveCount = cache.getResolveCount()
+
+    runWriteAction { project.courseDir.createChildData(this, "unrelated.txt") }
+    assertNotNull(cache.findFile(taskDir, "src/Task.kt"))
+    assertEquals(resolveCount, cache.getResolveCount())
+  }
+
+  fun `test containing task is cached`() {
+    val task = course.findTask("lesson1", "task1")
+    val file = task.dir().findFileByRelativePath("src/Task.kt")!!
+    val cache = EduYamlResolveCache.getInstance(project)
+    assertSame(task, cache.getContainingTask(file))
+    assertSame(task, cache.getContainingTask(file))
+  }
+
+  private fun Task.dir() = getDir(project.courseDir)!!
+}
@@ -141,7 +141,7 @@ object CCUtils {
 
   @JvmStatic
   fun checkIgnoredFiles(project: Project): String? {
-    val excludedFiles = loadExcludedFilePaths(project)
+    val excludedFiles = CourseIgnoreRules.load(project).excludedPaths
     val filesNotFound = excludedFiles.filter { project.courseDir.findFileByRelativePath(it) == null }
 
     return if (filesNotFound.isNotEmpty()) {
@@ -154,17 +154,10 @@ object CCUtils {
     else null
   }
 
-  private fun loadExcludedFilePaths(project: Project): List<String> {
-    val courseIgnore = project.courseDir.findChild(EduNames.COURSE_IGNORE)
-    if (courseIgnore == null || !courseIgnore.exists()) return emptyList()
-    return courseIgnore.document.text.lines().map { it.trim() }.filter { it.isNotEmpty() }
-  }
-
   @JvmStatic
   fun isExcluded(file: VirtualFile, project: Project): Boolean {
-    val excludedFiles = loadExcludedFilePaths(project)
     val courseRelativePath = VfsUtil.getRelativePath(file, project.courseDir)
-    return courseRelativePath in excludedFiles || courseRelativePath == EduNames.COURSE_IGNORE
+    return CourseIgnoreRules.load(project).isExcluded(courseRelativePath) || courseRelativePath == EduNames.COURSE_IGNORE
   }
 
   @JvmStatic
@@ -175,7 +168,7 @@ object CCUtils {
     val archiveName = String.format("%s.zip", if (sanitizedName.startsWith("_")) EduNames.COURSE else sanitizedName)
     val baseDir = project.courseDir
 
-    val excludedFiles = loadExcludedFilePaths(project)
+    val courseIgnoreRules = CourseIgnoreRules.load(project)
 
     val additionalTaskFiles = mutableListOf<TaskFile>()
     VfsUtilCore.visitChildrenRecursively(baseDir, object : VirtualFileVisitor<Any>(NO_FOLLOW_SYMLINKS) {
@@ -184,7 +177,7 @@ object CCUtils {
         val name = file.name
         if (name == archiveName) return false
         val courseRelativePath = VfsUtil.getRelativePath(file, project.courseDir)
-        if (courseRelativePath in excludedFiles) return true
+        if (courseIgnoreRules.isExcluded(courseRelativePath)) return true
         if (file.isDirectory) {
           // All files inside task directory are already handled by `CCVirtualFileListener`
           // so here we don't need to process them again
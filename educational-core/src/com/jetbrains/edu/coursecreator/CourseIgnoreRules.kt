@@ -0,0 +1,42 @@
+package com.jetbrains.edu.coursecreator
+
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Key
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.courseDir
+
+/**
+ * Parsed `.courseignore` file: course relative paths of files excluded from course archive.
+ *
+ * Rules are parsed once per modification of the file and shared by course archive creation and course view
+ */
+class CourseIgnoreRules private constructor(val excludedPaths: Set<String>) {
+
+  fun isExcluded(courseRelativePath: String?): Boolean = courseRelativePath in excludedPaths
+
+  companion object {
+    private val EMPTY = CourseIgnoreRules(emptySet())
+    private val RULES: Key<CachedValue<CourseIgnoreRules>> = Key.create("Edu.courseIgnoreRules")
+
+    @JvmStatic
+    fun load(project: Project): CourseIgnoreRules {
+      return CachedValuesManager.getManager(project).getCachedValue(project, RULES, {
+        val courseIgnore = project.courseDir.findChild(EduNames.COURSE_IGNORE)
+        val document = courseIgnore?.let { FileDocumentManager.getInstance().getDocument(it) }
+        val rules = if (document != null) parse(document.text) else EMPTY
+        // `.courseignore` can be created or removed at any moment, so structure modifications of VFS are tracked as well
+        val dependencies = listOfNotNull(document, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS)
+        CachedValueProvider.Result.create(rules, dependencies)
+      }, false)
+    }
+
+    fun parse(text: String): CourseIgnoreRules {
+      return CourseIgnoreRules(text.lines().map { it.trim() }.filterTo(LinkedHashSet()) { it.isNotEmpty() })
+    }
+  }
+}
@@ -6,9 +6,11 @@ import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent
 import com.intellij.util.Function
 import com.jetbrains.edu.coursecreator.CCUtils
 import com.jetbrains.edu.learning.*
+import com.jetbrains.edu.learning.checker.BuiltExecutableCache
 import com.jetbrains.edu.learning.courseFormat.TaskFile
 import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.handlers.EduVirtualFileListener
+import com.jetbrains.edu.learning.projectView.CourseViewRefresher
 import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer
 
 class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project) {
@@ -25,8 +27,15 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
       is FileInfo.SectionDirectory -> deleteSection(fileInfo, file)
       is FileInfo.LessonDirectory -> deleteLesson(fileInfo, file)
       is FileInfo.TaskDirectory -> deleteTask(fileInfo, file)
-      is FileInfo.FileInTask -> deleteFileInTask(fileInfo, file)
+      is FileInfo.FileInTask -> {
+        deleteFileInTask(fileInfo, file)
+        // Node of a deleted file is removed by the platform, and nodes of other items aren't affected
+        return
+      }
     }
+    // Indexes of the following items may be changed, so their nodes are updated as well
+    val parentDir = file.parent ?: return
+    CourseViewRefresher.getInstance(project).refresh(parentDir)
   }
 
   private fun deleteLesson(info: FileInfo.LessonDirectory, file: VirtualFile) {
@@ -90,6 +99,7 @@ class CCVirtualFileListener(project: Project) : EduVirtualFileListener(project)
       is FileInfo.TaskDirectory -> fileInfo.task
       else -> return
     }
+    BuiltExecutableCache.getInstance(project).invalidate(studyItem)
 
     val courseBuilder = studyItem.course.configurator?.courseBuilder ?: return
     courseBuilder.beforeStudyItemDeletion(project, studyItem)
@@ -33,6 +33,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import static com.jetbrains.edu.coursecreator.CCNotificationUtils.*;
@@ -414,6 +415,13 @@ public class CCStepikConnector {
   }
 
   public static boolean updateTask(@NotNull final Project project, @NotNull final Task task) {
+    return updateTask(project, task, () -> postTask(project, task, task.getLesson().getId()));
+  }
+
+  /**
+   * @param onNotFound called if the step was removed from Stepik, its result is returned as a result of update
+   */
+  public static boolean updateTask(@NotNull final Project project, @NotNull final Task task, @NotNull BooleanSupplier onNotFound) {
     if (!checkIfAuthorizedToStepik(project, StudyItemTypeKt.getUpdateOnStepikTitleMessage(StudyItemType.TASK_TYPE))) return false;
     VirtualFile taskDir = task.getDir(OpenApiExtKt.getCourseDir(project));
     if (taskDir == null) return false;
@@ -433,7 +441,7 @@ public class CCStepikConnector {
         return true;
       case HttpStatus.SC_NOT_FOUND:
         // TODO: support case when lesson was removed from Stepik too
-        return postTask(project, task, task.getLesson().getId());
+        return onNotFound.getAsBoolean();
       case HttpStatus.SC_FORBIDDEN:
         showNoRightsToUpdateOnStepikNotification(project, (EduCourse)course);
         return false;
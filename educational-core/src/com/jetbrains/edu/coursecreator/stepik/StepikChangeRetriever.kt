@@ -14,6 +14,7 @@ import com.jetbrains.edu.learning.courseFormat.tasks.choice.ChoiceTask
 import com.jetbrains.edu.learning.exceptions.BrokenPlaceholderException
 import com.jetbrains.edu.learning.exceptions.HugeBinaryFileException
 import com.jetbrains.edu.learning.getInEdt
+import java.util.*
 
 @VisibleForTesting
 data class StepikChangesInfo(var isCourseInfoChanged: Boolean = false,
@@ -41,7 +42,14 @@ data class StepikChangesInfo(var isCourseInfoChanged: Boolean = false,
 
 class StepikChangeRetriever(private val project: Project, private val course: EduCourse, private val remoteCourse: EduCourse) {
 
+  /**
+   * Copies of local tasks with actual texts of task files.
+   * Filled at once for all tasks in [getChangedItems] to avoid per-task EDT round trips
+   */
+  private val actualTasks = IdentityHashMap<Task, Task>()
+
   fun getChangedItems(): StepikChangesInfo {
+    loadActualTasks()
     val stepikChanges = StepikChangesInfo()
     processCourse(stepikChanges)
     processTopLevelSection(stepikChanges)
@@ -51,6 +59,30 @@ class StepikChangeRetriever(private val project: Project, private val course: Ed
     return stepikChanges
   }
 
+  private fun loadActualTasks() {
+    actualTasks.clear()
+    val tasks = mutableListOf<Task>()
+    course.visitTasks { tasks.add(it) }
+    getInEdt {
+      runReadAction {
+        for (task in tasks) {
+          val localTask = task.copy()
+          localTask.lesson = task.lesson
+          try {
+            CourseArchiveCreator.loadActualTexts(project, localTask)
+          }
+          catch (e: BrokenPlaceholderException) {
+            LOG.info("Failed to load actual texts: ${e.message}")
+          }
+          catch (e: HugeBinaryFileException) {
+            LOG.info("Failed to load actual texts: ${e.message}")
+          }
+          actualTasks[task] = localTask
+        }
+      }
+    }
+  }
+
   private fun processCourse(stepikChanges: StepikChangesInfo) {
     stepikChanges.isCourseInfoChanged = courseInfoChanged()
     stepikChanges.isCourseAdditionalInfoChanged = courseAdditionalInfoChanged(course, remoteCourse, project)
@@ -63,14 +95,15 @@ class StepikChangeRetriever(private val project: Project, private val course: Ed
   }
 
   private fun processSections(stepikChanges: StepikChangesInfo) {
-    val localSectionIds = course.sections.map { it.id }
-    val remoteSectionIds = remoteCourse.sections.map { it.id }
-    stepikChanges.sectionsToDelete = remoteCourse.sections.filter { it.id !in localSectionIds && it.id !in course.sectionIds }
-    stepikChanges.newSections = course.sections.filter { it.id !in remoteSectionIds }
+    val localSectionIds = course.sections.mapTo(HashSet()) { it.id }
+    val topLevelSectionIds = course.sectionIds.toHashSet()
+    val remoteSectionsById = remoteCourse.sections.associateBy { it.id }
+    stepikChanges.sectionsToDelete = remoteCourse.sections.filter { it.id !in localSectionIds && it.id !in topLevelSectionIds }
+    stepikChanges.newSections = course.sections.filter { it.id !in remoteSectionsById }
 
     for (localSection in course.sections) {
-      if (remoteSectionIds.contains(localSection.id)) {
-        val remoteSection = remoteCourse.sections.singleOrNull { it.id == localSection.id } ?: continue
+      val remoteSection = remoteSectionsById[localSection.id]
+      if (remoteSection != null) {
         if (sectionInfoChanged(localSection, remoteSection)) {
           stepikChanges.sectionInfosToUpdate.add(localSection)
         }
@@ -80,15 +113,15 @@ class StepikChangeRetriever(private val project: Project, private val course: Ed
   }
 
   private fun processLessons(stepikChanges: StepikChangesInfo, localLessons: List<Lesson>, remoteLessons: List<Lesson>) {
-    val localLessonIds = localLessons.map { it.id }
-    val remoteLessonIds = remoteLessons.map { it.id }
+    val localLessonIds = localLessons.mapTo(HashSet()) { it.id }
+    val remoteLessonsById = remoteLessons.associateBy { it.id }
 
     stepikChanges.lessonsToDelete.addAll(remoteLessons.filter { it.id !in localLessonIds })
-    stepikChanges.newLessons.addAll(localLessons.filter { it.id !in remoteLessonIds })
+    stepikChanges.newLessons.addAll(localLessons.filter { it.id !in remoteLessonsById })
 
     for (localLesson in localLessons) {
-      if (remoteLessonIds.contains(localLesson.id)) {
-        val remoteLesson = remoteLessons.singleOrNull { it.id == localLesson.id } ?: continue
+      val remoteLesson = remoteLessonsById[localLesson.id]
+      if (remoteLesson != null) {
         if (lessonInfoChanged(localLesson, remoteLesson)) {
           stepikChanges.lessonsInfoToUpdate.add(localLesson)
         }
@@ -101,31 +134,17 @@ class StepikChangeRetriever(private val project: Project, private val course: Ed
   }
 
   private fun processTasks(stepikChanges: StepikChangesInfo, localLesson: Lesson, remoteLesson: Lesson?) {
-    val localTasksIds = localLesson.taskList.map { it.id }
+    val localTasksIds = localLesson.taskList.mapTo(HashSet()) { it.id }
     val remoteTasks = remoteLesson?.taskList ?: emptyList()
-    val remoteTasksIds = remoteTasks.map { it.id }
+    val remoteTasksById = remoteTasks.associateBy { it.id }
 
     stepikChanges.tasksToDelete.addAll(remoteTasks.filter { it.id !in localTasksIds })
-    stepikChanges.newTasks.addAll(localLesson.taskList.filter { it.id !in remoteTasksIds })
+    stepikChanges.newTasks.addAll(localLesson.taskList.filter { it.id !in remoteTasksById })
 
     for (task in localLesson.taskList) {
-      val localTask = task.copy()
-      localTask.lesson = localLesson
-      getInEdt {
-        runReadAction {
-          try {
-            CourseArchiveCreator.loadActualTexts(project, localTask)
-          }
-          catch (e: BrokenPlaceholderException) {
-            LOG.info("Failed to load actual texts: ${e.message}")
-          }
-          catch (e: HugeBinaryFileException) {
-            LOG.info("Failed to load actual texts: ${e.message}")
-          }
-        }
-      }
-      if (remoteTasksIds.contains(localTask.id)) {
-        val remoteTask = remoteTasks.singleOrNull { it.id == localTask.id } ?: continue
+      val localTask = actualTasks[task] ?: continue
+      val remoteTask = remoteTasksById[localTask.id]
+      if (remoteTask != null) {
         if (taskInfoChanged(localTask, remoteTask) || taskContentChanged(localTask, remoteTask) || taskFilesChanged(localTask,
                                                                                                                     remoteTask)) {
           stepikChanges.tasksToUpdate.add(task)
@@ -165,8 +184,9 @@ class StepikChangeRetriever(private val project: Project, private val course: Ed
     if (localLesson.customPresentableName != remoteLesson.customPresentableName)
       return true
 
+    val remoteTasksById = remoteLesson.taskList.associateBy { it.id }
     for (localTask in localLesson.taskList) {
-      val remoteTask = remoteLesson.getTask(localTask.id)
+      val remoteTask = remoteTasksById[localTask.id]
 
       if (remoteTask == null) {
         if (localTask.isPluginTaskType)
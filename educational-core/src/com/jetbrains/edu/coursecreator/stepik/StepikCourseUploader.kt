@@ -1,7 +1,9 @@
 package com.jetbrains.edu.coursecreator.stepik
 
+import com.google.common.annotations.VisibleForTesting
 import com.intellij.openapi.actionSystem.AnAction
 import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.coursecreator.CCNotificationUtils.showNotification
 import com.jetbrains.edu.coursecreator.stepik.CCStepikConnector.*
@@ -14,28 +16,35 @@ import com.jetbrains.edu.learning.stepik.api.StepikCourseLoader
 
 class StepikCourseUploader(val project: Project, val course: EduCourse) {
 
-  fun updateCourse() {
-    val remoteCourse = StepikConnector.getInstance().getCourseInfo(course.id) ?: return
+  /**
+   * @param dryRun if true, requests are not sent to Stepik, only their descriptions are logged
+   * @return descriptions of planned requests in order they are (or would be) sent
+   */
+  @JvmOverloads
+  fun updateCourse(dryRun: Boolean = false): List<String> {
+    val remoteCourse = StepikConnector.getInstance().getCourseInfo(course.id) ?: return emptyList()
     StepikCourseLoader.loadCourseStructure(remoteCourse)
     remoteCourse.init(null, null, false)
-    pushChanges(remoteCourse)
+    return pushChanges(remoteCourse, dryRun)
   }
 
-  private fun pushChanges(remoteCourse: EduCourse) {
+  private fun pushChanges(remoteCourse: EduCourse, dryRun: Boolean): List<String> {
     val changeRetriever = StepikChangeRetriever(project, course, remoteCourse)
     val changedItems = changeRetriever.getChangedItems()
 
     if (changedItems.isEmpty()) {
       showNotification(project, message("course.creator.stepik.nothing.to.update"), null)
-      return
+      return emptyList()
     }
 
-    var success = processCourse(changedItems)
-    success = processTopLevelSection(changedItems) && success
-    success = processSections(changedItems) && success
-    success = processLessons(changedItems) && success
-    success = processTasks(changedItems) && success
+    val plan = createUploadPlan(changedItems)
+    val plannedRequests = plan.requests.map { it.description }
+    if (dryRun) {
+      LOG.info("Planned Stepik requests for course ${course.id}:\n${plannedRequests.joinToString("\n")}")
+      return plannedRequests
+    }
 
+    val success = plan.execute()
     if (!success) {
       showNotification(project, message("course.creator.stepik.failed.to.update.course"), null)
     }
@@ -47,107 +56,149 @@ class StepikCourseUploader(val project: Project, val course: EduCourse) {
         }
       }, message("stepik.course.updated.notification.title"), message("stepik.course.updated.notification.message"))
     }
+    return plannedRequests
   }
 
-  private fun processCourse(changedItems: StepikChangesInfo): Boolean {
-    var success = true
-    if (changedItems.isCourseInfoChanged) {
-      success = updateCourseInfo(project, course) && success
-    }
-    if (changedItems.isCourseAdditionalInfoChanged) {
-      success = updateCourseAdditionalInfo(project, course) && success
-    }
-    return success
+  @VisibleForTesting
+  fun createUploadPlan(changedItems: StepikChangesInfo): StepikUploadPlan {
+    val plan = StepikUploadPlan()
+    processCourse(plan, changedItems)
+    processTopLevelSection(plan, changedItems)
+    processSections(plan, changedItems)
+    processLessons(plan, changedItems)
+    processTasks(plan, changedItems)
+    return plan
   }
 
-  private fun processTopLevelSection(changedItems: StepikChangesInfo): Boolean {
-    var success = true
-
-    if (changedItems.isTopLevelSectionRemoved) {
-      StepikConnector.getInstance().deleteSection(course.sectionIds[0])
-      course.sectionIds = emptyList()
+  private fun processCourse(plan: StepikUploadPlan, changedItems: StepikChangesInfo) {
+    plan.stage {
+      if (changedItems.isCourseInfoChanged) {
+        request("update course ${course.id}") { updateCourseInfo(project, course) }
+      }
+      if (changedItems.isCourseAdditionalInfoChanged) {
+        request("update course ${course.id} additional info") { updateCourseAdditionalInfo(project, course) }
+      }
     }
+  }
 
-    if (changedItems.isTopLevelSectionNameChanged) {
-      success = updateSectionForTopLevelLessons(course) && success
-    }
+  private fun processTopLevelSection(plan: StepikUploadPlan, changedItems: StepikChangesInfo) {
+    plan.stage {
+      if (changedItems.isTopLevelSectionRemoved) {
+        request("delete top-level section ${course.sectionIds[0]}") {
+          StepikConnector.getInstance().deleteSection(course.sectionIds[0])
+          course.sectionIds = emptyList()
+          true
+        }
+      }
+
+      if (changedItems.isTopLevelSectionNameChanged) {
+        request("update top-level section") { updateSectionForTopLevelLessons(course) }
+      }
 
-    if (changedItems.isTopLevelSectionAdded) {
-      val sectionId = postSectionForTopLevelLessons(project, course)
-      success = sectionId != -1 && success
+      if (changedItems.isTopLevelSectionAdded) {
+        request("post top-level section") { postSectionForTopLevelLessons(project, course) != -1 }
+      }
     }
-    return success
   }
 
-  private fun processSections(changedItems: StepikChangesInfo): Boolean {
-    var success = true
-
-    // delete old section
-    changedItems.sectionsToDelete.forEach {
-      StepikConnector.getInstance().deleteSection(it.id)
+  private fun processSections(plan: StepikUploadPlan, changedItems: StepikChangesInfo) {
+    plan.stage(concurrent = true) {
+      changedItems.sectionsToDelete.forEach {
+        request("delete section ${it.id}") {
+          StepikConnector.getInstance().deleteSection(it.id)
+          true
+        }
+      }
     }
 
-    // post new section
-    changedItems.newSections.forEach {
-      it.position = it.index
-      success = postSection(project, it) && success
+    // new sections are posted one by one to keep their positions
+    plan.stage {
+      changedItems.newSections.forEach {
+        request("post section '${it.name}'") {
+          it.position = it.index
+          postSection(project, it)
+        }
+      }
     }
 
-    // update section
-    for (localSection in changedItems.sectionInfosToUpdate) {
-      localSection.position = localSection.index
-      success = updateSectionInfo(localSection) && success
+    // updated sections change their positions, so they are sent one by one
+    plan.stage {
+      for (localSection in changedItems.sectionInfosToUpdate) {
+        request("update section ${localSection.id}") {
+          localSection.position = localSection.index
+          updateSectionInfo(localSection)
+        }
+      }
     }
-
-    return success
   }
 
-  private fun processLessons(changedItems: StepikChangesInfo): Boolean {
-    var success = true
-
-    // delete old lesson
-    changedItems.lessonsToDelete.forEach {
-      StepikConnector.getInstance().deleteLesson(it.id)
-      StepikConnector.getInstance().deleteUnit(it.unitId)
+  private fun processLessons(plan: StepikUploadPlan, changedItems: StepikChangesInfo) {
+    plan.stage(concurrent = true) {
+      changedItems.lessonsToDelete.forEach {
+        request("delete lesson ${it.id}") {
+          StepikConnector.getInstance().deleteLesson(it.id)
+          StepikConnector.getInstance().deleteUnit(it.unitId)
+          true
+        }
+      }
     }
 
-    // post new lesson
-    changedItems.newLessons.forEach {
-      val section = it.section?.id ?: course.sectionIds.first()
-      success = postLesson(project, it, it.index, section) && success
+    // new lessons are posted one by one to keep their positions
+    plan.stage {
+      changedItems.newLessons.forEach {
+        request("post lesson '${it.name}'") {
+          val section = it.section?.id ?: course.sectionIds.first()
+          postLesson(project, it, it.index, section)
+        }
+      }
     }
 
-    // update lesson
-    for (localLesson in changedItems.lessonsInfoToUpdate) {
-      val section = localLesson.section?.id ?: course.sectionIds.first()
-      val lesson = updateLessonInfo(project, localLesson, false, section)
-      success = lesson != null && success
-    }
-    changedItems.lessonAdditionalInfosToUpdate.forEach {
-      success = updateLessonAdditionalInfo(it, project) && success
+    plan.stage(concurrent = true) {
+      for (localLesson in changedItems.lessonsInfoToUpdate) {
+        request("update lesson ${localLesson.id}", parent = localLesson.section ?: course) {
+          val section = localLesson.section?.id ?: course.sectionIds.first()
+          updateLessonInfo(project, localLesson, false, section) != null
+        }
+      }
     }
 
-    return success
+    plan.stage(concurrent = true) {
+      changedItems.lessonAdditionalInfosToUpdate.forEach {
+        request("update lesson ${it.id} additional info") { updateLessonAdditionalInfo(it, project) }
+      }
+    }
   }
 
-  private fun processTasks(changedItems: StepikChangesInfo): Boolean {
-    var success = true
-
-    // delete old task
-    changedItems.tasksToDelete.forEach {
-      StepikConnector.getInstance().deleteTask(it.id)
+  private fun processTasks(plan: StepikUploadPlan, changedItems: StepikChangesInfo) {
+    plan.stage(concurrent = true) {
+      changedItems.tasksToDelete.forEach {
+        request("delete step ${it.id}") {
+          StepikConnector.getInstance().deleteTask(it.id)
+          true
+        }
+      }
     }
 
-    // post new task
-    changedItems.newTasks.forEach {
-      success = postTask(project, it, it.lesson.id) && success
+    // new tasks are posted one by one to keep their positions
+    plan.stage {
+      changedItems.newTasks.forEach {
+        request("post step '${it.name}'") { postTask(project, it, it.lesson.id) }
+      }
     }
 
-    // update tasks
-    for (localTask in changedItems.tasksToUpdate) {
-      success = updateTask(project, localTask) && success
+    plan.stage(concurrent = true) {
+      for (localTask in changedItems.tasksToUpdate) {
+        request("update step ${localTask.id}", parent = localTask.lesson) {
+          updateTask(project, localTask) {
+            fallback("post step '${localTask.name}'") { postTask(project, localTask, localTask.lesson.id) }
+            true
+          }
+        }
+      }
     }
+  }
 
-    return success
+  companion object {
+    private val LOG = logger<StepikCourseUploader>()
   }
 }
@@ -0,0 +1,98 @@
+package com.jetbrains.edu.coursecreator.stepik
+
+import com.jetbrains.edu.learning.invokeAllWithProgress
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class StepikUploadRequest(val description: String, val parent: Any?, val action: StepikUploadRequest.() -> Boolean) {
+  internal val fallbacks = mutableListOf<StepikUploadRequest>()
+
+  /**
+   * Adds request to be sent instead of this one after all requests of the stage, e.g. to post an item removed from Stepik.
+   * Fallbacks are sent one by one in order of requests they replace, so they may post new items
+   */
+  fun fallback(description: String, action: () -> Boolean) {
+    fallbacks.add(StepikUploadRequest(description, null) { action() })
+  }
+
+  fun execute(): Boolean = action()
+}
+
+/**
+ * Ordered list of Stepik requests needed to push local course changes.
+ *
+ * Stages are executed one by one, so parent items are created or updated before requests for their children are sent.
+ * Requests of a concurrent stage don't depend on each other and are sent in parallel,
+ * but no more than [MAX_CONCURRENT_REQUESTS] at a time not to exceed Stepik rate limits.
+ * Requests with the same parent (see [Stage.request]) are sent one by one in order they were added,
+ * because Stepik shifts positions of sibling items when an item position is changed.
+ * Fallback requests (see [StepikUploadRequest.fallback]) are sent sequentially after the stage.
+ */
+class StepikUploadPlan {
+  private val stages = mutableListOf<Stage>()
+
+  val requests: List<StepikUploadRequest> get() = stages.flatMap { it.requests }
+
+  fun isEmpty(): Boolean = stages.all { it.requests.isEmpty() }
+
+  fun stage(concurrent: Boolean = false, fillStage: Stage.() -> Unit) {
+    val stage = Stage(concurrent)
+    stage.fillStage()
+    if (stage.requests.isNotEmpty()) {
+      stages.add(stage)
+    }
+  }
+
+  /**
+   * @return true if all requests succeeded
+   */
+  fun execute(): Boolean {
+    var success = true
+    for (stage in stages) {
+      success = stage.execute() && success
+    }
+    return success
+  }
+
+  class Stage(private val concurrent: Boolean) {
+    val requests = mutableListOf<StepikUploadRequest>()
+
+    /**
+     * @param parent item whose children are changed by the request, e.g. lesson of updated step.
+     * Requests of a concurrent stage with the same parent are sent sequentially, `null` means the request can be sent in parallel with any other
+     */
+    fun request(description: String, parent: Any? = null, action: StepikUploadRequest.() -> Boolean) {
+      requests.add(StepikUploadRequest(description, parent, action))
+    }
+
+    fun execute(): Boolean {
+      val groups = if (concurrent) groupByParent() else listOf(requests)
+      val success = if (groups.size == 1) {
+        executeSequentially(groups.single())
+      }
+      else {
+        val results = invokeAllWithProgress(groups.map { group -> { executeSequentially(group) } }, EXECUTOR_SERVICE)
+        results.size == groups.size && results.all { it }
+      }
+      return executeSequentially(requests.flatMap { it.fallbacks }) && success
+    }
+
+    private fun groupByParent(): List<List<StepikUploadRequest>> {
+      val (independent, withParent) = requests.partition { it.parent == null }
+      return independent.map { listOf(it) } + withParent.groupBy { it.parent }.values
+    }
+
+    private fun executeSequentially(requests: List<StepikUploadRequest>): Boolean {
+      var success = true
+      for (request in requests) {
+        success = request.execute() && success
+      }
+      return success
+    }
+  }
+
+  companion object {
+    private const val MAX_CONCURRENT_REQUESTS = 4
+    private val EXECUTOR_SERVICE: ExecutorService = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS)
+  }
+}
@@ -22,6 +22,7 @@ import com.jetbrains.edu.learning.serialization.converter.json.local.*
 import java.io.IOException
 import java.text.SimpleDateFormat
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 
 private val LOG = Logger.getInstance(EduUtils::class.java.name)
 
@@ -66,7 +67,16 @@ fun migrate(node: ObjectNode, maxVersion: Int): ObjectNode {
   return jsonObject
 }
 
+private val COURSE_MAPPERS = ConcurrentHashMap<Pair<Boolean, Boolean>, ObjectMapper>()
+
+/**
+ * Returns mapper shared by all archive reads with the same configuration. It mustn't be reconfigured by callers
+ */
 fun getCourseMapper(isEncrypted: Boolean, isMarketplace: Boolean = false): ObjectMapper { // TODO: common mapper for archive creator and reader?
+  return COURSE_MAPPERS.computeIfAbsent(isEncrypted to isMarketplace) { createCourseMapper(isEncrypted, isMarketplace) }
+}
+
+private fun createCourseMapper(isEncrypted: Boolean, isMarketplace: Boolean): ObjectMapper {
   val factory = JsonFactory()
   val mapper = ObjectMapper(factory)
   val module = SimpleModule()
@@ -1,9 +1,9 @@
 package com.jetbrains.edu.learning
 
-import com.intellij.ide.projectView.ProjectView
 import com.intellij.openapi.editor.event.DocumentEvent
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.projectView.CourseViewRefresher
 
 class CourseIgnoreDocumentListener(project: Project) : EduDocumentListenerBase(project) {
 
@@ -12,7 +12,7 @@ class CourseIgnoreDocumentListener(project: Project) : EduDocumentListenerBase(p
     val file = fileDocumentManager.getFile(event.document) ?: return
     if (file.name != EduNames.COURSE_IGNORE) return
     if (!CCUtils.isCourseCreator(project)) return
-    ProjectView.getInstance(project).refresh()
+    CourseViewRefresher.getInstance(project).courseIgnoreChanged()
   }
 
 }
@@ -9,6 +9,7 @@ import com.intellij.openapi.application.runWriteAction
 import com.intellij.openapi.command.CommandProcessor
 import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.ThrowableComputable
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.ui.EditorNotifications
 import com.jetbrains.edu.coursecreator.CCNotificationUtils
@@ -17,10 +18,13 @@ import com.jetbrains.edu.coursecreator.CCUtils
 import com.jetbrains.edu.learning.courseFormat.*
 import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.courseFormat.ext.findDir
+import com.jetbrains.edu.learning.courseFormat.ext.shouldBeEmpty
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.courseGeneration.GeneratorUtils
+import com.jetbrains.edu.learning.courseGeneration.macro.EduMacroUtils
 import com.jetbrains.edu.learning.marketplace.MARKETPLACE
 import com.jetbrains.edu.learning.stepik.StepikNames.STEPIK
+import com.jetbrains.edu.learning.update.StudyItemsDiff
 import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer
 import java.io.IOException
 import java.net.URISyntaxException
@@ -30,6 +34,12 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
   private val oldLessonDirectories = HashMap<Int, VirtualFile>()
   private val oldSectionDirectories = HashMap<Int, VirtualFile>()
 
+  /**
+   * Items whose config files should be re-saved after update.
+   * Configs of items which are not touched by update are left as is
+   */
+  private val itemsToSave = LinkedHashSet<StudyItem>()
+
   abstract fun courseFromServer(currentCourse: EduCourse, courseInfo: EduCourse?): EduCourse?
 
   abstract fun taskChanged(newTask: Task, task: Task): Boolean
@@ -42,6 +52,7 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
     checkIsBackgroundThread()
     oldLessonDirectories.clear()
     oldSectionDirectories.clear()
+    itemsToSave.clear()
 
     val courseFromServer = courseFromServer(course, courseInfo)
 
@@ -59,7 +70,19 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
       ProjectView.getInstance(project).refresh()
       CCNotificationUtils.showNotification(project, "Course updated", null)
       course.configurator?.courseBuilder?.refreshProject(project, RefreshCause.STRUCTURE_MODIFIED)
-      YamlFormatSynchronizer.saveAll(project)
+      saveChangedConfigs()
+    }
+  }
+
+  private fun saveChangedConfigs() {
+    itemsToSave.add(course)
+    YamlFormatSynchronizer.saveItemsWithRemoteInfo(itemsToSave)
+  }
+
+  private fun markChanged(item: StudyItem, withChildren: Boolean = false) {
+    itemsToSave.add(item)
+    if (withChildren && item is ItemContainer) {
+      item.items.forEach { markChanged(it, true) }
     }
   }
 
@@ -134,6 +157,9 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
       else if (renamed(currentSection, sectionFromServer)) {
         constructDir(sectionFromServer, currentSection)
       }
+      if (sectionContentChanged || renamed(currentSection, sectionFromServer) || childrenChanged(currentSection, sectionFromServer)) {
+        markChanged(sectionFromServer)
+      }
 
       val lessonsToUpdate = sectionFromServer.lessons.filter { it.id in currentLessonsIds }
       // lessons custom names should be copied before processModifiedLessons, otherwise lesson can be considered modified
@@ -154,6 +180,7 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
 
       section.init(course, course, false)
       GeneratorUtils.createSection(project, section, baseDir)
+      markChanged(section, withChildren = true)
     }
   }
 
@@ -193,35 +220,28 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
       val lessonFromServerId = lessonFromServer.id
       val currentLesson = parent.getLesson(lessonFromServerId) ?: error("Local lesson with id $lessonFromServerId not found")
 
-      val taskIdsToUpdate = taskIdsToUpdate(lessonFromServer, currentLesson)
+      val tasksDiff = StudyItemsDiff.compute(currentLesson.taskList, lessonFromServer.taskList, ::taskChanged)
 
       deleteRemovedItems(lessonFromServer.taskList.map { task -> task.id }, currentLesson.taskList)
 
-      val lessonContentChanged = taskIdsToUpdate.isNotEmpty()
+      val lessonContentChanged = !tasksDiff.isEmpty
       if (lessonContentChanged) {
         val lessonDir = constructDir(lessonFromServer, currentLesson)
-        updateTasks(taskIdsToUpdate, lessonFromServer, currentLesson, lessonDir)
+        updateTasks(tasksDiff, currentLesson, lessonDir)
       }
       else if (renamed(lessonFromServer, currentLesson)) {
         constructDir(lessonFromServer, currentLesson)
       }
+      if (lessonContentChanged || renamed(lessonFromServer, currentLesson) || childrenChanged(currentLesson, lessonFromServer)) {
+        markChanged(lessonFromServer)
+      }
 
       lessonFromServer.init(course, lessonFromServer.section, false)
     }
   }
 
-  @Throws(URISyntaxException::class, IOException::class)
-  private fun taskIdsToUpdate(lessonFromServer: Lesson, currentLesson: Lesson): List<Int> {
-    val taskIds = lessonFromServer.taskList.map { task -> task.id }
-    val tasksById = currentLesson.taskList.associateBy({ it.id }, { it })
-
-    return lessonFromServer.taskList
-      .zip(taskIds)
-      .filter { (newTask, taskId) ->
-        val task = tasksById[taskId]
-        task == null || taskChanged(newTask, task)
-      }
-      .map { (_, taskId) -> taskId }
+  private fun childrenChanged(currentItem: ItemContainer, newItem: ItemContainer): Boolean {
+    return currentItem.items.map { it.name } != newItem.items.map { it.name }
   }
 
   private fun createNewLessons(newLessons: List<Lesson>, parentDir: VirtualFile) {
@@ -233,25 +253,78 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
 
       lesson.init(course, lesson.section, false)
       GeneratorUtils.createLesson(project, lesson, parentDir)
+      markChanged(lesson, withChildren = true)
     }
   }
 
-  private fun updateTasks(taskIdsToUpdate: List<Int>,
-                          lessonFromServer: Lesson,
-                          currentLesson: Lesson,
-                          lessonDir: VirtualFile) {
-    val serverTasksById = lessonFromServer.taskList.associateBy({ it.id }, { it })
-    val tasksById = currentLesson.taskList.associateBy { it.id }
-    for (taskId in taskIdsToUpdate) {
-      val taskFromServer = serverTasksById[taskId] ?: error("task from server should not be null")
-      val currentTask = tasksById[taskId]
-      if (currentTask != null) {
-        removeExistingDir(currentTask, lessonDir)
+  /**
+   * Applies task changes of a lesson in a single write action.
+   * Directories of changed tasks are updated in place when possible, so files with unchanged content are not touched
+   */
+  @Throws(IOException::class)
+  private fun updateTasks(tasksDiff: StudyItemsDiff<Task>, currentLesson: Lesson, lessonDir: VirtualFile) {
+    val tasksToUpdate = tasksDiff.changed + tasksDiff.added.map { it to null }
+    for ((taskFromServer, _) in tasksToUpdate) {
+      taskFromServer.init(course, currentLesson, false)
+      if (!course.isStudy) {
+        CCUtils.initializeTaskPlaceholders(taskFromServer, project)
       }
+    }
 
-      taskFromServer.init(course, currentLesson, false)
+    GeneratorUtils.runInWriteActionAndWait(ThrowableComputable {
+      CommandProcessor.getInstance().executeCommand(project, {
+        for ((taskFromServer, currentTask) in tasksToUpdate) {
+          val currentTaskDir = currentTask?.findDir(lessonDir)
+          if (currentTaskDir != null && canBeUpdatedInPlace(currentTask, taskFromServer)) {
+            updateTaskDir(currentTask, taskFromServer, currentTaskDir)
+          }
+          else {
+            currentTaskDir?.delete(currentTask)
+            GeneratorUtils.createTask(project, taskFromServer, lessonDir)
+          }
+          markChanged(taskFromServer)
+        }
+      }, "", this.javaClass)
+    })
+  }
+
+  private fun canBeUpdatedInPlace(currentTask: Task, taskFromServer: Task): Boolean {
+    // framework lessons keep task content and configs in different directories
+    return currentTask.name == taskFromServer.name && currentTask.lesson !is FrameworkLesson
+  }
+
+  @Throws(IOException::class)
+  private fun updateTaskDir(currentTask: Task, taskFromServer: Task, taskDir: VirtualFile) {
+    for ((path, _) in currentTask.taskFiles) {
+      if (taskFromServer.getTaskFile(path) == null) {
+        taskDir.findFileByRelativePath(path)?.delete(this)
+      }
+    }
 
-      createTaskDirectories(project, lessonDir, taskFromServer)
+    for ((path, taskFile) in taskFromServer.taskFiles) {
+      val text = if (taskFromServer.shouldBeEmpty(path)) "" else taskFile.text
+      val file = taskDir.findFileByRelativePath(path)
+      if (file != null && file.hasContent(text)) continue
+      GeneratorUtils.createChildFile(project, taskDir, path, text)
+    }
+
+    if (currentTask.descriptionFormat != taskFromServer.descriptionFormat) {
+      taskDir.findChild(currentTask.descriptionFormat.descriptionFileName)?.delete(this)
+    }
+    val descriptionFile = taskDir.findChild(taskFromServer.descriptionFormat.descriptionFileName)
+    if (descriptionFile == null || !descriptionFile.hasContent(taskFromServer.descriptionText)) {
+      GeneratorUtils.createDescriptionFile(project, taskDir, taskFromServer)
+    }
+  }
+
+  private fun VirtualFile.hasContent(text: String): Boolean {
+    return try {
+      val expectedText = if (isToEncodeContent) text else EduMacroUtils.expandMacrosForFile(project, this, text)
+      loadEncodedContent() == expectedText
+    }
+    catch (e: IOException) {
+      LOG.warn(e)
+      false
     }
   }
 
@@ -263,20 +336,6 @@ abstract class EduCourseUpdater(val project: Project, val course: EduCourse) {
     }
   }
 
-  @Throws(IOException::class)
-  private fun removeExistingDir(studentTask: Task, lessonDir: VirtualFile?) {
-    val taskDir = studentTask.findDir(lessonDir)
-    invokeAndWaitIfNeeded { runWriteAction { taskDir?.delete(studentTask) } }
-  }
-
-  @Throws(IOException::class)
-  private fun createTaskDirectories(project: Project, lessonDir: VirtualFile, task: Task) {
-    if (!task.lesson.course.isStudy) {
-      CCUtils.initializeTaskPlaceholders(task, this.project)
-    }
-    GeneratorUtils.createTask(project, task, lessonDir)
-  }
-
   private fun deleteRemovedItems(remoteItemsIds: List<Int>, items: List<StudyItem>) {
     val itemsToDelete = items.filter { it.id !in remoteItemsIds }
     if (itemsToDelete.isNotEmpty()) {
@@ -7,11 +7,11 @@ import com.intellij.openapi.editor.event.DocumentEvent
 import com.intellij.openapi.editor.impl.event.DocumentEventImpl
 import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.util.Pair
 import com.intellij.openapi.vfs.VirtualFile
-import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder
+import com.jetbrains.edu.learning.courseFormat.FrameworkLesson
 import com.jetbrains.edu.learning.courseFormat.TaskFile
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.framework.FrameworkLessonManager
 import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer
 
 /**
@@ -44,74 +44,29 @@ class EduDocumentListener private constructor(
     if (!taskFile.isTrackChanges) {
       return
     }
+    if (updateYaml) {
+      scheduleStagePrecomputation(taskFile.task)
+    }
     if (taskFile.answerPlaceholders.isEmpty()) return
 
     if (e !is DocumentEventImpl) {
       return
     }
 
-    val offset = e.getOffset()
-    val change = e.getNewLength() - e.getOldLength()
-
-    val fragment = e.getNewFragment()
-    val oldFragment = e.getOldFragment()
-
-    for (placeholder in taskFile.answerPlaceholders) {
-      var placeholderStart = placeholder.offset
-      var placeholderEnd = placeholder.endOffset
-
-      val changes = getChangeForOffsets(offset, change, placeholder)
-      val changeForStartOffset = changes.getFirst()
-      val changeForEndOffset = changes.getSecond()
-
-      placeholderStart += changeForStartOffset
-      placeholderEnd += changeForEndOffset
-
-      if (placeholderStart - 1 == offset && fragment.toString().isEmpty() && oldFragment.toString().startsWith("\n")) {
-        placeholderStart -= 1
-      }
-
-      if (placeholderStart == offset && oldFragment.toString().isEmpty() && fragment.toString().startsWith("\n")) {
-        placeholderStart += 1
-      }
-
-      val length = placeholderEnd - placeholderStart
-      assert(length >= 0)
-      assert(placeholderStart >= 0)
-      updatePlaceholder(placeholder, placeholderStart, length)
-    }
-  }
-
-  private fun getChangeForOffsets(offset: Int, change: Int, placeholder: AnswerPlaceholder): Pair<Int, Int> {
-    val placeholderStart = placeholder.offset
-    val placeholderEnd = placeholder.endOffset
-    var start = 0
-    var end = change
-    if (offset > placeholderEnd) {
-      return Pair.create(0, 0)
-    }
-
-    if (offset < placeholderStart) {
-      start = change
-
-      if (change < 0 && offset - change > placeholderStart) {  // delete part of placeholder start
-        start = offset - placeholderStart
-      }
-    }
-
-    if (change < 0 && offset - change > placeholderEnd) {   // delete part of placeholder end
-      end = offset - placeholderEnd
+    taskFile.applyDocumentChange(e.offset, e.oldFragment, e.newFragment)
+    if (updateYaml) {
+      YamlFormatSynchronizer.saveItem(taskFile.task)
     }
-
-    return Pair.create(start, end)
   }
 
-  private fun updatePlaceholder(answerPlaceholder: AnswerPlaceholder, start: Int, length: Int) {
-    answerPlaceholder.offset = start
-    answerPlaceholder.length = length
-    if (updateYaml) {
-      YamlFormatSynchronizer.saveItem(answerPlaceholder.taskFile.task)
-    }
+  /**
+   * Diffs between the edited stage of a framework lesson and its neighbours are recomputed in background
+   * once the learner stops typing, so the next navigation doesn't compute them
+   */
+  private fun scheduleStagePrecomputation(task: Task) {
+    val lesson = task.lesson as? FrameworkLesson ?: return
+    if (lesson.currentTask() !== task || !EduUtils.isStudentProject(project)) return
+    FrameworkLessonManager.getInstance(project).schedulePrecomputation(lesson)
   }
 
   private val DocumentEvent.taskFile: TaskFile? get() {
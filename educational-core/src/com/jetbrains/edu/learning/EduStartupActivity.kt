@@ -22,6 +22,7 @@ import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.handlers.UserCreatedFileListener
 import com.jetbrains.edu.learning.newproject.coursesStorage.CoursesStorage
 import com.jetbrains.edu.learning.projectView.CourseViewPane
+import com.jetbrains.edu.learning.serialization.ObjectMappers
 import com.jetbrains.edu.learning.statistics.EduCounterUsageCollector
 import com.jetbrains.edu.learning.taskDescription.ui.TaskDescriptionView
 
@@ -41,6 +42,7 @@ class EduStartupActivity : StartupActivity.DumbAware {
         EditorFactory.getInstance().eventMulticaster.addDocumentListener(CourseIgnoreDocumentListener(project), manager)
       }
       EduDocumentListener.setGlobalListener(project, manager)
+      ObjectMappers.warmUpInBackground()
       // In all IDEs except Android Studio, default project pane is selected via
       // `com.intellij.ide.projectView.impl.AbstractProjectViewPane.isDefaultPane`.
       if (EduUtils.isAndroidStudio()) {
@@ -2,13 +2,14 @@ package com.jetbrains.edu.learning
 
 import com.intellij.openapi.Disposable
 import com.intellij.openapi.editor.Editor
+import com.intellij.openapi.editor.EditorFactory
 import com.intellij.openapi.editor.actionSystem.EditorActionManager
 import com.intellij.openapi.editor.ex.util.EditorUtil
 import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.fileEditor.TextEditor
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.ui.AbstractPainter
-import com.intellij.openapi.util.Disposer
+import com.intellij.openapi.util.Key
 import com.intellij.openapi.wm.IdeGlassPaneUtil
 import com.intellij.ui.scale.JBUIScale
 import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder
@@ -19,21 +20,27 @@ import org.jetbrains.annotations.TestOnly
 import java.awt.BasicStroke
 import java.awt.Component
 import java.awt.Graphics2D
-import java.awt.Shape
 
+/**
+ * Paints answer placeholders in editors.
+ *
+ * Each editor has a single painter which draws all placeholders shown in it.
+ * The painter is kept in editor user data and released together with the editor,
+ * so placeholders aren't referenced after their editors are closed
+ */
 object PlaceholderPainter {
 
   val STROKE_WIDTH: Float = JBUIScale.scale(2f)
 
-  private val disposables: MutableMap<AnswerPlaceholder, MutableSet<Disposable>> = HashMap()
+  private val PAINTER: Key<EditorPlaceholderPainter> = Key.create("Edu.placeholderPainter")
 
   @JvmOverloads
   @JvmStatic
   fun showPlaceholders(project: Project, taskFile: TaskFile, editor: Editor? = null) {
     if (project.isDisposed) return
     val editors = if (editor != null) listOf(editor) else taskFile.getEditors(project)
-    for (placeholder in taskFile.answerPlaceholders) {
-      showPlaceholder(project, placeholder, editors)
+    for (taskFileEditor in editors) {
+      paintPlaceholders(project, taskFile, taskFile.answerPlaceholders, taskFileEditor)
     }
   }
 
@@ -47,38 +54,26 @@ object PlaceholderPainter {
     val editors = editors ?: taskFile.getEditors(project)
 
     for (editor in editors) {
-      paintPlaceholder(project, taskFile, placeholder, editor)
+      paintPlaceholders(project, taskFile, listOf(placeholder), editor)
     }
   }
 
-  private fun paintPlaceholder(
+  private fun paintPlaceholders(
     project: Project,
     taskFile: TaskFile,
-    placeholder: AnswerPlaceholder,
+    placeholders: List<AnswerPlaceholder>,
     editor: Editor
   ) {
+    if (editor.isDisposed || placeholders.isEmpty()) return
     val document = editor.document
-    if (!taskFile.isValid(document.text)) return
+    if (!taskFile.isValid(document.textLength)) return
 
-    val isStudentProject = EduUtils.isStudentProject(project)
-    val painter: AbstractPainter = object : AbstractPainter() {
-
-      override fun needsRepaint() = !editor.isDisposed
-
-      override fun executePaint(component: Component?, g: Graphics2D) {
-        if (isStudentProject && !placeholder.isVisible) return
-        g.color = placeholder.color
-        g.stroke = BasicStroke(STROKE_WIDTH)
-        val shape = getPlaceholderShape(editor, placeholder.offset, placeholder.endOffset).getShape()
-        if (!isVisible(shape, editor)) return
-        g.draw(shape)
-      }
+    val painter = editor.getUserData(PAINTER) ?: EditorPlaceholderPainter(editor, EduUtils.isStudentProject(project)).also {
+      editor.putUserData(PAINTER, it)
+      EditorUtil.disposeWithEditor(editor, it)
+      IdeGlassPaneUtil.installPainter(editor.contentComponent, it, it)
     }
-
-    val placeholderDisposables = disposables.getOrPut(placeholder) { HashSet() }
-    val painterDisposable = PainterDisposable(placeholder, editor)
-    placeholderDisposables += painterDisposable
-    IdeGlassPaneUtil.installPainter(editor.contentComponent, painter, painterDisposable)
+    painter.add(placeholders)
 
     val handler = EditorActionManager.getInstance().getReadonlyFragmentModificationHandler(document)
     if (handler !is AnswerPlaceholderDeleteHandler) {
@@ -96,37 +91,78 @@ object PlaceholderPainter {
       .map { it.editor }
   }
 
-  private fun isVisible(shape: Shape, editor: Editor): Boolean {
-    return editor.contentComponent.visibleRect.contains(shape.bounds)
-  }
-
   @JvmStatic
   fun hidePlaceholder(placeholder: AnswerPlaceholder) {
-    disposables.remove(placeholder).orEmpty().forEach(Disposer::dispose)
+    hidePlaceholders(listOf(placeholder))
   }
 
   @JvmStatic
   fun hidePlaceholders(taskFile: TaskFile) {
-    for (placeholder in taskFile.answerPlaceholders) {
-      hidePlaceholder(placeholder)
+    hidePlaceholders(taskFile.answerPlaceholders)
+  }
+
+  private fun hidePlaceholders(placeholders: List<AnswerPlaceholder>) {
+    if (placeholders.isEmpty()) return
+    for (editor in EditorFactory.getInstance().allEditors) {
+      editor.getUserData(PAINTER)?.remove(placeholders)
     }
   }
 
   @TestOnly
   @JvmStatic
-  fun getPaintedPlaceholder(): Set<AnswerPlaceholder> = disposables.keys
+  fun getPaintedPlaceholder(): Set<AnswerPlaceholder> {
+    return EditorFactory.getInstance().allEditors.flatMapTo(HashSet()) { it.getUserData(PAINTER)?.placeholders.orEmpty() }
+  }
 
-  private class PainterDisposable(private val placeholder: AnswerPlaceholder, editor: Editor) : Disposable {
-    init {
-      EditorUtil.disposeWithEditor(editor, this)
+  internal class EditorPlaceholderPainter(private val editor: Editor, private val isStudentProject: Boolean) : AbstractPainter(), Disposable {
+    val placeholders: MutableSet<AnswerPlaceholder> = LinkedHashSet()
+
+    // Placeholders are validated again only if the document was modified since the previous check
+    private var validatedStamp: Long = -1
+    private var isValid: Boolean = false
+
+    fun add(newPlaceholders: List<AnswerPlaceholder>) {
+      if (placeholders.addAll(newPlaceholders)) {
+        validatedStamp = -1
+        setNeedsRepaint(true)
+      }
     }
 
-    override fun dispose() {
-      val placeholderDisposables = disposables[placeholder] ?: return
-      placeholderDisposables.remove(this)
-      if (placeholderDisposables.isEmpty()) {
-        disposables.remove(placeholder)
+    fun remove(oldPlaceholders: List<AnswerPlaceholder>) {
+      if (placeholders.removeAll(oldPlaceholders)) {
+        setNeedsRepaint(true)
+      }
+    }
+
+    override fun needsRepaint() = !editor.isDisposed
+
+    override fun executePaint(component: Component?, g: Graphics2D) {
+      if (placeholders.isEmpty() || !arePlaceholdersValid()) return
+      g.stroke = BasicStroke(STROKE_WIDTH)
+      val visibleRect = editor.contentComponent.visibleRect
+      for (placeholder in placeholders) {
+        if (isStudentProject && !placeholder.isVisible) continue
+        val shape = getPlaceholderShape(editor, placeholder.offset, placeholder.endOffset).getShape()
+        if (!visibleRect.contains(shape.bounds)) continue
+        g.color = placeholder.color
+        g.draw(shape)
+      }
+    }
+
+    private fun arePlaceholdersValid(): Boolean {
+      val document = editor.document
+      if (validatedStamp != document.modificationStamp) {
+        val textLength = document.textLength
+        // `TaskFile.isValid` checks all placeholders of the file, so each file is checked once
+        isValid = placeholders.mapTo(HashSet()) { it.taskFile }.all { it?.isValid(textLength) ?: false }
+        validatedStamp = document.modificationStamp
       }
+      return isValid
+    }
+
+    override fun dispose() {
+      placeholders.clear()
+      editor.putUserData(PAINTER, null)
     }
   }
 }
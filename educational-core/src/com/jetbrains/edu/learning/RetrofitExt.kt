@@ -1,9 +1,5 @@
 package com.jetbrains.edu.learning
 
-import com.fasterxml.jackson.core.JsonFactory
-import com.fasterxml.jackson.databind.DeserializationFeature
-import com.fasterxml.jackson.databind.ObjectMapper
-import com.fasterxml.jackson.databind.module.SimpleModule
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.application.ex.ApplicationUtil
@@ -14,6 +10,7 @@ import com.intellij.util.PlatformUtils
 import com.intellij.util.net.HttpConfigurable
 import com.intellij.util.net.ssl.CertificateManager
 import com.jetbrains.edu.learning.messages.EduCoreBundle
+import com.jetbrains.edu.learning.serialization.ObjectMappers
 import com.jetbrains.edu.learning.stepik.StepikNames
 import com.jetbrains.edu.learning.stepik.hyperskill.failedToPostToJBA
 import okhttp3.*
@@ -120,11 +117,22 @@ fun <T> Call<T>.executeHandlingExceptions(omitErrors: Boolean = false): Response
 fun <T, R> Call<T>.executeAndExtractFirst(extractResult: T.() -> List<R>): Result<R, String> {
   return executeParsingErrors(true).flatMap {
     val result = it.body()?.extractResult()?.firstOrNull()
-    if (result == null) Err(failedToPostToJBA) else Ok(result)
+    if (result == null) ResponseError(failedToPostToJBA, it.code()) else Ok(result)
   }
 }
 
-fun <T> Call<T>.executeParsingErrors(omitErrors: Boolean = false): Result<Response<T>, String> {
+/**
+ * Error of a request to a server
+ *
+ * @param statusCode status code of the response, `null` if no response was received because of connection problems
+ */
+class ResponseError(error: String, val statusCode: Int?) : Err<String>(error)
+
+/**
+ * @param isConditional whether the call is a conditional request, e.g. with `If-Modified-Since` header.
+ * `304 Not Modified` response to such a request isn't an error, and the caller is responsible for handling it
+ */
+fun <T> Call<T>.executeParsingErrors(omitErrors: Boolean = false, isConditional: Boolean = false): Result<Response<T>, String> {
   fun log(title: String, message: String?, optional: Boolean) {
     val fullText = "$title. $message"
     if (optional) LOG.warn(fullText) else LOG.error(fullText)
@@ -142,35 +150,36 @@ fun <T> Call<T>.executeParsingErrors(omitErrors: Boolean = false): Result<Respon
 
     ProgressManager.checkCanceled()
 
+    if (isConditional && response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) return Ok(response)
     val error = response.errorBody()?.string() ?: return Ok(response)
     log(error, "Code ${response.code()}", omitErrors)
 
     when (response.code()) {
       HttpURLConnection.HTTP_OK, HttpURLConnection.HTTP_CREATED -> Ok(response) // 200, 201
       HttpURLConnection.HTTP_UNAVAILABLE, HttpURLConnection.HTTP_BAD_GATEWAY ->
-        Err("${EduCoreBundle.message("error.service.maintenance")}\n\n$error") // 502, 503
+        ResponseError("${EduCoreBundle.message("error.service.maintenance")}\n\n$error", response.code()) // 502, 503
       in HttpURLConnection.HTTP_INTERNAL_ERROR..HttpURLConnection.HTTP_VERSION ->
-        Err("${EduCoreBundle.message("error.service.down")}\n\n$error") // 500x
+        ResponseError("${EduCoreBundle.message("error.service.down")}\n\n$error", response.code()) // 500x
       HttpURLConnection.HTTP_FORBIDDEN -> {
         val errorMessage = processForbiddenErrorMessage(error) ?:
                            EduCoreBundle.message("error.access.denied")
-        Err(errorMessage)
+        ResponseError(errorMessage, response.code())
       }
       in HttpURLConnection.HTTP_BAD_REQUEST..HttpURLConnection.HTTP_UNSUPPORTED_TYPE ->
-        Err(EduCoreBundle.message("error.unexpected.error", error)) // 400x
+        ResponseError(EduCoreBundle.message("error.unexpected.error", error), response.code()) // 400x
       else -> {
         LOG.warn("Code ${response.code()} is not handled")
-        Err(EduCoreBundle.message("error.unexpected.error", error))
+        ResponseError(EduCoreBundle.message("error.unexpected.error", error), response.code())
       }
     }
   }
   catch (e: InterruptedIOException) {
     log("Connection to server was interrupted", e.message, omitErrors)
-    Err("${EduCoreBundle.message("error.connection.interrupted")}\n\n${e.message}")
+    ResponseError("${EduCoreBundle.message("error.connection.interrupted")}\n\n${e.message}", null)
   }
   catch (e: IOException) {
     log("Failed to connect to server", e.message, omitErrors)
-    Err("${EduCoreBundle.message("error.failed.to.connect")} \n\n${e.message}")
+    ResponseError("${EduCoreBundle.message("error.failed.to.connect")} \n\n${e.message}", null)
   }
   catch (e: ProcessCanceledException) {
     cancel()
@@ -178,7 +187,7 @@ fun <T> Call<T>.executeParsingErrors(omitErrors: Boolean = false): Result<Respon
   }
   catch (e: RuntimeException) {
     log("Failed to connect to server", e.message, omitErrors)
-    Err("${EduCoreBundle.message("error.failed.to.connect")}\n\n${e.message}")
+    ResponseError("${EduCoreBundle.message("error.failed.to.connect")}\n\n${e.message}", null)
   }
 }
 
@@ -197,12 +206,7 @@ fun String.toRequestBody(): RequestBody = RequestBody.create(MediaType.parse("te
 
 private fun processForbiddenErrorMessage(jsonText: String): String? {
   return try {
-    val factory = JsonFactory()
-    val mapper = ObjectMapper(factory)
-    val module = SimpleModule()
-    mapper.registerModule(module)
-    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-    val courseNode = mapper.readTree(jsonText) as ObjectNode
+    val courseNode = ObjectMappers.JSON.readTree(jsonText) as ObjectNode
     courseNode.get("message")?.asText()
   }
   catch (e: ClassCastException) {
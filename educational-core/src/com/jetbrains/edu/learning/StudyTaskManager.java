@@ -74,7 +74,8 @@ public class StudyTaskManager implements PersistentStateComponent<Element>, Dumb
   @Transient
   public void setCourse(Course course) {
     myCourse = course;
-    if (myProject != null) {
+    // Listeners expect a not-null course
+    if (myProject != null && course != null) {
       myProject.getMessageBus().syncPublisher(COURSE_SET).courseSet(course);
     }
   }
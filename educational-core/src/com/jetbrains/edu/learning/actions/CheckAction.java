@@ -1,6 +1,5 @@
 package com.jetbrains.edu.learning.actions;
 
-import com.intellij.ide.projectView.ProjectView;
 import com.intellij.notification.NotificationDisplayType;
 import com.intellij.notification.impl.NotificationSettings;
 import com.intellij.notification.impl.NotificationsConfigurationImpl;
@@ -10,7 +9,6 @@ import com.intellij.openapi.actionSystem.Presentation;
 import com.intellij.openapi.actionSystem.ex.ActionUtil;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.command.CommandProcessor;
-import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
@@ -22,7 +20,6 @@ import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.popup.Balloon;
 import com.intellij.openapi.ui.popup.JBPopupFactory;
-import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDocumentManager;
@@ -32,6 +29,9 @@ import com.jetbrains.edu.learning.EduUtils;
 import com.jetbrains.edu.learning.OpenApiExtKt;
 import com.jetbrains.edu.learning.VirtualFileExt;
 import com.jetbrains.edu.learning.checker.CheckListener;
+import com.jetbrains.edu.learning.checker.CheckPhase;
+import com.jetbrains.edu.learning.checker.CheckPhaseTracker;
+import com.jetbrains.edu.learning.checker.CheckPipeline;
 import com.jetbrains.edu.learning.checker.CheckResult;
 import com.jetbrains.edu.learning.checker.TaskChecker;
 import com.jetbrains.edu.learning.checker.TaskCheckerProvider;
@@ -51,6 +51,7 @@ import com.jetbrains.edu.learning.courseFormat.tasks.OutputTask;
 import com.jetbrains.edu.learning.courseFormat.tasks.Task;
 import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask;
 import com.jetbrains.edu.learning.messages.EduCoreBundle;
+import com.jetbrains.edu.learning.projectView.CourseViewPresentationCache;
 import com.jetbrains.edu.learning.projectView.ProgressUtil;
 import com.jetbrains.edu.learning.statistics.EduCounterUsageCollector;
 import com.jetbrains.edu.learning.taskDescription.ui.EduBrowserHyperlinkListener;
@@ -61,6 +62,7 @@ import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Future;
@@ -71,9 +73,6 @@ import java.util.stream.Collectors;
 public class CheckAction extends DumbAwareAction {
   @NonNls
   public static final String ACTION_ID = "Educational.Check";
-  private static final Logger LOG = Logger.getInstance(CheckAction.class);
-
-  protected final Ref<Boolean> myCheckInProgress = new Ref<>(false);
 
   public CheckAction() {
     super(EduCoreBundle.lazyMessage("action.check.text"),
@@ -107,7 +106,6 @@ public class CheckAction extends DumbAwareAction {
       return;
     }
     CheckDetailsView.getInstance(project).clear();
-    FileDocumentManager.getInstance().saveAllDocuments();
     Editor editor = FileEditorManager.getInstance(project).getSelectedTextEditor();
     if (editor == null) {
       return;
@@ -179,8 +177,8 @@ public class CheckAction extends DumbAwareAction {
         presentation.setDescription(EduCoreBundle.lazyMessage("action.check.description"));
       }
     }
+    // Enabled while a check is in progress: a new check supersedes the running one
     if (presentation.isEnabled()) {
-      presentation.setEnabled(!myCheckInProgress.get());
       return;
     }
     if (!CCUtils.isCourseCreator(project)) {
@@ -200,6 +198,10 @@ public class CheckAction extends DumbAwareAction {
     private final Task myTask;
     @Nullable private final TaskChecker<?> myChecker;
     private CheckResult myResult;
+    private CheckPipeline.Run myRun;
+    private CheckPhaseTracker myPhaseTracker;
+    // false while the check waits for the superseded one
+    private volatile boolean myStarted;
     @NonNls
     private static final String TEST_RESULTS_DISPLAY_ID = "Test Results: Run";
 
@@ -220,35 +222,60 @@ public class CheckAction extends DumbAwareAction {
 
     @Override
     public void run(@NotNull ProgressIndicator indicator) {
-      ApplicationManager.getApplication().executeOnPooledThread(() -> showFakeProgress(indicator));
-      myCheckInProgress.set(true);
+      myRun = CheckPipeline.getInstance(myProject).startRun(indicator);
+      myRun.awaitPrevious();
+      myStarted = true;
+      myPhaseTracker = new CheckPhaseTracker(myProject, myTask, indicator);
       TaskDescriptionView.getInstance(myProject).checkStarted(myTask);
-      long start = System.currentTimeMillis();
       NotificationSettings notificationSettings = turnOffTestRunnerNotifications();
-      CheckResult localCheckResult = localCheck(indicator);
-      ApplicationManager.getApplication()
-        .invokeLater(() -> NotificationsConfigurationImpl.getInstanceImpl().changeSettings(notificationSettings));
-      long end = System.currentTimeMillis();
-      LOG.info(String.format("Checking of %s task took %d ms", myTask.getName(), end - start));
+      CheckResult localCheckResult;
+      try {
+        localCheckResult = localCheck(indicator);
+      }
+      finally {
+        ApplicationManager.getApplication()
+          .invokeLater(() -> NotificationsConfigurationImpl.getInstanceImpl().changeSettings(notificationSettings));
+      }
       if (localCheckResult.getStatus() == CheckStatus.Failed) {
         myResult = localCheckResult;
         return;
       }
+      indicator.checkCanceled();
       RemoteTaskChecker remoteChecker = RemoteTaskCheckerManager.remoteCheckerForTask(myProject, myTask);
-      myResult = remoteChecker == null ? localCheckResult : remoteChecker.check(myProject, myTask, indicator);
+      myResult = remoteChecker == null
+                 ? localCheckResult
+                 : myPhaseTracker.runPhase(CheckPhase.RUN, () -> remoteChecker.check(myProject, myTask, indicator));
     }
 
     @NotNull
     private CheckResult localCheck(@NotNull ProgressIndicator indicator) {
-      if (myChecker == null) return CheckResult.NO_LOCAL_CHECK;
+      if (myChecker != null) {
+        CheckResult environmentError = myPhaseTracker.runPhase(CheckPhase.VALIDATE_ENVIRONMENT, myChecker::validateEnvironment);
+        if (environmentError != null) return environmentError;
+        indicator.checkCanceled();
+      }
+
       VirtualFile taskDir = myTask.getDir(OpenApiExtKt.getCourseDir(myProject));
-      if (taskDir == null) return CheckResult.NO_LOCAL_CHECK;
-      List<TaskFile> testFiles = getInvisibleTestFiles();
-      if (myTask.getCourse().isStudy()) {
-        createTests(testFiles);
+      List<TaskFile> testFiles = myChecker != null && taskDir != null && myTask.getCourse().isStudy()
+                                 ? getInvisibleTestFiles()
+                                 : Collections.emptyList();
+      myPhaseTracker.phaseStarted(CheckPhase.SNAPSHOT);
+      try {
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+          FileDocumentManager.getInstance().saveAllDocuments();
+          for (TaskFile file : testFiles) {
+            replaceFileText(file, file.getText());
+          }
+        });
       }
+      finally {
+        myPhaseTracker.phaseFinished(CheckPhase.SNAPSHOT);
+      }
+      if (myChecker == null || taskDir == null) return CheckResult.NO_LOCAL_CHECK;
+
       try {
-        return myChecker.check(indicator);
+        indicator.checkCanceled();
+        return myPhaseTracker.runChecker(myChecker);
       }
       finally {
         if (TaskExt.shouldGenerateTestsOnTheFly(myTask)) {
@@ -265,14 +292,6 @@ public class CheckAction extends DumbAwareAction {
       });
     }
 
-    private void createTests(List<TaskFile> testFiles) {
-      ApplicationManager.getApplication().invokeAndWait(() -> {
-        for (TaskFile file : testFiles) {
-          replaceFileText(file, file.getText());
-        }
-      });
-    }
-
     private void replaceFileText(@NotNull final TaskFile file, @NotNull final String newText) {
       String newDocumentText = StringUtil.convertLineSeparators(newText);
       CommandProcessor.getInstance().runUndoTransparentAction(
@@ -295,20 +314,6 @@ public class CheckAction extends DumbAwareAction {
           .collect(Collectors.toList());
     }
 
-    private void showFakeProgress(ProgressIndicator indicator) {
-      indicator.setIndeterminate(false);
-      indicator.setFraction(0.01);
-      try {
-        while (indicator.isRunning()) {
-          Thread.sleep(1000);
-          double fraction = indicator.getFraction();
-          indicator.setFraction(fraction + (1 - fraction) * 0.2);
-        }
-      }
-      catch (InterruptedException ignore) {
-      }
-    }
-
     @Override
     public void onSuccess() {
       CheckStatus status = myResult.getStatus();
@@ -325,11 +330,12 @@ public class CheckAction extends DumbAwareAction {
           myChecker.onTaskSolved();
         }
       }
+      myPhaseTracker.checkFinished();
       EduCounterUsageCollector.checkTask(myTask.getStatus());
       TaskDescriptionView.getInstance(myProject).checkFinished(myTask, myResult);
       ApplicationManager.getApplication().invokeLater(() -> {
+        CourseViewPresentationCache.getInstance(myProject).taskStatusChanged(myTask);
         ProgressUtil.updateCourseProgress(myProject);
-        ProjectView.getInstance(myProject).refresh();
 
         for (CheckListener listener : CheckListener.EP_NAME.getExtensions()) {
           listener.afterCheck(myProject, myTask, myResult);
@@ -340,8 +346,11 @@ public class CheckAction extends DumbAwareAction {
 
     @Override
     public void onCancel() {
+      // Check superseded before it started hasn't touched UI and checker state, which belong to another check now
+      if (myStarted) {
+        TaskDescriptionView.getInstance(myProject).readyToCheck();
+      }
       finishChecking();
-      TaskDescriptionView.getInstance(myProject).readyToCheck();
     }
 
     @Override
@@ -353,10 +362,12 @@ public class CheckAction extends DumbAwareAction {
     }
 
     private void finishChecking() {
-      if (myChecker != null) {
+      if (myChecker != null && myStarted) {
         myChecker.clearState();
       }
-      myCheckInProgress.set(false);
+      if (myRun != null) {
+        myRun.finish();
+      }
     }
 
     private NotificationSettings turnOffTestRunnerNotifications() {
@@ -1,6 +1,5 @@
 package com.jetbrains.edu.learning.authUtils
 
-import com.fasterxml.jackson.databind.ObjectMapper
 import com.intellij.openapi.application.ModalityState
 import com.intellij.openapi.application.impl.ApplicationInfoImpl
 import com.intellij.openapi.ui.Messages
@@ -13,6 +12,7 @@ import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.getInEdt
 import com.jetbrains.edu.learning.messages.EduCoreBundle
 import com.jetbrains.edu.learning.pluginVersion
+import com.jetbrains.edu.learning.serialization.ObjectMappers
 import io.netty.buffer.Unpooled
 import io.netty.channel.ChannelHandlerContext
 import io.netty.handler.codec.http.FullHttpRequest
@@ -46,7 +46,7 @@ fun requestFocus() {
 
 fun sendPluginInfoResponse(request: FullHttpRequest, context: ChannelHandlerContext) {
   val appInfo = ApplicationInfoImpl.getShadowInstance()
-  createResponse(ObjectMapper().writeValueAsString(PluginInfo("${appInfo.versionName} ${appInfo.fullVersion}",
+  createResponse(ObjectMappers.JSON.writeValueAsString(PluginInfo("${appInfo.versionName} ${appInfo.fullVersion}",
                                                               pluginVersion(EduNames.PLUGIN_ID))))
     .send(context.channel(), request)
 }
@@ -0,0 +1,149 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.util.io.DigestUtil
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
+import com.jetbrains.edu.learning.Result
+import com.jetbrains.edu.learning.courseFormat.StudyItem
+import com.jetbrains.edu.learning.courseFormat.ext.getDocument
+import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps executables built from task files by content hash of the task files.
+ * It allows compiled languages to build a task once and run it with several inputs, e.g. for Codeforces tests,
+ * and skip build completely while the task isn't modified.
+ *
+ * Executables are kept by task path in course, so an executable of a removed task is dropped with [invalidate]
+ */
+@Service
+class BuiltExecutableCache(private val project: Project) : Disposable {
+
+  private val executables = HashMap<String, CachedExecutable>()
+  private val buildLocks = ConcurrentHashMap<String, Any>()
+
+  /**
+   * Directory to put executables built by [getOrBuild]. It's deleted together with the project
+   */
+  val executablesDir: Path = Paths.get(FileUtil.getTempDirectory(), "edu-executables-${project.locationHash}")
+
+  /**
+   * @return executable built from the task files with the given [contentHash]
+   * if it's still available and wasn't rebuilt since it was put to the cache
+   */
+  fun getExecutable(task: Task, contentHash: String): Path? {
+    val cached = synchronized(executables) { executables[task.pathInCourse] } ?: return null
+    if (cached.contentHash != contentHash || lastModified(cached.path) != cached.lastModified) return null
+    return cached.path
+  }
+
+  fun putExecutable(task: Task, contentHash: String, executable: Path) {
+    val lastModified = lastModified(executable) ?: return
+    val previous = synchronized(executables) {
+      executables.put(task.pathInCourse, CachedExecutable(contentHash, executable, lastModified))
+    }
+    if (previous != null && previous.path.parent != executable.parent) {
+      deleteBuiltExecutable(previous)
+    }
+  }
+
+  /**
+   * Returns cached executable of [task] or builds it with [build] if the task was modified since the last build.
+   * [build] receives an empty directory unique for the task and its current content to put the executable to.
+   *
+   * Builds of the same task are performed one by one, so concurrent checks don't build the task into the same directory
+   */
+  fun getOrBuild(task: Task, build: (outputDir: Path) -> Result<Path, CheckResult>): Result<Path, CheckResult> {
+    val taskPath = task.pathInCourse
+    synchronized(buildLocks.computeIfAbsent(taskPath) { Any() }) {
+      val contentHash = computeContentHash(task)
+      val executable = getExecutable(task, contentHash)
+      if (executable != null) return Ok(executable)
+
+      val outputDir = executablesDir.resolve(FileUtil.sanitizeFileName(taskPath)).resolve(contentHash)
+      try {
+        FileUtil.delete(outputDir)
+        Files.createDirectories(outputDir)
+      }
+      catch (e: IOException) {
+        LOG.warn("Failed to create directory for executable of `$taskPath`", e)
+        return Err(CheckResult.failedToCheck)
+      }
+      val result = build(outputDir)
+      if (result is Ok) {
+        putExecutable(task, contentHash, result.value)
+      }
+      return result
+    }
+  }
+
+  /**
+   * Drops executables of the given item and all tasks inside it, e.g. when the item is removed from the course
+   */
+  fun invalidate(item: StudyItem) {
+    val itemPath = item.pathInCourse
+    val removed = synchronized(executables) {
+      val paths = executables.keys.filter { it == itemPath || it.startsWith("$itemPath/") }
+      paths.mapNotNull { executables.remove(it) }
+    }
+    buildLocks.keys.removeIf { it == itemPath || it.startsWith("$itemPath/") }
+    removed.forEach(::deleteBuiltExecutable)
+  }
+
+  /**
+   * Computes hash of the current content of all task files including unsaved changes
+   */
+  fun computeContentHash(task: Task): String {
+    val digest = DigestUtil.sha256()
+    runReadAction {
+      for ((name, taskFile) in task.taskFiles.toSortedMap()) {
+        digest.update(name.toByteArray(StandardCharsets.UTF_8))
+        digest.update(0)
+        val content = taskFile.getDocument(project)?.text?.toByteArray(StandardCharsets.UTF_8)
+                      ?: taskFile.getVirtualFile(project)?.contentsToByteArray()
+                      ?: continue
+        digest.update(content)
+      }
+    }
+    return StringUtil.toHexString(digest.digest())
+  }
+
+  override fun dispose() {
+    FileUtil.delete(executablesDir)
+  }
+
+  /**
+   * Only executables built by [getOrBuild] are deleted, others are owned by build tools
+   */
+  private fun deleteBuiltExecutable(cached: CachedExecutable) {
+    val dir = cached.path.parent ?: return
+    if (dir.startsWith(executablesDir)) {
+      FileUtil.delete(dir)
+    }
+  }
+
+  private fun lastModified(path: Path): Long? =
+    if (Files.isRegularFile(path)) Files.getLastModifiedTime(path).toMillis() else null
+
+  private class CachedExecutable(val contentHash: String, val path: Path, val lastModified: Long)
+
+  companion object {
+    private val LOG: Logger = Logger.getInstance(BuiltExecutableCache::class.java)
+
+    fun getInstance(project: Project): BuiltExecutableCache = project.service()
+  }
+}
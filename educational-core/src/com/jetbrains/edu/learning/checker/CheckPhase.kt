@@ -0,0 +1,40 @@
+package com.jetbrains.edu.learning.checker
+
+import com.jetbrains.edu.learning.messages.EduCoreBundle
+
+/**
+ * Phases of a solution check in the order they are executed.
+ * [startFraction] and [endFraction] define the part of check progress taken by a phase.
+ *
+ * Saving of check results isn't a phase: task status is saved to config files asynchronously on EDT
+ * after the check is finished, so neither its duration nor progress belong to the check
+ */
+enum class CheckPhase(private val messageKey: String, val startFraction: Double, val endFraction: Double) {
+  /**
+   * Environment required to check a task (SDK, interpreter, etc.) is validated once per check
+   */
+  VALIDATE_ENVIRONMENT("progress.text.check.phase.validate.environment", 0.0, 0.05),
+
+  /**
+   * Documents are saved and invisible test files are written to disk
+   */
+  SNAPSHOT("progress.text.check.phase.snapshot", 0.05, 0.1),
+
+  /**
+   * Things to execute are prepared: run configurations are created, code is compiled
+   */
+  BUILD("progress.text.check.phase.build", 0.1, 0.3),
+
+  /**
+   * Tests or solution are executed
+   */
+  RUN("progress.text.check.phase.run", 0.3, 0.85),
+
+  /**
+   * Check result is built from execution results
+   */
+  EVALUATE("progress.text.check.phase.evaluate", 0.85, 1.0);
+
+  val presentableName: String
+    get() = EduCoreBundle.message(messageKey)
+}
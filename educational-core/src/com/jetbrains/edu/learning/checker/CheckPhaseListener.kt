@@ -0,0 +1,21 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.util.messages.Topic
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+/**
+ * Receives durations of check phases, see [CheckPhaseTracker]
+ */
+interface CheckPhaseListener {
+  fun phaseFinished(task: Task, phase: CheckPhase, durationMs: Long) {}
+
+  /**
+   * Called when check of [task] is finished with total durations of all executed phases
+   */
+  fun checkFinished(task: Task, timings: Map<CheckPhase, Long>) {}
+
+  companion object {
+    @JvmField
+    val TOPIC: Topic<CheckPhaseListener> = Topic.create("Edu check phases", CheckPhaseListener::class.java)
+  }
+}
@@ -0,0 +1,105 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import java.util.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Reports progress of [CheckPhase]s of a single check to [indicator], measures their durations
+ * and publishes them to [CheckPhaseListener.TOPIC].
+ *
+ * A phase can be executed several times during one check, its durations are summed up
+ */
+class CheckPhaseTracker(private val project: Project, private val task: Task, private val indicator: ProgressIndicator) {
+  private val startTimes = EnumMap<CheckPhase, Long>(CheckPhase::class.java)
+  private val timings = EnumMap<CheckPhase, Long>(CheckPhase::class.java)
+
+  fun phaseStarted(phase: CheckPhase) {
+    synchronized(this) {
+      startTimes[phase] = System.nanoTime()
+    }
+    updateProgress(phase.presentableName, phase.startFraction)
+  }
+
+  fun phaseFinished(phase: CheckPhase) {
+    val startTime = synchronized(this) { startTimes.remove(phase) } ?: return
+    val duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+    addDuration(phase, duration)
+    updateProgress(null, phase.endFraction)
+  }
+
+  fun <T> runPhase(phase: CheckPhase, action: () -> T): T {
+    phaseStarted(phase)
+    try {
+      return action()
+    }
+    finally {
+      phaseFinished(phase)
+    }
+  }
+
+  /**
+   * Runs [checker] with this tracker.
+   * If the checker doesn't report [CheckPhase.BUILD], [CheckPhase.RUN] and [CheckPhase.EVALUATE] phases itself,
+   * the whole [TaskChecker.check] is reported as [CheckPhase.RUN]
+   */
+  fun runChecker(checker: TaskChecker<*>): CheckResult {
+    checker.phaseTracker = this
+    updateProgress(CheckPhase.RUN.presentableName, CheckPhase.BUILD.startFraction)
+    val startTime = System.nanoTime()
+    try {
+      return checker.check(indicator)
+    }
+    finally {
+      checker.phaseTracker = null
+      val hasCheckerPhases = synchronized(this) { CHECKER_PHASES.any { it in timings } }
+      if (!hasCheckerPhases) {
+        addDuration(CheckPhase.RUN, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+      }
+      updateProgress(null, CheckPhase.EVALUATE.endFraction)
+    }
+  }
+
+  /**
+   * Logs and publishes durations of all executed phases
+   */
+  fun checkFinished() {
+    val timings = getTimings()
+    LOG.info("Checking of ${task.name} task took ${timings.values.sum()} ms: " +
+             timings.entries.joinToString { (phase, duration) -> "${phase.name.toLowerCase()} $duration ms" })
+    if (!project.isDisposed) {
+      project.messageBus.syncPublisher(CheckPhaseListener.TOPIC).checkFinished(task, timings)
+    }
+  }
+
+  @Synchronized
+  fun getTimings(): Map<CheckPhase, Long> = EnumMap(timings)
+
+  private fun addDuration(phase: CheckPhase, duration: Long) {
+    synchronized(this) {
+      timings[phase] = (timings[phase] ?: 0) + duration
+    }
+    if (!project.isDisposed) {
+      project.messageBus.syncPublisher(CheckPhaseListener.TOPIC).phaseFinished(task, phase, duration)
+    }
+  }
+
+  private fun updateProgress(text: String?, fraction: Double) {
+    // Persisting happens after the progress is finished
+    if (!indicator.isRunning) return
+    if (text != null) {
+      indicator.text = text
+    }
+    indicator.isIndeterminate = false
+    indicator.fraction = fraction
+  }
+
+  companion object {
+    private val LOG = logger<CheckPhaseTracker>()
+
+    private val CHECKER_PHASES = EnumSet.of(CheckPhase.BUILD, CheckPhase.RUN, CheckPhase.EVALUATE)
+  }
+}
@@ -0,0 +1,73 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
+import com.intellij.openapi.project.Project
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Keeps track of the check in progress in a project.
+ *
+ * A new check supersedes the running one: the running check is canceled
+ * and the new one waits until it's finished, so they don't share test files and run configurations
+ */
+@Service
+class CheckPipeline {
+  private var currentRun: Run? = null
+
+  fun startRun(indicator: ProgressIndicator): Run {
+    synchronized(this) {
+      val previous = currentRun
+      previous?.indicator?.cancel()
+      val run = Run(indicator, previous)
+      currentRun = run
+      return run
+    }
+  }
+
+  fun isCheckInProgress(): Boolean = synchronized(this) { currentRun != null }
+
+  inner class Run(val indicator: ProgressIndicator, private var previous: Run?) {
+    /**
+     * Completed when this run and all runs it superseded are finished
+     */
+    private val finished = CompletableFuture<Unit>()
+
+    /**
+     * Waits until the superseded check is finished. Throws [com.intellij.openapi.progress.ProcessCanceledException]
+     * if this check is canceled itself meanwhile
+     */
+    fun awaitPrevious() {
+      val superseded = synchronized(this@CheckPipeline) { previous } ?: return
+      ProgressIndicatorUtils.awaitWithCheckCanceled(superseded.finished, indicator)
+      synchronized(this@CheckPipeline) {
+        this.previous = null
+      }
+    }
+
+    fun finish() {
+      val superseded = synchronized(this@CheckPipeline) {
+        if (currentRun === this) {
+          currentRun = null
+        }
+        val superseded = previous
+        previous = null
+        superseded
+      }
+      // A run canceled while waiting for the previous one is finished only with it,
+      // so the next run doesn't start while the previous one is still in progress
+      if (superseded == null) {
+        finished.complete(Unit)
+      }
+      else {
+        superseded.finished.whenComplete { _, _ -> finished.complete(Unit) }
+      }
+    }
+  }
+
+  companion object {
+    fun getInstance(project: Project): CheckPipeline = project.service()
+  }
+}
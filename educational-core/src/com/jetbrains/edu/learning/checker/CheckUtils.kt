@@ -101,9 +101,11 @@ object CheckUtils {
     }
   }
 
-  fun hasCompilationErrors(processOutput: ProcessOutput): Boolean {
+  fun hasCompilationErrors(processOutput: ProcessOutput): Boolean = hasCompilationErrors(processOutput.stderr)
+
+  fun hasCompilationErrors(stderr: String): Boolean {
     for (error in COMPILATION_ERRORS) {
-      if (processOutput.stderr.contains(error)) return true
+      if (stderr.contains(error)) return true
     }
     return false
   }
@@ -5,6 +5,7 @@ import com.intellij.execution.configurations.ConfigurationFactory
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
 import com.jetbrains.edu.learning.Result
 import com.jetbrains.edu.learning.codeforces.run.CodeforcesRunConfiguration
 import com.jetbrains.edu.learning.codeforces.run.InvalidCodeforcesRunConfiguration
@@ -29,6 +30,29 @@ interface CodeExecutor {
     input: String? = null
   ): Result<String, CheckResult>
 
+  /**
+   * Executes code passing its output to [outputConsumer] as soon as it's available.
+   * If [outputConsumer] returns `false`, the rest of the output isn't needed and execution may be stopped.
+   *
+   * By default, the whole output is passed to [outputConsumer] after execution is finished.
+   * Implementations that run code as a process should override it to pass output while the process is running.
+   *
+   * @return the same values as [execute] does, but output in [Ok][com.jetbrains.edu.learning.Ok] may be incomplete
+   */
+  fun execute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: (String) -> Boolean
+  ): Result<String, CheckResult> {
+    val result = execute(project, task, indicator, input)
+    if (result is Ok) {
+      outputConsumer(result.value)
+    }
+    return result
+  }
+
   fun createRunConfiguration(
     project: Project,
     task: Task
@@ -1,6 +1,7 @@
 package com.jetbrains.edu.learning.checker
 
 import com.intellij.execution.ExecutionListener
+import com.intellij.execution.RunnerAndConfigurationSettings
 import com.intellij.execution.configurations.RuntimeConfigurationException
 import com.intellij.execution.process.ProcessHandler
 import com.intellij.execution.runners.ExecutionEnvironment
@@ -20,13 +21,43 @@ import java.io.OutputStreamWriter
 import java.nio.charset.StandardCharsets
 
 open class DefaultCodeExecutor : CodeExecutor {
-  override fun execute(project: Project, task: Task, indicator: ProgressIndicator, input: String?): Result<String, CheckResult> {
+  override fun execute(project: Project, task: Task, indicator: ProgressIndicator, input: String?): Result<String, CheckResult> =
+    doExecute(project, task, indicator, input, null)
+
+  override fun execute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: (String) -> Boolean
+  ): Result<String, CheckResult> = doExecute(project, task, indicator, input, outputConsumer)
+
+  private fun doExecute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: ((String) -> Boolean)?
+  ): Result<String, CheckResult> {
+    val configuration = runReadActionInSmartMode(project) { createRunConfiguration(project, task) }
+    return executeConfiguration(project, configuration, indicator, input, outputConsumer)
+  }
+
+  /**
+   * Runs the given [configuration] created for a task. Allows subclasses to reuse the configuration after run
+   */
+  protected fun executeConfiguration(
+    project: Project,
+    configuration: RunnerAndConfigurationSettings?,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: ((String) -> Boolean)?
+  ): Result<String, CheckResult> {
     fun logAndQuit(error: String): Err<CheckResult> {
       LOG.warn(error)
       return resultUnchecked(error)
     }
 
-    val configuration = runReadActionInSmartMode(project) { createRunConfiguration(project, task) }
     if (configuration == null) {
       LOG.warn("Failed to launch checking. Run configuration is null")
       return Err(CheckResult.failedToCheck)
@@ -63,7 +94,7 @@ open class DefaultCodeExecutor : CodeExecutor {
       }
     }
 
-    val processListener = StdoutProcessListener()
+    val processListener = StdoutProcessListener(outputConsumer)
 
     if (!CheckUtils.executeRunConfigurations(project, listOf(configuration), indicator, executionListener, processListener))
       return logAndQuit(EduCoreBundle.message("error.execution.failed"))
@@ -71,14 +102,16 @@ open class DefaultCodeExecutor : CodeExecutor {
     if (indicator.isCanceled) return logAndQuit(EduCoreBundle.message("error.execution.canceled"))
     if (processNotStarted) return logAndQuit(EduCoreBundle.message("error.execution.failed"))
 
-    var outputString = processListener.output.joinToString("")
+    var outputString = processListener.output
     if (outputString.isEmpty()) {
-      outputString = "<no output>"
+      outputString = NO_OUTPUT
     }
     return Ok(outputString)
   }
 
   companion object {
     private val LOG = Logger.getInstance(DefaultCodeExecutor::class.java)
+
+    const val NO_OUTPUT = "<no output>"
   }
 }
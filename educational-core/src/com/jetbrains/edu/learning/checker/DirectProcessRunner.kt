@@ -0,0 +1,81 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.execution.ExecutionException
+import com.intellij.execution.configurations.GeneralCommandLine
+import com.intellij.execution.process.OSProcessHandler
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProgressIndicator
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
+import com.jetbrains.edu.learning.Result
+import com.jetbrains.edu.learning.checker.CodeExecutor.Companion.resultUnchecked
+import com.jetbrains.edu.learning.messages.EduCoreBundle
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+
+/**
+ * Runs already built executables as plain processes, without creating and launching run configurations.
+ * Useful when the same executable is run several times with different input, e.g. for Codeforces tests.
+ */
+object DirectProcessRunner {
+  private val LOG = Logger.getInstance(DirectProcessRunner::class.java)
+
+  private const val WAIT_TIMEOUT_MS = 100L
+
+  /**
+   * Runs [commandLine] passing [input] to its stdin.
+   * Output is passed to [outputConsumer] as soon as it's printed, see [CodeExecutor.execute] for details.
+   *
+   * @return [Ok] with the process output or [Err] if the process can't be started or was canceled.
+   * Output that doesn't fit into [LimitedOutputBuffer] is truncated
+   */
+  fun run(
+    commandLine: GeneralCommandLine,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: ((String) -> Boolean)? = null
+  ): Result<ProcessRunOutput, CheckResult> {
+    val handler = try {
+      OSProcessHandler(commandLine.withCharset(StandardCharsets.UTF_8))
+    }
+    catch (e: ExecutionException) {
+      LOG.warn("Failed to start `${commandLine.commandLineString}`", e)
+      return resultUnchecked(EduCoreBundle.message("error.execution.failed"))
+    }
+
+    val processListener = StdoutProcessListener(outputConsumer)
+    handler.addProcessListener(processListener)
+    handler.startNotify()
+
+    try {
+      handler.processInput.bufferedWriter(StandardCharsets.UTF_8).use {
+        if (input != null) {
+          it.write(input)
+          it.write("\n")
+        }
+      }
+    }
+    catch (e: IOException) {
+      // the process may finish without reading its input
+      LOG.info("Failed to write input", e)
+    }
+
+    while (!handler.waitFor(WAIT_TIMEOUT_MS)) {
+      if (indicator.isCanceled) {
+        handler.destroyProcess()
+        return resultUnchecked(EduCoreBundle.message("error.execution.canceled"))
+      }
+    }
+
+    val exitCode = handler.exitCode ?: -1
+    return Ok(ProcessRunOutput(processListener.output, exitCode, processListener.isProcessStopped))
+  }
+
+  /**
+   * @param isStopped `true` if the process was stopped because the rest of its output wasn't needed.
+   * [exitCode] of such a process is meaningless
+   */
+  class ProcessRunOutput(val stdout: String, val exitCode: Int, val isStopped: Boolean) {
+    val isSuccess: Boolean get() = isStopped || exitCode == 0
+  }
+}
@@ -38,23 +38,26 @@ abstract class EduTaskCheckerBase(task: EduTask, private val envChecker: Environ
       }
     }
 
-    val possibleError = envChecker.getEnvironmentError(project, task)
+    val possibleError = validateEnvironmentIfNeeded()
     if (possibleError != null) {
       return possibleError
     }
 
-    val configurations = runReadActionInSmartMode(project) { createTestConfigurations() }
-    configurations.forEach {
-      it.isActivateToolWindowBeforeRun = activateRunToolWindow
-    }
+    val configurations = runPhase(CheckPhase.BUILD) {
+      val configurations = runReadActionInSmartMode(project) { createTestConfigurations() }
+      configurations.forEach {
+        it.isActivateToolWindowBeforeRun = activateRunToolWindow
+      }
 
-    if (configurations.isEmpty()) return noTestsRun
+      if (configurations.isEmpty()) return noTestsRun
 
-    configurations.forEach {
-      val validationResult = validateConfiguration(it)
-      if (validationResult != null) {
-        return validationResult
+      configurations.forEach {
+        val validationResult = validateConfiguration(it)
+        if (validationResult != null) {
+          return validationResult
+        }
       }
+      configurations
     }
 
     val testRoots = mutableListOf<SMTestProxy.SMRootTestProxy>()
@@ -68,7 +71,7 @@ abstract class EduTaskCheckerBase(task: EduTask, private val envChecker: Environ
       }
     }
 
-    val stderr = StringBuilder()
+    val stderr = LimitedOutputBuffer()
     val processListener = object : ProcessAdapter() {
       override fun onTextAvailable(event: ProcessEvent, outputType: Key<*>) {
         val text = event.text
@@ -78,24 +81,32 @@ abstract class EduTaskCheckerBase(task: EduTask, private val envChecker: Environ
       }
     }
 
-    if (!CheckUtils.executeRunConfigurations(
-        project,
-        configurations,
-        indicator,
-        processListener = processListener,
-        testEventsListener = testEventsListener
-      )) {
-      LOG.warn("Execution failed because the configuration is broken")
-      return noTestsRun
-    }
+    runPhase(CheckPhase.RUN) {
+      if (!CheckUtils.executeRunConfigurations(
+          project,
+          configurations,
+          indicator,
+          processListener = processListener,
+          testEventsListener = testEventsListener
+        )) {
+        LOG.warn("Execution failed because the configuration is broken")
+        return noTestsRun
+      }
 
-    // We need to invoke all current pending EDT actions to get proper states of test roots.
-    invokeAndWaitIfNeeded {}
+      // We need to invoke all current pending EDT actions to get proper states of test roots.
+      invokeAndWaitIfNeeded {}
+    }
 
     if (indicator.isCanceled) return CheckResult.CANCELED
 
+    return runPhase(CheckPhase.EVALUATE) { evaluateTestResults(indicator, testRoots, stderr.toString()) }
+  }
+
+  override fun validateEnvironment(): CheckResult? = envChecker.getEnvironmentError(project, task)
+
+  private fun evaluateTestResults(indicator: ProgressIndicator, testRoots: List<SMTestProxy.SMRootTestProxy>, stderr: String): CheckResult {
     if (areTestsFailedToRun(testRoots)) {
-      val result = computePossibleErrorResult(indicator, stderr.toString())
+      val result = computePossibleErrorResult(indicator, stderr)
       if (!result.isSolved) {
         return result
       }
@@ -207,8 +218,9 @@ abstract class EduTaskCheckerBase(task: EduTask, private val envChecker: Environ
   protected open fun validateConfiguration(configuration: RunnerAndConfigurationSettings): CheckResult? = null
 
   companion object {
-    fun extractComparisonErrorMessage(node: SMTestProxy): String {
-      val errorMessage = node.errorMessage.orEmpty()
+    fun extractComparisonErrorMessage(node: SMTestProxy): String = extractComparisonErrorMessage(node.errorMessage.orEmpty())
+
+    fun extractComparisonErrorMessage(errorMessage: String): String {
       val index = StringUtil.indexOfIgnoreCase(errorMessage, "expected:", 0)
       return if (index != -1) errorMessage.substring(0, index).trim() else errorMessage
     }
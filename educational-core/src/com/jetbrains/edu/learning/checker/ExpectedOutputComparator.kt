@@ -0,0 +1,289 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.vfs.VirtualFile
+import java.io.Closeable
+import java.io.InputStreamReader
+import java.io.Reader
+import java.io.StringReader
+import java.nio.CharBuffer
+
+/**
+ * Rules applied to both expected and actual output before comparison
+ *
+ * @param normalizeLineSeparators if `true`, `\r\n` line separators are treated as `\n`
+ * @param ignoreTrailingSpaces if `true`, spaces and tabs at the end of each line are ignored
+ * @param ignoreTrailingLineBreaks if `true`, line breaks at the end of output are ignored
+ */
+data class OutputNormalization(
+  val normalizeLineSeparators: Boolean = true,
+  val ignoreTrailingSpaces: Boolean = false,
+  val ignoreTrailingLineBreaks: Boolean = false
+) {
+  companion object {
+    @JvmField
+    val DEFAULT = OutputNormalization()
+    @JvmField
+    val CODEFORCES = OutputNormalization(ignoreTrailingLineBreaks = true)
+  }
+}
+
+/**
+ * Compares process output with expected one while the process is running.
+ *
+ * Expected output is read from [expected] only as far as actual output goes,
+ * so neither of them is kept in memory entirely.
+ * As soon as the first difference is found, [addOutput] returns `false` and the process can be stopped
+ * since its further output can't change check result.
+ *
+ * The diff returned by [finish] contains only [windowSize] characters before the first difference
+ * and no more than [windowSize] characters after it.
+ */
+class ExpectedOutputComparator(
+  private val expected: Reader,
+  normalization: OutputNormalization = OutputNormalization.DEFAULT,
+  private val windowSize: Int = DEFAULT_WINDOW_SIZE
+) : Closeable {
+  private val expectedNormalizer = OutputNormalizer(normalization)
+  private val actualNormalizer = OutputNormalizer(normalization)
+
+  private val readBuffer = CharArray(READ_BUFFER_SIZE)
+  private val expectedBuffer = StringBuilder()
+  private var expectedOffset = 0
+  private var isExpectedRead = false
+
+  private val actualBuffer = StringBuilder()
+  private var hasOutput = false
+
+  // Tail of already matched output used as a context of diff
+  private val matchedContext = StringBuilder()
+  private var isContextTruncated = false
+
+  private var expectedAfterMismatch: StringBuilder? = null
+  private var actualAfterMismatch: StringBuilder? = null
+
+  val isMismatchFound: Boolean get() = actualAfterMismatch != null
+
+  /**
+   * Compares output [chunk] with the corresponding part of expected output
+   *
+   * @return `false` if a difference is already found and the rest of the output can be skipped
+   */
+  fun addOutput(chunk: String): Boolean {
+    if (chunk.isNotEmpty()) {
+      hasOutput = true
+    }
+    actualBuffer.setLength(0)
+    actualNormalizer.normalize(chunk, actualBuffer)
+    compare(actualBuffer)
+    return !isMismatchFound
+  }
+
+  /**
+   * Should be called when process is terminated or stopped.
+   * Empty output is compared as [DefaultCodeExecutor.NO_OUTPUT] the same way code executors return it
+   *
+   * @return diff around the first difference or `null` if actual output matches expected one
+   */
+  fun finish(): CheckResultDiff? {
+    actualBuffer.setLength(0)
+    if (!hasOutput) {
+      hasOutput = true
+      actualNormalizer.normalize(DefaultCodeExecutor.NO_OUTPUT, actualBuffer)
+    }
+    actualNormalizer.finish(actualBuffer)
+    compare(actualBuffer)
+    if (!isMismatchFound && hasMoreExpected()) {
+      registerMismatch("")
+    }
+
+    val actualRest = actualAfterMismatch ?: return null
+    val expectedRest = expectedAfterMismatch ?: return null
+    val context = diffContext()
+    return CheckResultDiff(expected = context + expectedRest, actual = context + actualRest)
+  }
+
+  override fun close() {
+    expected.close()
+  }
+
+  private fun compare(actual: CharSequence) {
+    val actualRest = actualAfterMismatch
+    if (actualRest != null) {
+      actualRest.appendLimited(actual, 0)
+      return
+    }
+
+    var actualOffset = 0
+    while (actualOffset < actual.length) {
+      if (!hasMoreExpected()) {
+        registerMismatch(actual.subSequence(actualOffset, actual.length))
+        return
+      }
+      val length = minOf(actual.length - actualOffset, expectedBuffer.length - expectedOffset)
+      for (i in 0 until length) {
+        if (actual[actualOffset + i] != expectedBuffer[expectedOffset + i]) {
+          addMatched(actual, actualOffset, actualOffset + i)
+          expectedOffset += i
+          registerMismatch(actual.subSequence(actualOffset + i, actual.length))
+          return
+        }
+      }
+      addMatched(actual, actualOffset, actualOffset + length)
+      actualOffset += length
+      expectedOffset += length
+    }
+  }
+
+  private fun hasMoreExpected(): Boolean {
+    if (expectedOffset < expectedBuffer.length) return true
+    expectedBuffer.setLength(0)
+    expectedOffset = 0
+    while (expectedBuffer.isEmpty() && !isExpectedRead) {
+      val length = expected.read(readBuffer)
+      if (length == -1) {
+        isExpectedRead = true
+        expectedNormalizer.finish(expectedBuffer)
+      }
+      else {
+        expectedNormalizer.normalize(CharBuffer.wrap(readBuffer, 0, length), expectedBuffer)
+      }
+    }
+    return expectedBuffer.isNotEmpty()
+  }
+
+  private fun registerMismatch(actualRest: CharSequence) {
+    val expectedRest = StringBuilder()
+    while (expectedRest.length < windowSize && hasMoreExpected()) {
+      val length = expectedRest.appendLimited(expectedBuffer, expectedOffset)
+      expectedOffset += length
+    }
+    expectedAfterMismatch = expectedRest
+    actualAfterMismatch = StringBuilder().apply { appendLimited(actualRest, 0) }
+  }
+
+  private fun addMatched(text: CharSequence, start: Int, end: Int) {
+    matchedContext.append(text, maxOf(start, end - windowSize), end)
+    // Trim context not on every chunk to avoid copying it each time
+    if (matchedContext.length > 2 * windowSize) {
+      matchedContext.delete(0, matchedContext.length - windowSize)
+      isContextTruncated = true
+    }
+    else if (end - start > windowSize) {
+      isContextTruncated = true
+    }
+  }
+
+  private fun diffContext(): String {
+    if (matchedContext.length > windowSize) {
+      matchedContext.delete(0, matchedContext.length - windowSize)
+      isContextTruncated = true
+    }
+    if (!isContextTruncated) return matchedContext.toString()
+    // Start context from the beginning of a line to make diff more readable
+    val lineStart = matchedContext.indexOf("\n")
+    val context = if (lineStart == -1) matchedContext else matchedContext.substring(lineStart + 1)
+    return "...\n$context"
+  }
+
+  /**
+   * Appends characters of [text] starting from [start] while the builder is shorter than [windowSize]
+   *
+   * @return number of appended characters
+   */
+  private fun StringBuilder.appendLimited(text: CharSequence, start: Int): Int {
+    val length = minOf(windowSize - this.length, text.length - start)
+    if (length <= 0) return 0
+    append(text, start, start + length)
+    return length
+  }
+
+  companion object {
+    const val DEFAULT_WINDOW_SIZE = 2000
+    private const val READ_BUFFER_SIZE = 8192
+
+    /**
+     * Returns reader of expected output file.
+     * Unsaved changes of the file are taken into account, otherwise the file is read as a stream
+     */
+    fun expectedOutputReader(file: VirtualFile): Reader {
+      return runReadAction {
+        val documentManager = FileDocumentManager.getInstance()
+        val document = documentManager.getCachedDocument(file)
+        if (document != null && documentManager.isDocumentUnsaved(document)) {
+          StringReader(document.text)
+        }
+        else {
+          InputStreamReader(file.inputStream, file.charset).buffered()
+        }
+      }
+    }
+  }
+}
+
+/**
+ * Applies [OutputNormalization] rules to the output passed by chunks.
+ *
+ * Characters which can be dropped depending on the following output (trailing spaces and line breaks)
+ * are kept until it becomes clear whether they should be dropped.
+ */
+private class OutputNormalizer(private val normalization: OutputNormalization) {
+  private var hasPendingCR = false
+  private var pendingLineBreaks = 0
+  private val pendingSpaces = StringBuilder()
+
+  fun normalize(text: CharSequence, out: StringBuilder) {
+    for (char in text) {
+      if (normalization.normalizeLineSeparators) {
+        if (hasPendingCR) {
+          hasPendingCR = false
+          if (char == '\n') {
+            addChar('\n', out)
+            continue
+          }
+          addChar('\r', out)
+        }
+        if (char == '\r') {
+          hasPendingCR = true
+          continue
+        }
+      }
+      addChar(char, out)
+    }
+  }
+
+  fun finish(out: StringBuilder) {
+    if (hasPendingCR) {
+      hasPendingCR = false
+      addChar('\r', out)
+    }
+    // Pending spaces and line breaks are kept only if they should be ignored at the end of output
+    pendingSpaces.setLength(0)
+    pendingLineBreaks = 0
+  }
+
+  private fun addChar(char: Char, out: StringBuilder) {
+    when {
+      char == '\n' -> {
+        if (normalization.ignoreTrailingSpaces) {
+          pendingSpaces.setLength(0)
+        }
+        if (normalization.ignoreTrailingLineBreaks) {
+          pendingLineBreaks++
+        }
+        else {
+          out.append(char)
+        }
+      }
+      normalization.ignoreTrailingSpaces && (char == ' ' || char == '\t') -> pendingSpaces.append(char)
+      else -> {
+        repeat(pendingLineBreaks) { out.append('\n') }
+        pendingLineBreaks = 0
+        out.append(pendingSpaces)
+        pendingSpaces.setLength(0)
+        out.append(char)
+      }
+    }
+  }
+}
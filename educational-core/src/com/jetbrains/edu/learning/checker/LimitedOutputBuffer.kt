@@ -0,0 +1,59 @@
+package com.jetbrains.edu.learning.checker
+
+/**
+ * Accumulates process output keeping only the first [headLimit] and the last [tailLimit] characters.
+ *
+ * It allows showing meaningful output of a process that prints a lot (e.g. a solution with an infinite loop)
+ * without keeping all its output in memory.
+ * Output can be appended from process reader threads, so all methods are synchronized.
+ */
+class LimitedOutputBuffer(
+  private val headLimit: Int = DEFAULT_HEAD_LIMIT,
+  private val tailLimit: Int = DEFAULT_TAIL_LIMIT
+) {
+  private val head = StringBuilder()
+  private val tail = StringBuilder()
+
+  /**
+   * Number of characters appended to the buffer including skipped ones
+   */
+  @get:Synchronized
+  var totalLength: Long = 0
+    private set
+
+  val isTruncated: Boolean get() = totalLength > headLimit + tailLimit
+
+  @Synchronized
+  fun append(text: String) {
+    totalLength += text.length
+    val headPart = minOf(headLimit - head.length, text.length)
+    if (headPart > 0) {
+      head.append(text, 0, headPart)
+    }
+    if (headPart == text.length) return
+
+    tail.append(text, maxOf(headPart, text.length - tailLimit), text.length)
+    // Trim tail not on every append to avoid copying of tail on each small chunk
+    if (tail.length > 2 * tailLimit) {
+      tail.delete(0, tail.length - tailLimit)
+    }
+  }
+
+  @Synchronized
+  fun isEmpty(): Boolean = totalLength == 0L
+
+  @Synchronized
+  override fun toString(): String {
+    if (tail.length > tailLimit) {
+      tail.delete(0, tail.length - tailLimit)
+    }
+    val skipped = totalLength - head.length - tail.length
+    if (skipped == 0L) return head.toString() + tail
+    return "$head\n... $skipped characters skipped ...\n$tail"
+  }
+
+  companion object {
+    const val DEFAULT_HEAD_LIMIT = 1_000_000
+    const val DEFAULT_TAIL_LIMIT = 100_000
+  }
+}
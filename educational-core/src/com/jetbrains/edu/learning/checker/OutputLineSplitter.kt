@@ -0,0 +1,56 @@
+package com.jetbrains.edu.learning.checker
+
+/**
+ * Splits process output chunks into lines as soon as they arrive.
+ *
+ * Chunks may contain several lines or only a part of a line, so an unfinished line is kept until its end is received.
+ * Lines longer than [maxLineLength] are passed to consumer by parts not to keep the whole output of a process
+ * printing without line breaks.
+ * Line separators are not passed to consumer.
+ */
+class OutputLineSplitter(private val maxLineLength: Int = LimitedOutputBuffer.DEFAULT_HEAD_LIMIT) {
+  private val currentLine = StringBuilder()
+  // `\r\n` separator may be split between chunks
+  private var skipLineFeed = false
+
+  fun append(text: String, consumer: (String) -> Unit) {
+    var lineStart = 0
+    for ((index, char) in text.withIndex()) {
+      if (skipLineFeed) {
+        skipLineFeed = false
+        if (char == '\n') {
+          lineStart = index + 1
+          continue
+        }
+      }
+      if (char == '\n' || char == '\r') {
+        currentLine.append(text, lineStart, index)
+        passLine(consumer)
+        lineStart = index + 1
+        skipLineFeed = char == '\r'
+      }
+      else if (currentLine.length + index - lineStart >= maxLineLength) {
+        currentLine.append(text, lineStart, index)
+        passLine(consumer)
+        lineStart = index
+      }
+    }
+    currentLine.append(text, lineStart, text.length)
+  }
+
+  /**
+   * Passes unfinished line to [consumer] if any.
+   * Should be called when process is terminated
+   */
+  fun flush(consumer: (String) -> Unit) {
+    if (currentLine.isNotEmpty()) {
+      passLine(consumer)
+    }
+  }
+
+  private fun passLine(consumer: (String) -> Unit) {
+    val line = currentLine.toString()
+    currentLine.setLength(0)
+    consumer(line)
+  }
+}
@@ -1,12 +1,9 @@
 package com.jetbrains.edu.learning.checker
 
-import com.intellij.openapi.application.runReadAction
-import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
 import com.jetbrains.edu.learning.Err
-import com.jetbrains.edu.learning.Ok
 import com.jetbrains.edu.learning.checker.CheckResult.Companion.failedToCheck
 import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
@@ -24,28 +21,36 @@ open class OutputTaskChecker(
 
   /**
    * This method contains logic of testing output task that should be same in all implementations.
-   * @see checkOutput
+   * @see ExpectedOutputComparator
    * @see CodeExecutor
    */
   final override fun check(indicator: ProgressIndicator): CheckResult {
     try {
-      val possibleError = envChecker.getEnvironmentError(project, task)
+      val possibleError = validateEnvironmentIfNeeded()
       if (possibleError != null) {
         return possibleError
       }
 
-      val outputString = when (val result = codeExecutor.execute(project, task, indicator)) {
-        is Ok -> CheckUtils.postProcessOutput(result.value)
-        is Err -> return result.error
-      }
-
       val outputPatternFile = getOutputFile()
       if (outputPatternFile == null) {
         LOG.warn("Failed to find `output.txt` file (output task `${task.lesson.name}/${task.name}`)")
         return failedToCheck
       }
-      val expectedOutput = runReadAction { FileDocumentManager.getInstance().getDocument(outputPatternFile)?.text.orEmpty() }
-      return checkOutput(outputString, expectedOutput)
+
+      // Output is compared with expected one while code is running, so the execution is stopped on the first mismatch
+      val diff = ExpectedOutputComparator(ExpectedOutputComparator.expectedOutputReader(outputPatternFile)).use { comparator ->
+        runPhase(CheckPhase.RUN) {
+          val result = codeExecutor.execute(project, task, indicator, null, comparator::addOutput)
+          if (result is Err) return result.error
+        }
+        runPhase(CheckPhase.EVALUATE) { comparator.finish() }
+      }
+      return if (diff == null) {
+        CheckResult(CheckStatus.Solved, CheckUtils.CONGRATULATIONS)
+      }
+      else {
+        CheckResult(CheckStatus.Failed, EduCoreBundle.message("check.incorrect"), diff = diff)
+      }
     }
     catch (e: Exception) {
       LOG.error(e)
@@ -53,15 +58,7 @@ open class OutputTaskChecker(
     }
   }
 
-  private fun checkOutput(actual: String, expected: String): CheckResult {
-    return if (actual == expected) {
-      CheckResult(CheckStatus.Solved, CheckUtils.CONGRATULATIONS)
-    }
-    else {
-      val diff = CheckResultDiff(expected = expected, actual = actual)
-      CheckResult(CheckStatus.Failed, EduCoreBundle.message("check.incorrect"), diff = diff)
-    }
-  }
+  final override fun validateEnvironment(): CheckResult? = envChecker.getEnvironmentError(project, task)
 
   private fun getOutputFile(): VirtualFile? {
     val outputFile = task.findTestDirs(project)
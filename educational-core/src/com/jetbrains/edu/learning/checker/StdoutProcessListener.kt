@@ -5,14 +5,32 @@ import com.intellij.execution.process.ProcessEvent
 import com.intellij.execution.process.ProcessOutputTypes
 import com.intellij.openapi.util.Key
 
-class StdoutProcessListener : ProcessAdapter() {
-  private val _output: MutableList<String> = mutableListOf()
+/**
+ * Collects stdout of a process keeping only its head and tail, see [LimitedOutputBuffer].
+ * Process that prints more than the buffer can keep isn't stopped, only its retained output is truncated.
+ *
+ * @param outputConsumer receives each stdout chunk as soon as it's printed.
+ * If it returns `false`, the rest of the output isn't needed and process is stopped
+ */
+class StdoutProcessListener(private val outputConsumer: ((String) -> Boolean)? = null) : ProcessAdapter() {
+  private val buffer = LimitedOutputBuffer()
 
-  val output: List<String> get() = _output
+  val output: String get() = buffer.toString()
+
+  /**
+   * `true` if the process was stopped by the listener before it finished
+   */
+  var isProcessStopped: Boolean = false
+    private set
 
   override fun onTextAvailable(event: ProcessEvent, outputType: Key<*>) {
     if (outputType == ProcessOutputTypes.STDOUT) {
-      _output.add(event.text)
+      buffer.append(event.text)
+      val isOutputConsumed = outputConsumer?.invoke(event.text) ?: true
+      if (!isOutputConsumed && !event.processHandler.isProcessTerminating) {
+        isProcessStopped = true
+        event.processHandler.destroyProcess()
+      }
     }
   }
 }
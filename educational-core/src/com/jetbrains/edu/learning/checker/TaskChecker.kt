@@ -11,6 +11,12 @@ import com.jetbrains.edu.learning.courseFormat.tasks.Task
  * @see com.jetbrains.edu.learning.stepik.hyperskill.HyperskillTaskCheckerProvider
  */
 open class TaskChecker<out T : Task>(@JvmField val task: T, @JvmField val project: Project) {
+  /**
+   * Tracker of the check in progress, set by [CheckPhaseTracker.runChecker]
+   */
+  @Volatile
+  var phaseTracker: CheckPhaseTracker? = null
+
   open fun onTaskSolved() {
   }
 
@@ -21,6 +27,28 @@ open class TaskChecker<out T : Task>(@JvmField val task: T, @JvmField val projec
 
   open fun clearState() {}
 
+  /**
+   * Returns failed check result if environment required to check the task isn't configured.
+   * Called once per check before [check]
+   */
+  open fun validateEnvironment(): CheckResult? = null
+
+  /**
+   * Validates environment when checker is called outside of check pipeline, e.g. by check all action
+   */
+  protected fun validateEnvironmentIfNeeded(): CheckResult? = if (phaseTracker == null) validateEnvironment() else null
+
+  protected inline fun <R> runPhase(phase: CheckPhase, action: () -> R): R {
+    val tracker = phaseTracker ?: return action()
+    tracker.phaseStarted(phase)
+    try {
+      return action()
+    }
+    finally {
+      tracker.phaseFinished(phase)
+    }
+  }
+
   companion object {
     const val EP_NAME = "Educational.taskChecker"
     @JvmField
@@ -0,0 +1,75 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.SmartPointerManager
+import com.intellij.psi.SmartPsiElementPointer
+import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import org.jetbrains.annotations.TestOnly
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Keeps entry points (usually `main` functions) found in task files,
+ * so code executors don't traverse PSI of all task files on each run.
+ *
+ * Entry point of a task is searched again only if PSI of any task file was modified since the previous search.
+ */
+@Service
+class TaskEntryPointIndex(private val project: Project) {
+
+  private val entryPoints = HashMap<String, CachedEntryPoint>()
+  private val searchCount = AtomicInteger()
+
+  /**
+   * Should be called inside read action
+   *
+   * @param finder returns entry point declared in the given file, if any.
+   * The same [finder] is expected to be passed for the same task
+   */
+  fun findEntryPoint(task: Task, finder: (PsiFile) -> PsiElement?): PsiElement? {
+    ApplicationManager.getApplication().assertReadAccessAllowed()
+    val psiManager = PsiManager.getInstance(project)
+    val taskPath = task.pathInCourse
+    val files = task.taskFiles.values.mapNotNull { taskFile -> taskFile.getVirtualFile(project)?.let { psiManager.findFile(it) } }
+    val virtualFiles = files.map { it.virtualFile }
+    val stamps = files.map { it.modificationStamp }
+
+    synchronized(entryPoints) {
+      val cached = entryPoints[taskPath]
+      if (cached != null && cached.files.map { it.virtualFile } == virtualFiles && cached.stamps == stamps) {
+        val entryPoint = cached.pointer?.element
+        // Pointer can't restore element only if the file was changed in a way we don't track, e.g. reparsed
+        if (entryPoint != null || cached.pointer == null) return entryPoint
+      }
+    }
+
+    searchCount.incrementAndGet()
+    val entryPoint = files.asSequence().mapNotNull(finder).firstOrNull()
+    val pointerManager = SmartPointerManager.getInstance(project)
+    val filePointers = files.map { pointerManager.createSmartPsiElementPointer(it) }
+    val pointer = entryPoint?.let { pointerManager.createSmartPsiElementPointer(it) }
+    synchronized(entryPoints) {
+      entryPoints[taskPath] = CachedEntryPoint(filePointers, stamps, pointer)
+    }
+    return entryPoint
+  }
+
+  @TestOnly
+  fun getSearchCount(): Int = searchCount.get()
+
+  private class CachedEntryPoint(
+    val files: List<SmartPsiElementPointer<PsiFile>>,
+    val stamps: List<Long>,
+    val pointer: SmartPsiElementPointer<PsiElement>?
+  )
+
+  companion object {
+    fun getInstance(project: Project): TaskEntryPointIndex = project.service()
+  }
+}
@@ -16,23 +16,86 @@ class TestsOutputParser {
   private var lastFailedMessage: TestMessage.Failed? = null
   private var congratulations: String = CONGRATULATIONS
 
-  fun getCheckResult(messages: List<String>, needEscapeResult: Boolean): CheckResult {
-    val processor: (TestMessage) -> Unit = { message ->
-      when (message) {
-        is TestMessage.Congrats -> {
-            congratulations = message.congratulations
-        }
-        is TestMessage.Failed -> {
-          lastFailedMessage = message
-        }
+  private val checkResultProcessor: (TestMessage) -> Unit = { message ->
+    when (message) {
+      is TestMessage.Congrats -> {
+        congratulations = message.congratulations
+      }
+      is TestMessage.Failed -> {
+        lastFailedMessage = message
       }
     }
+  }
 
+  private val lineSplitter = OutputLineSplitter()
+
+  /**
+   * `true` if a test failure is already found.
+   * Only the first failure is reported, so the rest of the output doesn't affect check result
+   * and the process producing it can be stopped
+   */
+  val isFailureFound: Boolean get() = lastFailedMessage != null
+
+  fun getCheckResult(messages: List<String>, needEscapeResult: Boolean): CheckResult {
     for (message in messages) {
-      processMessage(message, processor)
-      if (lastFailedMessage != null) break
+      if (!addMessage(message)) break
+    }
+    return finish(needEscapeResult)
+  }
+
+  /**
+   * Parses raw output [chunk] as soon as it's received from process
+   *
+   * @return `false` if the rest of the output can be skipped
+   * @see isFailureFound
+   */
+  fun addOutput(chunk: String): Boolean {
+    if (isFailureFound) return false
+    lineSplitter.append(chunk, ::addOutputLine)
+    return !isFailureFound
+  }
+
+  /**
+   * Parses a single output line or message
+   *
+   * @return `false` if the rest of the output can be skipped
+   * @see isFailureFound
+   */
+  fun addMessage(message: String): Boolean {
+    if (isFailureFound) return false
+    processMessage(message, checkResultProcessor)
+    return !isFailureFound
+  }
+
+  /**
+   * Parses a message known to be complete, e.g. collected from consecutive educational lines of gradle output,
+   * so a failure in it is found without waiting for the next line
+   *
+   * @return `false` if the rest of the output can be skipped
+   * @see isFailureFound
+   */
+  fun addCompleteMessage(message: String): Boolean {
+    if (isFailureFound) return false
+    processMessage(message, checkResultProcessor)
+    processPendingFailedMessage(checkResultProcessor)
+    return !isFailureFound
+  }
+
+  // Empty lines are skipped the same way as `ProcessOutput.getStdoutLines` does
+  private fun addOutputLine(line: String) {
+    if (line.isNotEmpty()) {
+      addMessage(line)
+    }
+  }
+
+  /**
+   * Returns check result for all the output passed with [addOutput] and [addMessage]
+   */
+  fun finish(needEscapeResult: Boolean): CheckResult {
+    if (!isFailureFound) {
+      lineSplitter.flush(::addOutputLine)
     }
-    processPendingFailedMessage(processor)
+    processPendingFailedMessage(checkResultProcessor)
 
     val finalFailedMessage = lastFailedMessage
     return if (finalFailedMessage != null) {
@@ -27,7 +27,7 @@ open class TheoryTaskChecker(task: TheoryTask, project: Project) : TaskChecker<T
     }
 
     return if (isUnitTestMode) {
-      CheckResult(CheckStatus.Solved, processListener?.output.orEmpty().joinToString(""))
+      CheckResult(CheckStatus.Solved, processListener?.output.orEmpty())
     }
     else {
       CheckResult.SOLVED
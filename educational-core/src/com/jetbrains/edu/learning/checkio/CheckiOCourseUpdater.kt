@@ -17,6 +17,7 @@ import com.jetbrains.edu.learning.checkio.courseFormat.CheckiOMission
 import com.jetbrains.edu.learning.checkio.courseFormat.CheckiOStation
 import com.jetbrains.edu.learning.checkio.notifications.CheckiONotifications
 import com.jetbrains.edu.learning.courseDir
+import com.jetbrains.edu.learning.courseFormat.StudyItem
 import com.jetbrains.edu.learning.courseFormat.ext.getDescriptionFile
 import com.jetbrains.edu.learning.courseGeneration.GeneratorUtils
 import com.jetbrains.edu.learning.messages.EduCoreBundle
@@ -30,8 +31,14 @@ class CheckiOCourseUpdater(
   private val contentGenerator: CheckiOCourseContentGenerator
 ) {
 
+  /**
+   * Items whose configs should be re-saved after update
+   */
+  private val itemsToSave = LinkedHashSet<StudyItem>()
+
   @Throws(Exception::class)
   fun doUpdate() {
+    itemsToSave.clear()
     val stationsFromServer = contentGenerator.getStationsFromServer()
     val newStations = mutableSetOf<CheckiOStation>()
     val stationsWithNewMissions = mutableSetOf<CheckiOStation>()
@@ -39,10 +46,11 @@ class CheckiOCourseUpdater(
     showNewContentUnlockedNotification(newStations, EduCoreBundle.message("notification.title.new.station.unlocked"))
     showNewContentUnlockedNotification(stationsWithNewMissions, EduCoreBundle.message("notification.title.new.missions.unlocked.in"))
 
+    val changedItems = itemsToSave.toList()
     runInEdt {
       synchronize()
       ProjectView.getInstance(project).refresh()
-      YamlFormatSynchronizer.saveAll(project)
+      YamlFormatSynchronizer.saveItemsWithRemoteInfo(changedItems + course)
       updateToolWindows(project)
     }
   }
@@ -71,6 +79,8 @@ class CheckiOCourseUpdater(
     newStations.forEach {
       try {
         GeneratorUtils.createLesson(project, it, project.courseDir)
+        itemsToSave.add(it)
+        itemsToSave.addAll(it.missions)
       }
       catch (e: IOException) {
         LOG.error("IO error occurred creating station [${it.id}; ${it.name}]", e)
@@ -118,6 +128,8 @@ class CheckiOCourseUpdater(
       newMission.lesson = newStation
       GeneratorUtils.createTask(project, newMission, lessonDir)
       stationsWithNewMissions.add(newStation)
+      itemsToSave.add(newStation)
+      itemsToSave.add(newMission)
     }
     catch (e: IOException) {
       LOG.error("IO error occurred creating mission [${newMission.id}; ${newMission.name}]", e)
@@ -126,6 +138,8 @@ class CheckiOCourseUpdater(
 
   private fun updateMission(newMission: CheckiOMission, oldMission: CheckiOMission) {
     val oldTaskFile = oldMission.taskFile
+    // mission config contains server-side change time, so it should be saved even if mission code is not changed
+    itemsToSave.add(newMission)
 
     val oldMissionDir = oldMission.getDir(project.courseDir)
                         ?: return LOG.error("Directory is not found for mission [${oldMission.id}; ${oldMission.name}]")
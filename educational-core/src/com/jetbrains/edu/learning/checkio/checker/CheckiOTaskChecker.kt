@@ -31,7 +31,7 @@ class CheckiOTaskChecker(
 
   override fun check(indicator: ProgressIndicator): CheckResult {
     return try {
-      val possibleError = envChecker.getEnvironmentError(project, task)
+      val possibleError = validateEnvironmentIfNeeded()
       if (possibleError != null) {
         return possibleError
       }
@@ -48,4 +48,6 @@ class CheckiOTaskChecker(
       failedToCheck
     }
   }
+
+  override fun validateEnvironment(): CheckResult? = envChecker.getEnvironmentError(project, task)
 }
\ No newline at end of file
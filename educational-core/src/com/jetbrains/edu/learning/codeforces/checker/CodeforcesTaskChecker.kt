@@ -5,7 +5,6 @@ import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.learning.Err
-import com.jetbrains.edu.learning.Ok
 import com.jetbrains.edu.learning.checker.*
 import com.jetbrains.edu.learning.codeforces.courseFormat.CodeforcesTask
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
@@ -21,6 +20,11 @@ class CodeforcesTaskChecker(
 ) : TaskChecker<CodeforcesTask>(task, project) {
 
   override fun check(indicator: ProgressIndicator): CheckResult {
+    val possibleError = validateEnvironmentIfNeeded()
+    if (possibleError != null) {
+      return possibleError
+    }
+
     indicator.text = EduCoreBundle.message("progress.text.codeforces.executing.tests")
     val testFolders = task.getTestFolders(project)
 
@@ -30,32 +34,24 @@ class CodeforcesTaskChecker(
 
       val inputDocument = runReadAction { FileDocumentManager.getInstance().getDocument(inputVirtualFile) }
                           ?: error("Can't get document of input file - ${inputVirtualFile.path}")
-      val outputDocument = runReadAction { FileDocumentManager.getInstance().getDocument(outputVirtualFile) }
-                           ?: error("Can't get document of output file - ${outputVirtualFile.path}")
 
       val testNumber = index + 1
       indicator.text2 = EduCoreBundle.message("progress.details.codeforces.running.test", testNumber, testFolders.size)
 
       val input = runReadAction { inputDocument.text }
 
-      val possibleError = envChecker.getEnvironmentError(project, task)
-      if (possibleError != null) {
-        return possibleError
-      }
-
-      val result = withRegistryKeyOff(RUN_WITH_PTY) {
-        codeExecutor.execute(project, task, indicator, input)
+      val comparator = ExpectedOutputComparator(ExpectedOutputComparator.expectedOutputReader(outputVirtualFile),
+                                                OutputNormalization.CODEFORCES)
+      val diff = comparator.use {
+        val result = withRegistryKeyOff(RUN_WITH_PTY) {
+          codeExecutor.execute(project, task, indicator, input, comparator::addOutput)
+        }
+        if (result is Err) return result.error
+        comparator.finish()
       }
 
-      val output = when (result) {
-        is Ok -> result.value.trimEnd('\n')
-        is Err -> return result.error
-      }
-
-      val expectedOutput = runReadAction { outputDocument.text }.trimEnd('\n')
-      if (expectedOutput != output) {
+      if (diff != null) {
         val message = EduCoreBundle.message("codeforces.test.failed", testNumber)
-        val diff = CheckResultDiff(expected = expectedOutput, actual = output)
         return CheckResult(CheckStatus.Failed, message, diff = diff)
       }
     }
@@ -70,6 +66,8 @@ class CodeforcesTaskChecker(
     return if (isUnitTestMode) CheckResult.SOLVED else CheckResult.UNCHECKED
   }
 
+  override fun validateEnvironment(): CheckResult? = envChecker.getEnvironmentError(project, task)
+
   companion object {
     private const val RUN_WITH_PTY = "run.processes.with.pty"
   }
@@ -73,6 +73,7 @@ public class AnswerPlaceholder {
 
   public void setLength(int length) {
     myLength = length;
+    invalidatePlaceholderIndex();
   }
 
   public String getPossibleAnswer() {
@@ -121,6 +122,7 @@ public class AnswerPlaceholder {
       myOffset = myInitialState.getOffset();
     }
     myLength = myInitialState.getLength();
+    invalidatePlaceholderIndex();
     myStatus = CheckStatus.Unchecked;
     myIsInitializedFromDependency = false;
   }
@@ -151,6 +153,22 @@ public class AnswerPlaceholder {
 
   public void setOffset(int offset) {
     myOffset = offset;
+    invalidatePlaceholderIndex();
+  }
+
+  /**
+   * Sets new placeholder position without invalidation of task file placeholder index.
+   * Should be used only by index itself
+   */
+  void setOffsetAndLength(int offset, int length) {
+    myOffset = offset;
+    myLength = length;
+  }
+
+  private void invalidatePlaceholderIndex() {
+    if (myTaskFile != null) {
+      myTaskFile.invalidatePlaceholderIndex();
+    }
   }
 
   @Nullable
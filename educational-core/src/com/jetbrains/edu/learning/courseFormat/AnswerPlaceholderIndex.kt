@@ -0,0 +1,161 @@
+package com.jetbrains.edu.learning.courseFormat
+
+/**
+ * Interval index over answer placeholders of a task file.
+ *
+ * Placeholders are kept sorted by start offset together with prefix maximums of their end offsets,
+ * so placeholders containing an offset or intersecting a range are found by binary search
+ * instead of scanning all placeholders.
+ * All queries return the same placeholders in the same order as a linear scan of [placeholders] does,
+ * even if placeholders overlap or the list isn't sorted.
+ *
+ * The index doesn't track modifications of placeholders by itself.
+ * [TaskFile] drops it when placeholders are added, removed or moved,
+ * except for document changes applied via [applyDocumentChange] which keep the index up to date.
+ */
+class AnswerPlaceholderIndex(private val placeholders: List<AnswerPlaceholder>) {
+  private val size: Int = placeholders.size
+  // placeholder indices in `placeholders` list sorted by start offset
+  private val order: IntArray
+  private val starts = IntArray(size)
+  private val ends = IntArray(size)
+  // maxEnds[i] = max(ends[0..i])
+  private val maxEnds = IntArray(size)
+
+  init {
+    order = placeholders.indices.sortedWith(compareBy({ placeholders[it].offset }, { it })).toIntArray()
+    for ((position, index) in order.withIndex()) {
+      starts[position] = placeholders[index].offset
+      ends[position] = placeholders[index].endOffset
+    }
+    updateMaxEnds(0)
+  }
+
+  fun isValidFor(placeholders: List<AnswerPlaceholder>): Boolean = this.placeholders === placeholders && size == placeholders.size
+
+  /**
+   * @return the first placeholder in list order such that `offset` is in `[placeholder.offset, placeholder.endOffset]`
+   */
+  fun findAt(offset: Int): AnswerPlaceholder? {
+    var result = -1
+    forEachIntersecting(offset, offset) { index ->
+      if (result == -1 || index < result) {
+        result = index
+      }
+    }
+    return if (result == -1) null else placeholders[result]
+  }
+
+  /**
+   * @return placeholders intersecting `[start, end]` range (including touching its bounds) in list order
+   */
+  fun findInRange(start: Int, end: Int): List<AnswerPlaceholder> {
+    val indices = mutableListOf<Int>()
+    forEachIntersecting(start, end) { indices += it }
+    indices.sort()
+    return indices.map { placeholders[it] }
+  }
+
+  /**
+   * Updates placeholder offsets after document change of `[offset, offset + oldFragment.length)` range to [newFragment].
+   *
+   * Only placeholders near the changed range are processed one by one,
+   * all placeholders after it are just shifted by the change length in a single pass.
+   *
+   * @return `false` if placeholders order was changed, so the index should be rebuilt
+   */
+  fun applyDocumentChange(offset: Int, oldFragment: CharSequence, newFragment: CharSequence): Boolean {
+    if (size == 0) return true
+    val change = newFragment.length - oldFragment.length
+    // Placeholders which end before the change are not affected
+    val firstAffected = firstPosition { maxEnds[it] >= offset }
+    // Placeholders which start after the changed range (and the line break right after it) are just shifted
+    val firstShifted = firstPosition { starts[it] > offset + oldFragment.length + 1 }
+
+    for (position in firstAffected until firstShifted) {
+      updatePosition(position, offset, change, oldFragment, newFragment)
+    }
+    for (position in firstShifted until size) {
+      starts[position] += change
+      ends[position] += change
+      placeholders[order[position]].setOffsetAndLength(starts[position], ends[position] - starts[position])
+    }
+    updateMaxEnds(firstAffected)
+
+    for (position in maxOf(firstAffected, 1)..minOf(firstShifted, size - 1)) {
+      val previousStart = starts[position - 1]
+      if (previousStart > starts[position] || previousStart == starts[position] && order[position - 1] > order[position]) {
+        return false
+      }
+    }
+    return true
+  }
+
+  private fun updatePosition(position: Int, offset: Int, change: Int, oldFragment: CharSequence, newFragment: CharSequence) {
+    val placeholderStart = starts[position]
+    val placeholderEnd = ends[position]
+    if (offset > placeholderEnd) return
+
+    var newStart = placeholderStart
+    var newEnd = placeholderEnd + change
+    if (offset < placeholderStart) {
+      newStart += change
+      if (change < 0 && offset - change > placeholderStart) {  // delete part of placeholder start
+        newStart = offset
+      }
+    }
+    if (change < 0 && offset - change > placeholderEnd) {   // delete part of placeholder end
+      newEnd = offset
+    }
+
+    if (newStart - 1 == offset && newFragment.isEmpty() && oldFragment.startsWith("\n")) {
+      newStart -= 1
+    }
+    if (newStart == offset && oldFragment.isEmpty() && newFragment.startsWith("\n")) {
+      newStart += 1
+    }
+
+    val length = newEnd - newStart
+    assert(length >= 0)
+    assert(newStart >= 0)
+    starts[position] = newStart
+    ends[position] = newEnd
+    placeholders[order[position]].setOffsetAndLength(newStart, length)
+  }
+
+  private inline fun forEachIntersecting(start: Int, end: Int, consumer: (Int) -> Unit) {
+    // the last placeholder which starts before or at `end`
+    var position = firstPosition { starts[it] > end } - 1
+    while (position >= 0 && maxEnds[position] >= start) {
+      if (ends[position] >= start) {
+        consumer(order[position])
+      }
+      position--
+    }
+  }
+
+  /**
+   * Returns the first position which satisfies [predicate] or [size] if there is no such position.
+   * [predicate] should be monotonic, i.e. if it's satisfied for some position, it's satisfied for all following ones
+   */
+  private inline fun firstPosition(predicate: (Int) -> Boolean): Int {
+    var low = 0
+    var high = size
+    while (low < high) {
+      val middle = (low + high) ushr 1
+      if (predicate(middle)) {
+        high = middle
+      }
+      else {
+        low = middle + 1
+      }
+    }
+    return low
+  }
+
+  private fun updateMaxEnds(fromPosition: Int) {
+    for (position in fromPosition until size) {
+      maxEnds[position] = if (position == 0) ends[position] else maxOf(maxEnds[position - 1], ends[position])
+    }
+  }
+}
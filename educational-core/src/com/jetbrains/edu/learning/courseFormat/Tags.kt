@@ -4,7 +4,7 @@ import com.intellij.ide.plugins.newui.TagComponent
 import java.util.*
 import javax.swing.JComponent
 
-open class Tag @JvmOverloads constructor(val text: String, private val searchOption: String = "tag") {
+open class Tag @JvmOverloads constructor(val text: String, val searchOption: String = "tag") {
   fun getSearchText(): String = "$searchOption:$text".toLowerCase()
 
   fun accept(filter: String): Boolean {
@@ -35,6 +35,7 @@ public class TaskFile {
   private String myText = "";
 
   @Transient private Task myTask;
+  @Transient private volatile AnswerPlaceholderIndex myPlaceholderIndex;
 
   private static final Logger LOG = Logger.getInstance(TaskFile.class);
 
@@ -66,6 +67,7 @@ public class TaskFile {
     for (int i = 0; i < answerPlaceholders.size(); i++) {
       answerPlaceholders.get(i).setIndex(i);
     }
+    invalidatePlaceholderIndex();
   }
 
   public List<AnswerPlaceholder> getAnswerPlaceholders() {
@@ -74,10 +76,12 @@ public class TaskFile {
 
   public void setAnswerPlaceholders(List<AnswerPlaceholder> answerPlaceholders) {
     this.myAnswerPlaceholders = answerPlaceholders;
+    invalidatePlaceholderIndex();
   }
 
   public void addAnswerPlaceholder(AnswerPlaceholder answerPlaceholder) {
     myAnswerPlaceholders.add(answerPlaceholder);
+    invalidatePlaceholderIndex();
   }
 
   @Transient
@@ -96,14 +100,45 @@ public class TaskFile {
    */
   @Nullable
   public AnswerPlaceholder getAnswerPlaceholder(int offset) {
-    for (AnswerPlaceholder placeholder : getAnswerPlaceholders()) {
-      int placeholderStart = placeholder.getOffset();
-      int placeholderEnd = placeholder.getEndOffset();
-      if (placeholderStart <= offset && offset <= placeholderEnd) {
-        return placeholder;
-      }
+    return getPlaceholderIndex().findAt(offset);
+  }
+
+  /**
+   * @return answer placeholders intersecting or touching [start, end] range in the same order as in {@link #getAnswerPlaceholders()}
+   */
+  @NotNull
+  public List<AnswerPlaceholder> getAnswerPlaceholders(int start, int end) {
+    return getPlaceholderIndex().findInRange(start, end);
+  }
+
+  /**
+   * Updates offsets of answer placeholders after the document of this task file is changed
+   *
+   * @param offset start offset of the changed range
+   * @param oldFragment text of the changed range before the change
+   * @param newFragment text of the changed range after the change
+   */
+  public void applyDocumentChange(int offset, @NotNull CharSequence oldFragment, @NotNull CharSequence newFragment) {
+    if (!getPlaceholderIndex().applyDocumentChange(offset, oldFragment, newFragment)) {
+      invalidatePlaceholderIndex();
     }
-    return null;
+  }
+
+  /**
+   * Should be called when answer placeholders are added, removed or moved not via {@link #applyDocumentChange}
+   */
+  public void invalidatePlaceholderIndex() {
+    myPlaceholderIndex = null;
+  }
+
+  @NotNull
+  private AnswerPlaceholderIndex getPlaceholderIndex() {
+    AnswerPlaceholderIndex index = myPlaceholderIndex;
+    if (index == null || !index.isValidFor(myAnswerPlaceholders)) {
+      index = new AnswerPlaceholderIndex(myAnswerPlaceholders);
+      myPlaceholderIndex = index;
+    }
+    return index;
   }
 
   public boolean isTrackChanges() {
@@ -181,6 +216,7 @@ public class TaskFile {
     for (int i = 0; i < myAnswerPlaceholders.size(); i++) {
       myAnswerPlaceholders.get(i).setIndex(i);
     }
+    invalidatePlaceholderIndex();
   }
 
   public boolean hasFailedPlaceholders() {
@@ -193,10 +229,13 @@ public class TaskFile {
   }
 
   public boolean isValid(@NotNull String text) {
-    int length = text.length();
+    return isValid(text.length());
+  }
+
+  public boolean isValid(int textLength) {
     List<AnswerPlaceholder> placeholders = getAnswerPlaceholders();
     for (AnswerPlaceholder placeholder : placeholders) {
-      if (!placeholder.isValid(length)) return false;
+      if (!placeholder.isValid(textLength)) return false;
     }
     return true;
   }
@@ -73,13 +73,6 @@ fun Task.getAllTestVFiles(project: Project): MutableList<VirtualFile> {
 val Task.placeholderDependencies: List<AnswerPlaceholderDependency>
   get() = taskFiles.values.flatMap { taskFile -> taskFile.answerPlaceholders.mapNotNull { it.placeholderDependency } }
 
-fun Task.getUnsolvedTaskDependencies(): List<Task> {
-  return placeholderDependencies
-    .mapNotNull { it.resolve(course)?.taskFile?.task }
-    .filter { it.status != CheckStatus.Solved }
-    .distinct()
-}
-
 fun Task.getDependentTasks(): Set<Task> {
   val course = course
   return course.items.flatMap { item ->
@@ -1,6 +1,5 @@
 package com.jetbrains.edu.learning.coursera
 
-import com.fasterxml.jackson.databind.ObjectMapper
 import com.google.common.annotations.VisibleForTesting
 import com.intellij.credentialStore.CredentialAttributes
 import com.intellij.credentialStore.Credentials
@@ -29,6 +28,7 @@ import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.loadEncodedContent
 import com.jetbrains.edu.learning.messages.EduCoreBundle
+import com.jetbrains.edu.learning.serialization.ObjectMappers
 import com.jetbrains.edu.learning.taskDescription.ui.EduBrowserHyperlinkListener
 import okhttp3.*
 import org.apache.http.HttpStatus
@@ -105,8 +105,8 @@ class CourseraTaskChecker : RemoteTaskChecker {
       file.loadEncodedContent(isToEncodeContent = true)
     }
     val submission = Submission(assignmentKey, courseraSettings.email, token,
-                                mapOf(Pair(partId, Part(ObjectMapper().writeValueAsString(output)))))
-    return ObjectMapper().writeValueAsString(submission)
+                                mapOf(Pair(partId, Part(ObjectMappers.JSON.writeValueAsString(output)))))
+    return ObjectMappers.JSON.writeValueAsString(submission)
   }
 
   private fun postSubmission(json: String): Response {
@@ -90,7 +90,7 @@ public class EduEditorFactoryListener implements EditorFactoryListener {
         markViewed(project, task);
 
         boolean isStudyProject = course.isStudy();
-        if (!taskFile.getAnswerPlaceholders().isEmpty() && taskFile.isValid(editor.getDocument().getText())) {
+        if (!taskFile.getAnswerPlaceholders().isEmpty() && taskFile.isValid(editor.getDocument().getTextLength())) {
           PlaceholderDependencyManager.updateDependentPlaceholders(project, task);
           NavigationUtils.navigateToFirstAnswerPlaceholder(editor, taskFile);
           PlaceholderPainter.showPlaceholders(project, taskFile, editor);
@@ -44,7 +44,7 @@ public class EduTypedHandler extends EditorWriteActionHandler {
 
     final int start = editor.getSelectionModel().getSelectionStart();
     final int end = editor.getSelectionModel().getSelectionEnd();
-    AnswerPlaceholder placeholder = getAnswerPlaceholder(start, end, taskFile.getAnswerPlaceholders());
+    AnswerPlaceholder placeholder = getAnswerPlaceholder(start, end, taskFile.getAnswerPlaceholders(start, end));
     if (placeholder != null && editor.getSelectionModel().hasSelection()) {
       throw new ReadOnlyFragmentModificationException(null, null);
     }
@@ -44,7 +44,7 @@ public class EduTypedLineHandler extends EditorWriteActionHandler {
     final int lineNumber = document.getLineNumber(currentCaret.getOffset());
     int lineEndOffset = document.getLineEndOffset(lineNumber);
     int lineStartOffset = document.getLineStartOffset(lineNumber);
-    final AnswerPlaceholder placeholder = getAnswerPlaceholder(lineStartOffset, lineEndOffset, taskFile.getAnswerPlaceholders());
+    final AnswerPlaceholder placeholder = getAnswerPlaceholder(lineStartOffset, lineEndOffset, taskFile.getAnswerPlaceholders(lineStartOffset, lineEndOffset));
     if (placeholder != null) {
       throw new ReadOnlyFragmentModificationException(null, null);
     }
@@ -15,6 +15,17 @@ interface FrameworkLessonManager {
 
   fun getChangesTimestamp(task: Task): Long
 
+  /**
+   * Prepares changes to navigate from the current task of [lesson] to its neighbours
+   */
+  fun precomputeTransitions(lesson: FrameworkLesson)
+
+  /**
+   * Schedules [precomputeTransitions] after a short delay, e.g. while the current task of [lesson] is being edited.
+   * Each call postpones the previously scheduled precomputation
+   */
+  fun schedulePrecomputation(lesson: FrameworkLesson)
+
   companion object {
     @JvmStatic
     fun getInstance(project: Project): FrameworkLessonManager = project.service()
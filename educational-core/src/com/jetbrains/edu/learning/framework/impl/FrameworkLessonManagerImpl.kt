@@ -2,29 +2,38 @@ package com.jetbrains.edu.learning.framework.impl
 
 import com.google.common.annotations.VisibleForTesting
 import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.ReadAction
 import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.application.runUndoTransparentWriteAction
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.ui.Messages
 import com.intellij.openapi.util.Disposer
 import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.Alarm
 import com.intellij.util.io.storage.AbstractStorage
 import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.courseFormat.Course
 import com.jetbrains.edu.learning.courseFormat.FrameworkLesson
 import com.jetbrains.edu.learning.courseFormat.ext.configurator
 import com.jetbrains.edu.learning.courseFormat.ext.testDirs
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.framework.FrameworkLessonManager
+import com.jetbrains.edu.learning.framework.impl.FrameworkStageTransitions.StageState
 import com.jetbrains.edu.learning.isToEncodeContent
+import com.jetbrains.edu.learning.isUnitTestMode
 import com.jetbrains.edu.learning.loadEncodedContent
 import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
 import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer
 import java.io.IOException
 import java.nio.file.Path
 import java.nio.file.Paths
+import java.util.concurrent.Callable
 
 /**
  * Keeps list of [Change]s for each task. Change list is difference between initial task state and latest one.
@@ -35,8 +44,19 @@ import java.nio.file.Paths
  */
 class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLessonManager, Disposable {
 
+  @VisibleForTesting
+  var stageTransitions: FrameworkStageTransitions = FrameworkStageTransitions()
+    private set
+
   @VisibleForTesting
   var storage: FrameworkStorage = createStorage(project)
+    set(value) {
+      field = value
+      // Cached states of records are meaningless for another storage
+      stageTransitions = FrameworkStageTransitions()
+    }
+
+  private val precomputationAlarm = Alarm(Alarm.ThreadToUse.POOLED_THREAD, this)
 
   override fun prepareNextTask(lesson: FrameworkLesson, taskDir: VirtualFile, showDialogIfConflict: Boolean) {
     applyTargetTaskChanges(lesson, 1, taskDir, showDialogIfConflict)
@@ -65,6 +85,7 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
       LOG.error("Failed to save solution for task `${task.name}`", e)
       currentRecord
     }
+    stageTransitions.invalidateRecord(task.record)
     YamlFormatSynchronizer.saveItem(task)
   }
 
@@ -103,6 +124,7 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
     catch (e: IOException) {
       LOG.error("Failed to update user changes for task `${task.name}`", e)
     }
+    stageTransitions.invalidateRecord(currentRecord)
   }
 
   override fun getChangesTimestamp(task: Task): Long {
@@ -146,29 +168,27 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
     // 1. Get difference between initial state of current task and previous task state
     // and construct previous state of current task.
     // Previous state is needed to determine if a user made any new change
-    val previousCurrentUserChanges = getUserChanges(currentTask)
-    val previousCurrentState = HashMap(initialCurrentFiles).apply { previousCurrentUserChanges.apply(this) }
+    val previousCurrentState = getStageState(currentTask)
 
     // 2. Calculate difference between initial state of current task and current state on local FS.
     // Update change list for current task in [storage] to have ability to restore state of current task in future
-    val (newCurrentRecord, currentUserChanges) = try {
-      updateUserChanges(currentRecord, initialCurrentFiles, taskDir)
+    val (newCurrentRecord, currentState) = try {
+      val currentState = readCurrentState(initialCurrentFiles, taskDir)
+      val userChanges = calculateChanges(initialCurrentFiles, currentState.files)
+      updateUserChanges(currentRecord, userChanges).record to currentState
     }
     catch (e: IOException) {
       LOG.error("Failed to save user changes for task `${currentTask.name}`", e)
-      UpdatedUserChanges(currentRecord, UserChanges.empty())
+      currentRecord to stageTransitions.getStageState(-1, initialCurrentFiles) { UserChanges.empty() }
     }
 
     // 3. Update record index to a new one.
     currentTask.record = newCurrentRecord
     YamlFormatSynchronizer.saveItem(currentTask)
 
-    // 4. Get difference (change list) between initial and latest states of target task
-    val nextUserChanges = getUserChanges(targetTask)
-
-    // 5. Apply change lists to initial state to get latest states of current and target tasks
-    val currentState = HashMap(initialCurrentFiles).apply { currentUserChanges.apply(this) }
-    val targetState = HashMap(targetTask.allFiles).apply { nextUserChanges.apply(this) }
+    // 4-5. Get latest state of target task.
+    // It's usually cached since the previous navigation or precomputation
+    val targetState = getStageState(targetTask)
 
     // 6. Calculate difference between latest states of current and target tasks
     // Note, there are special rules for hyperskill courses for now
@@ -176,33 +196,82 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
 
     // If a user navigated back to current task, didn't make any change and wants to navigate to next task again
     // we shouldn't try to propagate current changes to next task
-    val currentTaskHasNewUserChanges = !(currentRecord != -1 && targetRecord != -1 && previousCurrentState == currentState)
+    val currentTaskHasNewUserChanges = !(currentRecord != -1 && targetRecord != -1 && previousCurrentState.files == currentState.files)
 
     val course = lesson.course
     val isNonTemplateBased = !lesson.isTemplateBased || course is HyperskillCourse && !course.isTemplateBased
 
     val changes = if (currentTaskHasNewUserChanges && taskIndexDelta == 1 && isNonTemplateBased) {
-      calculatePropagationChanges(targetTask, currentTask, currentState, targetState, showDialogIfConflict)
+      calculatePropagationChanges(targetTask, currentTask, currentState.files, targetState.files, showDialogIfConflict)
     }
     else {
-      calculateChanges(currentState, targetState)
+      stageTransitions.getChanges(currentState, targetState, ::calculateChanges)
     }
 
-    // 7. Apply difference between latest states of current and target tasks on local FS
-    changes.apply(project, taskDir, targetTask)
+    // 7. Apply difference between latest states of current and target tasks on local FS.
+    // All changes are applied in single write action not to trigger listeners and UI updates for each file
+    runUndoTransparentWriteAction {
+      changes.apply(project, taskDir, targetTask)
+    }
     YamlFormatSynchronizer.saveItem(targetTask)
+
+    schedulePrecomputation(lesson)
   }
 
-  private fun getUserChanges(task: Task): UserChanges {
-    return try {
-      storage.getUserChanges(task.record)
+  private fun getStageState(task: Task): StageState {
+    return stageTransitions.getStageState(task.record, task.allFiles) {
+      try {
+        storage.getUserChanges(task.record)
+      }
+      catch (e: IOException) {
+        LOG.error("Failed to get user changes for task `${task.name}`", e)
+        UserChanges.empty()
+      }
+    }
+  }
+
+  override fun schedulePrecomputation(lesson: FrameworkLesson) {
+    if (isUnitTestMode || project.isDisposed) return
+    precomputationAlarm.cancelAllRequests()
+    precomputationAlarm.addRequest({ precomputeTransitions(lesson) }, PRECOMPUTATION_DELAY_MS)
+  }
+
+  /**
+   * Computes diffs between the current state of current task on local FS and latest states of its neighbours,
+   * so navigation to them doesn't have to do it
+   */
+  override fun precomputeTransitions(lesson: FrameworkLesson) {
+    if (!EduUtils.isStudentProject(project)) return
+    val readStates = Callable { readNeighbourStates(lesson) }
+    val states = try {
+      // Tests call precomputation on EDT
+      if (ApplicationManager.getApplication().isDispatchThread) runReadAction { readStates.call() }
+      else ReadAction.nonBlocking(readStates).expireWith(this).executeSynchronously()
+    }
+    catch (e: ProcessCanceledException) {
+      return
     }
     catch (e: IOException) {
-      LOG.error("Failed to get user changes for task `${task.name}`", e)
-      UserChanges.empty()
+      LOG.warn("Failed to read state of `${lesson.name}` lesson", e)
+      null
+    } ?: return
+
+    for (targetState in states.targetStates) {
+      stageTransitions.getChanges(states.currentState, targetState, ::calculateChanges)
     }
   }
 
+  private fun readNeighbourStates(lesson: FrameworkLesson): NeighbourStates? {
+    if (project.isDisposed) return null
+    val currentTask = lesson.currentTask() ?: return null
+    val taskDir = currentTask.getDir(project.courseDir) ?: return null
+    val currentState = readCurrentState(currentTask.allFiles, taskDir)
+    val targetStates = listOf(1, -1).mapNotNull { delta ->
+      lesson.taskList.getOrNull(lesson.currentTaskIndex + delta)?.let { getStageState(it) }
+    }
+    return NeighbourStates(currentState, targetStates)
+  }
+
   /**
    * Returns [Change]s to propagate user changes from [currentState] to [targetTask].
    *
@@ -268,25 +337,25 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
     }
   }
 
-  private fun updateUserChanges(record: Int, initialFiles: Map<String, String>, taskDir: VirtualFile): UpdatedUserChanges {
+  private fun readCurrentState(initialFiles: Map<String, String>, taskDir: VirtualFile): StageState {
     val documentManager = FileDocumentManager.getInstance()
     val currentState = HashMap<String, String>()
+    val modificationStamps = HashMap<String, Long>()
     for ((path, _) in initialFiles) {
       val file = taskDir.findFileByRelativePath(path) ?: continue
 
-      val text = if (file.isToEncodeContent) {
-        file.loadEncodedContent(isToEncodeContent = true)
+      if (file.isToEncodeContent) {
+        modificationStamps[path] = file.modificationStamp
+        currentState[path] = file.loadEncodedContent(isToEncodeContent = true)
       }
-      else runReadAction { documentManager.getDocument(file)?.text }
-
-      if (text == null) {
-        continue
+      else {
+        val document = runReadAction { documentManager.getDocument(file) } ?: continue
+        // Stamp is read before text, so a concurrent change can only make the state look outdated
+        modificationStamps[path] = document.modificationStamp
+        currentState[path] = runReadAction { document.text }
       }
-
-      currentState[path] = text
     }
-    val userChanges = calculateChanges(initialFiles, currentState)
-    return updateUserChanges(record, userChanges)
+    return FrameworkStageTransitions.currentState(currentState, modificationStamps)
   }
 
   @Synchronized
@@ -294,6 +363,7 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
     return try {
       val newRecord = storage.updateUserChanges(record, changes)
       storage.force()
+      stageTransitions.invalidateRecord(newRecord)
       UpdatedUserChanges(newRecord, changes)
     }
     catch (e: IOException) {
@@ -354,6 +424,8 @@ class FrameworkLessonManagerImpl(private val project: Project) : FrameworkLesson
 
     const val VERSION: Int = 1
 
+    private const val PRECOMPUTATION_DELAY_MS = 500
+
     @VisibleForTesting
     fun constructStoragePath(project: Project): Path =
       Paths.get(FileUtil.join(project.basePath!!, Project.DIRECTORY_STORE_FOLDER, "frameworkLessonHistory", "storage"))
@@ -379,3 +451,8 @@ private data class UpdatedUserChanges(
   val record: Int,
   val changes: UserChanges
 )
+
+private class NeighbourStates(
+  val currentState: StageState,
+  val targetStates: List<StageState>
+)
@@ -0,0 +1,104 @@
+package com.jetbrains.edu.learning.framework.impl
+
+import org.jetbrains.annotations.TestOnly
+
+/**
+ * Keeps states of framework lesson stages and diffs between them,
+ * so navigation between stages can reuse diffs computed in background while a learner works on the current stage.
+ *
+ * Stage state is a map from file path to its text. Content of stages isn't hashed, states are identified by cheap keys instead:
+ * states of stages restored from [FrameworkStorage] by storage record and initial files of a stage,
+ * and the current state on local FS by modification stamps of its files.
+ * So a cached diff is valid while neither of both stages is changed.
+ * States of records should be invalidated via [invalidateRecord] each time a record is updated.
+ * Storage reuses record ids on update, so record keys also include a version of the record bumped on invalidation
+ */
+class FrameworkStageTransitions {
+
+  private val recordStates = HashMap<Int, RecordState>()
+  private val recordVersions = HashMap<Int, Int>()
+  private val transitions = object : LinkedHashMap<TransitionKey, UserChanges>(MAX_TRANSITIONS, 0.75f, true) {
+    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<TransitionKey, UserChanges>?): Boolean = size > MAX_TRANSITIONS
+  }
+
+  private var computedTransitions = 0
+
+  /**
+   * Returns latest state of a stage with [initialFiles] and user changes saved in [record] of storage.
+   * [loadChanges] is called only if state of [record] isn't cached or initial files were changed
+   */
+  @Synchronized
+  fun getStageState(record: Int, initialFiles: Map<String, String>, loadChanges: () -> UserChanges): StageState {
+    // Texts of initial files are the same string instances while a task isn't updated, so comparison of them is cheap
+    if (record == -1) return StageState(initialFiles, InitialStateKey(initialFiles))
+
+    val cachedState = recordStates[record]
+    if (cachedState != null && cachedState.initialFiles == initialFiles) return cachedState.state
+
+    val files = HashMap(initialFiles).apply { loadChanges().apply(this) }
+    val state = StageState(files, RecordStateKey(record, recordVersions[record] ?: 0, initialFiles))
+    recordStates[record] = RecordState(initialFiles, state)
+    return state
+  }
+
+  /**
+   * Returns [Change]s to convert [currentState] to [targetState] either precomputed or computed by [calculateChanges]
+   */
+  fun getChanges(
+    currentState: StageState,
+    targetState: StageState,
+    calculateChanges: (Map<String, String>, Map<String, String>) -> UserChanges
+  ): UserChanges {
+    val key = TransitionKey(currentState.key, targetState.key)
+    synchronized(this) {
+      transitions[key]?.let { return it }
+    }
+    val changes = calculateChanges(currentState.files, targetState.files)
+    synchronized(this) {
+      computedTransitions++
+      transitions[key] = changes
+    }
+    return changes
+  }
+
+  /**
+   * Drops the cached state of [record] and all transitions from or to it
+   */
+  @Synchronized
+  fun invalidateRecord(record: Int) {
+    recordStates.remove(record)
+    recordVersions[record] = (recordVersions[record] ?: 0) + 1
+    transitions.keys.removeIf { it.currentKey.refersTo(record) || it.targetKey.refersTo(record) }
+  }
+
+  @TestOnly
+  @Synchronized
+  fun getComputedTransitionsCount(): Int = computedTransitions
+
+  class StageState internal constructor(val files: Map<String, String>, internal val key: Any)
+
+  private class RecordState(val initialFiles: Map<String, String>, val state: StageState)
+
+  private data class InitialStateKey(val initialFiles: Map<String, String>)
+
+  private data class RecordStateKey(val record: Int, val version: Int, val initialFiles: Map<String, String>)
+
+  private data class CurrentStateKey(val modificationStamps: Map<String, Long>)
+
+  private data class TransitionKey(val currentKey: Any, val targetKey: Any)
+
+  private fun Any.refersTo(record: Int): Boolean = this is RecordStateKey && this.record == record
+
+  companion object {
+    // Only transitions to the neighbours of a couple of recent stages are worth keeping
+    private const val MAX_TRANSITIONS = 8
+
+    /**
+     * Returns the current state of a stage on local FS.
+     * [modificationStamps] are stamps of documents (or files for binary ones) the state [files] are read from
+     */
+    fun currentState(files: Map<String, String>, modificationStamps: Map<String, Long>): StageState {
+      return StageState(files, CurrentStateKey(modificationStamps))
+    }
+  }
+}
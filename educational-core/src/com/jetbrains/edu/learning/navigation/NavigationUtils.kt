@@ -282,7 +282,7 @@ object NavigationUtils {
     val (_, editor, taskFile, _, _) = eduState
 
     IdeFocusManager.getInstance(project).requestFocus(editor.contentComponent, true)
-    if (!taskFile.isValid(editor.document.text)) {
+    if (!taskFile.isValid(editor.document.textLength)) {
       return
     }
 
@@ -0,0 +1,213 @@
+package com.jetbrains.edu.learning.navigation
+
+import com.google.common.annotations.VisibleForTesting
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.editor.colors.EditorColorsManager
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.util.Alarm
+import com.intellij.util.ui.UIUtil
+import com.jetbrains.edu.learning.CourseSetListener
+import com.jetbrains.edu.learning.EduUtils
+import com.jetbrains.edu.learning.JavaUILibrary.Companion.isJCEF
+import com.jetbrains.edu.learning.JavaUILibrary.Companion.isSwing
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.FrameworkLesson
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.framework.FrameworkLessonManager
+import com.jetbrains.edu.learning.isUnitTestMode
+import com.jetbrains.edu.learning.placeholderDependencies.PlaceholderDependencyGraph
+import com.jetbrains.edu.learning.taskDescription.ui.EduToolsResourcesRequestHandler
+import com.jetbrains.edu.learning.taskDescription.ui.TaskDescriptionToolWindow
+import com.jetbrains.edu.learning.taskDescription.ui.styleManagers.StyleManager
+import org.jetbrains.annotations.TestOnly
+import java.util.concurrent.Callable
+
+/**
+ * Prepares the next and the previous tasks of the task a learner works on, so navigation to them finds everything ready.
+ *
+ * In background it renders descriptions of neighbour tasks (which also fills [com.jetbrains.edu.learning.taskDescription.ui.EduCodeHighlighter] cache),
+ * resolves their placeholder dependencies, computes framework stage diffs and loads resources served to the task description browser.
+ *
+ * Rendered descriptions are kept while their source text and rendering settings are the same.
+ * Their total size is limited by [MEMORY_BUDGET], the least recently used descriptions are dropped first.
+ * Prefetching can be disabled with [REGISTRY_KEY] registry key
+ */
+@Service
+class TaskPrefetcher(private val project: Project) : Disposable {
+
+  private val alarm = Alarm(Alarm.ThreadToUse.POOLED_THREAD, this)
+
+  // Task has content-based `equals`, so tasks are compared by identity here
+  private val descriptions = LinkedHashMap<TaskKey, PrefetchedDescription>(16, 0.75f, true)
+  private var descriptionsSize = 0L
+
+  private var prefetchedDescriptions = 0
+  private var servedDescriptions = 0
+
+  init {
+    // Descriptions of tasks of the previous course are never served, and they keep its tasks in memory
+    project.messageBus.connect(this).subscribe(StudyTaskManager.COURSE_SET, object : CourseSetListener {
+      override fun courseSet(course: Course) = clearDescriptions()
+    })
+  }
+
+  fun prefetchNeighbours(task: Task) {
+    if (isUnitTestMode || project.isDisposed || !isEnabled()) return
+    alarm.cancelAllRequests()
+    alarm.addRequest({ prefetch(task) }, PREFETCH_DELAY_MS)
+  }
+
+  @VisibleForTesting
+  fun prefetch(task: Task) {
+    if (project.isDisposed || !isEnabled()) return
+
+    val lesson = task.lesson
+    if (lesson is FrameworkLesson && lesson.currentTask() === task) {
+      FrameworkLessonManager.getInstance(project).precomputeTransitions(lesson)
+    }
+
+    val dependencyGraph = PlaceholderDependencyGraph.getInstance(project)
+    for (neighbour in listOfNotNull(NavigationUtils.nextTask(task), NavigationUtils.previousTask(task))) {
+      computeInReadAction("resolve placeholder dependencies of `${neighbour.name}` task") {
+        dependencyGraph.getDependencies(neighbour)
+        dependencyGraph.isInCycle(neighbour)
+      }
+      // Description of a framework lesson stage is read from stage files which appear on disk only after navigation
+      if (neighbour.lesson is FrameworkLesson) continue
+      prefetchDescription(neighbour)
+    }
+
+    if (isJCEF()) {
+      EduToolsResourcesRequestHandler.loadResources()
+    }
+  }
+
+  private fun prefetchDescription(task: Task) {
+    val description = computeInReadAction("prefetch description of `${task.name}` task") {
+      val sourceText = EduUtils.getTaskTextFromTask(project, task) ?: return@computeInReadAction null
+      val context = RenderingContext.current()
+      if (findDescription(task, sourceText, context) != null) return@computeInReadAction null
+      val description = TaskDescriptionToolWindow.renderTaskDescription(project, task, sourceText, cachedHighlightingOnly = false)
+      PrefetchedDescription(sourceText, context, description.text)
+    } ?: return
+
+    synchronized(descriptions) {
+      prefetchedDescriptions++
+      putDescription(TaskKey(task), description)
+    }
+  }
+
+  /**
+   * Runs [computation] in a non-blocking read action, so prefetching doesn't delay write actions
+   *
+   * @return `null` if [computation] failed or was canceled
+   */
+  private fun <T> computeInReadAction(activity: String, computation: () -> T?): T? {
+    return try {
+      // Tests call prefetching on EDT
+      if (ApplicationManager.getApplication().isDispatchThread) runReadAction(computation)
+      else ReadAction.nonBlocking(Callable(computation)).expireWith(this).executeSynchronously()
+    }
+    catch (e: ProcessCanceledException) {
+      null
+    }
+    catch (e: Exception) {
+      LOG.info("Failed to $activity", e)
+      null
+    }
+  }
+
+  /**
+   * Returns rendered description of [task] prefetched for [sourceText] with the current rendering settings if any
+   */
+  fun getPrefetchedDescription(task: Task, sourceText: String): String? {
+    val description = findDescription(task, sourceText, RenderingContext.current()) ?: return null
+    synchronized(descriptions) {
+      servedDescriptions++
+    }
+    return description.text
+  }
+
+  private fun findDescription(task: Task, sourceText: String, context: RenderingContext): PrefetchedDescription? {
+    val description = synchronized(descriptions) { descriptions[TaskKey(task)] } ?: return null
+    return if (description.sourceText == sourceText && description.context == context) description else null
+  }
+
+  private fun putDescription(key: TaskKey, description: PrefetchedDescription) {
+    descriptions.remove(key)?.let { descriptionsSize -= it.size }
+    if (description.size > MEMORY_BUDGET) return
+    descriptions[key] = description
+    descriptionsSize += description.size
+
+    val iterator = descriptions.values.iterator()
+    while (descriptionsSize > MEMORY_BUDGET && iterator.hasNext()) {
+      descriptionsSize -= iterator.next().size
+      iterator.remove()
+    }
+  }
+
+  private fun clearDescriptions() {
+    synchronized(descriptions) {
+      descriptions.clear()
+      descriptionsSize = 0
+    }
+  }
+
+  override fun dispose() = clearDescriptions()
+
+  @TestOnly
+  fun getPrefetchedDescriptionsCount(): Int = synchronized(descriptions) { prefetchedDescriptions }
+
+  @TestOnly
+  fun getServedDescriptionsCount(): Int = synchronized(descriptions) { servedDescriptions }
+
+  @TestOnly
+  fun getDescriptionsSize(): Long = synchronized(descriptions) { descriptionsSize }
+
+  private class TaskKey(val task: Task) {
+    override fun equals(other: Any?): Boolean = other is TaskKey && other.task === task
+    override fun hashCode(): Int = System.identityHashCode(task)
+  }
+
+  /**
+   * Settings which rendered description depends on besides its source text
+   */
+  private data class RenderingContext(val isDarcula: Boolean, val colorSchemeName: String, val fontSize: Int, val isSwing: Boolean) {
+    companion object {
+      fun current(): RenderingContext = RenderingContext(UIUtil.isUnderDarcula(),
+                                                         EditorColorsManager.getInstance().globalScheme.name,
+                                                         StyleManager().bodyFontSize,
+                                                         isSwing())
+    }
+  }
+
+  private class PrefetchedDescription(val sourceText: String, val context: RenderingContext, val text: String) {
+    // approximate size in bytes, strings are counted as UTF-16
+    val size: Long = 2L * (sourceText.length + text.length)
+  }
+
+  companion object {
+    private val LOG = logger<TaskPrefetcher>()
+
+    const val REGISTRY_KEY = "edu.task.prefetch"
+
+    // Enough for descriptions of a dozen of tasks with code samples
+    @VisibleForTesting
+    const val MEMORY_BUDGET = 4L * 1024 * 1024
+
+    private const val PREFETCH_DELAY_MS = 500L
+
+    fun getInstance(project: Project): TaskPrefetcher = project.service()
+
+    private fun isEnabled(): Boolean = Registry.`is`(REGISTRY_KEY, true)
+  }
+}
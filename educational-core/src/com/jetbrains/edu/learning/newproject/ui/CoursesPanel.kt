@@ -82,6 +82,7 @@ abstract class CoursesPanel(private val coursesProvider: CoursesPlatformProvider
   }
 
   open fun updateModelAfterCourseDeletedFromStorage(deletedCourse: Course) {
+    coursesListPanel.resetCourseCards()
     updateModel(coursesGroups, null, true)
   }
 
@@ -1,5 +1,6 @@
 package com.jetbrains.edu.learning.newproject.ui.coursePanel.groups
 
+import com.intellij.openapi.util.Key
 import com.intellij.openapi.wm.IdeFocusManager
 import com.intellij.ui.ComponentUtil
 import com.intellij.util.ui.UIUtil
@@ -26,6 +27,9 @@ class CourseGroupModel {
 
   fun addCourseCard(cardComponent: CourseCardComponent) {
     courseCards.add(cardComponent)
+    // Cards can be reused, so listeners are added only once
+    if (ComponentUtil.getClientProperty(cardComponent, LISTENERS_ADDED) == true) return
+    ComponentUtil.putClientProperty(cardComponent, LISTENERS_ADDED, true)
     cardComponent.getClickComponent().addMouseListener(mouseListener)
     addNavigationListenersRecursively(cardComponent)
     addClickListenerRecursively(cardComponent, cardComponent.actionComponent)
@@ -172,4 +176,8 @@ class CourseGroupModel {
       }
     }
   }
-}
\ No newline at end of file
+
+  companion object {
+    private val LISTENERS_ADDED: Key<Boolean> = Key.create("Edu.courseCardListenersAdded")
+  }
+}
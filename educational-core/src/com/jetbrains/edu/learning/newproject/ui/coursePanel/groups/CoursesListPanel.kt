@@ -62,6 +62,10 @@ abstract class CoursesListPanel : JPanel(BorderLayout()) {
     groupsComponent.clear()
   }
 
+  fun resetCourseCards() {
+    groupsComponent.resetCourseCards()
+  }
+
   fun setSelectedValue(newCourseToSelect: Course?) {
     groupsComponent.setSelectedValue(newCourseToSelect)
   }
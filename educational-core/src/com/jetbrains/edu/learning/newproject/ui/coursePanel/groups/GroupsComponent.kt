@@ -8,6 +8,7 @@ import com.jetbrains.edu.learning.messages.EduCoreBundle
 import com.jetbrains.edu.learning.newproject.ui.CourseCardComponent
 import com.jetbrains.edu.learning.newproject.ui.coursePanel.MAIN_BG_COLOR
 import java.awt.event.ActionListener
+import java.util.*
 
 class GroupsComponent(
   private val createCourseCard: (Course) -> CourseCardComponent,
@@ -15,6 +16,9 @@ class GroupsComponent(
 ) : JBPanelWithEmptyText(VerticalFlowLayout(0, 0)) {
   private val courseGroupModel: CourseGroupModel = CourseGroupModel()
 
+  // Cards are reused when the same courses are shown again, e.g. while a search query is being typed
+  private val courseCards: MutableMap<Course, CourseCardComponent> = IdentityHashMap()
+
   val selectedValue: Course?
     get() = courseGroupModel.selectedCard?.course
 
@@ -29,18 +33,31 @@ class GroupsComponent(
   }
 
   fun addGroup(coursesGroup: CoursesGroup) {
-    val groupPanel = CoursesGroupPanel(coursesGroup, createCourseCard)
+    val groupPanel = CoursesGroupPanel(coursesGroup, ::getCourseCard)
     groupPanel.courseCards.forEach { courseGroupModel.addCourseCard(it) }
     add(groupPanel)
   }
 
+  private fun getCourseCard(course: Course): CourseCardComponent = courseCards.getOrPut(course) { createCourseCard(course) }
+
   fun clear() {
     courseGroupModel.clear()
     removeAll()
+    if (courseCards.size > MAX_CACHED_CARDS) {
+      courseCards.clear()
+    }
     revalidate()
     repaint()
   }
 
+  /**
+   * Drops reusable cards, should be called when cards of the same courses have to be created again,
+   * e.g. when a course is removed from the list of user courses
+   */
+  fun resetCourseCards() {
+    courseCards.clear()
+  }
+
   fun setSelectedValue(newCourseToSelect: Course?) {
     courseGroupModel.setSelection(newCourseToSelect)
   }
@@ -61,4 +78,7 @@ class GroupsComponent(
     courseGroupModel.onClick = onClick
   }
 
-}
\ No newline at end of file
+  companion object {
+    private const val MAX_CACHED_CARDS = 1000
+  }
+}
@@ -0,0 +1,106 @@
+package com.jetbrains.edu.learning.newproject.ui.filters
+
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.newproject.ui.coursePanel.groups.CoursesGroup
+import org.jetbrains.annotations.NonNls
+import org.jetbrains.annotations.TestOnly
+import java.util.*
+
+/**
+ * Search over courses of the browse courses dialog.
+ *
+ * Searchable texts of courses (names, tags including programming and human languages, author names) are normalized once
+ * when the index is built, so a query is matched against precomputed lowercase strings only.
+ * If a query refines the previous one, e.g. a user continues typing a word, only courses matched by the previous query
+ * are checked again.
+ *
+ * Query is split into words, and a course is matched if any of them is found in its searchable texts.
+ * A word like `language:english` is also matched against texts of tags with the given search option only
+ */
+class CoursesSearchIndex(coursesGroups: List<CoursesGroup>) {
+
+  // Groups passed to the index can be mutable, so it keeps their copy to check if it's still up to date
+  private val coursesGroups: List<CoursesGroup> = coursesGroups.map { CoursesGroup(it.name, it.courses.toList()) }
+
+  private val entries: List<Entry> = this.coursesGroups.flatMapIndexed { groupIndex, group ->
+    group.courses.map { Entry(groupIndex, it) }
+  }
+
+  private var lastQuery: Set<String> = emptySet()
+  private var lastResult: List<Entry> = entries
+
+  private var checkedEntries = 0
+
+  fun isBuiltFor(coursesGroups: List<CoursesGroup>): Boolean {
+    if (coursesGroups.size != this.coursesGroups.size) return false
+    return coursesGroups.zip(this.coursesGroups).all { (group, indexedGroup) ->
+      group.name == indexedGroup.name && group.courses.size == indexedGroup.courses.size &&
+      group.courses.zip(indexedGroup.courses).all { (course, indexedCourse) -> course === indexedCourse }
+    }
+  }
+
+  /**
+   * Returns groups with the same names as indexed ones containing only courses matched by [filter]
+   */
+  fun search(@NonNls filter: String): List<CoursesGroup> {
+    val query = parseQuery(filter)
+    val candidates = if (isRefinement(lastQuery, query)) lastResult else entries
+    val result = if (query.isEmpty()) entries else candidates.filter { it.matchesAny(query) }
+    lastQuery = query
+    lastResult = result
+
+    val coursesByGroup = result.groupBy({ it.groupIndex }, { it.course })
+    return coursesGroups.mapIndexed { index, group -> CoursesGroup(group.name, coursesByGroup[index].orEmpty()) }
+  }
+
+  private fun Entry.matchesAny(query: Set<String>): Boolean {
+    checkedEntries++
+    return query.any { matches(it) }
+  }
+
+  @TestOnly
+  fun getCheckedEntriesCount(): Int = checkedEntries
+
+  private class Entry(val groupIndex: Int, val course: Course) {
+    // Separator never appears in query words, so a word can't match across different texts
+    private val searchText: String
+    private val optionTexts: Map<String, String>
+
+    init {
+      val tags = course.tags
+      val texts = listOf(course.name) + tags.map { it.text } + course.authorFullNames
+      searchText = texts.joinToString(SEPARATOR) { it.normalize() }
+      optionTexts = tags.groupBy({ it.searchOption }, { it.text.normalize() }).mapValues { (_, texts) -> texts.joinToString(SEPARATOR) }
+    }
+
+    fun matches(word: String): Boolean {
+      if (searchText.contains(word)) return true
+      val option = word.option() ?: return false
+      return optionTexts[option]?.contains(word.substring(option.length + 1)) ?: false
+    }
+  }
+
+  companion object {
+    private const val SEPARATOR = "\n"
+
+    private fun String.normalize(): String = toLowerCase(Locale.getDefault())
+
+    private fun String.option(): String? = substringBefore(':', "").takeIf { it.isNotEmpty() }
+
+    private fun parseQuery(filter: String): Set<String> {
+      return filter.normalize().split(' ', '\t', '\n').filterTo(HashSet()) { it.isNotEmpty() }
+    }
+
+    /**
+     * Checks if every course matched by [query] is also matched by [previousQuery].
+     * It's so if each word of [query] starts with some word of [previousQuery] which has the same search option, if any
+     */
+    private fun isRefinement(previousQuery: Set<String>, query: Set<String>): Boolean {
+      if (previousQuery.isEmpty() || query.isEmpty()) return false
+      return query.all { word ->
+        val option = word.option()
+        previousQuery.any { previousWord -> word.startsWith(previousWord) && (option == null || previousWord.option() == option) }
+      }
+    }
+  }
+}
@@ -13,6 +13,7 @@ import com.intellij.openapi.fileTypes.ex.FileTypeManagerEx
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.progress.Task
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
 import com.intellij.openapi.progress.util.ProgressWrapper
 import com.intellij.openapi.project.DumbService
 import com.intellij.openapi.project.Project
@@ -34,7 +35,9 @@ import java.nio.file.Files
 import java.nio.file.Paths
 import java.util.*
 import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ExecutorService
+import java.util.function.Supplier
 
 private val LOG = Logger.getInstance("openApiExt")
 
@@ -144,18 +147,7 @@ fun runInBackground(project: Project? = null, title: String, canBeCancelled: Boo
   })
 
 fun <T : Any> invokeAllWithProgress(tasks: List<() -> T?>, executor: ExecutorService): List<T> {
-  val progressManager = ProgressManager.getInstance()
-  val indicator = progressManager.progressIndicator
-  val callables = tasks.map { task ->
-    Callable {
-      if (indicator != null) {
-        progressManager.runProcess(task, ProgressWrapper.wrap(indicator))
-      }
-      else {
-        task()
-      }
-    }
-  }
+  val callables = tasks.map { task -> withCurrentProgress(task) }
 
   val result = ConcurrencyUtil.invokeAll(callables, executor)
     .filterNot { it.isCancelled }
@@ -165,6 +157,28 @@ fun <T : Any> invokeAllWithProgress(tasks: List<() -> T?>, executor: ExecutorSer
   return result
 }
 
+/**
+ * Runs [task] on [executor] under the current thread progress indicator, so the task is canceled together with the caller.
+ * Use [ProgressIndicatorUtils.awaitWithCheckCanceled] to wait for the result
+ */
+fun <T> supplyAsyncWithProgress(task: () -> T, executor: ExecutorService): CompletableFuture<T> {
+  val callable = withCurrentProgress(task)
+  return CompletableFuture.supplyAsync(Supplier { callable.call() }, executor)
+}
+
+private fun <T> withCurrentProgress(task: () -> T): Callable<T> {
+  val progressManager = ProgressManager.getInstance()
+  val indicator = progressManager.progressIndicator
+  return Callable {
+    if (indicator != null) {
+      progressManager.runProcess(task, ProgressWrapper.wrap(indicator))
+    }
+    else {
+      task()
+    }
+  }
+}
+
 fun <T> withRegistryKeyOff(key: String, action: () -> T): T {
   val registryValue = Registry.get(key)
   val before = try {
@@ -0,0 +1,206 @@
+package com.jetbrains.edu.learning.placeholderDependencies
+
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder
+import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholderDependency
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.ext.placeholderDependencies
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import java.util.*
+
+/**
+ * Course-wide graph of answer placeholder dependencies.
+ *
+ * The graph is built once for the course of the project, all dependencies are resolved at that moment
+ * and resolved placeholders are cached.
+ * After that, only dependencies of the requested task are checked:
+ * new dependencies are resolved and cached placeholders are re-resolved
+ * only if they no longer match the dependency path (e.g. the target item was renamed or replaced).
+ *
+ * Dependencies which can't be resolved and dependency cycles are detected when the graph is built or its edges change.
+ */
+class PlaceholderDependencyGraph(private val project: Project) {
+  private var course: Course? = null
+  // Task has content-based `equals`, so tasks are compared by identity here
+  private val nodes = IdentityHashMap<Task, TaskNode>()
+  private var tasksInCycles: Set<Task>? = null
+
+  /**
+   * @return dependencies of all placeholders of [task] with resolved placeholders.
+   * [ResolvedDependency.target] is `null` if dependency refers to non-existing placeholder
+   */
+  @Synchronized
+  fun getDependencies(task: Task): List<ResolvedDependency> {
+    val course = getCourse() ?: return emptyList()
+    return getNode(task, course).resolvedDependencies()
+  }
+
+  fun getUnsolvedTaskDependencies(task: Task): List<Task> {
+    return getDependencies(task)
+      .mapNotNull { it.target?.taskFile?.task }
+      .filter { it.status != CheckStatus.Solved }
+      .distinct()
+  }
+
+  /**
+   * @return `true` if [task] transitively depends on itself, so placeholder values can't be propagated to it
+   */
+  @Synchronized
+  fun isInCycle(task: Task): Boolean {
+    val course = getCourse() ?: return false
+    getNode(task, course)
+    val tasksInCycles = tasksInCycles ?: findTasksInCycles(course).also { tasksInCycles = it }
+    return task in tasksInCycles
+  }
+
+  private fun getCourse(): Course? {
+    val currentCourse = project.course ?: return null
+    if (currentCourse !== course) {
+      build(currentCourse)
+    }
+    return currentCourse
+  }
+
+  private fun build(course: Course) {
+    this.course = course
+    nodes.clear()
+    course.visitTasks { task ->
+      if (task.placeholderDependencies.isNotEmpty()) {
+        getNode(task, course)
+      }
+    }
+    tasksInCycles = findTasksInCycles(course)
+  }
+
+  private fun getNode(task: Task, course: Course): TaskNode {
+    val node = nodes.getOrPut(task) { TaskNode(task) }
+    if (node.update(course)) {
+      tasksInCycles = null
+    }
+    return node
+  }
+
+  /**
+   * Finds strongly connected components of the graph with Tarjan's algorithm
+   * and returns tasks of components containing cycles
+   */
+  private fun findTasksInCycles(course: Course): Set<Task> {
+    // Nodes of tasks removed from the course are not needed anymore
+    nodes.values.removeIf { !it.isInCourse(course) }
+
+    val result = Collections.newSetFromMap(IdentityHashMap<Task, Boolean>())
+    val indices = IdentityHashMap<Task, Int>()
+    val lowLinks = IdentityHashMap<Task, Int>()
+    val stack = ArrayDeque<Task>()
+    val onStack = Collections.newSetFromMap(IdentityHashMap<Task, Boolean>())
+
+    fun visit(task: Task) {
+      indices[task] = indices.size
+      lowLinks[task] = indices.getValue(task)
+      stack.push(task)
+      onStack += task
+      val targetTasks = nodes[task]?.targetTasks().orEmpty()
+      for (target in targetTasks) {
+        if (target !in indices) {
+          visit(target)
+          lowLinks[task] = minOf(lowLinks.getValue(task), lowLinks.getValue(target))
+        }
+        else if (target in onStack) {
+          lowLinks[task] = minOf(lowLinks.getValue(task), indices.getValue(target))
+        }
+      }
+      if (lowLinks[task] == indices[task]) {
+        val component = mutableListOf<Task>()
+        do {
+          val member = stack.pop()
+          onStack -= member
+          component += member
+        } while (member !== task)
+        if (component.size > 1 || targetTasks.any { it === task }) {
+          LOG.warn("Placeholder dependencies of tasks ${component.joinToString { "'${it.name}'" }} form a cycle")
+          result += component
+        }
+      }
+    }
+
+    for (task in nodes.keys.toList()) {
+      if (task !in indices) {
+        visit(task)
+      }
+    }
+    return result
+  }
+
+  data class ResolvedDependency(val dependency: AnswerPlaceholderDependency, val target: AnswerPlaceholder?)
+
+  private class TaskNode(private val task: Task) {
+    private var dependencies: List<AnswerPlaceholderDependency> = emptyList()
+    private val targets = IdentityHashMap<AnswerPlaceholderDependency, AnswerPlaceholder?>()
+
+    /**
+     * Resolves new and outdated dependencies of the task
+     *
+     * @return `true` if any edge of the graph was changed
+     */
+    fun update(course: Course): Boolean {
+      var isChanged = false
+      val actualDependencies = task.placeholderDependencies
+      if (!isSame(actualDependencies)) {
+        dependencies = actualDependencies
+        targets.keys.retainAll(actualDependencies)
+        isChanged = true
+      }
+      for (dependency in dependencies) {
+        val cachedTarget = targets[dependency]
+        if (cachedTarget != null && dependency.isResolvedTo(cachedTarget, course)) continue
+        val target = dependency.resolve(course)
+        if (target == null && (cachedTarget != null || dependency !in targets)) {
+          LOG.warn("Placeholder dependency `$dependency` of task '${task.name}' refers to non-existing placeholder")
+        }
+        if (target !== cachedTarget || dependency !in targets) {
+          isChanged = true
+        }
+        targets[dependency] = target
+      }
+      return isChanged
+    }
+
+    fun resolvedDependencies(): List<ResolvedDependency> = dependencies.map { ResolvedDependency(it, targets[it]) }
+
+    fun targetTasks(): List<Task> = targets.values.mapNotNull { it?.taskFile?.task }
+
+    fun isInCourse(course: Course): Boolean {
+      val lesson = task.lesson ?: return false
+      return lesson.getTask(task.name) === task && course.getLesson(lesson.section?.name, lesson.name) === lesson
+    }
+
+    private fun isSame(actualDependencies: List<AnswerPlaceholderDependency>): Boolean {
+      if (actualDependencies.size != dependencies.size) return false
+      return actualDependencies.indices.all { actualDependencies[it] === dependencies[it] }
+    }
+
+    /**
+     * Checks that [target] is still the placeholder referred by the dependency path
+     * without searching for it from scratch
+     */
+    private fun AnswerPlaceholderDependency.isResolvedTo(target: AnswerPlaceholder, course: Course): Boolean {
+      val taskFile = target.taskFile ?: return false
+      val task = taskFile.task ?: return false
+      val lesson = task.lesson ?: return false
+      return taskFile.answerPlaceholders.getOrNull(placeholderIndex) === target &&
+             task.getTaskFile(fileName) === taskFile &&
+             lesson.getTask(taskName) === task &&
+             course.getLesson(sectionName, lessonName) === lesson
+    }
+  }
+
+  companion object {
+    private val LOG = Logger.getInstance(PlaceholderDependencyGraph::class.java)
+
+    fun getInstance(project: Project): PlaceholderDependencyGraph = project.service()
+  }
+}
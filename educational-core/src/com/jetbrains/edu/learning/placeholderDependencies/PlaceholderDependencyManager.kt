@@ -9,13 +9,10 @@ import com.jetbrains.edu.coursecreator.CCUtils
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder
-import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholderDependency
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.FrameworkLesson
 import com.jetbrains.edu.learning.courseFormat.ext.getDocument
-import com.jetbrains.edu.learning.courseFormat.ext.getUnsolvedTaskDependencies
 import com.jetbrains.edu.learning.courseFormat.ext.hasChangedFiles
-import com.jetbrains.edu.learning.courseFormat.ext.placeholderDependencies
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 
 object PlaceholderDependencyManager {
@@ -28,6 +25,12 @@ object PlaceholderDependencyManager {
       return
     }
 
+    val graph = PlaceholderDependencyGraph.getInstance(project)
+    val dependencies = graph.getDependencies(task)
+    if (dependencies.isEmpty()) {
+      return
+    }
+
     for (taskFile in task.taskFiles.values) {
       val virtualFile = EduUtils.findTaskFileInDir(taskFile, task.getDir(project.courseDir) ?: break) ?: continue
       EditorNotifications.getInstance(project).updateNotifications(virtualFile)
@@ -36,24 +39,28 @@ object PlaceholderDependencyManager {
     if (task.status != CheckStatus.Unchecked) {
       return
     }
-    if (task.placeholderDependencies.isEmpty()) {
-      return
-    }
 
     if (task.hasChangedFiles(project)) {
       return
     }
 
-    val unsolvedTasks = task.getUnsolvedTaskDependencies()
+    val unsolvedTasks = graph.getUnsolvedTaskDependencies(task)
     if (unsolvedTasks.isNotEmpty()) {
       //everything will be handled by editor notification
       return
     }
 
-    for (dependency in task.placeholderDependencies) {
-      val replacementText = getReplacementText(project, dependency)
-      val placeholderToReplace = dependency.answerPlaceholder
-      runUndoTransparentWriteAction {
+    if (graph.isInCycle(task)) {
+      LOG.warn("Placeholders of task '${task.name}' are not updated since their dependencies form a cycle")
+      return
+    }
+
+    // Stale dependencies are already reported by the graph
+    val replacements = dependencies.mapNotNull { (dependency, target) ->
+      if (target == null) null else dependency.answerPlaceholder to getReplacementText(project, target)
+    }
+    runUndoTransparentWriteAction {
+      for ((placeholderToReplace, replacementText) in replacements) {
         replacePlaceholderText(project, placeholderToReplace, replacementText)
       }
     }
@@ -71,9 +78,7 @@ object PlaceholderDependencyManager {
     placeholderToReplace.isInitializedFromDependency = true
   }
 
-  private fun getReplacementText(project: Project, dependency: AnswerPlaceholderDependency): String {
-    val course = dependency.answerPlaceholder.taskFile.task.course
-    val dependencyPlaceholder = dependency.resolve(course)!!
+  private fun getReplacementText(project: Project, dependencyPlaceholder: AnswerPlaceholder): String {
     val dependencyTask = dependencyPlaceholder.taskFile.task
     val dependencyLesson = dependencyTask.lesson
     return if (dependencyLesson is FrameworkLesson && dependencyLesson.currentTaskIndex != dependencyTask.index - 1) {
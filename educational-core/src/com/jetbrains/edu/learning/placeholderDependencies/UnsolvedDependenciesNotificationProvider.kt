@@ -10,7 +10,6 @@ import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.ui.EditorNotificationPanel
 import com.intellij.ui.EditorNotifications
 import com.jetbrains.edu.learning.EduUtils
-import com.jetbrains.edu.learning.courseFormat.ext.getUnsolvedTaskDependencies
 import com.jetbrains.edu.learning.getContainingTask
 import com.jetbrains.edu.learning.navigation.NavigationUtils
 import com.jetbrains.edu.learning.statistics.EduCounterUsageCollector
@@ -24,7 +23,7 @@ class UnsolvedDependenciesNotificationProvider : EditorNotifications.Provider<Ed
       return null
     }
     val task = file.getContainingTask(project) ?: return null
-    val taskDependencies = task.getUnsolvedTaskDependencies().sortedBy { it.index }
+    val taskDependencies = PlaceholderDependencyGraph.getInstance(project).getUnsolvedTaskDependencies(task).sortedBy { it.index }
     if (taskDependencies.isEmpty()) {
       return null
     }
@@ -49,7 +49,7 @@ open class CourseNode(
       if (item is HyperskillCourse) {
         return null
       }
-      val (tasksSolved, tasksTotal) = ProgressUtil.countProgress(item)
+      val (tasksSolved, tasksTotal) = CourseViewPresentationCache.getInstance(myProject).getProgress(item)
       return " $tasksSolved/$tasksTotal"
     }
 
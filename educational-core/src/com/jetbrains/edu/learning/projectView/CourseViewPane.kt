@@ -34,6 +34,8 @@ import com.intellij.openapi.actionSystem.*
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.project.DumbAware
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiManager
 import com.intellij.ui.ScrollPaneFactory
 import com.intellij.util.ArrayUtil
 import com.intellij.util.ui.UIUtil
@@ -45,8 +47,10 @@ import com.jetbrains.edu.coursecreator.projectView.CCTaskNode
 import com.jetbrains.edu.learning.CourseSetListener
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.courseFormat.Course
 import com.jetbrains.edu.learning.courseFormat.StudyItem
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.projectView.ProgressUtil.createProgressBar
 import icons.EducationalCoreIcons
 import org.jetbrains.annotations.NonNls
@@ -129,7 +133,7 @@ class CourseViewPane(project: Project) : AbstractProjectViewPSIPane(project) {
       Logger.getInstance(CourseViewPane::class.java).error("course is null")
       return
     }
-    val (taskSolved, tasksTotal) = ProgressUtil.countProgress(course)
+    val (taskSolved, tasksTotal) = CourseViewPresentationCache.getInstance(myProject).getProgress(course)
 
     updateCourseProgress(tasksTotal, taskSolved)
   }
@@ -139,6 +143,30 @@ class CourseViewPane(project: Project) : AbstractProjectViewPSIPane(project) {
     progressBar.value = taskSolved
   }
 
+  /**
+   * Updates presentation of nodes of the given [items] without rebuilding the whole tree
+   */
+  fun updateItemNodes(items: List<StudyItem>) {
+    val courseDir = myProject.courseDir
+    val psiManager = PsiManager.getInstance(myProject)
+    for (item in items) {
+      val dir = psiManager.findDirectory(item.getDir(courseDir) ?: continue) ?: continue
+      val nodeDir = if (item is Task) CourseViewUtils.findTaskDirectory(myProject, dir, item) ?: continue else dir
+      updateFrom(nodeDir, false, false)
+    }
+  }
+
+  /**
+   * Updates subtrees of the given [dirs] without rebuilding the whole tree
+   */
+  fun updateDirectories(dirs: Collection<VirtualFile>) {
+    val psiManager = PsiManager.getInstance(myProject)
+    for (dir in dirs) {
+      val psiDir = psiManager.findDirectory(dir) ?: continue
+      updateFrom(psiDir, false, true)
+    }
+  }
+
   @TestOnly
   fun getProgressBar(): JProgressBar = progressBar
 
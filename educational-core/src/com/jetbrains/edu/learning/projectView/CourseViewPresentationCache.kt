@@ -0,0 +1,99 @@
+package com.jetbrains.edu.learning.projectView
+
+import com.intellij.ide.projectView.ProjectView
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.courseFormat.*
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
+import com.jetbrains.edu.learning.stepik.submissions.SubmissionsManager
+import org.jetbrains.annotations.TestOnly
+import java.util.*
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Caches course view data which requires traversing all tasks of a study item:
+ * progress of course, sections and lessons and whether they are solved.
+ *
+ * When status of a task is changed, [taskStatusChanged] drops cached values only for items containing the task
+ * and updates only their nodes, so course view update after task check doesn't traverse the whole course.
+ * The whole cache is dropped when course view is rebuilt from its root.
+ */
+@Service
+class CourseViewPresentationCache(private val project: Project) {
+  // Study items may have content-based `equals`, so they are compared by identity here
+  private val progress: MutableMap<StudyItem, Pair<Int, Int>> = Collections.synchronizedMap(IdentityHashMap())
+  private val recomputations = AtomicInteger()
+
+  /**
+   * @return Pair (number of solved tasks, number of tasks)
+   */
+  fun getProgress(item: StudyItem): Pair<Int, Int> {
+    progress[item]?.let { return it }
+    val itemProgress = computeProgress(item)
+    progress[item] = itemProgress
+    return itemProgress
+  }
+
+  fun isSolved(item: StudyItem): Boolean {
+    return when (item) {
+      is Task -> item.status == CheckStatus.Solved
+      is Lesson, is Section -> {
+        val (tasksSolved, tasksTotal) = getProgress(item)
+        tasksSolved == tasksTotal
+      }
+      else -> false
+    }
+  }
+
+  /**
+   * Drops cached values of items containing [task] and updates their nodes in course view
+   */
+  fun taskStatusChanged(task: Task) {
+    val items = listOfNotNull(task, task.lesson, task.lesson?.section, task.course)
+    progress.keys.removeAll(items)
+    val pane = ProjectView.getInstance(project).currentProjectViewPane as? CourseViewPane ?: return
+    pane.updateItemNodes(items)
+  }
+
+  fun invalidate() {
+    progress.clear()
+  }
+
+  @TestOnly
+  fun getRecomputationCount(): Int = recomputations.get()
+
+  private fun computeProgress(item: StudyItem): Pair<Int, Int> {
+    recomputations.incrementAndGet()
+    return when (item) {
+      is HyperskillCourse -> {
+        // we want empty progress in case project stages are not loaded
+        // and only code challenges are present
+        val projectLesson = item.getProjectLesson() ?: return 0 to 0
+        getProgress(projectLesson)
+      }
+      is LessonContainer -> {
+        var tasksSolved = 0
+        var tasksTotal = 0
+        item.visitLessons { lesson ->
+          val (lessonTasksSolved, lessonTasksTotal) = getProgress(lesson)
+          tasksSolved += lessonTasksSolved
+          tasksTotal += lessonTasksTotal
+        }
+        tasksSolved to tasksTotal
+      }
+      is Lesson -> {
+        val submissionsManager = SubmissionsManager.getInstance(project)
+        val tasksSolved = item.taskList.count { it.status == CheckStatus.Solved || submissionsManager.containsCorrectSubmission(it.id) }
+        tasksSolved to item.taskList.size
+      }
+      else -> error("Unexpected item type: ${item.javaClass.simpleName}")
+    }
+  }
+
+  companion object {
+    @JvmStatic
+    fun getInstance(project: Project): CourseViewPresentationCache = project.service()
+  }
+}
@@ -0,0 +1,140 @@
+package com.jetbrains.edu.learning.projectView
+
+import com.intellij.ide.projectView.ProjectView
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VfsUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.ui.update.MergingUpdateQueue
+import com.intellij.util.ui.update.Update
+import com.jetbrains.edu.coursecreator.CourseIgnoreRules
+import com.jetbrains.edu.learning.courseDir
+import org.jetbrains.annotations.TestOnly
+
+/**
+ * Collects requests to refresh course view from listeners of course files
+ * and performs them together after a short delay, so a series of changes, e.g. typing in `.courseignore` or config files,
+ * refreshes the view once.
+ *
+ * Only subtrees of changed files are updated unless refresh of the whole view is requested.
+ * For `.courseignore`, only parents of files whose exclusion was changed are updated
+ */
+@Service
+class CourseViewRefresher(private val project: Project) : Disposable {
+
+  private val queue = MergingUpdateQueue(COURSE_VIEW_REFRESH, REFRESH_DELAY, true, null, this).apply {
+    // Tests expect course view to be updated right after changes
+    isPassThrough = ApplicationManager.getApplication().isUnitTestMode
+  }
+
+  private val pendingDirs = LinkedHashSet<VirtualFile>()
+  private var isFullRefreshPending = false
+  private var isCourseIgnoreChanged = false
+
+  // Rules shown in course view the last time, used to find files whose exclusion was changed
+  private var courseIgnoreRules: CourseIgnoreRules? = null
+
+  private var fullRefreshCount = 0
+  private var updatedDirsCount = 0
+
+  fun refresh() {
+    synchronized(this) {
+      isFullRefreshPending = true
+    }
+    schedule()
+  }
+
+  /**
+   * Requests update of the subtree of [file] if it's a directory or its parent otherwise
+   */
+  fun refresh(file: VirtualFile) {
+    val dir = if (file.isDirectory) file else file.parent ?: return
+    if (dir == project.courseDir || !VfsUtil.isAncestor(project.courseDir, dir, false)) {
+      refresh()
+      return
+    }
+    synchronized(this) {
+      pendingDirs += dir
+    }
+    schedule()
+  }
+
+  fun courseIgnoreChanged() {
+    synchronized(this) {
+      isCourseIgnoreChanged = true
+    }
+    schedule()
+  }
+
+  private fun schedule() {
+    queue.queue(Update.create(COURSE_VIEW_REFRESH) { performRefresh() })
+  }
+
+  private fun performRefresh() {
+    val requests = synchronized(this) {
+      val requests = Requests(isFullRefreshPending, isCourseIgnoreChanged, LinkedHashSet(pendingDirs))
+      isFullRefreshPending = false
+      isCourseIgnoreChanged = false
+      pendingDirs.clear()
+      requests
+    }
+    if (project.isDisposed) return
+
+    var isFullRefresh = requests.isFullRefresh
+    val dirs = requests.dirs
+    if (requests.isCourseIgnoreChanged) {
+      val oldRules = courseIgnoreRules
+      val newRules = CourseIgnoreRules.load(project)
+      courseIgnoreRules = newRules
+      if (oldRules == null) {
+        isFullRefresh = true
+      }
+      else {
+        val changedPaths = (oldRules.excludedPaths - newRules.excludedPaths) + (newRules.excludedPaths - oldRules.excludedPaths)
+        changedPaths.mapNotNullTo(dirs) { project.courseDir.findFileByRelativePath(it)?.parent }
+      }
+    }
+
+    val projectView = ProjectView.getInstance(project)
+    val pane = projectView.currentProjectViewPane as? CourseViewPane
+    if (isFullRefresh || pane == null) {
+      fullRefreshCount++
+      courseIgnoreRules = CourseIgnoreRules.load(project)
+      projectView.refresh()
+      return
+    }
+    val validDirs = dirs.filter { it.isValid }
+    updatedDirsCount += validDirs.size
+    pane.updateDirectories(validDirs)
+  }
+
+  override fun dispose() {}
+
+  private class Requests(val isFullRefresh: Boolean, val isCourseIgnoreChanged: Boolean, val dirs: MutableSet<VirtualFile>)
+
+  @TestOnly
+  fun setPassThrough(passThrough: Boolean) {
+    queue.isPassThrough = passThrough
+  }
+
+  @TestOnly
+  fun flush() {
+    queue.flush()
+  }
+
+  @TestOnly
+  fun getFullRefreshCount(): Int = fullRefreshCount
+
+  @TestOnly
+  fun getUpdatedDirsCount(): Int = updatedDirsCount
+
+  companion object {
+    private const val COURSE_VIEW_REFRESH = "Course View Refresh"
+    private const val REFRESH_DELAY = 300
+
+    fun getInstance(project: Project): CourseViewRefresher = project.service()
+  }
+}
@@ -14,11 +14,9 @@ import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.courseFormat.*
 import com.jetbrains.edu.learning.courseFormat.ext.findSourceDir
 import com.jetbrains.edu.learning.courseFormat.ext.getVirtualFile
-import com.jetbrains.edu.learning.courseFormat.ext.project
 import com.jetbrains.edu.learning.courseFormat.ext.sourceDir
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.pathRelativeToTask
-import com.jetbrains.edu.learning.stepik.submissions.SubmissionsManager
 import icons.EducationalCoreIcons
 import org.jetbrains.annotations.TestOnly
 import javax.swing.Icon
@@ -105,32 +103,18 @@ object CourseViewUtils {
   }
 
   @JvmStatic
-  fun getIcon(item: StudyItem): Icon {
+  fun getIcon(project: Project, item: StudyItem): Icon {
+    val presentationCache = CourseViewPresentationCache.getInstance(project)
     return when (item) {
       is Course -> item.icon
       is Section -> {
-        if (item.isSolved) EducationalCoreIcons.SectionSolved else EducationalCoreIcons.Section
+        if (presentationCache.isSolved(item)) EducationalCoreIcons.SectionSolved else EducationalCoreIcons.Section
       }
       is Lesson -> {
-        if (item.isSolved) EducationalCoreIcons.LessonSolved else EducationalCoreIcons.Lesson
+        if (presentationCache.isSolved(item)) EducationalCoreIcons.LessonSolved else EducationalCoreIcons.Lesson
       }
       is Task -> item.icon
       else -> error("Unexpected item type: ${item.javaClass.simpleName}")
     }
   }
-
-  private val StudyItem.isSolved: Boolean
-    get() {
-      return when (this) {
-        is Section -> lessons.all { it.isSolved() }
-        is Lesson -> isSolved()
-        is Task -> status == CheckStatus.Solved
-        else -> false
-      }
-    }
-
-  private fun Lesson.isSolved() = taskList.all {
-    val project = it.project ?: return false
-    it.status == CheckStatus.Solved || SubmissionsManager.getInstance(project).containsCorrectSubmission(it.id)
-  }
 }
@@ -28,7 +28,7 @@ class FrameworkLessonNode private constructor(
     get() {
       val course = item.course
       return if (course is HyperskillCourse && course.isStudy && item == course.getProjectLesson()) {
-        val (tasksSolved, tasksTotal) = ProgressUtil.countProgress(item)
+        val (tasksSolved, tasksTotal) = CourseViewPresentationCache.getInstance(myProject).getProgress(item)
         if (tasksTotal == 0) {
           return null
         }
@@ -11,53 +11,11 @@ import com.intellij.ui.JBColor
 import com.jetbrains.edu.coursecreator.ui.CCCreateCoursePreviewDialog
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.StudyTaskManager
-import com.jetbrains.edu.learning.courseFormat.CheckStatus
-import com.jetbrains.edu.learning.courseFormat.Course
-import com.jetbrains.edu.learning.courseFormat.Lesson
-import com.jetbrains.edu.learning.courseFormat.ext.project
 import com.jetbrains.edu.learning.newproject.coursesStorage.CoursesStorage
-import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
-import com.jetbrains.edu.learning.stepik.submissions.SubmissionsManager
 import java.awt.Color
 import javax.swing.JProgressBar
 
 object ProgressUtil {
-  /**
-   * @return Pair (number of solved tasks, number of tasks)
-   */
-  @JvmStatic
-  fun countProgress(course: Course): Pair<Int, Int> {
-    if (course is HyperskillCourse) {
-      // we want empty progress in case project stages are not loaded
-      // and only code challenges are present
-      val projectLesson = course.getProjectLesson() ?: return 0 to 0
-      return countProgress(projectLesson)
-    }
-    var taskNum = 0
-    var taskSolved = 0
-    course.visitLessons { lesson ->
-      taskNum += lesson.taskList.size
-      taskSolved += getSolvedTasks(lesson)
-    }
-    return Pair(taskSolved, taskNum)
-  }
-
-  @JvmStatic
-  fun countProgress(lesson: Lesson): Pair<Int, Int> {
-    val taskNum = lesson.taskList.size
-    val taskSolved = getSolvedTasks(lesson)
-    return Pair(taskSolved, taskNum)
-  }
-
-  private fun getSolvedTasks(lesson: Lesson): Int {
-    return lesson.taskList
-      .filter {
-        val project = it.project ?: return@filter false
-        it.status == CheckStatus.Solved || SubmissionsManager.getInstance(project).containsCorrectSubmission(it.id)
-      }
-      .count()
-  }
-
   fun createProgressBar() : JProgressBar {
     val progressBar = JProgressBar()
 
@@ -80,7 +38,7 @@ object ProgressUtil {
       LOG.error("course is null for project at ${project.basePath}")
       return
     }
-    val (tasksSolved, tasksTotal) = countProgress(course)
+    val (tasksSolved, tasksTotal) = CourseViewPresentationCache.getInstance(project).getProgress(course)
     val pane = ProjectView.getInstance(project).currentProjectViewPane
     if (pane is CourseViewPane && EduUtils.isStudentProject(project) && !ApplicationManager.getApplication().isUnitTestMode) {
       pane.updateCourseProgress(tasksTotal, tasksSolved)
@@ -19,6 +19,8 @@ class RootNode(project: Project, viewSettings: ViewSettings?) : ProjectViewProje
 
   override fun getChildren(): Collection<AbstractTreeNode<*>> {
     val course = StudyTaskManager.getInstance(myProject).course ?: return emptyList()
+    // The whole tree is rebuilt, so all cached presentation data should be recomputed
+    CourseViewPresentationCache.getInstance(myProject).invalidate()
       val nodes = ArrayList<AbstractTreeNode<*>>()
       if (!isUnitTestMode) {
         val psiDirectory = PsiManager.getInstance(myProject).findDirectory(myProject.courseDir)
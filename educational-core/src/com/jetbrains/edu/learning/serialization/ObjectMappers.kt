@@ -0,0 +1,67 @@
+package com.jetbrains.edu.learning.serialization
+
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.diagnostic.logger
+import com.jetbrains.edu.learning.courseFormat.*
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.getCourseMapper
+import com.jetbrains.edu.learning.stepik.PyCharmStepOptions
+import com.jetbrains.edu.learning.stepik.api.Reply
+import com.jetbrains.edu.learning.stepik.api.StepikConnector
+import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Jackson mappers shared by the plugin.
+ *
+ * A new mapper introspects classes and mixins and builds serializers from scratch on first use,
+ * so mappers are created once per configuration and reused.
+ * Shared mappers are fully configured on creation and must not be reconfigured by callers:
+ * code which needs additional modules or mixins should create its own mapper once and keep it.
+ *
+ * Other shared mappers: [getCourseMapper] for course archives, [StepikConnector.DEFAULT_MAPPER]
+ * and mappers of [YamlFormatSynchronizer] for config files
+ */
+object ObjectMappers {
+  private val LOG = logger<ObjectMappers>()
+
+  private val isWarmedUp = AtomicBoolean(false)
+
+  /**
+   * Mapper with default configuration for trees and simple objects. Unknown properties are ignored
+   */
+  @JvmStatic
+  val JSON: ObjectMapper by lazy { ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false) }
+
+  /**
+   * Builds serializers and deserializers of course items in shared mappers in background once per application,
+   * so the first archive read or config file save doesn't pay for class introspection
+   */
+  fun warmUpInBackground() {
+    if (!isWarmedUp.compareAndSet(false, true)) return
+    ApplicationManager.getApplication().executeOnPooledThread {
+      val courseItems = listOf(Course::class.java, Section::class.java, Lesson::class.java, Task::class.java,
+                               TaskFile::class.java, AnswerPlaceholder::class.java)
+      warmUp(YamlFormatSynchronizer.MAPPER, courseItems)
+      warmUp(YamlFormatSynchronizer.STUDENT_MAPPER, courseItems)
+      warmUp(YamlFormatSynchronizer.REMOTE_MAPPER, courseItems)
+      warmUp(getCourseMapper(isEncrypted = false), courseItems)
+      warmUp(StepikConnector.DEFAULT_MAPPER, listOf(PyCharmStepOptions::class.java, Reply::class.java))
+    }
+  }
+
+  private fun warmUp(mapper: ObjectMapper, classes: List<Class<*>>) {
+    for (clazz in classes) {
+      try {
+        // Both calls look up serializers the same way real reading and writing do, and keep them in mapper caches
+        mapper.canSerialize(clazz)
+        mapper.canDeserialize(mapper.constructType(clazz))
+      }
+      catch (e: RuntimeException) {
+        LOG.info("Failed to prepare serializers of ${clazz.simpleName}", e)
+      }
+    }
+  }
+}
@@ -1,14 +1,14 @@
 package com.jetbrains.edu.learning.serialization.converter.json
 
 import com.fasterxml.jackson.databind.JsonNode
-import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.node.ArrayNode
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.jetbrains.edu.learning.serialization.SerializationUtils.Json.*
 
 class To9VersionJsonStepOptionConverter : JsonStepOptionsConverter {
   override fun convert(stepOptionsJson: ObjectNode): ObjectNode {
-    val taskFiles = stepOptionsJson.get(FILES) as? ArrayNode ?: ObjectMapper().createArrayNode()
+    val taskFiles = stepOptionsJson.get(FILES) as? ArrayNode ?: JsonNodeFactory.instance.arrayNode()
     val testFiles = stepOptionsJson.remove(TESTS) ?: emptyList<JsonNode>()
     for (testFile in testFiles) {
       if (testFile !is ObjectNode) continue
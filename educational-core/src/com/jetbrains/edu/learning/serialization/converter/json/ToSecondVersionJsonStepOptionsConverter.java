@@ -3,11 +3,12 @@ package com.jetbrains.edu.learning.serialization.converter.json;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.EditorFactory;
+import com.jetbrains.edu.learning.serialization.ObjectMappers;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -51,7 +52,7 @@ public class ToSecondVersionJsonStepOptionsConverter implements JsonStepOptionsC
     final String hintString = placeholderObject.get(HINT).asText();
     final ArrayNode hintsArray = placeholderObject.putArray(ADDITIONAL_HINTS);
     try {
-      final List<String> hints = new ObjectMapper().readValue(hintString, new TypeReference<List<String>>() {});
+      final List<String> hints = ObjectMappers.getJSON().readValue(hintString, new TypeReference<List<String>>() {});
       if (hints != null && !hints.isEmpty()) {
         for (int i = 0; i < hints.size(); i++) {
           if (i == 0) {
@@ -74,7 +75,7 @@ public class ToSecondVersionJsonStepOptionsConverter implements JsonStepOptionsC
   }
 
   private static void convertToSubtaskInfo(@NotNull ObjectNode placeholderObject) {
-    ObjectNode subtaskInfo = new ObjectMapper().createObjectNode();
+    ObjectNode subtaskInfo = JsonNodeFactory.instance.objectNode();
     final ArrayNode subtaskInfos = placeholderObject.putArray(SUBTASK_INFOS);
     final ArrayNode hintsArray = subtaskInfo.putArray(HINTS);
 
@@ -1,6 +1,6 @@
 package com.jetbrains.edu.learning.serialization.converter.json
 
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.serialization.SerializationUtils.Json.*
@@ -10,8 +10,8 @@ class ToSeventhVersionJsonStepOptionConverter : JsonStepOptionsConverter {
   override fun convert(stepOptionsJson: ObjectNode): ObjectNode {
     if (stepOptionsJson.get(TITLE)?.asText() == EduNames.ADDITIONAL_MATERIALS) return stepOptionsJson
 
-    val taskFiles = stepOptionsJson.get(FILES) ?: ObjectMapper().createArrayNode()
-    val testFiles = stepOptionsJson.get(TESTS) ?: ObjectMapper().createArrayNode()
+    val taskFiles = stepOptionsJson.get(FILES) ?: JsonNodeFactory.instance.arrayNode()
+    val testFiles = stepOptionsJson.get(TESTS) ?: JsonNodeFactory.instance.arrayNode()
 
     if (taskFiles.any{ it.get(NAME).asText().endsWith(".py") }) return stepOptionsJson
     if (testFiles.any{ it.get(NAME).asText().endsWith(".py") }) return stepOptionsJson
@@ -1,7 +1,7 @@
 package com.jetbrains.edu.learning.serialization.converter.json
 
 import com.fasterxml.jackson.databind.JsonNode
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.jetbrains.edu.learning.serialization.SerializationUtils.Json.*
 
@@ -9,12 +9,12 @@ class ToSixthVersionJsonStepOptionConverter : JsonStepOptionsConverter {
 
   override fun convert(stepOptionsJson: ObjectNode): ObjectNode {
     val additionalFiles = stepOptionsJson.remove(ADDITIONAL_FILES)
-    val additionalFilesMap = ObjectMapper().createObjectNode()
+    val additionalFilesMap = JsonNodeFactory.instance.objectNode()
     if (additionalFiles != null) {
       for (additionalFile in additionalFiles) {
         val path = additionalFile.get(NAME).asText()
         val text = additionalFile.get(TEXT).asText()
-        val newAdditionalFile = ObjectMapper().createObjectNode()
+        val newAdditionalFile = JsonNodeFactory.instance.objectNode()
         newAdditionalFile.put(TEXT, text)
         newAdditionalFile.put(IS_VISIBLE, true)
         additionalFilesMap.set<JsonNode?>(path, newAdditionalFile)
@@ -1,7 +1,7 @@
 package com.jetbrains.edu.learning.serialization.converter.json.local
 
 import com.fasterxml.jackson.databind.JsonNode
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.serialization.SerializationUtils.Json.*
@@ -15,7 +15,7 @@ class To10VersionLocalCourseConverter : JsonLocalCourseConverterBase() {
   }
 
   private fun convertAdditionalFiles(localCourse: ObjectNode) {
-    val additionalFiles = ObjectMapper().createArrayNode()
+    val additionalFiles = JsonNodeFactory.instance.arrayNode()
     val courseItems = localCourse.getJsonObjectList(ITEMS)
     val additionalMaterialsLesson = courseItems.singleOrNull {
       isAdditional(it.get(TITLE).asText())
@@ -1,7 +1,7 @@
 package com.jetbrains.edu.learning.serialization.converter.json.local
 
 import com.fasterxml.jackson.databind.JsonNode
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.jetbrains.edu.learning.serialization.SerializationUtils.Json.*
 
@@ -15,20 +15,20 @@ class To9VersionLocalCourseConverter : JsonLocalCourseConverterBase() {
 
     @JvmStatic
     fun convertTaskObject(taskObject: ObjectNode) {
-      val mapper = ObjectMapper()
-      val files = taskObject.remove(TASK_FILES) as? ObjectNode ?: mapper.createObjectNode()
-      val tests = taskObject.remove(TEST_FILES) as? ObjectNode ?: mapper.createObjectNode()
+      val nodeFactory = JsonNodeFactory.instance
+      val files = taskObject.remove(TASK_FILES) as? ObjectNode ?: nodeFactory.objectNode()
+      val tests = taskObject.remove(TEST_FILES) as? ObjectNode ?: nodeFactory.objectNode()
       for ((path, testText) in tests.fields()) {
         if (files.has(path)) continue
         if (!testText.isTextual) continue
-        val testObject = mapper.createObjectNode()
+        val testObject = nodeFactory.objectNode()
         testObject.put(NAME, path)
         testObject.put(TEXT, testText.asText())
         testObject.put(IS_VISIBLE, false)
         files.set<JsonNode?>(path, testObject)
       }
 
-      val additionalFiles = taskObject.remove(ADDITIONAL_FILES) as? ObjectNode ?: mapper.createObjectNode()
+      val additionalFiles = taskObject.remove(ADDITIONAL_FILES) as? ObjectNode ?: nodeFactory.objectNode()
       for ((path, fileObject) in additionalFiles.fields()) {
         if (files.has(path)) continue
         if (fileObject !is ObjectNode) continue
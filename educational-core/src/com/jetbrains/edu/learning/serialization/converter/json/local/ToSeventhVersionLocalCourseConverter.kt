@@ -1,7 +1,7 @@
 package com.jetbrains.edu.learning.serialization.converter.json.local
 
 import com.fasterxml.jackson.databind.JsonNode
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.serialization.SerializationUtils.Json.*
@@ -15,23 +15,23 @@ class ToSeventhVersionLocalCourseConverter : JsonLocalCourseConverterBase() {
     if (taskRoots != null && taskName != EduNames.ADDITIONAL_MATERIALS) {
       val (taskFilesRoot, testFilesRoot) = taskRoots
 
-      val taskFiles = ObjectMapper().createObjectNode()
+      val taskFiles = JsonNodeFactory.instance.objectNode()
       for ((path, taskFileObject) in taskObject.getJsonObjectMap<ObjectNode>(TASK_FILES)) {
         convertTaskFile(taskFileObject, taskFilesRoot)
         taskFiles.set<JsonNode?>("$taskFilesRoot/$path", taskFileObject)
       }
       taskObject.set<JsonNode?>(TASK_FILES, taskFiles)
 
-      val testFiles = ObjectMapper().createObjectNode()
+      val testFiles = JsonNodeFactory.instance.objectNode()
       for ((path, text) in taskObject.getJsonObjectMap<JsonNode>(TEST_FILES)) {
         testFiles.put("$testFilesRoot/$path", text.asText())
       }
       taskObject.set<JsonNode?>(TEST_FILES, testFiles)
     }
 
-    val additionalFiles = ObjectMapper().createObjectNode()
+    val additionalFiles = JsonNodeFactory.instance.objectNode()
     for ((path, text) in taskObject.getJsonObjectMap<JsonNode>(ADDITIONAL_FILES)) {
-      val additionalFile = ObjectMapper().createObjectNode()
+      val additionalFile = JsonNodeFactory.instance.objectNode()
       additionalFile.put(TEXT, text.asText())
       additionalFiles.set<JsonNode?>(path, additionalFile)
     }
@@ -4,7 +4,7 @@ import com.intellij.openapi.project.Project
 import com.jetbrains.edu.learning.checker.CheckListener
 import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
-import com.jetbrains.edu.learning.projectView.ProgressUtil
+import com.jetbrains.edu.learning.projectView.CourseViewPresentationCache
 
 
 class PostFeedbackCheckListener : CheckListener {
@@ -16,7 +16,7 @@ class PostFeedbackCheckListener : CheckListener {
     val lesson = task.lesson
     val course = lesson.course
 
-    val progress = ProgressUtil.countProgress(course)
+    val progress = CourseViewPresentationCache.getInstance(project).getProgress(course)
     val solvedTasks = progress.first
     if (solvedTasks == lesson.taskList.size) {
       showNotification(true, course, project)
@@ -0,0 +1,120 @@
+package com.jetbrains.edu.learning.stepik
+
+import com.jetbrains.edu.learning.courseFormat.EduCourse
+import com.jetbrains.edu.learning.courseFormat.Lesson
+import com.jetbrains.edu.learning.courseFormat.Section
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.stepik.api.StepikConnector
+
+/**
+ * Lightweight snapshot of remote course structure: ids and update dates of sections and lessons and ids of lesson steps.
+ * It's loaded without step sources which are the heaviest part of a course,
+ * so checking if a course is up to date costs a few small requests.
+ *
+ * Local course with its remote info is used as a cached manifest to compare with.
+ * Step sources are loaded only for lessons which were changed on Stepik to find out which of their tasks are outdated.
+ * Note, update date of a Stepik lesson changes when any of its steps is changed
+ */
+class StepikCourseManifest private constructor(
+  private val sections: List<Section>,
+  private val topLevelLessons: List<Lesson>,
+  private val lessonsBySection: Map<Int, List<Lesson>>
+) {
+
+  /**
+   * Compares [localCourse] with the manifest.
+   * Tasks are considered outdated if they were removed or changed on Stepik
+   */
+  fun compare(localCourse: EduCourse): Comparison {
+    val outdatedTasks = mutableListOf<Task>()
+    var isUpToDate = sections.size == localCourse.sections.size
+
+    val remoteSections = sections.associateBy { it.id }
+    for (section in localCourse.sections) {
+      val remoteSection = remoteSections[section.id]
+      val remoteLessons = lessonsBySection[section.id].orEmpty()
+      if (remoteSection == null) {
+        isUpToDate = false
+        section.lessons.flatMapTo(outdatedTasks) { it.taskList }
+        continue
+      }
+      // Update date of a section may be unknown, so lessons added to the section are found by their ids
+      if (!hasSameLessons(section.lessons, remoteLessons)) {
+        isUpToDate = false
+      }
+      if (section.id != 0 && remoteSection.updateDate != null && section.updateDate != null
+          && remoteSection.updateDate.isSignificantlyAfter(section.updateDate)) {
+        isUpToDate = false
+      }
+      if (!compareLessons(section.lessons, remoteLessons, outdatedTasks)) {
+        isUpToDate = false
+      }
+    }
+
+    if (localCourse.lessons.isNotEmpty() && !hasSameLessons(localCourse.lessons, topLevelLessons)) {
+      isUpToDate = false
+    }
+    if (!compareLessons(localCourse.lessons, topLevelLessons, outdatedTasks)) {
+      isUpToDate = false
+    }
+    return Comparison(isUpToDate, outdatedTasks)
+  }
+
+  private fun hasSameLessons(localLessons: List<Lesson>, remoteLessons: List<Lesson>): Boolean =
+    localLessons.map { it.id }.toSet() == remoteLessons.map { it.id }.toSet()
+
+  private fun compareLessons(localLessons: List<Lesson>, remoteLessons: List<Lesson>, outdatedTasks: MutableList<Task>): Boolean {
+    val remoteLessonsById = remoteLessons.associateBy { it.id }
+    var isUpToDate = true
+    for (lesson in localLessons) {
+      val remoteLesson = remoteLessonsById[lesson.id]
+      if (remoteLesson == null) {
+        isUpToDate = false
+        outdatedTasks += lesson.taskList
+        continue
+      }
+      if (lesson.id == 0 || remoteLesson.updateDate == null || lesson.updateDate == null) continue
+
+      val steps = remoteLesson.steps.orEmpty()
+      val isChanged = remoteLesson.updateDate.isSignificantlyAfter(lesson.updateDate) || steps != lesson.taskList.map { it.id }
+      if (!isChanged) continue
+
+      isUpToDate = false
+      // Only here full step sources are needed
+      val stepsById = StepikConnector.getInstance().getStepSources(steps).associateBy { it.id }
+      for (task in lesson.taskList) {
+        val stepDate = stepsById[task.id]?.updateDate
+        if (stepDate == null || task.id != 0 && task.updateDate != null && stepDate.isSignificantlyAfter(task.updateDate)) {
+          outdatedTasks += task
+        }
+      }
+    }
+    return isUpToDate
+  }
+
+  class Comparison(val isUpToDate: Boolean, val outdatedTasks: List<Task>)
+
+  companion object {
+    fun load(courseInfo: EduCourse): StepikCourseManifest {
+      val connector = StepikConnector.getInstance()
+      // The same rules of course structure as in `StepikCourseLoader.fillItems`
+      val allSections = connector.getSections(courseInfo.sectionIds).filter { it.name != StepikNames.PYCHARM_ADDITIONAL }
+      val hasVisibleSections = allSections.isNotEmpty() && !(allSections.size == 1 && allSections.first().name == courseInfo.name)
+      val topLevelSections = if (hasVisibleSections) allSections.filter { it.name == courseInfo.name } else allSections
+      val sections = if (hasVisibleSections) allSections.filter { it.name != courseInfo.name } else emptyList()
+
+      val units = connector.getUnits(allSections.flatMap { it.units })
+      val lessonsById = connector.getLessons(units.map { it.lesson }).associateBy { it.id }
+      val lessonsBySection = HashMap<Int, MutableList<Lesson>>()
+      for (unit in units) {
+        val lesson = lessonsById[unit.lesson] ?: continue
+        if (!lesson.updateDate.isSignificantlyAfter(unit.updateDate)) {
+          lesson.updateDate = unit.updateDate
+        }
+        lessonsBySection.getOrPut(unit.section) { mutableListOf() } += lesson
+      }
+      val topLevelLessons = topLevelSections.flatMap { lessonsBySection[it.id].orEmpty() }
+      return StepikCourseManifest(sections, topLevelLessons, lessonsBySection)
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.jetbrains.edu.learning.stepik;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.annotations.VisibleForTesting;
 import com.intellij.ide.SaveAndSyncHandler;
@@ -20,6 +21,7 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task.Backgroundable;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.ui.EditorNotifications;
@@ -46,6 +48,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -63,6 +66,9 @@ public class StepikSolutionsLoader implements Disposable {
   private static final String EDU_TOOLS_COMMENT = " Posted from EduTools plugin\n";
 
   private static final Logger LOG = Logger.getInstance(StepikSolutionsLoader.class);
+
+  // Copying of connector mapper is expensive, so readers are created once per reply version and course language
+  private static final Map<Pair<Integer, String>, ObjectReader> TASK_DATA_READERS = new ConcurrentHashMap<>();
   private final HashMap<Integer, Future<Boolean>> myFutures = new HashMap<>();
   private final Project myProject;
   private MessageBusConnection myBusConnection;
@@ -408,13 +414,9 @@ public class StepikSolutionsLoader implements Disposable {
       return new TaskSolutions(loadSolutionTheOldWay(task, reply));
     }
 
-    final SimpleModule module = new SimpleModule();
-    module.addDeserializer(Task.class, new JacksonSubmissionDeserializer(reply.getVersion(), language));
-    final ObjectMapper objectMapper = StepikConnector.getInstance().getObjectMapper().copy();
-    objectMapper.registerModule(module);
     TaskData updatedTaskData;
     try {
-      updatedTaskData = objectMapper.readValue(serializedTask, TaskData.class);
+      updatedTaskData = getTaskDataReader(reply.getVersion(), language).readValue(serializedTask);
     }
     catch (IOException e) {
       LOG.error(e.getMessage());
@@ -645,6 +647,17 @@ public class StepikSolutionsLoader implements Disposable {
     NavigationUtils.navigateToTask(project, task);
   }
 
+  @NotNull
+  private static ObjectReader getTaskDataReader(int replyVersion, @Nullable String language) {
+    return TASK_DATA_READERS.computeIfAbsent(Pair.create(replyVersion, language), key -> {
+      final SimpleModule module = new SimpleModule();
+      module.addDeserializer(Task.class, new JacksonSubmissionDeserializer(replyVersion, language));
+      final ObjectMapper objectMapper = StepikConnector.getInstance().getObjectMapper().copy();
+      objectMapper.registerModule(module);
+      return objectMapper.readerFor(TaskData.class);
+    });
+  }
+
   private static class TaskSolutions {
 
     public static final TaskSolutions EMPTY = new TaskSolutions(Collections.emptyMap());
@@ -11,9 +11,7 @@ import com.jetbrains.edu.learning.courseFormat.Lesson
 import com.jetbrains.edu.learning.courseFormat.Section
 import com.jetbrains.edu.learning.courseFormat.ext.hasTopLevelLessons
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
-import com.jetbrains.edu.learning.isUnitTestMode
 import com.jetbrains.edu.learning.stepik.api.StepikConnector
-import com.jetbrains.edu.learning.stepik.api.StepikCourseLoader.fillItems
 import com.jetbrains.edu.learning.stepik.course.StepikCourse
 import com.jetbrains.edu.learning.stepik.course.stepikCourseFromRemote
 import java.util.*
@@ -47,17 +45,21 @@ fun EduCourse.checkIsStepikUpToDate(): CourseUpdateInfo {
     eduCourseInfo
   }
 
-  return CourseUpdateInfo(courseInfo, isUpToDate(courseInfo))
+  return checkIsUpToDate(courseInfo)
+}
+
+private fun EduCourse.checkIsUpToDate(courseInfo: EduCourse): CourseUpdateInfo {
+  // Only ids and update dates of remote items are loaded here, full content of changed lessons is loaded on update
+  val comparison = StepikCourseManifest.load(courseInfo).compare(this)
+  val dateFromServer = courseInfo.updateDate
+  val isUpToDate = comparison.isUpToDate && (dateFromServer == null || !dateFromServer.isSignificantlyAfter(updateDate))
+  return CourseUpdateInfo(courseInfo, isUpToDate, comparison.outdatedTasks)
 }
 
 @VisibleForTesting
 fun EduCourse.isUpToDate(courseFromStepik: EduCourse): Boolean {
   val dateFromServer = courseFromStepik.updateDate ?: return true
 
-  if (!isUnitTestMode) {
-    fillItems(courseFromStepik)
-  }
-
   if (dateFromServer.isSignificantlyAfter(updateDate)) {
     return false
   }
@@ -166,4 +168,8 @@ private fun Lesson.setUpdated(lessonFromServer: Lesson) {
   }
 }
 
-data class CourseUpdateInfo(val remoteCourseInfo: EduCourse? = null, val isUpToDate: Boolean)
+data class CourseUpdateInfo(
+  val remoteCourseInfo: EduCourse? = null,
+  val isUpToDate: Boolean,
+  val outdatedTasks: List<Task> = emptyList()
+)
@@ -502,6 +502,12 @@ abstract class StepikConnector {
     @JvmStatic
     fun getInstance(): StepikConnector = service()
 
+    /**
+     * Mapper without connector deserializers. Shared by deserializers of Stepik objects, mustn't be reconfigured
+     */
+    @JvmStatic
+    val DEFAULT_MAPPER: ObjectMapper by lazy { createMapper(SimpleModule()) }
+
     @JvmStatic
     fun createMapper(module: SimpleModule): ObjectMapper {
       val objectMapper = ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
@@ -4,9 +4,10 @@ import com.fasterxml.jackson.core.JsonParser
 import com.fasterxml.jackson.core.ObjectCodec
 import com.fasterxml.jackson.databind.DeserializationContext
 import com.fasterxml.jackson.databind.JsonNode
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectReader
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer
 import com.fasterxml.jackson.databind.module.SimpleModule
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.google.common.annotations.VisibleForTesting
 import com.intellij.openapi.diagnostic.Logger
@@ -39,13 +40,14 @@ private val LOG = Logger.getInstance(EduUtils::class.java)
 class JacksonStepOptionsDeserializer @JvmOverloads constructor(vc: Class<*>? = null) : StdDeserializer<PyCharmStepOptions>(vc) {
 
   override fun deserialize(jp: JsonParser, ctxt: DeserializationContext): PyCharmStepOptions {
-    val objectMapper = StepikConnector.createMapper(SimpleModule())
     val node: JsonNode = jp.codec.readTree(jp)
     val migratedNode = migrate(node as ObjectNode, JSON_FORMAT_VERSION)
-    return objectMapper.treeToValue(migratedNode, PyCharmStepOptions::class.java)
+    return STEP_OPTIONS_READER.readValue(migratedNode)
   }
 
   companion object {
+    private val STEP_OPTIONS_READER: ObjectReader by lazy { StepikConnector.DEFAULT_MAPPER.readerFor(PyCharmStepOptions::class.java) }
+
     @VisibleForTesting
     @JvmStatic
     fun migrate(node: ObjectNode, maxVersion: Int): ObjectNode {
@@ -84,8 +86,7 @@ class StepikReplyDeserializer @JvmOverloads constructor(vc: Class<*>? = null) :
     val jsonObject: ObjectNode = jp.codec.readTree(jp) as ObjectNode
     val initialVersion = jsonObject.migrate(JSON_FORMAT_VERSION)
 
-    val objectMapper = StepikConnector.createMapper(SimpleModule())
-    val reply = objectMapper.treeToValue(jsonObject, Reply::class.java)
+    val reply = REPLY_READER.readValue<Reply>(jsonObject)
     // We need to save original version of reply object
     // to correct deserialize Reply#eduTask
     reply.version = initialVersion
@@ -93,6 +94,8 @@ class StepikReplyDeserializer @JvmOverloads constructor(vc: Class<*>? = null) :
   }
 
   companion object {
+    private val REPLY_READER: ObjectReader by lazy { StepikConnector.DEFAULT_MAPPER.readerFor(Reply::class.java) }
+
     /**
      * Return object version before migration
      */
@@ -172,7 +175,7 @@ class JacksonSubmissionDeserializer @JvmOverloads constructor(private val replyV
       if (taskRoots != null) {
         val taskFiles = get(SerializationUtils.Json.TASK_FILES)
         if (taskFiles != null) {
-          val convertedTaskFiles = ObjectMapper().createObjectNode()
+          val convertedTaskFiles = JsonNodeFactory.instance.objectNode()
           for ((path, taskFile) in taskFiles.fields()) {
             val convertedPath = "${taskRoots.taskFilesRoot}/$path"
             (taskFile as ObjectNode).put(SerializationUtils.Json.NAME, convertedPath)
@@ -183,7 +186,7 @@ class JacksonSubmissionDeserializer @JvmOverloads constructor(private val replyV
 
         val testFiles = get(SerializationUtils.Json.TEST_FILES)
         if (testFiles != null) {
-          val convertedTestFiles = ObjectMapper().createObjectNode()
+          val convertedTestFiles = JsonNodeFactory.instance.objectNode()
           for ((path, testFile) in testFiles.fields()) {
             convertedTestFiles.set<JsonNode?>("${taskRoots.testFilesRoot}/$path", testFile)
           }
@@ -211,8 +214,7 @@ private class StepikSubmissionAnswerPlaceholderDeserializer @JvmOverloads constr
   override fun deserialize(jp: JsonParser, ctxt: DeserializationContext): AnswerPlaceholder? {
     val placeholderObject: ObjectNode = jp.codec.readTree(jp) as ObjectNode
     placeholderObject.migrate(replyVersion, language)
-    val objectMapper = StepikConnector.createMapper(SimpleModule())
-    val placeholder = objectMapper.treeToValue(placeholderObject, AnswerPlaceholder::class.java)
+    val placeholder = PLACEHOLDER_READER.readValue<AnswerPlaceholder>(placeholderObject)
 
     if (placeholderObject.has(SerializationUtils.Json.SELECTED)) {
       placeholder.selected = placeholderObject.get(SerializationUtils.Json.SELECTED).asBoolean()
@@ -226,6 +228,8 @@ private class StepikSubmissionAnswerPlaceholderDeserializer @JvmOverloads constr
   }
 
   companion object {
+    private val PLACEHOLDER_READER: ObjectReader by lazy { StepikConnector.DEFAULT_MAPPER.readerFor(AnswerPlaceholder::class.java) }
+
     private fun ObjectNode.migrate(version: Int, language: String?) {
       @Suppress("NAME_SHADOWING")
       var version = version
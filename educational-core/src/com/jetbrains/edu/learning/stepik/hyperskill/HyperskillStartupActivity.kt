@@ -10,6 +10,7 @@ import com.jetbrains.edu.learning.StudyTaskManager
 import com.jetbrains.edu.learning.isUnitTestMode
 import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillConnector
 import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillSolutionLoader
+import com.jetbrains.edu.learning.stepik.hyperskill.checker.HyperskillSubmissionsOutbox
 import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
 import com.jetbrains.edu.learning.stepik.hyperskill.settings.HyperskillSettings
 import com.jetbrains.edu.learning.stepik.hyperskill.update.HyperskillCourseUpdateChecker
@@ -25,6 +26,9 @@ class HyperskillStartupActivity : StartupActivity {
     val taskManager = StudyTaskManager.getInstance(project)
 
     val course = StudyTaskManager.getInstance(project).course as? HyperskillCourse ?: return
+    // Solutions checked when JetBrains Academy wasn't reachable
+    HyperskillSubmissionsOutbox.getInstance(project).scheduleDelivery()
+
     val submissionsManager = SubmissionsManager.getInstance(project)
     if (!submissionsManager.submissionsSupported()) return
 
@@ -51,9 +55,13 @@ class HyperskillStartupActivity : StartupActivity {
   }
 
   companion object {
+    /**
+     * Topics are stored in course remote info, so on project reopening only topics of stages without them are requested
+     */
     fun synchronizeTopics(project: Project, hyperskillCourse: HyperskillCourse) {
+      if (hyperskillCourse.stages.indices.all { it in hyperskillCourse.taskToTopics }) return
       ApplicationManager.getApplication().executeOnPooledThread {
-        HyperskillConnector.getInstance().fillTopics(hyperskillCourse, project)
+        HyperskillConnector.getInstance().fillTopics(hyperskillCourse, project, onlyMissing = true)
         YamlFormatSynchronizer.saveRemoteInfo(hyperskillCourse)
       }
     }
@@ -7,11 +7,9 @@ import com.intellij.openapi.components.service
 import com.intellij.openapi.project.Project
 import com.intellij.ui.EditorNotifications
 import com.jetbrains.edu.learning.courseFormat.EduCourse
-import com.jetbrains.edu.learning.courseFormat.ext.allTasks
 import com.jetbrains.edu.learning.messages.EduCoreBundle.message
 import com.jetbrains.edu.learning.runInBackground
 import com.jetbrains.edu.learning.stepik.checkIsStepikUpToDate
-import com.jetbrains.edu.learning.stepik.isSignificantlyAfter
 import com.jetbrains.edu.learning.stepik.showUpdateAvailableNotification
 import com.jetbrains.edu.learning.stepik.updateCourseOnStepik
 import com.jetbrains.edu.learning.update.CourseUpdateChecker
@@ -28,7 +26,7 @@ class StepikUpdateChecker(project: Project) : CourseUpdateChecker(project) {
     val eduCourse = course as? EduCourse ?: return
 
     ApplicationManager.getApplication().executeOnPooledThread {
-      val (courseFromStepik, isUpToDate) = eduCourse.checkIsStepikUpToDate()
+      val (_, isUpToDate, outdatedTasks) = eduCourse.checkIsStepikUpToDate()
       runInEdt {
         if (project.isDisposed) return@runInEdt
         eduCourse.isUpToDate = isUpToDate
@@ -38,7 +36,7 @@ class StepikUpdateChecker(project: Project) : CourseUpdateChecker(project) {
               updateCourseOnStepik(project, eduCourse)
             }
           }
-          eduCourse.markTasksUpToDate(courseFromStepik)
+          outdatedTasks.forEach { it.isUpToDate = false }
           EditorNotifications.getInstance(project).updateAllNotifications()
         }
         onFinish()
@@ -46,18 +44,6 @@ class StepikUpdateChecker(project: Project) : CourseUpdateChecker(project) {
     }
   }
 
-  private fun EduCourse.markTasksUpToDate(courseFromStepik: EduCourse?) {
-    if (courseFromStepik == null) return
-
-    val tasksFromServer = courseFromStepik.allTasks.associateBy { it.id }
-    visitTasks {
-      val taskFromServer = tasksFromServer[it.id]
-      if (taskFromServer == null || taskFromServer.updateDate.isSignificantlyAfter(updateDate)) {
-        it.isUpToDate = false
-      }
-    }
-  }
-
   companion object {
     @JvmStatic
     fun getInstance(project: Project): StepikUpdateChecker {
@@ -24,7 +24,7 @@ class TopicsTab(project: Project,
     val descriptionText = buildString {
       val textStyleHeader = StyleManager().textStyleHeader
       appendLine("<h3 $textStyleHeader;padding:0;>${EduCoreBundle.message("hyperskill.topics.for.stage")}</h3>")
-      if (topics != null) {
+      if (!topics.isNullOrEmpty()) {
         appendLine("<ol $textStyleHeader;padding-top:4px>")
         for (topic in topics) {
           appendLine(topicLink(topic, textStyleHeader))
@@ -8,6 +8,7 @@ import com.intellij.openapi.application.runInEdt
 import com.intellij.openapi.components.service
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
 import com.intellij.openapi.project.Project
 import com.jetbrains.edu.learning.*
 import com.jetbrains.edu.learning.authUtils.OAuthUtils.GrantType.AUTHORIZATION_CODE
@@ -31,7 +32,13 @@ import com.jetbrains.edu.learning.taskDescription.ui.tab.TabManager.TabType.TOPI
 import okhttp3.*
 import retrofit2.Call
 import retrofit2.converter.jackson.JacksonConverterFactory
+import java.net.HttpURLConnection
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import java.util.*
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 
 abstract class HyperskillConnector {
@@ -144,24 +151,35 @@ abstract class HyperskillConnector {
       if (result == null) Err("Can't get step source with $stepId id") else Ok(result)
     }
 
-  fun fillTopics(course: HyperskillCourse, project: Project) {
-    for ((taskIndex, stage) in course.stages.withIndex()) {
-      val topics = getAllTopics(stage)
-      if (topics.isEmpty()) continue
-
-      course.taskToTopics[taskIndex] = topics
-      runInEdt {
-        if (project.isDisposed) return@runInEdt
-        TaskDescriptionView.getInstance(project).updateTab(TOPICS_TAB)
-      }
+  /**
+   * Loads topics of all stages concurrently and updates Topics tab once all of them are loaded.
+   *
+   * @param onlyMissing if true, topics are requested only for stages which don't have them yet
+   */
+  fun fillTopics(course: HyperskillCourse, project: Project, onlyMissing: Boolean = false) {
+    val stagesToLoad = course.stages.withIndex().filter { (taskIndex, _) -> !onlyMissing || taskIndex !in course.taskToTopics }
+    if (stagesToLoad.isEmpty()) return
+
+    // Stages without topics are stored too, so they aren't requested again. Failed requests are retried next time
+    val tasks = stagesToLoad.map { (taskIndex, stage) -> { getAllTopics(stage)?.let { taskIndex to it } } }
+    val loadedTopics = invokeAllWithProgress(tasks, EXECUTOR_SERVICE)
+    if (loadedTopics.isEmpty()) return
+
+    course.taskToTopics.putAll(loadedTopics)
+    runInEdt {
+      if (project.isDisposed) return@runInEdt
+      TaskDescriptionView.getInstance(project).updateTab(TOPICS_TAB)
     }
   }
 
-  private fun getAllTopics(stage: HyperskillStage): List<HyperskillTopic> {
+  /**
+   * @return `null` if topics can't be loaded
+   */
+  private fun getAllTopics(stage: HyperskillStage): List<HyperskillTopic>? {
     var page = 1
     val topics = mutableListOf<HyperskillTopic>()
     do {
-      val topicsList = service.topics(stage.id, page).executeHandlingExceptions(true)?.body() ?: break
+      val topicsList = service.topics(stage.id, page).executeHandlingExceptions(true)?.body() ?: return null
       topics.addAll(topicsList.topics.filter { it.theoryId != null })
       page += 1
     }
@@ -176,7 +194,10 @@ abstract class HyperskillConnector {
     lesson.index = 1
     lesson.course = course
     progressIndicator?.checkCanceled()
+    // course additional info doesn't depend on steps, so it's loaded in parallel with them
+    val courseInfoLoading = supplyAsyncWithProgress({ loadAndFillAdditionalCourseInfo(course, attachmentLink) }, EXECUTOR_SERVICE)
     val stepSources = getStepSources(course.stages.map { it.stepId }).onError { emptyList() }
+    ProgressIndicatorUtils.awaitWithCheckCanceled(courseInfoLoading, progressIndicator)
 
     progressIndicator?.checkCanceled()
     val tasks = getTasks(course, lesson, stepSources)
@@ -184,7 +205,6 @@ abstract class HyperskillConnector {
       lesson.addTask(task)
     }
     lesson.sortItems()
-    loadAndFillAdditionalCourseInfo(course, attachmentLink)
     loadAndFillLessonAdditionalInfo(lesson)
     return lesson
   }
@@ -207,6 +227,22 @@ abstract class HyperskillConnector {
     return getTasks(course, lesson, stepSources)
   }
 
+  /**
+   * Loads problems with [steps] ids only if any of them was modified after [modifiedSince] date.
+   * It's a conditional request, so server doesn't send problems at all if none of them was modified
+   */
+  fun getProblemsModifiedSince(course: Course, lesson: Lesson, steps: List<Int>, modifiedSince: Date): List<Task> {
+    val ifModifiedSince = DateTimeFormatter.RFC_1123_DATE_TIME.format(modifiedSince.toInstant().atOffset(ZoneOffset.UTC))
+    val call = service.steps(steps.joinToString(separator = ","), ifModifiedSince)
+    val response = when (val result = call.executeParsingErrors(omitErrors = true, isConditional = true)) {
+      is Err -> return emptyList()
+      is Ok -> result.value
+    }
+    if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) return emptyList()
+    val stepSources = response.body()?.steps ?: return emptyList()
+    return getTasks(course, lesson, stepSources)
+  }
+
   fun loadStages(hyperskillCourse: HyperskillCourse): Boolean {
     val hyperskillProject = hyperskillCourse.hyperskillProject ?: error("No Hyperskill project")
     val projectId = hyperskillProject.id
@@ -244,8 +280,19 @@ abstract class HyperskillConnector {
     return FeedbackLink("${stageLink(project, stage.id)}$HYPERSKILL_COMMENT_ANCHOR")
   }
 
+  /**
+   * Submissions for big sets of steps are requested in chunks concurrently
+   */
   fun getSubmissions(stepIds: Set<Int>): List<Submission> {
     val userId = HyperskillSettings.INSTANCE.account?.userInfo?.id ?: return emptyList()
+    if (stepIds.size <= SUBMISSIONS_CHUNK_SIZE) {
+      return getSubmissions(userId, stepIds)
+    }
+    val tasks = stepIds.chunked(SUBMISSIONS_CHUNK_SIZE).map { chunk -> { getSubmissions(userId, chunk) } }
+    return invokeAllWithProgress(tasks, EXECUTOR_SERVICE).flatten()
+  }
+
+  private fun getSubmissions(userId: Int, stepIds: Collection<Int>): List<Submission> {
     var currentPage = 1
     val allSubmissions = mutableListOf<Submission>()
     while (true) {
@@ -379,6 +426,11 @@ abstract class HyperskillConnector {
   companion object {
     private val LOG = Logger.getInstance("com.jetbrains.edu.learning.HyperskillConnector")
 
+    // bounds number of simultaneous requests to Hyperskill during project opening
+    private const val THREAD_NUMBER = 4
+    private val EXECUTOR_SERVICE: ExecutorService = Executors.newFixedThreadPool(THREAD_NUMBER)
+    private const val SUBMISSIONS_CHUNK_SIZE = 20
+
     @JvmStatic
     val AUTHORIZATION_TOPIC = com.intellij.util.messages.Topic.create("Edu.hyperskillLoggedIn", EduLogInListener::class.java)
 
@@ -42,6 +42,9 @@ interface HyperskillService {
   @GET("api/steps")
   fun steps(@Query("ids", encoded = true) ids: String): Call<HyperskillStepsList>
 
+  @GET("api/steps")
+  fun steps(@Query("ids", encoded = true) ids: String, @Header("If-Modified-Since") ifModifiedSince: String): Call<HyperskillStepsList>
+
   @GET("api/steps")
   fun steps(@Query("topic") topic: Int, @Query("is_recommended") is_recommended: Boolean = true): Call<HyperskillStepsList>
 
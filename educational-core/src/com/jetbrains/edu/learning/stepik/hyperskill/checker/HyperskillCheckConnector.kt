@@ -34,29 +34,23 @@ object HyperskillCheckConnector {
   private val CODE_TASK_CHECK_TIMEOUT = TimeUnit.MINUTES.toSeconds(2)
   const val EVALUATION_STATUS = "evaluation"
 
+  /**
+   * Stage solutions are checked locally, so they are sent to JetBrains Academy in background via [HyperskillSubmissionsOutbox]
+   */
   fun postStageSolution(task: Task, project: Project, result: CheckResult) {
-    when (val attemptResponse = HyperskillConnector.getInstance().postAttempt(task.id)) {
-      is Err -> {
-        showErrorDetails(project, attemptResponse.error)
-      }
-      is Ok -> {
-        val feedback = if (result.details == null) result.message else "${result.message}\n${result.details}"
-        postEduSubmission(attemptResponse.value, project, task, feedback)
-      }
-    }
+    val files = getSolutionFiles(task, project).nullize() ?: return
+    val feedback = if (result.details == null) result.message else "${result.message}\n${result.details}"
+    HyperskillSubmissionsOutbox.getInstance(project).enqueue(task, files, feedback)
   }
 
-  private fun postEduSubmission(attempt: Attempt, project: Project, task: Task, feedback: String) {
-    val files = getSolutionFiles(task, project).nullize() ?: return
-    when (val response = HyperskillConnector.getInstance().postSubmission(createEduSubmission(task, attempt, files, feedback))) {
-      is Err -> showErrorDetails(project, response.error)
-      is Ok -> {
-        SubmissionsManager.getInstance(project).addToSubmissionsWithStatus(task.id, task.status, response.value)
-        if (task.status == CheckStatus.Solved) {
-          markStageAsCompleted(task)
-        }
-      }
+  fun deliverStageSolution(pendingSubmission: HyperskillSubmissionsOutbox.PendingSubmission): Result<Submission, String> {
+    val connector = HyperskillConnector.getInstance()
+    // Error is returned as is, so the outbox can classify it by the response status code
+    val attempt = when (val result = connector.postAttempt(pendingSubmission.taskId)) {
+      is Err -> return result
+      is Ok -> result.value
     }
+    return connector.postSubmission(createEduSubmission(pendingSubmission, attempt))
   }
 
   @VisibleForTesting
@@ -89,9 +83,9 @@ object HyperskillCheckConnector {
     return files
   }
 
-  private fun createEduSubmission(task: Task, attempt: Attempt, files: List<SolutionFile>, feedback: String): Submission {
-    val score = if (task.status == CheckStatus.Solved) "1" else "0"
-    return Submission(score, attempt.id, files, null, feedback)
+  private fun createEduSubmission(pendingSubmission: HyperskillSubmissionsOutbox.PendingSubmission, attempt: Attempt): Submission {
+    val score = if (pendingSubmission.checkStatus() == CheckStatus.Solved) "1" else "0"
+    return Submission(score, attempt.id, pendingSubmission.files, null, pendingSubmission.feedback)
   }
 
   private fun String.toCheckResult(): CheckResult {
@@ -0,0 +1,304 @@
+package com.jetbrains.edu.learning.stepik.hyperskill.checker
+
+import com.google.common.annotations.VisibleForTesting
+import com.intellij.notification.Notification
+import com.intellij.notification.NotificationType
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.*
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.project.Project
+import com.intellij.util.concurrency.AppExecutorUtil
+import com.intellij.util.xmlb.annotations.Tag
+import com.intellij.util.xmlb.annotations.XCollection
+import com.jetbrains.edu.learning.EduLogInListener
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
+import com.jetbrains.edu.learning.ResponseError
+import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.ext.allTasks
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.isUnitTestMode
+import com.jetbrains.edu.learning.messages.EduCoreBundle
+import com.jetbrains.edu.learning.stepik.api.SolutionFile
+import com.jetbrains.edu.learning.stepik.api.Submission
+import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillConnector
+import com.jetbrains.edu.learning.stepik.hyperskill.markStageAsCompleted
+import com.jetbrains.edu.learning.stepik.hyperskill.settings.HyperskillSettings
+import com.jetbrains.edu.learning.stepik.hyperskill.showErrorDetails
+import com.jetbrains.edu.learning.stepik.submissions.SubmissionsManager
+import org.jetbrains.annotations.TestOnly
+import java.net.HttpURLConnection
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+import kotlin.math.min
+
+/**
+ * Stores stage solutions checked locally until they are delivered to JetBrains Academy.
+ *
+ * Solutions are kept in workspace file, so ones not delivered because of network problems or IDE restart
+ * are sent on the next project opening. Delivery happens in background in the order solutions were checked.
+ * The same solution of a task checked several times in a row is sent once.
+ *
+ * Failed deliveries are handled depending on the response status code, see [getFailureKind]:
+ * - network and server errors, request timeouts and rate limits are retried with exponential backoff;
+ * - if a user isn't logged in or access is denied, solutions wait for login;
+ * - solutions rejected by JetBrains Academy are dropped with a notification, so they don't block the following ones.
+ *
+ * Delivered submissions are added to [SubmissionsManager]
+ */
+@State(name = "HyperskillSubmissionsOutbox", storages = [Storage(StoragePathMacros.WORKSPACE_FILE, roamingType = RoamingType.DISABLED)])
+class HyperskillSubmissionsOutbox(private val project: Project) : PersistentStateComponent<HyperskillSubmissionsOutbox.State>, Disposable {
+
+  private val lock = Object()
+  private val pendingSubmissions = mutableListOf<PendingSubmission>()
+
+  private var isDelivering = false
+  private var failedDeliveries = 0
+  private var isWaitingForLogin = false
+  private var retryFuture: Future<*>? = null
+  private var isDisposed = false
+
+  init {
+    project.messageBus.connect(this).subscribe(HyperskillConnector.AUTHORIZATION_TOPIC, object : EduLogInListener {
+      override fun userLoggedIn() {
+        if (HyperskillSettings.INSTANCE.account == null) return
+        synchronized(lock) {
+          isWaitingForLogin = false
+        }
+        scheduleDelivery()
+      }
+
+      override fun userLoggedOut() {}
+    })
+  }
+
+  fun enqueue(task: Task, files: List<SolutionFile>, feedback: String) {
+    val submission = PendingSubmission(task.id, task.status.name, files, feedback)
+    synchronized(lock) {
+      if (pendingSubmissions.lastOrNull { it.taskId == submission.taskId }?.hasSameContent(submission) == true) {
+        LOG.info("Solution of task ${task.id} is already waiting to be sent")
+        return
+      }
+      pendingSubmissions += submission
+    }
+    scheduleDelivery()
+  }
+
+  fun scheduleDelivery() {
+    synchronized(lock) {
+      if (isDelivering || isDisposed || pendingSubmissions.isEmpty()) return
+      isDelivering = true
+    }
+    if (isUnitTestMode) {
+      deliverPending()
+    }
+    else {
+      ApplicationManager.getApplication().executeOnPooledThread { deliverPending() }
+    }
+  }
+
+  private fun deliverPending() {
+    while (true) {
+      val submission = synchronized(lock) {
+        val next = pendingSubmissions.firstOrNull()
+        if (next == null || isDisposed || project.isDisposed) {
+          isDelivering = false
+          return
+        }
+        next
+      }
+
+      if (HyperskillSettings.INSTANCE.account == null) {
+        waitForLogin(EduCoreBundle.message("error.access.denied"))
+        return
+      }
+      val task = project.course?.allTasks?.find { it.id == submission.taskId }
+      if (task == null) {
+        drop(submission, EduCoreBundle.message("error.failed.to.post.solution.no.stage"))
+        continue
+      }
+
+      when (val result = HyperskillCheckConnector.deliverStageSolution(submission)) {
+        is Err -> {
+          when (getFailureKind(result)) {
+            FailureKind.TRANSIENT -> {
+              onDeliveryFailed(submission, result.error)
+              return
+            }
+            FailureKind.LOGIN_REQUIRED -> {
+              waitForLogin(result.error)
+              return
+            }
+            FailureKind.PERMANENT -> drop(submission, result.error)
+          }
+        }
+        is Ok -> {
+          remove(submission)
+          synchronized(lock) {
+            failedDeliveries = 0
+          }
+          reconcile(submission, result.value)
+        }
+      }
+    }
+  }
+
+  private fun remove(submission: PendingSubmission) {
+    synchronized(lock) {
+      // Removed by identity: the list could be reloaded while the submission was being sent
+      pendingSubmissions.removeIf { it === submission }
+    }
+  }
+
+  /**
+   * Solution rejected by JetBrains Academy won't be accepted by retrying, so it's dropped not to block the next solutions
+   */
+  private fun drop(submission: PendingSubmission, error: String) {
+    LOG.warn("Solution of task ${submission.taskId} checked at ${submission.time} is dropped: $error")
+    remove(submission)
+    Notification(
+      "EduTools",
+      EduCoreBundle.message("error.failed.to.post.solution", EduNames.JBA),
+      error,
+      NotificationType.ERROR
+    ).notify(project)
+  }
+
+  /**
+   * Solutions are kept until a user logs in, see [HyperskillConnector.AUTHORIZATION_TOPIC] listener
+   */
+  private fun waitForLogin(error: String) {
+    LOG.info("Solutions are waiting for login to JetBrains Academy: $error")
+    val shouldNotify = synchronized(lock) {
+      isDelivering = false
+      val wasWaiting = isWaitingForLogin
+      isWaitingForLogin = true
+      !wasWaiting
+    }
+    if (shouldNotify) {
+      showErrorDetails(project, EduCoreBundle.message("error.access.denied"))
+    }
+  }
+
+  private fun onDeliveryFailed(submission: PendingSubmission, error: String) {
+    LOG.info("Failed to send solution of task ${submission.taskId} checked at ${submission.time}: $error")
+    val failures = synchronized(lock) {
+      isDelivering = false
+      failedDeliveries++
+      failedDeliveries
+    }
+    if (failures == 1) {
+      showErrorDetails(project, error)
+    }
+    // Tests deliver pending solutions explicitly
+    if (isUnitTestMode) return
+
+    val delay = min(INITIAL_RETRY_DELAY shl min(failures - 1, MAX_BACKOFF_SHIFT), MAX_RETRY_DELAY)
+    synchronized(lock) {
+      if (isDisposed) return
+      retryFuture?.cancel(false)
+      retryFuture = AppExecutorUtil.getAppScheduledExecutorService().schedule({ scheduleDelivery() }, delay, TimeUnit.SECONDS)
+    }
+  }
+
+  private fun reconcile(pendingSubmission: PendingSubmission, submission: Submission) {
+    val status = pendingSubmission.checkStatus()
+    SubmissionsManager.getInstance(project).addToSubmissionsWithStatus(pendingSubmission.taskId, status, submission)
+    if (status != CheckStatus.Solved) return
+    val task = project.course?.allTasks?.find { it.id == pendingSubmission.taskId } ?: return
+    markStageAsCompleted(task)
+  }
+
+  override fun getState(): State {
+    return State().apply {
+      synchronized(lock) {
+        submissions = pendingSubmissions.toMutableList()
+        failedDeliveries = this@HyperskillSubmissionsOutbox.failedDeliveries
+        isWaitingForLogin = this@HyperskillSubmissionsOutbox.isWaitingForLogin
+      }
+    }
+  }
+
+  override fun loadState(state: State) {
+    synchronized(lock) {
+      pendingSubmissions.clear()
+      pendingSubmissions.addAll(state.submissions)
+      // Failures are kept between sessions, so the same problem isn't reported on every project opening
+      failedDeliveries = state.failedDeliveries
+      isWaitingForLogin = state.isWaitingForLogin
+    }
+  }
+
+  override fun dispose() {
+    synchronized(lock) {
+      isDisposed = true
+      retryFuture?.cancel(false)
+    }
+  }
+
+  @TestOnly
+  fun getPendingSubmissions(): List<PendingSubmission> = synchronized(lock) { pendingSubmissions.toList() }
+
+  class State {
+    @XCollection(style = XCollection.Style.v2)
+    var submissions: MutableList<PendingSubmission> = mutableListOf()
+    var failedDeliveries: Int = 0
+    var isWaitingForLogin: Boolean = false
+  }
+
+  @VisibleForTesting
+  enum class FailureKind { TRANSIENT, LOGIN_REQUIRED, PERMANENT }
+
+  @Tag("submission")
+  class PendingSubmission() {
+    var taskId: Int = 0
+    var status: String = CheckStatus.Unchecked.name
+    var feedback: String = ""
+    var time: Long = 0
+
+    @XCollection(style = XCollection.Style.v2)
+    var files: MutableList<SolutionFile> = mutableListOf()
+
+    constructor(taskId: Int, status: String, files: List<SolutionFile>, feedback: String) : this() {
+      this.taskId = taskId
+      this.status = status
+      this.files = files.toMutableList()
+      this.feedback = feedback
+      time = System.currentTimeMillis()
+    }
+
+    fun checkStatus(): CheckStatus = CheckStatus.values().find { it.name == status } ?: CheckStatus.Unchecked
+
+    fun hasSameContent(other: PendingSubmission): Boolean {
+      return taskId == other.taskId && status == other.status && feedback == other.feedback &&
+             files.map { Triple(it.name, it.text, it.isVisible) } == other.files.map { Triple(it.name, it.text, it.isVisible) }
+    }
+  }
+
+  companion object {
+    private val LOG = logger<HyperskillSubmissionsOutbox>()
+
+    private const val INITIAL_RETRY_DELAY = 30L // seconds
+    private const val MAX_RETRY_DELAY = 30 * 60L // seconds
+    private const val MAX_BACKOFF_SHIFT = 10
+    private const val HTTP_TOO_MANY_REQUESTS = 429
+
+    fun getInstance(project: Project): HyperskillSubmissionsOutbox = project.service()
+
+    @VisibleForTesting
+    fun getFailureKind(error: Err<String>): FailureKind {
+      // No response is received because of connection problems
+      val statusCode = (error as? ResponseError)?.statusCode ?: return FailureKind.TRANSIENT
+      return when (statusCode) {
+        HttpURLConnection.HTTP_UNAUTHORIZED, HttpURLConnection.HTTP_FORBIDDEN -> FailureKind.LOGIN_REQUIRED
+        HttpURLConnection.HTTP_CLIENT_TIMEOUT, HTTP_TOO_MANY_REQUESTS -> FailureKind.TRANSIENT
+        in HttpURLConnection.HTTP_BAD_REQUEST until HttpURLConnection.HTTP_INTERNAL_ERROR -> FailureKind.PERMANENT
+        // Server errors and successful responses without expected content
+        else -> FailureKind.TRANSIENT
+      }
+    }
+  }
+}
@@ -23,7 +23,13 @@ class HyperskillTaskCheckerProvider(private val baseProvider: TaskCheckerProvide
 
     return object : TaskChecker<EduTask>(task, project) {
       override fun check(indicator: ProgressIndicator): CheckResult {
-        val checkResult = checker.check(indicator)
+        checker.phaseTracker = phaseTracker
+        val checkResult = try {
+          checker.check(indicator)
+        }
+        finally {
+          checker.phaseTracker = null
+        }
         val course = task.course as HyperskillCourse
         val resultingStatus = checkResult.status
         if (resultingStatus == CheckStatus.Solved) {
@@ -41,6 +47,7 @@ class HyperskillTaskCheckerProvider(private val baseProvider: TaskCheckerProvide
       override fun onTaskSolved() = checker.onTaskSolved()
       override fun onTaskFailed() = checker.onTaskFailed()
       override fun clearState() = checker.clearState()
+      override fun validateEnvironment() = checker.validateEnvironment()
     }
   }
 
@@ -93,7 +93,10 @@ class HyperskillCourseUpdater(project: Project, val course: HyperskillCourse) :
   }
 
   private fun Lesson.getProblemsUpdates(): List<TaskUpdate> {
-    val tasksFromServer = HyperskillConnector.getInstance().getProblems(this.course, this, taskList.map { it.id })
+    // Update dates of local problems serve as a manifest of the lesson:
+    // problems are downloaded only if any of them was modified on server after the oldest local one
+    val modifiedSince = taskList.mapNotNull { it.updateDate }.minOrNull() ?: Date(0)
+    val tasksFromServer = HyperskillConnector.getInstance().getProblemsModifiedSince(this.course, this, taskList.map { it.id }, modifiedSince)
     val result = mutableListOf<TaskUpdate>()
     for (taskFromServer in tasksFromServer) {
       val localTask = getTask(taskFromServer.id) ?: continue
@@ -111,6 +114,10 @@ class HyperskillCourseUpdater(project: Project, val course: HyperskillCourse) :
     if (remoteCourse != null) {
       updateCourse(remoteCourse)
       updateProjectLesson(remoteCourse)
+      // stored topics may be outdated after stages update, so they are reloaded
+      course.taskToTopics.clear()
+      HyperskillConnector.getInstance().fillTopics(course, project)
+      YamlFormatSynchronizer.saveRemoteInfo(course)
     }
     updateProblems(problemsUpdates)
     showUpdateCompletedNotification(EduCoreBundle.message("update.notification.text", EduNames.JBA, EduNames.PROJECT))
@@ -9,6 +9,8 @@ import com.jetbrains.edu.learning.course
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.Course
 import com.jetbrains.edu.learning.isUnitTestMode
+import com.jetbrains.edu.learning.projectView.CourseViewPresentationCache
+import com.jetbrains.edu.learning.projectView.CourseViewRefresher
 import com.jetbrains.edu.learning.stepik.api.Submission
 import com.jetbrains.edu.learning.taskDescription.ui.TaskDescriptionView
 import com.jetbrains.edu.learning.taskDescription.ui.tab.TabManager.TabType.SUBMISSIONS_TAB
@@ -46,6 +48,7 @@ class SubmissionsManager(private val project: Project) {
       val submissionsProvider = SubmissionsProvider.getSubmissionsProviderForCourse(course) ?: return null
       val submissionsById = submissionsProvider.loadSubmissions(stepIds)
       submissions.putAll(submissionsById)
+      submissionsLoaded()
       updateSubmissionsTab()
       submissionsById.values.stream()
         .flatMap(List<Submission>::stream)
@@ -70,6 +73,7 @@ class SubmissionsManager(private val project: Project) {
     else {
       val loadedSubmissions = submissionsProvider.loadSubmissions(setOf(stepId))
       submissions.putAll(loadedSubmissions)
+      submissionsLoaded()
       updateSubmissionsTab()
       return loadedSubmissions[stepId] ?: emptyList()
     }
@@ -89,6 +93,14 @@ class SubmissionsManager(private val project: Project) {
     ApplicationManager.getApplication().invokeLater { TaskDescriptionView.getInstance(project).updateTab(SUBMISSIONS_TAB) }
   }
 
+  /**
+   * Correct submissions are shown as solved tasks in course view, so its cached progress is dropped
+   */
+  private fun submissionsLoaded() {
+    CourseViewPresentationCache.getInstance(project).invalidate()
+    CourseViewRefresher.getInstance(project).refresh()
+  }
+
   fun containsCorrectSubmission(stepId: Int): Boolean {
     val submissions = getSubmissionsFromMemory(setOf(stepId)) ?: return false
     return submissions.any { it.status == EduNames.CORRECT }
@@ -136,6 +148,7 @@ class SubmissionsManager(private val project: Project) {
                                      taskDescriptionView: TaskDescriptionView,
                                      loadSolutions: () -> Unit) {
     submissions.putAll(submissionsProvider.loadAllSubmissions(project, course))
+    submissionsLoaded()
     loadSolutions()
     ApplicationManager.getApplication().invokeLater { taskDescriptionView.updateTab(SUBMISSIONS_TAB) }
   }
@@ -2,49 +2,117 @@ package com.jetbrains.edu.learning.taskDescription.ui
 
 import com.intellij.codeEditor.printing.HTMLTextPainter
 import com.intellij.lang.Language
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.editor.colors.EditorColorsListener
+import com.intellij.openapi.editor.colors.EditorColorsManager
 import com.intellij.openapi.fileTypes.PlainTextLanguage
 import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiFileFactory
+import org.jetbrains.annotations.TestOnly
 import org.jsoup.Jsoup
 import org.jsoup.nodes.Element
 import org.jsoup.nodes.TextNode
 
-class EduCodeHighlighter {
+/**
+ * Highlights code fragments of task descriptions.
+ *
+ * Highlighted fragments are cached by language, code text and color scheme,
+ * so the same description is highlighted only once and then served from the cache on task switches.
+ * The cache is dropped when the global color scheme is changed
+ */
+@Service
+class EduCodeHighlighter(private val project: Project) : Disposable {
 
-  companion object {
-    @JvmStatic
-    fun highlightCodeFragments(project: Project, html: String, defaultLanguage: Language): String {
-      val document = Jsoup.parse(html)
-
-      val codeElements = document.select("code")
-
-      for (codeElement in codeElements) {
-        val textNode = codeElement.childNodes().singleOrNull() as? TextNode ?: continue
-        val text = textNode.wholeText
-        val language = codeElement.language() ?: defaultLanguage
-
-        val psiFile = PsiFileFactory.getInstance(project).createFileFromText(language, "")
-        if (psiFile == null) return html
-
-        val codeText = HTMLTextPainter.convertCodeFragmentToHTMLFragmentWithInlineStyles(psiFile, text)
-
-        val parent = codeElement.parent()
-        // We have to check `parent.parent()` for null
-        // because in case of incomplete code `parent.parent()` can be null
-        // and in this case `parent.after(codeText)` throws `IllegalArgumentException`
-        if (parent.tagName() == "pre" && parent.parent() != null) {
-          parent.after("<span class='code-block'>$codeText</span>")
-          parent.remove()
-        } else {
-          val inlineCodeText = codeText.trim().removeSurrounding("<pre>", "</pre>")
-          codeElement.after("<span class='code'>$inlineCodeText</span>")
-          codeElement.remove()
+  private val fragments = object : LinkedHashMap<FragmentKey, String>(MAX_FRAGMENTS, 0.75f, true) {
+    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<FragmentKey, String>?): Boolean = size > MAX_FRAGMENTS
+  }
+
+  private var highlightedFragments = 0
+
+  init {
+    ApplicationManager.getApplication().messageBus.connect(this).subscribe(EditorColorsManager.TOPIC, EditorColorsListener {
+      synchronized(fragments) {
+        fragments.clear()
+      }
+    })
+  }
+
+  /**
+   * Replaces `code` elements of [html] with highlighted code.
+   * Should be called inside read action.
+   *
+   * If [cachedOnly] is true, only fragments from the cache are highlighted and the rest of them are left as is.
+   * [HighlightedText.isComplete] shows if all fragments were highlighted
+   */
+  fun highlightCodeFragments(html: String, defaultLanguage: Language, cachedOnly: Boolean = false): HighlightedText {
+    val document = Jsoup.parse(html)
+    val schemeName = EditorColorsManager.getInstance().globalScheme.name
+    var isComplete = true
+
+    val codeElements = document.select("code")
+
+    for (codeElement in codeElements) {
+      val textNode = codeElement.childNodes().singleOrNull() as? TextNode ?: continue
+      val text = textNode.wholeText
+      val language = codeElement.language() ?: defaultLanguage
+
+      val key = FragmentKey(language.id, text, schemeName)
+      val codeText = synchronized(fragments) { fragments[key] }
+                     ?: if (cachedOnly) null else highlight(language, text)?.also { synchronized(fragments) { fragments[key] = it } }
+      if (codeText == null) {
+        if (cachedOnly) {
+          isComplete = false
+          continue
         }
+        return HighlightedText(html, true)
       }
 
-      return document.toString()
+      val parent = codeElement.parent()
+      // We have to check `parent.parent()` for null
+      // because in case of incomplete code `parent.parent()` can be null
+      // and in this case `parent.after(codeText)` throws `IllegalArgumentException`
+      if (parent.tagName() == "pre" && parent.parent() != null) {
+        parent.after("<span class='code-block'>$codeText</span>")
+        parent.remove()
+      } else {
+        val inlineCodeText = codeText.trim().removeSurrounding("<pre>", "</pre>")
+        codeElement.after("<span class='code'>$inlineCodeText</span>")
+        codeElement.remove()
+      }
     }
 
+    return HighlightedText(document.toString(), isComplete)
+  }
+
+  private fun highlight(language: Language, text: String): String? {
+    val psiFile = PsiFileFactory.getInstance(project).createFileFromText(language, "") ?: return null
+    highlightedFragments++
+    return HTMLTextPainter.convertCodeFragmentToHTMLFragmentWithInlineStyles(psiFile, text)
+  }
+
+  override fun dispose() {}
+
+  @TestOnly
+  fun getHighlightedFragmentsCount(): Int = highlightedFragments
+
+  class HighlightedText(val text: String, val isComplete: Boolean)
+
+  private class LanguageTable(val count: Int, val languagesById: Map<String, Language>)
+
+  private data class FragmentKey(val languageId: String, val text: String, val schemeName: String)
+
+  companion object {
+    // Enough for dozens of descriptions with dozens of code samples each
+    private const val MAX_FRAGMENTS = 1000
+
+    @Volatile
+    private var languageTable = LanguageTable(0, emptyMap())
+
+    fun getInstance(project: Project): EduCodeHighlighter = project.service()
+
     private fun Element.language(): Language? {
       val noHighlight = "no-highlight"
 
@@ -56,7 +124,18 @@ class EduCodeHighlighter {
       }
       if (lang.isEmpty()) return null
 
-      return if (lang == noHighlight) PlainTextLanguage.INSTANCE else Language.getRegisteredLanguages().find { it.id.toLowerCase() == lang }
+      return if (lang == noHighlight) PlainTextLanguage.INSTANCE else findLanguage(lang)
+    }
+
+    private fun findLanguage(lang: String): Language? {
+      val registeredLanguages = Language.getRegisteredLanguages()
+      var table = languageTable
+      // Languages can be registered by dynamic plugins, so the table is rebuilt when their number changes
+      if (table.count != registeredLanguages.size) {
+        table = LanguageTable(registeredLanguages.size, registeredLanguages.associateBy { it.id.toLowerCase() })
+        languageTable = table
+      }
+      return table.languagesById[lang]
     }
   }
 }
@@ -15,7 +15,9 @@ import org.jetbrains.io.FileResponses
 import org.jetbrains.io.addCommonHeaders
 import org.jetbrains.io.addKeepAliveIfNeeded
 import java.io.ByteArrayInputStream
+import java.io.IOException
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 import com.intellij.util.io.getHostName
 
 /**
@@ -32,9 +34,8 @@ class EduToolsResourcesRequestHandler : HttpRequestHandler() {
   override fun process(urlDecoder: QueryStringDecoder, request: FullHttpRequest, context: ChannelHandlerContext): Boolean {
     val resourceRelativePath = request.uri().split(EDU_RESOURCES)[1]
     if (resourceRelativePath !in StyleResourcesManager.resourcesList) return false
-    val url = getResource(resourceRelativePath) ?: return false
-    val bytes = url.readBytes()
-    return sendData(bytes, url.file, request, context.channel())
+    val bytes = loadResource(resourceRelativePath) ?: return false
+    return sendData(bytes, resourceRelativePath, request, context.channel())
   }
 
   private fun sendData(content: ByteArray, name: String, request: FullHttpRequest, channel: Channel): Boolean {
@@ -69,6 +70,31 @@ class EduToolsResourcesRequestHandler : HttpRequestHandler() {
 
     const val EDU_RESOURCES: String = "eduResources"
 
+    // Resources are limited by `StyleResourcesManager.resourcesList` and don't change, so they're read once
+    private val resourceBytes = ConcurrentHashMap<String, ByteArray>()
+
+    private fun loadResource(name: String): ByteArray? {
+      resourceBytes[name]?.let { return it }
+      val bytes = try {
+        getResource(name)?.readBytes()
+      }
+      catch (e: IOException) {
+        LOG.warn("Failed to load resource: $name", e)
+        null
+      } ?: return null
+      resourceBytes[name] = bytes
+      return bytes
+    }
+
+    /**
+     * Reads all resources which can be requested by task description browser, so the first page load doesn't wait for them
+     */
+    fun loadResources() {
+      for (name in StyleResourcesManager.resourcesList) {
+        loadResource(name)
+      }
+    }
+
     fun resourceWebUrl(name: String): String {
       val resource = getResource(name)
       if (resource == null) {
@@ -17,17 +17,22 @@ package com.jetbrains.edu.learning.taskDescription.ui
 
 import com.google.common.annotations.VisibleForTesting
 import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ModalityState
+import com.intellij.openapi.application.ReadAction
 import com.intellij.openapi.fileTypes.PlainTextLanguage
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.registry.Registry
+import com.intellij.util.concurrency.AppExecutorUtil
 import com.intellij.util.ui.update.MergingUpdateQueue
 import com.intellij.util.ui.update.Update
 import com.jetbrains.edu.learning.EduUtils
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.courseFormat.tasks.VideoTask
 import com.jetbrains.edu.learning.messages.EduCoreBundle
+import com.jetbrains.edu.learning.navigation.TaskPrefetcher
 import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
 import com.jetbrains.edu.learning.taskDescription.processImagesAndLinks
+import com.jetbrains.edu.learning.taskDescription.ui.EduCodeHighlighter.HighlightedText
 import org.jsoup.Jsoup
 import org.jsoup.nodes.Element
 import javax.swing.JComponent
@@ -72,9 +77,26 @@ abstract class TaskDescriptionToolWindow(protected val project: Project) : Dispo
 
   protected abstract fun wrapHint(hintElement: Element, displayedHintNumber: String): String
 
+  private var textRequestId = 0
+
   fun setTaskText(project: Project, task: Task?) {
     updateQueue.queue(Update.create(TASK_DESCRIPTION_UPDATE) {
-      setText(getTaskDescriptionWithCodeHighlighting(project, task), task)
+      val requestId = ++textRequestId
+      val description = getTaskDescription(project, task, cachedHighlightingOnly = true)
+      setText(description.text, task)
+      if (description.isComplete) return@create
+
+      // Highlighting of new code fragments can take a while,
+      // so it's done in background and the description is updated when it's ready
+      ReadAction.nonBlocking<String> { getTaskDescriptionWithCodeHighlighting(project, task) }
+        .expireWith(this)
+        .coalesceBy(this)
+        .finishOnUiThread(ModalityState.any()) { text ->
+          if (requestId == textRequestId) {
+            setText(text, task)
+          }
+        }
+        .submit(AppExecutorUtil.getAppExecutorService())
     })
   }
 
@@ -88,21 +110,36 @@ abstract class TaskDescriptionToolWindow(protected val project: Project) : Dispo
 
     @VisibleForTesting
     fun getTaskDescriptionWithCodeHighlighting(project: Project, task: Task?): String {
+      return getTaskDescription(project, task, cachedHighlightingOnly = false).text
+    }
+
+    private fun getTaskDescription(project: Project, task: Task?, cachedHighlightingOnly: Boolean): HighlightedText {
       if (task != null) {
         val taskText = EduUtils.getTaskTextFromTask(project, task)
         if (taskText != null) {
-          if (task is VideoTask) {
-            return taskText
+          val prefetchedText = TaskPrefetcher.getInstance(project).getPrefetchedDescription(task, taskText)
+          if (prefetchedText != null) {
+            return HighlightedText(prefetchedText, true)
           }
-
-          val processedText = processImagesAndLinks(project, task, taskText)
-
-          val course = task.course
-          val language = if (course is HyperskillCourse) PlainTextLanguage.INSTANCE else course.languageById ?: return processedText
-          return EduCodeHighlighter.highlightCodeFragments(project, processedText, language)
+          return renderTaskDescription(project, task, taskText, cachedHighlightingOnly)
         }
       }
-      return EduCoreBundle.message("label.open.task")
+      return HighlightedText(EduCoreBundle.message("label.open.task"), true)
+    }
+
+    /**
+     * Converts [taskText] of [task] to html shown in Task Description view. Should be called inside read action
+     */
+    fun renderTaskDescription(project: Project, task: Task, taskText: String, cachedHighlightingOnly: Boolean): HighlightedText {
+      if (task is VideoTask) {
+        return HighlightedText(taskText, true)
+      }
+
+      val processedText = processImagesAndLinks(project, task, taskText)
+
+      val course = task.course
+      val language = if (course is HyperskillCourse) PlainTextLanguage.INSTANCE else course.languageById ?: return HighlightedText(processedText, true)
+      return EduCodeHighlighter.getInstance(project).highlightCodeFragments(processedText, language, cachedHighlightingOnly)
     }
   }
 }
@@ -21,6 +21,7 @@ import com.jetbrains.edu.learning.checker.CheckResult
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.messages.EduCoreBundle
+import com.jetbrains.edu.learning.navigation.TaskPrefetcher
 import com.jetbrains.edu.learning.statistics.EduCounterUsageCollector
 import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
 import com.jetbrains.edu.learning.stepik.hyperskill.getTopPanelForProblem
@@ -54,6 +55,9 @@ class TaskDescriptionViewImpl(val project: Project) : TaskDescriptionView(), Dat
         EduCounterUsageCollector.viewEvent(value)
       }
       field = value
+      if (value != null) {
+        TaskPrefetcher.getInstance(project).prefetchNeighbours(value)
+      }
     }
 
   override fun updateAdditionalTaskTabs(task: Task?) {
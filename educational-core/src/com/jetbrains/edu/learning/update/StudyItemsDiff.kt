@@ -0,0 +1,41 @@
+package com.jetbrains.edu.learning.update
+
+import com.jetbrains.edu.learning.courseFormat.StudyItem
+
+/**
+ * Difference between local and remote lists of study items matched by their stable ids.
+ *
+ * Items are indexed by id once, so computing a diff is linear in the number of items.
+ */
+class StudyItemsDiff<T : StudyItem> private constructor(
+  val added: List<T>,
+  val removed: List<T>,
+  /** Pairs of (remote, local) items with the same id whose content differs */
+  val changed: List<Pair<T, T>>,
+  /** Pairs of (remote, local) items with the same id whose content is the same */
+  val unchanged: List<Pair<T, T>>
+) {
+
+  val isEmpty: Boolean get() = added.isEmpty() && removed.isEmpty() && changed.isEmpty()
+
+  companion object {
+    fun <T : StudyItem> compute(localItems: List<T>, remoteItems: List<T>, isChanged: (remote: T, local: T) -> Boolean): StudyItemsDiff<T> {
+      val localItemsById = localItems.associateBy { it.id }
+      val remoteIds = remoteItems.mapTo(HashSet()) { it.id }
+
+      val added = ArrayList<T>()
+      val changed = ArrayList<Pair<T, T>>()
+      val unchanged = ArrayList<Pair<T, T>>()
+      for (remoteItem in remoteItems) {
+        val localItem = localItemsById[remoteItem.id]
+        when {
+          localItem == null -> added += remoteItem
+          isChanged(remoteItem, localItem) -> changed += remoteItem to localItem
+          else -> unchanged += remoteItem to localItem
+        }
+      }
+      val removed = localItems.filter { it.id !in remoteIds }
+      return StudyItemsDiff(added, removed, changed, unchanged)
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.jetbrains.edu.learning.yaml
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.fileEditor.FileEditorManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.text.CharSequenceReader
+import java.io.InputStream
+import java.io.InputStreamReader
+import java.io.OutputStream
+import java.io.Reader
+
+/**
+ * Config files are read and written through documents only when they are loaded to an editor or have unsaved changes.
+ * Other configs are streamed directly from and to VFS, so neither a document nor a full text copy of a config is created.
+ */
+internal object YamlConfigIO {
+
+  /**
+   * Opens reader for config content. Text of loaded document is used if any as it can differ from file content on disk
+   */
+  fun openReader(configFile: VirtualFile): Reader {
+    val document = FileDocumentManager.getInstance().getCachedDocument(configFile)
+    return if (document != null) {
+      CharSequenceReader(document.immutableCharSequence)
+    }
+    else {
+      InputStreamReader(configFile.inputStream, configFile.charset)
+    }
+  }
+
+  /**
+   * Should be called inside write action
+   */
+  fun writeConfig(project: Project, configFile: VirtualFile, mapper: ObjectMapper, value: Any) {
+    val fileDocumentManager = FileDocumentManager.getInstance()
+    val document = fileDocumentManager.getCachedDocument(configFile)
+    if (document != null && (fileDocumentManager.isDocumentUnsaved(document) || FileEditorManager.getInstance(project).isFileOpen(configFile))) {
+      val text = mapper.writeValueAsString(value)
+      // don't touch configs which content is not changed
+      if (document.text != text) {
+        document.setText(text)
+      }
+      return
+    }
+
+    // don't touch configs which content is not changed
+    if (configFile.length > 0 && hasSameContent(configFile, mapper, value)) return
+    configFile.getOutputStream(YamlConfigIO).use { mapper.writeValue(it, value) }
+  }
+
+  private fun hasSameContent(configFile: VirtualFile, mapper: ObjectMapper, value: Any): Boolean {
+    return configFile.inputStream.use { input ->
+      val comparingStream = ComparingOutputStream(input)
+      mapper.writeValue(comparingStream, value)
+      comparingStream.hasSameContent()
+    }
+  }
+
+  /**
+   * Compares written bytes with [expected] stream chunk by chunk, so neither of them is kept in memory as a whole
+   */
+  private class ComparingOutputStream(private val expected: InputStream) : OutputStream() {
+    private var isSame = true
+    private var buffer = ByteArray(0)
+
+    override fun write(b: Int) {
+      if (isSame && expected.read() != (b and 0xFF)) {
+        isSame = false
+      }
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+      if (!isSame) return
+      if (buffer.size < len) {
+        buffer = ByteArray(len)
+      }
+      var read = 0
+      while (read < len) {
+        val count = expected.read(buffer, read, len - read)
+        if (count < 0) {
+          isSame = false
+          return
+        }
+        read += count
+      }
+      for (i in 0 until len) {
+        if (buffer[i] != b[off + i]) {
+          isSame = false
+          return
+        }
+      }
+    }
+
+    // closed by mapper after serialization, expected stream is closed by the caller
+    override fun close() {}
+
+    fun hasSameContent(): Boolean = isSame && expected.read() == -1
+  }
+}
@@ -60,13 +60,12 @@ object YamlDeserializer {
 
   fun deserializeItem(configFile: VirtualFile, project: Project?, mapper: ObjectMapper = MAPPER): StudyItem? {
     val configName = configFile.name
-    val configFileText = configFile.document.text
     return try {
       when (configName) {
-        COURSE_CONFIG -> mapper.deserializeCourse(configFileText)
-        SECTION_CONFIG -> mapper.deserializeSection(configFileText)
-        LESSON_CONFIG -> mapper.deserializeLesson(configFileText)
-        TASK_CONFIG -> mapper.deserializeTask(configFileText)
+        COURSE_CONFIG -> mapper.deserializeCourse(mapper.readConfigTree(configFile))
+        SECTION_CONFIG -> mapper.deserializeSection(mapper.readConfigTree(configFile))
+        LESSON_CONFIG -> mapper.deserializeLesson(mapper.readConfigTree(configFile))
+        TASK_CONFIG -> mapper.deserializeTask(mapper.readConfigTree(configFile))
         else -> loadingError(unknownConfigMessage(configFile.name))
       }
     }
@@ -97,31 +96,39 @@ object YamlDeserializer {
    * Creates [ItemContainer] object from yaml config file.
    * For [Course] object the instance of a proper type is created inside [com.jetbrains.edu.learning.yaml.format.CourseBuilder]
    */
+  private fun ObjectMapper.readConfigTree(configFile: VirtualFile): JsonNode = YamlConfigIO.openReader(configFile).use { readTree(it) }
+
   @VisibleForTesting
-  fun ObjectMapper.deserializeCourse(configFileText: String): Course {
-    val treeNode = readTree(configFileText) ?: JsonNodeFactory.instance.objectNode()
+  fun ObjectMapper.deserializeCourse(configFileText: String): Course = deserializeCourse(readTree(configFileText))
+
+  private fun ObjectMapper.deserializeCourse(tree: JsonNode?): Course {
+    val treeNode = tree ?: JsonNodeFactory.instance.objectNode()
     val courseMode = asText(treeNode.get("mode"))
     val course = treeToValue(treeNode, Course::class.java)
     course.courseMode = if (courseMode != null) EduNames.STUDY else CCUtils.COURSE_MODE
     return course
   }
 
-  private fun ObjectMapper.readNode(configFileText: String): JsonNode =
-    when (val tree = readTree(configFileText)) {
+  private fun toObjectNode(tree: JsonNode?): JsonNode =
+    when (tree) {
       null -> JsonNodeFactory.instance.objectNode()
       is MissingNode -> JsonNodeFactory.instance.objectNode()
       else -> tree
     }
 
   @VisibleForTesting
-  fun ObjectMapper.deserializeSection(configFileText: String): Section {
-    val jsonNode = readNode(configFileText)
+  fun ObjectMapper.deserializeSection(configFileText: String): Section = deserializeSection(readTree(configFileText))
+
+  private fun ObjectMapper.deserializeSection(tree: JsonNode?): Section {
+    val jsonNode = toObjectNode(tree)
     return treeToValue(jsonNode, Section::class.java)
   }
 
   @VisibleForTesting
-  fun ObjectMapper.deserializeLesson(configFileText: String): Lesson {
-    val treeNode = readNode(configFileText)
+  fun ObjectMapper.deserializeLesson(configFileText: String): Lesson = deserializeLesson(readTree(configFileText))
+
+  private fun ObjectMapper.deserializeLesson(tree: JsonNode?): Lesson {
+    val treeNode = toObjectNode(tree)
     val type = asText(treeNode.get("type"))
     val clazz = when (type) {
       FrameworkLesson().itemType -> FrameworkLesson::class.java
@@ -133,8 +140,10 @@ object YamlDeserializer {
   }
 
   @VisibleForTesting
-  fun ObjectMapper.deserializeTask(configFileText: String): Task {
-    val treeNode = readTree(configFileText) ?: JsonNodeFactory.instance.objectNode()
+  fun ObjectMapper.deserializeTask(configFileText: String): Task = deserializeTask(readTree(configFileText))
+
+  private fun ObjectMapper.deserializeTask(tree: JsonNode?): Task {
+    val treeNode = tree ?: JsonNodeFactory.instance.objectNode()
     val type = asText(treeNode.get("type")) ?: formatError("Task type not specified")
 
     val clazz = when (type) {
@@ -156,18 +165,16 @@ object YamlDeserializer {
 
   fun deserializeRemoteItem(configFile: VirtualFile): StudyItem {
     val configName = configFile.name
-    val configFileText = configFile.document.text
     return when (configName) {
-      REMOTE_COURSE_CONFIG -> deserializeCourseRemoteInfo(configFileText)
-      REMOTE_LESSON_CONFIG -> REMOTE_MAPPER.readValue(configFileText, Lesson::class.java)
+      REMOTE_COURSE_CONFIG -> deserializeCourseRemoteInfo(REMOTE_MAPPER.readConfigTree(configFile))
+      REMOTE_LESSON_CONFIG -> YamlConfigIO.openReader(configFile).use { REMOTE_MAPPER.readValue(it, Lesson::class.java) }
       REMOTE_SECTION_CONFIG,
-      REMOTE_TASK_CONFIG -> REMOTE_MAPPER.readValue(configFileText, RemoteStudyItem::class.java)
+      REMOTE_TASK_CONFIG -> YamlConfigIO.openReader(configFile).use { REMOTE_MAPPER.readValue(it, RemoteStudyItem::class.java) }
       else -> loadingError(unknownConfigMessage(configName))
     }
   }
 
-  private fun deserializeCourseRemoteInfo(configFileText: String): Course {
-    val treeNode = REMOTE_MAPPER.readTree(configFileText)
+  private fun deserializeCourseRemoteInfo(treeNode: JsonNode): Course {
     val type = asText(treeNode.get("type"))
 
     val clazz = when {
@@ -12,10 +12,8 @@ import com.fasterxml.jackson.module.kotlin.registerKotlinModule
 import com.google.common.annotations.VisibleForTesting
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.application.runWriteAction
-import com.intellij.openapi.editor.Document
 import com.intellij.openapi.editor.Editor
 import com.intellij.openapi.editor.EditorFactory
-import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.fileEditor.FileEditorManagerListener
 import com.intellij.openapi.fileTypes.FileTypeManager
@@ -200,7 +198,18 @@ object YamlFormatSynchronizer {
     if (!YamlFormatSettings.shouldCreateConfigFiles(project)) {
       return
     }
-    item.saveConfigDocument(project, configName, mapper)
+    item.saveConfig(project, configName, mapper)
+  }
+
+  /**
+   * Saves configs and remote info of the given items only, without traversing their children
+   */
+  @JvmStatic
+  fun saveItemsWithRemoteInfo(items: Collection<StudyItem>) {
+    for (item in items) {
+      saveItem(item)
+      saveItemRemoteInfo(item)
+    }
   }
 
   @JvmStatic
@@ -265,7 +274,7 @@ object YamlFormatSynchronizer {
     editor.headerComponent = panel
   }
 
-  private fun StudyItem.saveConfigDocument(project: Project, configName: String, mapper: ObjectMapper) {
+  private fun StudyItem.saveConfig(project: Project, configName: String, mapper: ObjectMapper) {
     val dir = getConfigDir(project)
 
     ApplicationManager.getApplication().invokeLater {
@@ -277,7 +286,7 @@ object YamlFormatSynchronizer {
             FileTypeManager.getInstance().associateExtension(PlainTextFileType.INSTANCE,
                                                              file.extension ?: error("Failed to get extension for file ${file.name}"))
           }
-          file.document?.setText(mapper.writeValueAsString(this))
+          YamlConfigIO.writeConfig(project, file, mapper, this)
         }
         finally {
           file.putUserData(LOAD_FROM_CONFIG, true)
@@ -286,9 +295,6 @@ object YamlFormatSynchronizer {
     }
   }
 
-  private val VirtualFile.document: Document?
-    get() = FileDocumentManager.getInstance().getDocument(this)
-
   @JvmStatic
   fun isConfigFile(file: VirtualFile): Boolean {
     return isLocalConfigFile(file) || isRemoteConfigFile(file)
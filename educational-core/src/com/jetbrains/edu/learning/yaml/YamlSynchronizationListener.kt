@@ -1,11 +1,11 @@
 package com.jetbrains.edu.learning.yaml
 
-import com.intellij.ide.projectView.ProjectView
 import com.intellij.openapi.application.runInEdt
 import com.intellij.openapi.editor.event.DocumentEvent
 import com.intellij.openapi.project.Project
 import com.intellij.testFramework.LightVirtualFile
 import com.jetbrains.edu.learning.EduDocumentListenerBase
+import com.jetbrains.edu.learning.projectView.CourseViewRefresher
 import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer.isLocalConfigFile
 
 class YamlSynchronizationListener(project: Project) : EduDocumentListenerBase(project) {
@@ -20,7 +20,9 @@ class YamlSynchronizationListener(project: Project) : EduDocumentListenerBase(pr
     if (loadFromConfig) {
       runInEdt {
         YamlLoader.loadItem(project, configFile)
-        ProjectView.getInstance(project).refresh()
+        // Item can be replaced while loading, e.g. if its type is changed, so its node is recreated in the parent directory
+        val itemDir = configFile.parent
+        CourseViewRefresher.getInstance(project).refresh(itemDir.parent ?: itemDir)
       }
     }
   }
@@ -0,0 +1,80 @@
+package com.jetbrains.edu.coursecreator.stepik
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.util.ui.UIUtil
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.EduSettings
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.MockResponseFactory
+import com.jetbrains.edu.learning.stepik.StepikUser
+import com.jetbrains.edu.learning.stepik.api.MockStepikConnector
+import com.jetbrains.edu.learning.stepik.api.StepikConnector
+import java.util.*
+import java.util.concurrent.Callable
+import java.util.concurrent.atomic.AtomicInteger
+
+class StepikCourseUploaderTest : EduTestCase() {
+
+  private val mockConnector: MockStepikConnector get() = StepikConnector.getInstance() as MockStepikConnector
+
+  override fun setUp() {
+    super.setUp()
+    EduSettings.getInstance().user = StepikUser.createEmptyUser()
+  }
+
+  override fun tearDown() {
+    EduSettings.getInstance().user = null
+    super.tearDown()
+  }
+
+  fun `test steps removed from Stepik are posted after updates`() {
+    val localCourse = courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      lesson {
+        eduTask {
+          taskFile("Task.txt")
+        }
+        eduTask {
+          taskFile("Task.txt")
+        }
+        eduTask {
+          taskFile("Task.txt")
+        }
+      }
+    }.asRemote()
+    val (removedTask, updatedTask, newTask) = localCourse.lessons.single().taskList
+    newTask.id = 0
+
+    val requests = Collections.synchronizedList(mutableListOf<String>())
+    val postedStepId = AtomicInteger(100)
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      if (request.method == "GET") return@withResponseHandler MockResponseFactory.fromString("""{"steps": []}""")
+      requests += "${request.method} ${request.path}"
+      when (request.path) {
+        "/api/step-sources" -> MockResponseFactory.fromString("""{"step-sources": [{"id": ${postedStepId.getAndIncrement()}}]}""")
+        "/api/step-sources/${removedTask.id}" -> MockResponseFactory.notFound()
+        else -> MockResponseFactory.fromString("""{"step-sources": []}""")
+      }
+    }
+
+    val changedItems = StepikChangesInfo(tasksToUpdate = arrayListOf(removedTask, updatedTask), newTasks = arrayListOf(newTask))
+    val plan = StepikCourseUploader(project, localCourse).createUploadPlan(changedItems)
+    assertTrue(executeInBackground(plan))
+
+    assertEquals(4, requests.size)
+    assertEquals("POST /api/step-sources", requests.first())
+    assertEquals(setOf("PUT /api/step-sources/1", "PUT /api/step-sources/2"), requests.subList(1, 3).toSet())
+    assertEquals("POST /api/step-sources", requests.last())
+    assertEquals(100, newTask.id)
+    assertEquals(101, removedTask.id)
+  }
+
+  // Stepik connector saves documents on EDT, so the plan can't be executed on EDT
+  private fun executeInBackground(plan: StepikUploadPlan): Boolean {
+    val future = ApplicationManager.getApplication().executeOnPooledThread(Callable { plan.execute() })
+    while (!future.isDone) {
+      UIUtil.dispatchAllInvocationEvents()
+      Thread.sleep(10)
+    }
+    return future.get()
+  }
+}
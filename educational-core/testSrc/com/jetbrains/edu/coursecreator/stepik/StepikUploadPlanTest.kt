@@ -0,0 +1,101 @@
+package com.jetbrains.edu.coursecreator.stepik
+
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.EduCourse
+import java.util.Collections
+import java.util.concurrent.atomic.AtomicInteger
+
+class StepikUploadPlanTest : EduTestCase() {
+
+  fun `test requests are planned in dependency order`() {
+    val localCourse = courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      lesson {
+        eduTask { }
+        outputTask { }
+      }
+      lesson {
+        eduTask { }
+      }
+    }.asRemote()
+
+    val firstLesson = localCourse.lessons[0]
+    val changedItems = StepikChangesInfo(isCourseInfoChanged = true,
+                                         newLessons = arrayListOf(localCourse.lessons[1]),
+                                         tasksToUpdate = arrayListOf(firstLesson.taskList[1]),
+                                         newTasks = arrayListOf(firstLesson.taskList[0]))
+
+    val plan = StepikCourseUploader(project, localCourse).createUploadPlan(changedItems)
+    assertEquals(listOf("update course 1", "post lesson 'lesson2'", "post step 'task1'", "update step 2"),
+                 plan.requests.map { it.description })
+  }
+
+  fun `test no requests planned for the same course`() {
+    val localCourse = courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      lesson {
+        eduTask { }
+      }
+    }.asRemote()
+
+    val changedItems = StepikChangeRetriever(project, localCourse, localCourse.copy() as EduCourse).getChangedItems()
+    val plan = StepikCourseUploader(project, localCourse).createUploadPlan(changedItems)
+    assertTrue(plan.isEmpty())
+  }
+
+  fun `test all requests of concurrent stage are executed`() {
+    val counter = AtomicInteger()
+    val plan = StepikUploadPlan()
+    plan.stage(concurrent = true) {
+      repeat(20) {
+        request("request $it") {
+          counter.incrementAndGet()
+          true
+        }
+      }
+    }
+
+    assertTrue(plan.execute())
+    assertEquals(20, counter.get())
+  }
+
+  fun `test requests with the same parent are executed sequentially`() {
+    val parents = listOf("lesson1", "lesson2")
+    val executed = parents.associateWith { Collections.synchronizedList(mutableListOf<Int>()) }
+    val running = parents.associateWith { AtomicInteger() }
+    val plan = StepikUploadPlan()
+    plan.stage(concurrent = true) {
+      for (i in 0 until 10) {
+        val parent = parents[i % parents.size]
+        request("update step $i", parent = parent) {
+          val isAlone = running.getValue(parent).incrementAndGet() == 1
+          Thread.sleep(10)
+          running.getValue(parent).decrementAndGet()
+          executed.getValue(parent) += i
+          isAlone
+        }
+      }
+    }
+
+    assertTrue(plan.execute())
+    assertEquals(listOf(0, 2, 4, 6, 8), executed.getValue("lesson1"))
+    assertEquals(listOf(1, 3, 5, 7, 9), executed.getValue("lesson2"))
+  }
+
+  fun `test failed request fails the plan`() {
+    val plan = StepikUploadPlan()
+    plan.stage(concurrent = true) {
+      request("success") { true }
+      request("failure") { false }
+    }
+    var nextStageExecuted = false
+    plan.stage {
+      request("next stage") {
+        nextStageExecuted = true
+        true
+      }
+    }
+
+    assertFalse(plan.execute())
+    assertTrue(nextStageExecuted)
+  }
+}
@@ -0,0 +1,158 @@
+package com.jetbrains.edu.learning
+
+import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholder
+import com.jetbrains.edu.learning.courseFormat.TaskFile
+import junit.framework.TestCase
+import kotlin.random.Random
+
+/**
+ * Checks that placeholder lookups and updates via [com.jetbrains.edu.learning.courseFormat.AnswerPlaceholderIndex]
+ * are equivalent to linear scan of placeholders list
+ */
+class AnswerPlaceholderIndexTest : TestCase() {
+
+  fun `test placeholder at offset`() {
+    val taskFile = createTaskFile(placeholder(2, 3), placeholder(5, 0), placeholder(5, 2), placeholder(10, 1))
+    assertNull(taskFile.getAnswerPlaceholder(1))
+    assertEquals(0, taskFile.getAnswerPlaceholder(2)?.index)
+    // the first placeholder in list is returned for adjacent ones
+    assertEquals(0, taskFile.getAnswerPlaceholder(5)?.index)
+    assertEquals(2, taskFile.getAnswerPlaceholder(6)?.index)
+    assertNull(taskFile.getAnswerPlaceholder(8))
+    assertEquals(3, taskFile.getAnswerPlaceholder(11)?.index)
+  }
+
+  fun `test placeholders in range`() {
+    val taskFile = createTaskFile(placeholder(2, 3), placeholder(7, 1), placeholder(10, 1), placeholder(15, 2))
+    assertEquals(listOf(1, 2), taskFile.getAnswerPlaceholders(6, 10).map { it.index })
+    assertEquals(emptyList<Int>(), taskFile.getAnswerPlaceholders(12, 14).map { it.index })
+  }
+
+  fun `test index is updated after placeholder modification`() {
+    val placeholder = placeholder(2, 3)
+    val taskFile = createTaskFile(placeholder)
+    assertEquals(placeholder, taskFile.getAnswerPlaceholder(3))
+    placeholder.offset = 10
+    assertNull(taskFile.getAnswerPlaceholder(3))
+    assertEquals(placeholder, taskFile.getAnswerPlaceholder(12))
+
+    val newPlaceholder = placeholder(3, 1)
+    taskFile.answerPlaceholders.add(newPlaceholder)
+    assertEquals(newPlaceholder, taskFile.getAnswerPlaceholder(3))
+  }
+
+  fun `test random lookups`() {
+    val random = Random(42)
+    repeat(200) {
+      // placeholders may overlap and be unsorted here to check that results are the same as for linear scan in any case
+      val placeholders = List(random.nextInt(30)) { placeholder(random.nextInt(100), random.nextInt(10)) }
+      val taskFile = createTaskFile(*placeholders.toTypedArray())
+      for (offset in -1..111) {
+        assertSame(findLinear(placeholders, offset), taskFile.getAnswerPlaceholder(offset))
+        val end = offset + random.nextInt(10)
+        assertEquals(placeholders.filter { it.offset <= end && it.endOffset >= offset }, taskFile.getAnswerPlaceholders(offset, end))
+      }
+    }
+  }
+
+  fun `test random document changes`() {
+    val random = Random(42)
+    repeat(200) {
+      var textLength = 200
+      val offsets = (0..textLength).shuffled(random).take(2 * random.nextInt(1, 20)).sorted()
+      val placeholders = offsets.chunked(2).map { (start, end) -> placeholder(start, end - start) }
+      val expectedPlaceholders = placeholders.map { placeholder(it.offset, it.length) }
+      val taskFile = createTaskFile(*placeholders.toTypedArray())
+
+      repeat(50) {
+        val offset = random.nextInt(textLength + 1)
+        val oldFragment = randomFragment(random, random.nextInt(minOf(5, textLength - offset) + 1))
+        val newFragment = randomFragment(random, random.nextInt(5))
+        textLength += newFragment.length - oldFragment.length
+
+        taskFile.applyDocumentChange(offset, oldFragment, newFragment)
+        applyChangeLinear(expectedPlaceholders, offset, oldFragment, newFragment)
+
+        assertEquals(expectedPlaceholders.map { it.offset to it.length }, placeholders.map { it.offset to it.length })
+        for (lookupOffset in 0..textLength) {
+          assertSame(findLinear(placeholders, lookupOffset), taskFile.getAnswerPlaceholder(lookupOffset))
+        }
+      }
+    }
+  }
+
+  fun `test lookup in file with many placeholders`() {
+    val placeholders = List(100_000) { placeholder(it * 10, 5) }
+    val taskFile = createTaskFile(*placeholders.toTypedArray())
+    // Would take minutes with linear scan
+    for (offset in 0 until 1_000_000) {
+      val placeholder = taskFile.getAnswerPlaceholder(offset)
+      if (offset % 10 <= 5) {
+        assertSame(placeholders[offset / 10], placeholder)
+      }
+      else {
+        assertNull(placeholder)
+      }
+    }
+  }
+
+  private fun createTaskFile(vararg placeholders: AnswerPlaceholder): TaskFile {
+    val taskFile = TaskFile("Task.txt", "")
+    taskFile.answerPlaceholders = placeholders.toMutableList()
+    for ((index, placeholder) in placeholders.withIndex()) {
+      placeholder.taskFile = taskFile
+      placeholder.index = index
+    }
+    return taskFile
+  }
+
+  private fun placeholder(offset: Int, length: Int): AnswerPlaceholder {
+    val placeholder = AnswerPlaceholder()
+    placeholder.offset = offset
+    placeholder.length = length
+    return placeholder
+  }
+
+  private fun randomFragment(random: Random, length: Int): String = String(CharArray(length) { "ab\n"[random.nextInt(3)] })
+
+  private fun findLinear(placeholders: List<AnswerPlaceholder>, offset: Int): AnswerPlaceholder? =
+    placeholders.firstOrNull { it.offset <= offset && offset <= it.endOffset }
+
+  /**
+   * The way placeholders were updated on document change before introducing the index
+   */
+  private fun applyChangeLinear(placeholders: List<AnswerPlaceholder>, offset: Int, oldFragment: String, newFragment: String) {
+    val change = newFragment.length - oldFragment.length
+    for (placeholder in placeholders) {
+      val placeholderStart = placeholder.offset
+      val placeholderEnd = placeholder.endOffset
+      var startChange = 0
+      var endChange = change
+      if (offset > placeholderEnd) {
+        endChange = 0
+      }
+      else {
+        if (offset < placeholderStart) {
+          startChange = change
+          if (change < 0 && offset - change > placeholderStart) {
+            startChange = offset - placeholderStart
+          }
+        }
+        if (change < 0 && offset - change > placeholderEnd) {
+          endChange = offset - placeholderEnd
+        }
+      }
+
+      var newStart = placeholderStart + startChange
+      val newEnd = placeholderEnd + endChange
+      if (newStart - 1 == offset && newFragment.isEmpty() && oldFragment.startsWith("\n")) {
+        newStart -= 1
+      }
+      if (newStart == offset && oldFragment.isEmpty() && newFragment.startsWith("\n")) {
+        newStart += 1
+      }
+      placeholder.offset = newStart
+      placeholder.length = newEnd - newStart
+    }
+  }
+}
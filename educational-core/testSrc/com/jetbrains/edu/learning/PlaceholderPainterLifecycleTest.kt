@@ -0,0 +1,68 @@
+package com.jetbrains.edu.learning
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.editor.Editor
+import com.intellij.openapi.editor.EditorFactory
+import com.intellij.testFramework.LeakHunter
+import com.jetbrains.edu.learning.courseFormat.TaskFile
+import com.jetbrains.edu.learning.courseFormat.ext.getDocument
+
+class PlaceholderPainterLifecycleTest : EduTestCase() {
+
+  private lateinit var taskFile: TaskFile
+
+  override fun setUp() {
+    super.setUp()
+    courseWithFiles {
+      lesson {
+        eduTask {
+          taskFile("Task.kt", "fun foo() = <p>TODO()</p>\nfun bar() = <p>TODO()</p>")
+        }
+      }
+    }
+    taskFile = findTaskFile(0, 0, "Task.kt")
+  }
+
+  fun `test placeholders are painted in all editors`() {
+    withEditors { editors ->
+      for (editor in editors) {
+        PlaceholderPainter.showPlaceholders(project, taskFile, editor)
+        // Showing placeholders again shouldn't install another painter
+        PlaceholderPainter.showPlaceholders(project, taskFile, editor)
+      }
+      assertEquals(taskFile.answerPlaceholders.toSet(), PlaceholderPainter.getPaintedPlaceholder())
+    }
+  }
+
+  fun `test hidden placeholder isn't painted in any editor`() {
+    withEditors { editors ->
+      editors.forEach { PlaceholderPainter.showPlaceholders(project, taskFile, it) }
+      val (first, second) = taskFile.answerPlaceholders
+      PlaceholderPainter.hidePlaceholder(first)
+      assertEquals(setOf(second), PlaceholderPainter.getPaintedPlaceholder())
+    }
+  }
+
+  fun `test painters are released with editors`() {
+    withEditors { editors ->
+      editors.forEach { PlaceholderPainter.showPlaceholders(project, taskFile, it) }
+    }
+    assertEmpty(PlaceholderPainter.getPaintedPlaceholder())
+    LeakHunter.checkLeak(ApplicationManager.getApplication(), PlaceholderPainter.EditorPlaceholderPainter::class.java)
+  }
+
+  private fun withEditors(action: (List<Editor>) -> Unit) {
+    val document = taskFile.getDocument(project)!!
+    val editors = List(EDITORS_COUNT) { EditorFactory.getInstance().createEditor(document, project) }
+    try {
+      action(editors)
+    }
+    finally {
+      editors.forEach { EditorFactory.getInstance().releaseEditor(it) }
+    }
+  }
+
+  companion object {
+    private const val EDITORS_COUNT = 5
+  }
+}
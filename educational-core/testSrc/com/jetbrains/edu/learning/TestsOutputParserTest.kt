@@ -81,5 +81,42 @@ class TestsOutputParserTest : TestCase() {
     assertEquals(EduCoreBundle.message("check.incorrect"), checkResult.message.trim())
   }
 
+  fun `test output split into chunks`() {
+    val parser = TestsOutputParser()
+    val output = "some output\r\n$STUDY_PREFIX $TEST_OK\n$STUDY_PREFIX $TEST_FAILED 123\r\n$STUDY_PREFIX 456\nother output\n"
+    for (chunk in output.chunked(5)) {
+      parser.addOutput(chunk)
+    }
+    val checkResult = parser.finish(false)
+    assertEquals(CheckStatus.Failed, checkResult.status)
+    assertEquals("123\n456", checkResult.message.trim())
+  }
+
+  fun `test rest of output is skipped after failure`() {
+    val parser = TestsOutputParser()
+    assertTrue(parser.addOutput("$STUDY_PREFIX $TEST_FAILED first\n"))
+    assertFalse(parser.addOutput("other output\n"))
+    assertTrue(parser.isFailureFound)
+    assertFalse(parser.addOutput("$STUDY_PREFIX $TEST_FAILED second\n"))
+    assertEquals("first", parser.finish(false).message.trim())
+  }
+
+  fun `test failure is found in complete message`() {
+    val parser = TestsOutputParser()
+    assertTrue(parser.addCompleteMessage("$STUDY_PREFIX $TEST_OK"))
+    assertFalse(parser.addCompleteMessage("$STUDY_PREFIX $TEST_FAILED first\nsecond line"))
+    assertTrue(parser.isFailureFound)
+    assertEquals("first\nsecond line", parser.finish(false).message.trim())
+  }
+
+  fun `test last line without line separator`() {
+    val parser = TestsOutputParser()
+    parser.addOutput("$STUDY_PREFIX $CONGRATS_MESSAGE ")
+    parser.addOutput("Well done!")
+    val checkResult = parser.finish(false)
+    assertEquals(CheckStatus.Solved, checkResult.status)
+    assertEquals("Well done!", checkResult.message.trim())
+  }
+
   private fun getCheckResult(vararg lines: String): CheckResult = TestsOutputParser().getCheckResult(listOf(*lines), false)
 }
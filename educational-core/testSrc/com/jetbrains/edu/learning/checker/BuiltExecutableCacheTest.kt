@@ -0,0 +1,149 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.application.runWriteAction
+import com.intellij.openapi.command.CommandProcessor
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFile
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.Err
+import com.jetbrains.edu.learning.Ok
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+
+class BuiltExecutableCacheTest : EduTestCase() {
+
+  override fun setUp() {
+    super.setUp()
+    courseWithFiles {
+      lesson {
+        eduTask("task1") {
+          taskFile("util.txt", "helpers")
+          taskFile("main.txt", "fun main")
+        }
+      }
+    }
+  }
+
+  override fun tearDown() {
+    try {
+      // executables are kept by task path, so they are dropped not to be reused by the next test
+      BuiltExecutableCache.getInstance(project).invalidate(findTask(0, 0).lesson)
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test entry point isn't searched again while task is unchanged`() {
+    val index = TaskEntryPointIndex.getInstance(project)
+    val task = findTask(0, 0)
+    val searchCount = index.getSearchCount()
+
+    val entryPoint = findEntryPoint(task)
+    assertEquals("main.txt", entryPoint?.name)
+    assertSame(entryPoint, findEntryPoint(task))
+    assertEquals(searchCount + 1, index.getSearchCount())
+
+    setText("lesson1/task1/main.txt", "no entry point")
+    setText("lesson1/task1/util.txt", "fun main")
+    assertEquals("util.txt", findEntryPoint(task)?.name)
+    assertEquals(searchCount + 2, index.getSearchCount())
+  }
+
+  fun `test executable is built once per content`() {
+    val cache = BuiltExecutableCache.getInstance(project)
+    val task = findTask(0, 0)
+    var buildCount = 0
+    val build = { outputDir: Path ->
+      buildCount++
+      Ok(Files.write(outputDir.resolve("main"), byteArrayOf(buildCount.toByte())))
+    }
+
+    val executable = (cache.getOrBuild(task, build) as Ok).value
+    assertEquals(executable, (cache.getOrBuild(task, build) as Ok).value)
+    assertEquals(1, buildCount)
+
+    setText("lesson1/task1/util.txt", "new helpers")
+    assertFalse(executable == (cache.getOrBuild(task, build) as Ok).value)
+    assertEquals(2, buildCount)
+  }
+
+  fun `test failed build isn't cached`() {
+    val cache = BuiltExecutableCache.getInstance(project)
+    val task = findTask(0, 0)
+    var buildCount = 0
+    val build = { _: Path ->
+      buildCount++
+      Err(CheckResult(CheckStatus.Failed, CheckUtils.COMPILATION_FAILED_MESSAGE))
+    }
+
+    assertTrue(cache.getOrBuild(task, build) is Err)
+    assertTrue(cache.getOrBuild(task, build) is Err)
+    assertEquals(2, buildCount)
+  }
+
+  fun `test invalidated executable is deleted`() {
+    val cache = BuiltExecutableCache.getInstance(project)
+    val task = findTask(0, 0)
+    val build = { outputDir: Path -> Ok(Files.write(outputDir.resolve("main"), byteArrayOf(1))) }
+
+    val executable = (cache.getOrBuild(task, build) as Ok).value
+    cache.invalidate(task.lesson)
+    assertFalse(Files.exists(executable))
+    assertNull(cache.getExecutable(task, cache.computeContentHash(task)))
+  }
+
+  fun `test failed to create output directory`() {
+    val cache = BuiltExecutableCache.getInstance(project)
+    val task = findTask(0, 0)
+    val taskDir = cache.executablesDir.resolve(FileUtil.sanitizeFileName(task.pathInCourse))
+    Files.createDirectories(cache.executablesDir)
+    Files.write(taskDir, byteArrayOf())
+    try {
+      val result = cache.getOrBuild(task) { error("Task shouldn't be built") }
+      assertEquals(CheckResult.failedToCheck.message, (result as Err).error.message)
+    }
+    finally {
+      Files.delete(taskDir)
+    }
+  }
+
+  fun `test rebuilt executable isn't reused`() {
+    val cache = BuiltExecutableCache.getInstance(project)
+    val task = findTask(0, 0)
+    val contentHash = cache.computeContentHash(task)
+    val executable = Files.createTempFile("main", null)
+    try {
+      cache.putExecutable(task, contentHash, executable)
+      assertEquals(executable, cache.getExecutable(task, contentHash))
+      assertNull(cache.getExecutable(task, contentHash + "0"))
+
+      val lastModified = Files.getLastModifiedTime(executable).toMillis()
+      Files.setLastModifiedTime(executable, FileTime.fromMillis(lastModified + 1000))
+      assertNull(cache.getExecutable(task, contentHash))
+    }
+    finally {
+      Files.delete(executable)
+    }
+  }
+
+  private fun findEntryPoint(task: Task): PsiFile? = runReadAction {
+    TaskEntryPointIndex.getInstance(project).findEntryPoint(task) { psiFile ->
+      psiFile.takeIf { it.text.startsWith("fun main") }
+    } as? PsiFile
+  }
+
+  private fun setText(path: String, text: String) {
+    val document = FileDocumentManager.getInstance().getDocument(findFile(path))!!
+    CommandProcessor.getInstance().runUndoTransparentAction {
+      runWriteAction { document.setText(text) }
+    }
+    PsiDocumentManager.getInstance(project).commitAllDocuments()
+  }
+}
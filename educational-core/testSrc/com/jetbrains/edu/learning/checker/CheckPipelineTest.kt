@@ -0,0 +1,176 @@
+package com.jetbrains.edu.learning.checker
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+
+class CheckPipelineTest : EduTestCase() {
+
+  override fun setUp() {
+    super.setUp()
+    courseWithFiles {
+      lesson {
+        eduTask {
+          taskFile("Task.txt")
+        }
+      }
+    }
+  }
+
+  fun `test phase timings of checker`() {
+    val task = findTask(0, 0) as EduTask
+    val publishedPhases = mutableListOf<CheckPhase>()
+    project.messageBus.connect(testRootDisposable).subscribe(CheckPhaseListener.TOPIC, object : CheckPhaseListener {
+      override fun phaseFinished(task: Task, phase: CheckPhase, durationMs: Long) {
+        publishedPhases += phase
+      }
+    })
+
+    val tracker = CheckPhaseTracker(project, task, EmptyProgressIndicator())
+    val result = tracker.runChecker(FakeChecker(task, project))
+
+    assertEquals(CheckStatus.Solved, result.status)
+    assertEquals(listOf(CheckPhase.BUILD, CheckPhase.RUN, CheckPhase.EVALUATE), publishedPhases)
+    val timings = tracker.getTimings()
+    assertTrue("Phase timings: $timings", timings.getValue(CheckPhase.BUILD) >= BUILD_TIME_MS)
+    assertTrue("Phase timings: $timings", timings.getValue(CheckPhase.RUN) >= RUN_TIME_MS)
+    assertTrue("Phase timings: $timings", timings.getValue(CheckPhase.EVALUATE) >= EVALUATE_TIME_MS)
+  }
+
+  fun `test checker without phases is timed as run`() {
+    val task = findTask(0, 0) as EduTask
+    val tracker = CheckPhaseTracker(project, task, EmptyProgressIndicator())
+    tracker.runChecker(object : TaskChecker<EduTask>(task, project) {
+      override fun check(indicator: ProgressIndicator): CheckResult {
+        Thread.sleep(RUN_TIME_MS)
+        return CheckResult.SOLVED
+      }
+    })
+
+    val timings = tracker.getTimings()
+    assertEquals(setOf(CheckPhase.RUN), timings.keys)
+    assertTrue("Phase timings: $timings", timings.getValue(CheckPhase.RUN) >= RUN_TIME_MS)
+  }
+
+  fun `test environment is validated once`() {
+    val task = findTask(0, 0) as EduTask
+    val checker = FakeChecker(task, project)
+    val tracker = CheckPhaseTracker(project, task, EmptyProgressIndicator())
+    tracker.runPhase(CheckPhase.VALIDATE_ENVIRONMENT) { checker.validateEnvironment() }
+    tracker.runChecker(checker)
+    assertEquals(1, checker.environmentValidations)
+
+    checker.check(EmptyProgressIndicator())
+    assertEquals(2, checker.environmentValidations)
+  }
+
+  fun `test new check supersedes running one`() {
+    val pipeline = CheckPipeline.getInstance(project)
+    val firstIndicator = EmptyProgressIndicator()
+    val firstRun = pipeline.startRun(firstIndicator)
+    val secondRun = pipeline.startRun(EmptyProgressIndicator())
+    assertTrue(firstIndicator.isCanceled)
+
+    val waiting = ApplicationManager.getApplication().executeOnPooledThread { secondRun.awaitPrevious() }
+    try {
+      waiting.get(100, TimeUnit.MILLISECONDS)
+      fail("Check shouldn't start until the superseded one is finished")
+    }
+    catch (e: TimeoutException) {
+    }
+
+    firstRun.finish()
+    waiting.get(10, TimeUnit.SECONDS)
+    assertTrue(pipeline.isCheckInProgress())
+    secondRun.finish()
+    assertFalse(pipeline.isCheckInProgress())
+  }
+
+  fun `test superseding check can be canceled while waiting`() {
+    val pipeline = CheckPipeline.getInstance(project)
+    val firstRun = pipeline.startRun(EmptyProgressIndicator())
+    val secondIndicator = EmptyProgressIndicator()
+    val secondRun = pipeline.startRun(secondIndicator)
+
+    val waiting = ApplicationManager.getApplication().executeOnPooledThread { secondRun.awaitPrevious() }
+    secondIndicator.cancel()
+    try {
+      waiting.get(10, TimeUnit.SECONDS)
+      fail("Canceled check shouldn't wait for the superseded one")
+    }
+    catch (e: ExecutionException) {
+      assertInstanceOf(e.cause, ProcessCanceledException::class.java)
+    }
+
+    secondRun.finish()
+    firstRun.finish()
+    assertFalse(pipeline.isCheckInProgress())
+  }
+
+  fun `test check superseded while waiting doesn't let the next one start before the running one`() {
+    val pipeline = CheckPipeline.getInstance(project)
+    val firstRun = pipeline.startRun(EmptyProgressIndicator())
+    val secondIndicator = EmptyProgressIndicator()
+    val secondRun = pipeline.startRun(secondIndicator)
+    val secondWaiting = ApplicationManager.getApplication().executeOnPooledThread { secondRun.awaitPrevious() }
+
+    val thirdRun = pipeline.startRun(EmptyProgressIndicator())
+    assertTrue(secondIndicator.isCanceled)
+    try {
+      secondWaiting.get(10, TimeUnit.SECONDS)
+      fail("Superseded check shouldn't wait for the previous one")
+    }
+    catch (e: ExecutionException) {
+      assertInstanceOf(e.cause, ProcessCanceledException::class.java)
+    }
+    secondRun.finish()
+
+    val thirdWaiting = ApplicationManager.getApplication().executeOnPooledThread { thirdRun.awaitPrevious() }
+    try {
+      thirdWaiting.get(100, TimeUnit.MILLISECONDS)
+      fail("Check shouldn't start until the first one is finished")
+    }
+    catch (e: TimeoutException) {
+    }
+
+    firstRun.finish()
+    thirdWaiting.get(10, TimeUnit.SECONDS)
+    thirdRun.finish()
+    assertFalse(pipeline.isCheckInProgress())
+  }
+
+  private class FakeChecker(task: EduTask, project: Project) : TaskChecker<EduTask>(task, project) {
+    var environmentValidations = 0
+
+    override fun validateEnvironment(): CheckResult? {
+      environmentValidations++
+      return null
+    }
+
+    override fun check(indicator: ProgressIndicator): CheckResult {
+      val possibleError = validateEnvironmentIfNeeded()
+      if (possibleError != null) return possibleError
+      runPhase(CheckPhase.BUILD) { Thread.sleep(BUILD_TIME_MS) }
+      runPhase(CheckPhase.RUN) { Thread.sleep(RUN_TIME_MS) }
+      return runPhase(CheckPhase.EVALUATE) {
+        Thread.sleep(EVALUATE_TIME_MS)
+        CheckResult.SOLVED
+      }
+    }
+  }
+
+  companion object {
+    private const val BUILD_TIME_MS = 20L
+    private const val RUN_TIME_MS = 50L
+    private const val EVALUATE_TIME_MS = 10L
+  }
+}
@@ -0,0 +1,156 @@
+package com.jetbrains.edu.learning.checker
+
+import junit.framework.TestCase
+import java.io.Reader
+import java.io.StringReader
+
+class ExpectedOutputComparatorTest : TestCase() {
+
+  fun `test same output`() = doTest("Hello,\nWorld!\n", listOf("Hel", "lo,\nWo", "rld!\n"), null)
+
+  fun `test different output`() = doTest("Hello,\nWorld!\n", listOf("Hello\n", "World!\n"),
+                                         CheckResultDiff(expected = "Hello,\nWorld!\n", actual = "Hello\nWorld!\n"))
+
+  fun `test shorter output`() = doTest("Line\n", listOf("Li", "ne"), CheckResultDiff(expected = "Line\n", actual = "Line"))
+
+  fun `test longer output`() = doTest("Line", listOf("Line\n", "Line\n"), CheckResultDiff(expected = "Line", actual = "Line\nLine\n"))
+
+  fun `test line separators are normalized`() = doTest("1\n2\n", listOf("1\r", "\n2\r\n"), null)
+
+  fun `test trailing line breaks`() {
+    doTest("1\n2", listOf("1\n2\n\n"), CheckResultDiff(expected = "1\n2", actual = "1\n2\n\n"))
+    doTest("1\n2", listOf("1\n2\n", "\n"), null, OutputNormalization.CODEFORCES)
+    doTest("1\n\n2", listOf("1\n", "2\n"), CheckResultDiff(expected = "1\n\n2", actual = "1\n2"), OutputNormalization.CODEFORCES)
+  }
+
+  fun `test trailing spaces`() {
+    val normalization = OutputNormalization(ignoreTrailingSpaces = true)
+    doTest("1 2\n3\n", listOf("1 2  \n", "3\t\n"), null, normalization)
+    doTest("1 2\n3", listOf("1 ", " 2\n3  "), CheckResultDiff(expected = "1 2\n3", actual = "1  2\n3"), normalization)
+  }
+
+  fun `test comparison is stopped on the first difference`() {
+    val comparator = ExpectedOutputComparator(StringReader("1\n2\n3\n"))
+    assertTrue(comparator.addOutput("1\n"))
+    assertFalse(comparator.addOutput("3\n"))
+    assertTrue(comparator.isMismatchFound)
+    assertFalse(comparator.addOutput("3\n"))
+    assertEquals(CheckResultDiff(expected = "1\n2\n3\n", actual = "1\n3\n3\n"), comparator.finish())
+  }
+
+  fun `test diff window`() {
+    val expected = (1..100).joinToString("") { "line $it\n" }
+    val actual = expected.replace("line 50\n", "line 5O\n")
+    val comparator = ExpectedOutputComparator(StringReader(expected), windowSize = 20)
+    comparator.addOutput(actual)
+    assertEquals(CheckResultDiff(expected = "...\nline 49\nline 50\nline 51\nline 52\nli",
+                                 actual = "...\nline 49\nline 5O\nline 51\nline 52\nli"),
+                 comparator.finish())
+  }
+
+  fun `test no output`() {
+    doTest("1\n", emptyList(), CheckResultDiff(expected = "1\n", actual = DefaultCodeExecutor.NO_OUTPUT))
+    doTest(DefaultCodeExecutor.NO_OUTPUT, listOf(""), null)
+  }
+
+  fun `test huge output`() {
+    val lineCount = HUGE_OUTPUT_LINE_COUNT
+    val mismatchLine = lineCount - 10
+
+    val expectedReader = GeneratedOutputReader(lineCount) { "line $it" }
+    val comparator = ExpectedOutputComparator(expectedReader)
+    val actualReader = GeneratedOutputReader(lineCount) { if (it == mismatchLine) "wrong line" else "line $it" }
+    for (chunk in actualReader.chunks()) {
+      comparator.addOutput(chunk)
+    }
+    // Output is much larger than process output buffer can keep, so it is really compared as a stream
+    assertTrue(actualReader.readChars > 10 * (LimitedOutputBuffer.DEFAULT_HEAD_LIMIT + LimitedOutputBuffer.DEFAULT_TAIL_LIMIT))
+    val diff = comparator.finish() ?: error("Output mismatch is not found")
+    assertTrue(diff.expected.length <= 2 * ExpectedOutputComparator.DEFAULT_WINDOW_SIZE + 4)
+    assertTrue(diff.actual.length <= 2 * ExpectedOutputComparator.DEFAULT_WINDOW_SIZE + 4)
+    assertTrue(diff.expected, diff.expected.contains("line ${mismatchLine - 1}\nline $mismatchLine\n"))
+    assertTrue(diff.actual, diff.actual.contains("line ${mismatchLine - 1}\nwrong line\n"))
+  }
+
+  fun `test huge output is stopped on the first difference`() {
+    val lineCount = HUGE_OUTPUT_LINE_COUNT
+    val mismatchLine = 1000
+
+    val expectedReader = GeneratedOutputReader(lineCount) { "line $it" }
+    val comparator = ExpectedOutputComparator(expectedReader)
+    val actualReader = GeneratedOutputReader(lineCount) { if (it == mismatchLine) "wrong line" else "line $it" }
+    var consumedChunks = 0
+    for (chunk in actualReader.chunks()) {
+      consumedChunks++
+      // The same way as process is stopped by output listener
+      if (!comparator.addOutput(chunk)) break
+    }
+    assertTrue(comparator.isMismatchFound)
+    // Neither actual nor expected output is read further than the diff window after the mismatch
+    val mismatchOffset = (0 until mismatchLine).sumOf { "line $it\n".length }
+    assertTrue("$consumedChunks chunks of output are consumed",
+               actualReader.readChars <= mismatchOffset + GeneratedOutputReader.CHUNK_SIZE)
+    assertTrue("${expectedReader.readChars} chars of expected output are read",
+               expectedReader.readChars <= mismatchOffset + ExpectedOutputComparator.DEFAULT_WINDOW_SIZE + 2 * 8192)
+    val diff = comparator.finish() ?: error("Output mismatch is not found")
+    assertTrue(diff.expected, diff.expected.contains("line ${mismatchLine - 1}\nline $mismatchLine\n"))
+    assertTrue(diff.actual, diff.actual.contains("line ${mismatchLine - 1}\nwrong line\n"))
+  }
+
+  private fun doTest(
+    expected: String,
+    actualChunks: List<String>,
+    expectedDiff: CheckResultDiff?,
+    normalization: OutputNormalization = OutputNormalization.DEFAULT
+  ) {
+    val comparator = ExpectedOutputComparator(StringReader(expected), normalization)
+    for (chunk in actualChunks) {
+      comparator.addOutput(chunk)
+    }
+    assertEquals(expectedDiff, comparator.finish())
+  }
+
+  /**
+   * Generates output line by line without keeping it in memory
+   */
+  private class GeneratedOutputReader(private val lineCount: Int, private val line: (Int) -> String) : Reader() {
+    private var currentLine = 0
+    private var buffer = ""
+    private var offset = 0
+
+    var readChars: Long = 0
+      private set
+
+    override fun read(cbuf: CharArray, off: Int, len: Int): Int {
+      if (offset == buffer.length) {
+        if (currentLine == lineCount) return -1
+        buffer = (currentLine until minOf(currentLine + LINES_PER_CHUNK, lineCount)).joinToString("") { line(it) + "\n" }
+        currentLine = minOf(currentLine + LINES_PER_CHUNK, lineCount)
+        offset = 0
+      }
+      val length = minOf(len, buffer.length - offset)
+      buffer.toCharArray(cbuf, off, offset, offset + length)
+      offset += length
+      readChars += length
+      return length
+    }
+
+    fun chunks(): Sequence<String> = generateSequence {
+      val chunk = CharArray(CHUNK_SIZE)
+      val length = read(chunk)
+      if (length == -1) null else String(chunk, 0, length)
+    }
+
+    override fun close() {}
+
+    companion object {
+      private const val LINES_PER_CHUNK = 1000
+      const val CHUNK_SIZE = 4096
+    }
+  }
+
+  companion object {
+    // ~200 MB of output
+    private const val HUGE_OUTPUT_LINE_COUNT = 15_000_000
+  }
+}
@@ -0,0 +1,42 @@
+package com.jetbrains.edu.learning.checker
+
+import junit.framework.TestCase
+
+class LimitedOutputBufferTest : TestCase() {
+
+  fun `test output fitting into buffer`() {
+    val buffer = LimitedOutputBuffer(headLimit = 5, tailLimit = 5)
+    buffer.append("12345")
+    buffer.append("678")
+    assertFalse(buffer.isTruncated)
+    assertEquals("12345678", buffer.toString())
+  }
+
+  fun `test head and tail are kept`() {
+    val buffer = LimitedOutputBuffer(headLimit = 3, tailLimit = 4)
+    for (chunk in "0123456789abcdefghij".chunked(3)) {
+      buffer.append(chunk)
+    }
+    assertTrue(buffer.isTruncated)
+    assertEquals(20, buffer.totalLength)
+    assertEquals("012\n... 13 characters skipped ...\nghij", buffer.toString())
+  }
+
+  fun `test lines split between chunks`() {
+    val lines = mutableListOf<String>()
+    val splitter = OutputLineSplitter()
+    for (chunk in listOf("fir", "st\r", "\nsecond\n\nth", "ird\rfourth")) {
+      splitter.append(chunk) { lines += it }
+    }
+    splitter.flush { lines += it }
+    assertEquals(listOf("first", "second", "", "third", "fourth"), lines)
+  }
+
+  fun `test long line is split`() {
+    val lines = mutableListOf<String>()
+    val splitter = OutputLineSplitter(maxLineLength = 4)
+    splitter.append("0123456789\nab") { lines += it }
+    splitter.flush { lines += it }
+    assertEquals(listOf("0123", "4567", "89", "ab"), lines)
+  }
+}
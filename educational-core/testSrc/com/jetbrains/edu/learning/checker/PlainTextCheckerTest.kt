@@ -9,6 +9,7 @@ import com.jetbrains.edu.learning.courseFormat.ext.allTasks
 import com.jetbrains.edu.learning.courseFormat.ext.shouldBeEmpty
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
 import com.jetbrains.edu.learning.courseFormat.tasks.OutputTask
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
 import com.jetbrains.edu.learning.courseFormat.tasks.TheoryTask
 import com.jetbrains.edu.learning.document
 
@@ -120,6 +121,25 @@ class PlainTextCheckerTest : CheckersTestBase<Unit>() {
     assertEquals(EDU_TEST_FILE_TEXT, vTestFile.document.text)
   }
 
+  fun `test check phases are reported`() {
+    val phases = mutableListOf<CheckPhase>()
+    var checkTimings: Map<CheckPhase, Long>? = null
+    project.messageBus.connect(testRootDisposable).subscribe(CheckPhaseListener.TOPIC, object : CheckPhaseListener {
+      override fun phaseFinished(task: Task, phase: CheckPhase, durationMs: Long) {
+        phases += phase
+      }
+
+      override fun checkFinished(task: Task, timings: Map<CheckPhase, Long>) {
+        checkTimings = timings
+      }
+    })
+
+    checkTask(myCourse.allTasks.single { it.name == "OutputTask" })
+
+    assertEquals(listOf(CheckPhase.VALIDATE_ENVIRONMENT, CheckPhase.SNAPSHOT, CheckPhase.RUN, CheckPhase.EVALUATE), phases)
+    assertEquals(phases, checkTimings?.keys?.toList())
+  }
+
   companion object {
     private const val EDU_TEST_FILE_TEXT = "test file text"
   }
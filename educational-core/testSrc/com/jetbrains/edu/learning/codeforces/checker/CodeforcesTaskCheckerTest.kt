@@ -0,0 +1,41 @@
+package com.jetbrains.edu.learning.codeforces.checker
+
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.project.Project
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.checker.DefaultCodeExecutor
+import com.jetbrains.edu.learning.checker.EnvironmentChecker
+import com.jetbrains.edu.learning.codeforces.courseFormat.CodeforcesCourse
+import com.jetbrains.edu.learning.codeforces.courseFormat.CodeforcesTask
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+
+class CodeforcesTaskCheckerTest : EduTestCase() {
+
+  fun `test missing environment fails check`() {
+    courseWithFiles(courseProducer = ::CodeforcesCourse) {
+      lesson {
+        codeforcesTask {
+          taskFile("src/Foo.kt")
+          taskFile("testData/1/input.txt")
+          taskFile("testData/1/output.txt")
+        }
+      }
+    }
+    val task = findTask(0, 0) as CodeforcesTask
+    val envChecker = object : EnvironmentChecker() {
+      override fun checkEnvironment(project: Project, task: Task): CheckResult = CheckResult(CheckStatus.Unchecked, NO_SDK_MESSAGE)
+    }
+    val checker = CodeforcesTaskChecker(task, envChecker, project, DefaultCodeExecutor())
+
+    assertTrue(checker.validateEnvironment()?.message.orEmpty().startsWith(NO_SDK_MESSAGE))
+    val result = checker.check(EmptyProgressIndicator())
+    assertEquals(CheckStatus.Unchecked, result.status)
+    assertTrue(result.message, result.message.startsWith(NO_SDK_MESSAGE))
+  }
+
+  companion object {
+    private const val NO_SDK_MESSAGE = "No SDK"
+  }
+}
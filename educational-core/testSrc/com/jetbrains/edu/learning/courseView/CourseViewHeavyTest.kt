@@ -4,9 +4,11 @@ import com.intellij.ide.projectView.ProjectView
 import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.testFramework.PlatformTestUtil
 import com.jetbrains.edu.learning.course
+import com.jetbrains.edu.learning.courseDir
 import com.jetbrains.edu.learning.getContainingTask
 import com.jetbrains.edu.learning.navigation.NavigationUtils
 import com.jetbrains.edu.learning.projectView.CourseViewPane
+import com.jetbrains.edu.learning.projectView.CourseViewRefresher
 import javax.swing.JTree
 
 class CourseViewHeavyTest : CourseViewHeavyTestBase() {
@@ -54,6 +56,29 @@ class CourseViewHeavyTest : CourseViewHeavyTestBase() {
     assertEquals(CourseViewPane.ID, projectView.currentViewId)
   }
 
+  fun testRefreshUpdatesOnlyChangedDirectories() {
+    val projectView = createCourseAndChangeView()
+    assertEquals(CourseViewPane.ID, projectView.currentViewId)
+
+    val refresher = CourseViewRefresher.getInstance(project)
+    refresher.setPassThrough(false)
+    try {
+      val fullRefreshCount = refresher.getFullRefreshCount()
+      val updatedDirsCount = refresher.getUpdatedDirsCount()
+      val lessonDir = project.courseDir.findChild("lesson1") ?: error("Can't find lesson directory")
+      repeat(3) {
+        refresher.refresh(lessonDir)
+      }
+      refresher.flush()
+
+      assertEquals(fullRefreshCount, refresher.getFullRefreshCount())
+      assertEquals(updatedDirsCount + 1, refresher.getUpdatedDirsCount())
+    }
+    finally {
+      refresher.setPassThrough(true)
+    }
+  }
+
   private fun navigateToNextTask() {
     val sourceTask = FileEditorManager.getInstance(project).openFiles[0].getContainingTask(project) ?: error("No opened task")
     val targetTask = NavigationUtils.nextTask(sourceTask) ?: error("Can't navigate to task")
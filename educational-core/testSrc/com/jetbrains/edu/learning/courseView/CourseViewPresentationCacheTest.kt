@@ -0,0 +1,75 @@
+package com.jetbrains.edu.learning.courseView
+
+import com.intellij.ide.projectView.ViewSettings
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.projectView.CourseViewPresentationCache
+import com.jetbrains.edu.learning.projectView.RootNode
+
+class CourseViewPresentationCacheTest : CourseViewTestBase() {
+
+  fun `test progress is computed once`() {
+    createStudyCourse()
+    val cache = CourseViewPresentationCache.getInstance(project)
+    cache.invalidate()
+
+    val initialCount = cache.getRecomputationCount()
+    assertEquals(0 to 4, cache.getProgress(getCourse()))
+    // course, section and both lessons
+    assertEquals(initialCount + 4, cache.getRecomputationCount())
+
+    assertEquals(0 to 4, cache.getProgress(getCourse()))
+    assertFalse(cache.isSolved(getCourse().lessons[0]))
+    assertEquals(initialCount + 4, cache.getRecomputationCount())
+  }
+
+  fun `test only items containing task are recomputed after status change`() {
+    createStudyCourse()
+    val cache = CourseViewPresentationCache.getInstance(project)
+    cache.invalidate()
+    cache.getProgress(getCourse())
+
+    val initialCount = cache.getRecomputationCount()
+    val section = getCourse().sections[0]
+    val task = section.lessons[0].taskList[0]
+    task.status = CheckStatus.Solved
+    cache.taskStatusChanged(task)
+
+    assertEquals(1 to 4, cache.getProgress(getCourse()))
+    assertEquals(1 to 2, cache.getProgress(section))
+    // course, section and the lesson of the task
+    assertEquals(initialCount + 3, cache.getRecomputationCount())
+
+    section.lessons[0].taskList[1].status = CheckStatus.Solved
+    cache.taskStatusChanged(section.lessons[0].taskList[1])
+    assertTrue(cache.isSolved(section.lessons[0]))
+    assertTrue(cache.isSolved(section))
+    assertFalse(cache.isSolved(getCourse().lessons[0]))
+  }
+
+  fun `test cache is dropped on course view rebuild`() {
+    createStudyCourse()
+    val cache = CourseViewPresentationCache.getInstance(project)
+    val task = getCourse().lessons[0].taskList[0]
+    assertEquals(0 to 4, cache.getProgress(getCourse()))
+
+    // status is changed without notification
+    task.status = CheckStatus.Solved
+    RootNode(project, ViewSettings.DEFAULT).children
+    assertEquals(1 to 4, cache.getProgress(getCourse()))
+  }
+
+  private fun createStudyCourse() {
+    courseWithFiles("Edu test course") {
+      lesson {
+        eduTask { taskFile("taskFile1.txt") }
+        eduTask { taskFile("taskFile2.txt") }
+      }
+      section {
+        lesson {
+          eduTask { taskFile("taskFile1.txt") }
+          eduTask { taskFile("taskFile2.txt") }
+        }
+      }
+    }
+  }
+}
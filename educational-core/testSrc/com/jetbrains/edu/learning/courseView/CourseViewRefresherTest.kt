@@ -0,0 +1,73 @@
+package com.jetbrains.edu.learning.courseView
+
+import com.intellij.openapi.application.runWriteAction
+import com.jetbrains.edu.coursecreator.CCUtils
+import com.jetbrains.edu.coursecreator.CourseIgnoreRules
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.document
+import com.jetbrains.edu.learning.projectView.CourseViewRefresher
+
+class CourseViewRefresherTest : CourseViewTestBase() {
+
+  override fun setUp() {
+    super.setUp()
+    courseWithFiles(courseMode = CCUtils.COURSE_MODE) {
+      lesson("lesson1") {
+        eduTask {
+          taskFile("file1.txt")
+        }
+      }
+      additionalFile("IgnoredFile.txt")
+      additionalFile(EduNames.COURSE_IGNORE, "IgnoredFile.txt\n")
+    }
+  }
+
+  fun `test refresh requests are merged`() {
+    val refresher = CourseViewRefresher.getInstance(project)
+    refresher.setPassThrough(false)
+    try {
+      val fullRefreshCount = refresher.getFullRefreshCount()
+      val lessonDir = findFile("lesson1")
+      repeat(10) {
+        refresher.courseIgnoreChanged()
+        refresher.refresh(lessonDir)
+      }
+      assertEquals(fullRefreshCount, refresher.getFullRefreshCount())
+
+      refresher.flush()
+      // Course view isn't the current pane in tests, so all requests end up with a single refresh of the whole view
+      assertEquals(fullRefreshCount + 1, refresher.getFullRefreshCount())
+    }
+    finally {
+      refresher.setPassThrough(true)
+    }
+  }
+
+  fun `test course ignore rules are parsed once per change`() {
+    val rules = CourseIgnoreRules.load(project)
+    assertEquals(setOf("IgnoredFile.txt"), rules.excludedPaths)
+    assertSame(rules, CourseIgnoreRules.load(project))
+
+    val document = findFile(EduNames.COURSE_IGNORE).document
+    runWriteAction { document.setText("IgnoredFile.txt\nlesson1/task1/file1.txt\n") }
+
+    val newRules = CourseIgnoreRules.load(project)
+    assertNotSame(rules, newRules)
+    assertTrue(newRules.isExcluded("lesson1/task1/file1.txt"))
+  }
+
+  fun `test excluded file is shown after course ignore change`() {
+    val document = findFile(EduNames.COURSE_IGNORE).document
+    runWriteAction { document.setText("") }
+    assertCourseView("""
+      |-Project
+      | -CCCourseNode Test Course (Course Creation)
+      |  -CCLessonNode lesson1
+      |   -CCTaskNode task1
+      |    file1.txt
+      |    CCStudentInvisibleFileNode task.html
+      |  CCStudentInvisibleFileNode .courseignore (excluded)
+      |  CCStudentInvisibleFileNode IgnoredFile.txt
+    """.trimMargin("|"))
+  }
+}
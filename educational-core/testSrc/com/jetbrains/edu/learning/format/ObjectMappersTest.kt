@@ -0,0 +1,34 @@
+package com.jetbrains.edu.learning.format
+
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.getCourseMapper
+import com.jetbrains.edu.learning.readCourseJson
+import com.jetbrains.edu.learning.stepik.api.StepikConnector
+import java.io.File
+
+class ObjectMappersTest : EduTestCase() {
+
+  fun `test course mappers are shared per configuration`() {
+    assertSame(getCourseMapper(isEncrypted = false), getCourseMapper(isEncrypted = false))
+    assertSame(getCourseMapper(isEncrypted = true, isMarketplace = true), getCourseMapper(isEncrypted = true, isMarketplace = true))
+    assertNotSame(getCourseMapper(isEncrypted = false), getCourseMapper(isEncrypted = true))
+    assertNotSame(getCourseMapper(isEncrypted = false), getCourseMapper(isEncrypted = false, isMarketplace = true))
+  }
+
+  fun `test stepik default mapper is shared`() {
+    assertSame(StepikConnector.DEFAULT_MAPPER, StepikConnector.DEFAULT_MAPPER)
+    assertNotSame(StepikConnector.DEFAULT_MAPPER, StepikConnector.getInstance().objectMapper)
+  }
+
+  fun `test course is read the same way with shared mapper`() {
+    val json = File("$testDataPath/courseWithSection.json").readText()
+    val course = readCourseJson(json, isEncrypted = false, isMarketplace = false) ?: error("Failed to read course")
+    val sameCourse = readCourseJson(json, isEncrypted = false, isMarketplace = false) ?: error("Failed to read course")
+
+    assertNotSame(course, sameCourse)
+    assertEquals(course.name, sameCourse.name)
+    assertEquals(course.items.map { it.name }, sameCourse.items.map { it.name })
+  }
+
+  override fun getTestDataPath(): String = "${super.getTestDataPath()}/format/"
+}
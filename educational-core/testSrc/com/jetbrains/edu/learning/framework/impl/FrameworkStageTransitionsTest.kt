@@ -0,0 +1,140 @@
+package com.jetbrains.edu.learning.framework.impl
+
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.actions.NextTaskAction
+import com.jetbrains.edu.learning.actions.PreviousTaskAction
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.courseFormat.FrameworkLesson
+import com.jetbrains.edu.learning.document
+import com.jetbrains.edu.learning.fileTree
+import com.jetbrains.edu.learning.framework.FrameworkLessonManager
+
+class FrameworkStageTransitionsTest : EduTestCase() {
+
+  fun `test precomputed transition is applied`() {
+    val course = createFrameworkCourse()
+    val lesson = course.lessons.single() as FrameworkLesson
+    val manager = FrameworkLessonManager.getInstance(project) as FrameworkLessonManagerImpl
+
+    withVirtualFileListener(course) {
+      course.findTask("lesson1", "task1").openTaskFileInEditor("src/File0.kt")
+      myFixture.type("fun bar() {}\n")
+      myFixture.testAction(NextTaskAction())
+
+      manager.precomputeTransitions(lesson)
+      val computedTransitions = manager.stageTransitions.getComputedTransitionsCount()
+
+      course.findTask("lesson1", "task2").openTaskFileInEditor("src/File0.kt")
+      myFixture.testAction(PreviousTaskAction())
+      // the transition wasn't computed during navigation
+      assertEquals(computedTransitions, manager.stageTransitions.getComputedTransitionsCount())
+    }
+
+    val fileTree = fileTree {
+      dir("lesson1") {
+        dir("task") {
+          dir("src") {
+            file("File0.kt", "fun bar() {}\nfun file0() = 1")
+            for (i in 1 until FILES_COUNT) {
+              file("File$i.kt", "fun file$i() = 1")
+            }
+          }
+        }
+        dir("task1") {
+          file("task.html")
+        }
+        dir("task2") {
+          file("task.html")
+        }
+      }
+    }
+    fileTree.assertEquals(rootDir, myFixture)
+  }
+
+  fun `test precomputed transition isn't applied after current stage is changed`() {
+    val course = createFrameworkCourse()
+    val lesson = course.lessons.single() as FrameworkLesson
+    val manager = FrameworkLessonManager.getInstance(project) as FrameworkLessonManagerImpl
+
+    withVirtualFileListener(course) {
+      course.findTask("lesson1", "task1").openTaskFileInEditor("src/File0.kt")
+      myFixture.testAction(NextTaskAction())
+
+      manager.precomputeTransitions(lesson)
+      val computedTransitions = manager.stageTransitions.getComputedTransitionsCount()
+
+      course.findTask("lesson1", "task2").openTaskFileInEditor("src/File0.kt")
+      myFixture.type("fun bar() {}\n")
+      myFixture.testAction(PreviousTaskAction())
+      assertEquals(computedTransitions + 1, manager.stageTransitions.getComputedTransitionsCount())
+    }
+
+    val text = findFile("lesson1/task/src/File0.kt").document.text
+    assertEquals("fun file0() = 1", text)
+  }
+
+  fun `test precomputed transition isn't applied after external changes of target stage`() {
+    val course = createFrameworkCourse()
+    val lesson = course.lessons.single() as FrameworkLesson
+    val manager = FrameworkLessonManager.getInstance(project) as FrameworkLessonManagerImpl
+
+    withVirtualFileListener(course) {
+      val task1 = course.findTask("lesson1", "task1")
+      task1.openTaskFileInEditor("src/File0.kt")
+      myFixture.type("fun bar() {}\n")
+      myFixture.testAction(NextTaskAction())
+
+      manager.precomputeTransitions(lesson)
+      // e.g. a submission loaded by solution loader
+      val externalState = task1.taskFiles.mapValues { it.value.text } + ("src/File0.kt" to "fun solution() {}")
+      manager.saveExternalChanges(task1, externalState)
+
+      course.findTask("lesson1", "task2").openTaskFileInEditor("src/File0.kt")
+      myFixture.testAction(PreviousTaskAction())
+    }
+
+    val text = findFile("lesson1/task/src/File0.kt").document.text
+    assertEquals("fun solution() {}", text)
+  }
+
+  fun `test state of stage is recomputed after changes are saved`() {
+    val course = createFrameworkCourse()
+    val manager = FrameworkLessonManager.getInstance(project) as FrameworkLessonManagerImpl
+
+    withVirtualFileListener(course) {
+      val task1 = course.findTask("lesson1", "task1")
+      task1.openTaskFileInEditor("src/File0.kt")
+      myFixture.type("fun bar() {}\n")
+      myFixture.testAction(NextTaskAction())
+      myFixture.testAction(PreviousTaskAction())
+
+      task1.openTaskFileInEditor("src/File0.kt")
+      myFixture.type("fun baz() {}\n")
+      myFixture.testAction(NextTaskAction())
+      myFixture.testAction(PreviousTaskAction())
+    }
+
+    val text = findFile("lesson1/task/src/File0.kt").document.text
+    assertTrue(text, "fun bar() {}" in text && "fun baz() {}" in text)
+    assertTrue(manager.stageTransitions.getComputedTransitionsCount() > 0)
+  }
+
+  private fun createFrameworkCourse(): Course = courseWithFiles {
+    frameworkLesson {
+      eduTask {
+        for (i in 0 until FILES_COUNT) {
+          taskFile("src/File$i.kt", "fun file$i() = 1")
+        }
+      }
+      eduTask {
+        for (i in 0 until FILES_COUNT) {
+          taskFile("src/File$i.kt", "fun file$i() = 2")
+        }
+      }
+    }
+  }
+
+  companion object {
+    private const val FILES_COUNT = 50
+  }
+}
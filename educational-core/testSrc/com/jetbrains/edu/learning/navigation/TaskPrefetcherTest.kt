@@ -0,0 +1,129 @@
+package com.jetbrains.edu.learning.navigation
+
+import com.intellij.openapi.application.runWriteAction
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.StudyTaskManager
+import com.jetbrains.edu.learning.courseFormat.ext.getDescriptionFile
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.document
+import com.jetbrains.edu.learning.taskDescription.ui.EduCodeHighlighter
+import com.jetbrains.edu.learning.taskDescription.ui.TaskDescriptionToolWindow
+import com.jetbrains.edu.learning.withRegistryKeyOff
+import kotlin.system.measureNanoTime
+
+class TaskPrefetcherTest : EduTestCase() {
+
+  private val prefetcher: TaskPrefetcher get() = TaskPrefetcher.getInstance(project)
+  private val highlighter: EduCodeHighlighter get() = EduCodeHighlighter.getInstance(project)
+
+  fun `test navigation latency with and without prefetching`() {
+    createCourse("fun first() {}", "fun second() {}", "fun third() {}")
+    val task1 = findTask(0, 0)
+    val task2 = findTask(0, 1)
+    val task3 = findTask(0, 2)
+
+    val servedDescriptions = prefetcher.getServedDescriptionsCount()
+    val timeWithoutPrefetching = withRegistryKeyOff(TaskPrefetcher.REGISTRY_KEY) {
+      prefetcher.prefetch(task1)
+      measureNavigation(task1, task2)
+    }
+    assertEquals(servedDescriptions, prefetcher.getServedDescriptionsCount())
+
+    prefetcher.prefetch(task2)
+    val highlightedFragments = highlighter.getHighlightedFragmentsCount()
+    val timeWithPrefetching = measureNavigation(task2, task3)
+
+    // Description of the next task is served from prefetched ones without rendering and code highlighting
+    assertEquals(servedDescriptions + 1, prefetcher.getServedDescriptionsCount())
+    assertEquals(highlightedFragments, highlighter.getHighlightedFragmentsCount())
+    assertTrue("Description was got in ${timeWithPrefetching / 1000} µs with prefetching " +
+               "and in ${timeWithoutPrefetching / 1000} µs without it", timeWithPrefetching < timeWithoutPrefetching)
+  }
+
+  fun `test prefetched description is the same as rendered one`() {
+    createCourse("fun first() {}", "fun second() {}")
+    val task2 = findTask(0, 1)
+    val renderedText = withRegistryKeyOff(TaskPrefetcher.REGISTRY_KEY) {
+      TaskDescriptionToolWindow.getTaskDescriptionWithCodeHighlighting(project, task2)
+    }
+
+    val prefetchedDescriptions = prefetcher.getPrefetchedDescriptionsCount()
+    prefetcher.prefetch(findTask(0, 0))
+    assertEquals(prefetchedDescriptions + 1, prefetcher.getPrefetchedDescriptionsCount())
+    assertEquals(renderedText, TaskDescriptionToolWindow.getTaskDescriptionWithCodeHighlighting(project, task2))
+  }
+
+  fun `test prefetched description is not used after its text is changed`() {
+    createCourse("fun first() {}", "fun second() {}")
+    val task2 = findTask(0, 1)
+    prefetcher.prefetch(findTask(0, 0))
+
+    val newDescription = "<p>New description</p>"
+    val descriptionFile = task2.getDescriptionFile(project)
+    if (descriptionFile != null) {
+      val document = descriptionFile.document
+      runWriteAction { document.setText(newDescription) }
+    }
+    task2.descriptionText = newDescription
+
+    val servedDescriptions = prefetcher.getServedDescriptionsCount()
+    val text = TaskDescriptionToolWindow.getTaskDescriptionWithCodeHighlighting(project, task2)
+    assertTrue(text.contains("New description"))
+    assertEquals(servedDescriptions, prefetcher.getServedDescriptionsCount())
+  }
+
+  fun `test prefetched descriptions fit memory budget`() {
+    val hugeText = "a".repeat((TaskPrefetcher.MEMORY_BUDGET / 4).toInt())
+    courseWithFiles {
+      lesson("lesson1") {
+        eduTask("task1", "<p>First</p>") {
+          taskFile("Task.txt")
+        }
+        eduTask("task2", "<p>$hugeText</p>") {
+          taskFile("Task.txt")
+        }
+      }
+    }
+
+    val prefetchedDescriptions = prefetcher.getPrefetchedDescriptionsCount()
+    prefetcher.prefetch(findTask(0, 0))
+    assertEquals(prefetchedDescriptions + 1, prefetcher.getPrefetchedDescriptionsCount())
+    assertTrue(prefetcher.getDescriptionsSize() <= TaskPrefetcher.MEMORY_BUDGET)
+
+    val servedDescriptions = prefetcher.getServedDescriptionsCount()
+    TaskDescriptionToolWindow.getTaskDescriptionWithCodeHighlighting(project, findTask(0, 1))
+    assertEquals(servedDescriptions, prefetcher.getServedDescriptionsCount())
+  }
+
+  fun `test prefetched descriptions are dropped when course is changed`() {
+    createCourse("fun first() {}", "fun second() {}")
+    prefetcher.prefetch(findTask(0, 0))
+    assertTrue(prefetcher.getDescriptionsSize() > 0)
+
+    StudyTaskManager.getInstance(project).course = getCourse()
+    assertEquals(0, prefetcher.getDescriptionsSize())
+  }
+
+  /**
+   * Navigates from [fromTask] to [toTask] and returns time in nanoseconds spent on getting description of [toTask].
+   * Navigation itself doesn't depend on prefetched descriptions, so it isn't measured not to hide the difference
+   */
+  private fun measureNavigation(fromTask: Task, toTask: Task): Long {
+    NavigationUtils.navigateToTask(project, toTask, fromTask)
+    return measureNanoTime {
+      TaskDescriptionToolWindow.getTaskDescriptionWithCodeHighlighting(project, toTask)
+    }
+  }
+
+  private fun createCourse(vararg codeSamples: String) {
+    courseWithFiles {
+      lesson("lesson1") {
+        for ((index, code) in codeSamples.withIndex()) {
+          eduTask("task${index + 1}", "<p>Task ${index + 1}</p><pre><code>$code</code></pre>") {
+            taskFile("Task.txt")
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.jetbrains.edu.learning.newproject.ui.filters
+
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.Course
+import com.jetbrains.edu.learning.newproject.ui.coursePanel.groups.CoursesGroup
+
+class CoursesSearchIndexTest : EduTestCase() {
+
+  fun `test search by name`() {
+    val index = CoursesSearchIndex(createGroups())
+    assertEquals(listOf("Kotlin Koans"), index.search("koans").courseNames())
+  }
+
+  fun `test search by author`() {
+    val index = CoursesSearchIndex(createGroups())
+    assertEquals(listOf("Python Basics"), index.search("JetBrains").courseNames())
+  }
+
+  fun `test search by human language tag`() {
+    val index = CoursesSearchIndex(createGroups())
+    assertEquals(listOf("Java Intro"), index.search("language:german").courseNames())
+    assertEmpty(index.search("programming_language:german").courseNames())
+  }
+
+  fun `test any word is enough to match`() {
+    val index = CoursesSearchIndex(createGroups())
+    assertEquals(listOf("Kotlin Koans", "Java Intro"), index.search("koans  java").courseNames())
+  }
+
+  fun `test empty query matches all courses`() {
+    val index = CoursesSearchIndex(createGroups())
+    assertEquals(3, index.search(" ").courseNames().size)
+  }
+
+  fun `test groups are kept`() {
+    val index = CoursesSearchIndex(createGroups())
+    val groups = index.search("intro")
+    assertEquals(listOf("Featured", "Other"), groups.map { it.name })
+    assertEmpty(groups[0].courses)
+  }
+
+  fun `test refined query checks only previous result`() {
+    val courses = (0 until COURSES_COUNT).map { course("Course $it") } + course("Kotlin Koans")
+    val index = CoursesSearchIndex(listOf(CoursesGroup(courses)))
+
+    assertEquals(listOf("Kotlin Koans"), index.search("ko").courseNames())
+    val checkedEntries = index.getCheckedEntriesCount()
+    assertEquals(COURSES_COUNT + 1, checkedEntries)
+
+    assertEquals(listOf("Kotlin Koans"), index.search("kotl").courseNames())
+    assertEquals(checkedEntries + 1, index.getCheckedEntriesCount())
+
+    // Removing a character broadens the query, so all courses are checked again
+    index.search("kot")
+    assertEquals(checkedEntries + 1 + COURSES_COUNT + 1, index.getCheckedEntriesCount())
+  }
+
+  fun `test index is rebuilt for new courses`() {
+    val groups = createGroups()
+    val index = CoursesSearchIndex(groups)
+    assertTrue(index.isBuiltFor(groups))
+    assertFalse(index.isBuiltFor(groups + CoursesGroup("New", listOf(course("New course")))))
+  }
+
+  private fun createGroups(): List<CoursesGroup> = listOf(
+    CoursesGroup("Featured", listOf(course("Kotlin Koans"), course("Python Basics", organization = "JetBrains"))),
+    CoursesGroup("Other", listOf(course("Java Intro", languageCode = "de")))
+  )
+
+  private fun course(name: String, organization: String? = null, languageCode: String = "en"): Course = Course().apply {
+    this.name = name
+    this.organization = organization
+    this.languageCode = languageCode
+  }
+
+  private fun List<CoursesGroup>.courseNames(): List<String> = flatMap { group -> group.courses.map { it.name } }
+
+  companion object {
+    private const val COURSES_COUNT = 5000
+  }
+}
@@ -0,0 +1,89 @@
+package com.jetbrains.edu.learning.placeholderDependencies
+
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.courseFormat.AnswerPlaceholderDependency
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+
+class PlaceholderDependencyGraphTest : EduTestCase() {
+
+  fun `test resolved placeholders are cached`() {
+    createCourse()
+    val task = getCourse().lessons[1].taskList[0]
+    val graph = PlaceholderDependencyGraph.getInstance(project)
+
+    val target = graph.getDependencies(task).single().target
+    assertSame(findPlaceholder(0, 0, "Task.kt", 0), target)
+    assertSame(target, graph.getDependencies(task).single().target)
+  }
+
+  fun `test stale dependency`() {
+    createCourse()
+    val targetTask = getCourse().lessons[0].taskList[0]
+    val task = getCourse().lessons[1].taskList[0]
+    val graph = PlaceholderDependencyGraph.getInstance(project)
+    assertNotNull(graph.getDependencies(task).single().target)
+
+    targetTask.name = "renamed"
+    assertNull(graph.getDependencies(task).single().target)
+    assertEmpty(graph.getUnsolvedTaskDependencies(task))
+
+    targetTask.name = "task1"
+    assertSame(findPlaceholder(0, 0, "Task.kt", 0), graph.getDependencies(task).single().target)
+    assertEquals(listOf(targetTask), graph.getUnsolvedTaskDependencies(task))
+  }
+
+  fun `test new dependency`() {
+    createCourse()
+    val task = getCourse().lessons[1].taskList[0]
+    val graph = PlaceholderDependencyGraph.getInstance(project)
+    assertEquals(1, graph.getDependencies(task).size)
+
+    val placeholder = findPlaceholder(1, 0, "Task.kt", 0)
+    placeholder.placeholderDependency = AnswerPlaceholderDependency(placeholder, null, "lesson1", "task1", "Task.kt", 0, true)
+    assertSame(findPlaceholder(0, 0, "Task.kt", 0), graph.getDependencies(task).first().target)
+    assertEquals(2, graph.getDependencies(task).size)
+  }
+
+  fun `test dependency cycle`() {
+    createCourse()
+    val firstTask = getCourse().lessons[0].taskList[0]
+    val secondTask = getCourse().lessons[1].taskList[0]
+    val graph = PlaceholderDependencyGraph.getInstance(project)
+    assertFalse(graph.isInCycle(firstTask))
+    assertFalse(graph.isInCycle(secondTask))
+
+    // Such dependency can't be created via UI but can be written in config files
+    val placeholder = findPlaceholder(0, 0, "Task.kt", 0)
+    placeholder.placeholderDependency = AnswerPlaceholderDependency(placeholder, null, "lesson2", "task1", "Task.kt", 1, true)
+
+    assertTrue(graph.isInCycle(firstTask))
+    assertTrue(graph.isInCycle(secondTask))
+
+    firstTask.status = CheckStatus.Solved
+    PlaceholderDependencyManager.updateDependentPlaceholders(project, secondTask)
+    assertFalse(findPlaceholder(1, 0, "Task.kt", 1).isInitializedFromDependency)
+  }
+
+  private fun createCourse() {
+    courseWithFiles {
+      lesson {
+        eduTask {
+          taskFile("Task.kt", """
+          |def f():
+          |  <p>print(1)</p>
+        """.trimMargin("|"))
+        }
+      }
+      lesson {
+        eduTask {
+          taskFile("Task.kt", """
+          |def <p>foo</p>():
+          |  <p>type here</p>
+          """.trimMargin("|")) {
+            placeholder(1, dependency = "lesson1#task1#Task.kt#1")
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.jetbrains.edu.learning.stepik
+
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.MockResponseFactory
+import com.jetbrains.edu.learning.courseFormat.EduCourse
+import com.jetbrains.edu.learning.stepik.api.MockStepikConnector
+import com.jetbrains.edu.learning.stepik.api.StepikConnector
+import java.text.SimpleDateFormat
+import java.util.*
+
+class StepikCourseManifestTest : EduTestCase() {
+
+  private val mockConnector: MockStepikConnector get() = StepikConnector.getInstance() as MockStepikConnector
+
+  private var responseBytes = 0L
+  private var stepRequests = 0
+
+  fun `test up to date course is checked without step sources`() {
+    configureResponses(lessonUpdateDate = "2020-03-31T10:27:21Z")
+    val course = createCourse()
+
+    val comparison = StepikCourseManifest.load(courseInfo()).compare(course)
+
+    assertTrue(comparison.isUpToDate)
+    assertEmpty(comparison.outdatedTasks)
+    assertEquals(0, stepRequests)
+    assertTrue("Manifest took $responseBytes bytes", responseBytes < MAX_MANIFEST_SIZE)
+  }
+
+  fun `test step sources are loaded only for changed lesson`() {
+    configureResponses(lessonUpdateDate = "2020-04-10T10:27:21Z")
+    val course = createCourse()
+
+    val comparison = StepikCourseManifest.load(courseInfo()).compare(course)
+
+    assertFalse(comparison.isUpToDate)
+    assertEquals(listOf(2), comparison.outdatedTasks.map { it.id })
+    assertEquals(1, stepRequests)
+  }
+
+  fun `test lesson added to section without update date`() {
+    val newLessonId = LESSON_ID + 1
+    respond(SECTIONS_REQUEST_RE, """
+      {"sections": [{"id": $SECTION_ID, "course": 1, "units": [$UNIT_ID, ${UNIT_ID + 1}], "title": "section1", "update_date": "2020-03-31T10:27:21Z"}]}
+    """)
+    respond(UNITS_REQUEST_RE, """
+      {"units": [
+        {"id": $UNIT_ID, "section": $SECTION_ID, "lesson": $LESSON_ID, "update_date": "2020-03-31T10:27:21Z"},
+        {"id": ${UNIT_ID + 1}, "section": $SECTION_ID, "lesson": $newLessonId, "update_date": "2020-03-31T10:27:21Z"}
+      ]}
+    """)
+    respond(LESSONS_REQUEST_RE, """
+      {"lessons": [
+        {"id": $LESSON_ID, "steps": [1], "title": "lesson1", "update_date": "2020-03-31T10:27:21Z"},
+        {"id": $newLessonId, "steps": [2], "title": "lesson2", "update_date": "2020-03-31T10:27:21Z"}
+      ]}
+    """)
+    respond(STEPS_REQUEST_RE, """{"steps": []}""") { stepRequests++ }
+
+    val course = courseWithFiles(id = 1) {
+      section("section1") {
+        lesson("lesson1") {
+          eduTask("task1", stepId = 1) {
+            taskFile("Task.txt")
+          }
+        }
+      }
+    }.asEduCourse()
+    val section = course.sections.single()
+    section.id = SECTION_ID
+    section.updateDate = null
+    val lesson = section.lessons.single()
+    lesson.id = LESSON_ID
+    lesson.updateDate = parseDate("2020-03-31T10:27:21Z")
+
+    val comparison = StepikCourseManifest.load(courseInfo()).compare(course)
+
+    assertFalse(comparison.isUpToDate)
+    assertEmpty(comparison.outdatedTasks)
+    assertEquals(0, stepRequests)
+  }
+
+  private fun createCourse(): EduCourse {
+    val course = courseWithFiles(id = 1) {
+      lesson("lesson1") {
+        eduTask("task1", stepId = 1) {
+          taskFile("Task.txt")
+        }
+        eduTask("task2", stepId = 2) {
+          taskFile("Task.txt")
+        }
+      }
+    }.asEduCourse()
+    val lesson = course.lessons.single()
+    lesson.id = LESSON_ID
+    lesson.updateDate = parseDate("2020-03-31T10:27:21Z")
+    lesson.taskList.forEach { it.updateDate = parseDate("2020-03-31T10:27:21Z") }
+    return course
+  }
+
+  private fun courseInfo(): EduCourse = EduCourse().apply {
+    id = 1
+    name = COURSE_NAME
+    sectionIds = listOf(SECTION_ID)
+  }
+
+  private fun configureResponses(lessonUpdateDate: String) {
+    respond(SECTIONS_REQUEST_RE, """
+      {"sections": [{"id": $SECTION_ID, "course": 1, "units": [$UNIT_ID], "title": "$COURSE_NAME", "update_date": "2020-03-31T10:27:21Z"}]}
+    """)
+    respond(UNITS_REQUEST_RE, """
+      {"units": [{"id": $UNIT_ID, "section": $SECTION_ID, "lesson": $LESSON_ID, "update_date": "2020-03-31T10:27:21Z"}]}
+    """)
+    respond(LESSONS_REQUEST_RE, """
+      {"lessons": [{"id": $LESSON_ID, "steps": [1, 2], "title": "lesson1", "update_date": "$lessonUpdateDate"}]}
+    """)
+    respond(STEPS_REQUEST_RE, """
+      {"steps": [
+        {"id": 1, "lesson": $LESSON_ID, "update_date": "2020-03-31T10:27:21Z"},
+        {"id": 2, "lesson": $LESSON_ID, "update_date": "$lessonUpdateDate"}
+      ]}
+    """) { stepRequests++ }
+  }
+
+  private fun respond(pathRegex: Regex, body: String, onRequest: () -> Unit = {}) {
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      pathRegex.matchEntire(request.path) ?: return@withResponseHandler null
+      onRequest()
+      val response = body.trimIndent()
+      responseBytes += response.toByteArray().size
+      MockResponseFactory.fromString(response)
+    }
+  }
+
+  private fun parseDate(date: String): Date {
+    return SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'").apply { timeZone = TimeZone.getTimeZone("UTC") }.parse(date)
+  }
+
+  companion object {
+    private const val COURSE_NAME = "Test course"
+    private const val SECTION_ID = 2
+    private const val UNIT_ID = 3
+    private const val LESSON_ID = 403997
+
+    // Manifest of a small course should take hundreds of bytes
+    private const val MAX_MANIFEST_SIZE = 2048
+
+    private val SECTIONS_REQUEST_RE = """/api/sections?.*""".toRegex()
+    private val UNITS_REQUEST_RE = """/api/units?.*""".toRegex()
+    private val LESSONS_REQUEST_RE = """/api/lessons?.*""".toRegex()
+    private val STEPS_REQUEST_RE = """/api/steps?.*""".toRegex()
+  }
+}
@@ -4,8 +4,10 @@ import com.jetbrains.edu.learning.EduNames
 import com.jetbrains.edu.learning.EduSettings
 import com.jetbrains.edu.learning.configurators.FakeGradleBasedLanguage
 import com.jetbrains.edu.learning.courseFormat.EduCourse
+import com.jetbrains.edu.learning.projectView.CourseViewPresentationCache
 import com.jetbrains.edu.learning.stepik.api.MockStepikConnector
 import com.jetbrains.edu.learning.stepik.api.StepikConnector
+import com.jetbrains.edu.learning.stepik.submissions.SubmissionsManager
 import org.apache.http.HttpStatus
 
 class StepikSubmissionsTest : SubmissionsTestBase() {
@@ -60,6 +62,16 @@ class StepikSubmissionsTest : SubmissionsTestBase() {
     doTestSubmissionsLoaded(setOf(1, 2), mapOf(1 to 2, 2 to 1))
   }
 
+  fun `test course view progress is updated after submissions loaded`() {
+    configureResponse(mapOf(2 to "submissions_response_2.json"))
+    val cache = CourseViewPresentationCache.getInstance(project)
+    val lesson = getCourse().lessons[0]
+    assertEquals(0 to 2, cache.getProgress(lesson))
+
+    SubmissionsManager.getInstance(project).prepareSubmissionsContent()
+    assertEquals(1 to 2, cache.getProgress(lesson))
+  }
+
   fun `test submission added after edu task check`() {
     mockConnector.withResponseHandler(testRootDisposable) { request ->
       ATTEMPTS_REQUEST_RE.matchEntire(request.path) ?: return@withResponseHandler null
@@ -8,6 +8,7 @@ import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillConnector
 import com.jetbrains.edu.learning.stepik.hyperskill.api.MockHyperskillConnector
 import okhttp3.mockwebserver.MockResponse
 import java.net.HttpURLConnection.*
+import java.util.*
 
 class HyperskillHttpErrorsTest : EduTestCase() {
   private val mockConnector: MockHyperskillConnector get() = HyperskillConnector.getInstance() as MockHyperskillConnector
@@ -17,6 +18,20 @@ class HyperskillHttpErrorsTest : EduTestCase() {
   fun `test unexpected error occurred`() = doTest(HTTP_BAD_REQUEST, EduCoreBundle.message("error.unexpected.error", ""))
   fun `test forbidden`() = doTest(HTTP_FORBIDDEN, EduCoreBundle.message("error.access.denied"))
 
+  fun `test not modified response to conditional request`() {
+    var ifModifiedSince: String? = null
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      ifModifiedSince = request.getHeader("If-Modified-Since")
+      MockResponse().setResponseCode(HTTP_NOT_MODIFIED)
+    }
+    val course = defaultHyperskillCourse()
+    val lesson = course.lessons.single()
+
+    val tasks = mockConnector.getProblemsModifiedSince(course, lesson, lesson.taskList.map { it.id }, Date(0))
+    assertEmpty(tasks)
+    assertEquals("Thu, 1 Jan 1970 00:00:00 GMT", ifModifiedSince)
+  }
+
   private fun doTest(code: Int, expectedError: String) {
     mockConnector.withResponseHandler(testRootDisposable) { MockResponse().setResponseCode(code) }
     val response = mockConnector.postSubmission(Submission())
@@ -8,6 +8,10 @@ import com.jetbrains.edu.learning.EduTestCase
 import com.jetbrains.edu.learning.stepik.StepikNames
 import com.jetbrains.edu.learning.stepik.api.MockStepikConnector
 import com.jetbrains.edu.learning.stepik.api.StepikConnector
+import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillConnector
+import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillProject
+import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillStage
+import com.jetbrains.edu.learning.stepik.hyperskill.api.MockHyperskillConnector
 import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
 import java.io.File
 
@@ -51,5 +55,30 @@ class HyperskillLessonTest : EduTestCase() {
     assertEquals("additional file text", additionalFiles[0].text)
   }
 
+  fun `test loading project lesson with course additional files`() {
+    val stepId = 9455
+    val hyperskillConnector = HyperskillConnector.getInstance() as MockHyperskillConnector
+    hyperskillConnector.withResponseHandler(testRootDisposable) { request ->
+      val responseFileName = if (request.path.startsWith("/api/steps")) "step_${stepId}_response.json" else "response_empty.json"
+      mockResponse(responseFileName)
+    }
+
+    val courseAttachmentLink = "${StepikNames.getStepikUrl()}/media/attachments/course/1/${StepikNames.ADDITIONAL_INFO}"
+    val stepikConnector = StepikConnector.getInstance() as MockStepikConnector
+    stepikConnector.withAttachments(mapOf(courseAttachmentLink to FileUtil.loadFile(File(getTestFile("attachments.json")))))
+
+    val course = HyperskillCourse().apply {
+      hyperskillProject = HyperskillProject()
+      stages = listOf(HyperskillStage(1, testStageName(1), stepId))
+    }
+    val lesson = HyperskillConnector.getInstance().getLesson(course, courseAttachmentLink)
+
+    assertEquals(listOf(stepId), lesson.taskList.map { it.id })
+    val additionalFiles = course.additionalFiles
+    assertEquals(1, additionalFiles.size)
+    assertEquals("build.gradle", additionalFiles[0].name)
+    assertEquals("additional file text", additionalFiles[0].text)
+  }
+
   override fun getTestDataPath(): String = super.getTestDataPath() + "/stepik/hyperskill/"
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import com.jetbrains.edu.learning.newproject.CourseProjectGenerator
 import com.jetbrains.edu.learning.stepik.hyperskill.api.*
 import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
 import com.jetbrains.edu.learning.withEduTestDialog
+import java.util.concurrent.TimeUnit
 
 class HyperskillLoadingTest : NavigationTestBase() {
   override fun setUp() {
@@ -436,6 +437,59 @@ class HyperskillLoadingTest : NavigationTestBase() {
     assertEquals(3, course.taskToTopics[0]?.size)
   }
 
+  fun `test stages without topics are cached`() {
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      if (TOPICS_REQUEST_RE.matches(request.path)) mockResponse("response_empty.json") else null
+    }
+    val course = createHyperskillCourse()
+    mockConnector.fillTopics(course, project)
+
+    for (taskIndex in course.stages.indices) {
+      assertEquals(emptyList<HyperskillTopic>(), course.taskToTopics[taskIndex])
+    }
+  }
+
+  fun `test topics of all stages are loaded in one round-trip`() {
+    val responseDelay = 500L
+    val items = mapOf(1 to "topics_response_1.json", 2 to "topics_response_2.json")
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      val result = TOPICS_REQUEST_RE.matchEntire(request.path) ?: return@withResponseHandler null
+      val page = result.groupValues[1].toInt()
+      mockResponse(items.getValue(page)).setBodyDelay(responseDelay, TimeUnit.MILLISECONDS)
+    }
+    val course = createHyperskillCourse()
+    val start = System.currentTimeMillis()
+    mockConnector.fillTopics(course, project)
+    val loadingTime = System.currentTimeMillis() - start
+
+    for (taskIndex in course.stages.indices) {
+      assertEquals(3, course.taskToTopics[taskIndex]?.size)
+    }
+    // Topics of each stage take two pages, so sequential loading of stages would take two round-trips per stage
+    val pageCount = items.size
+    assertTrue("Topics of ${course.stages.size} stages are loaded in $loadingTime ms",
+               loadingTime < (pageCount + 1) * responseDelay)
+  }
+
+  fun `test topics loaded only for stages without them`() {
+    val items = mapOf(1 to "topics_response_1.json", 2 to "topics_response_2.json")
+
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      val result = TOPICS_REQUEST_RE.matchEntire(request.path) ?: return@withResponseHandler null
+      val stepId = result.groupValues[1].toInt()
+      items[stepId]?.let { mockResponse(it) } ?: mockResponse("response_empty.json")
+    }
+    val course = createHyperskillCourse()
+    val cachedTopics = listOf(HyperskillTopic())
+    course.taskToTopics[0] = cachedTopics
+    mockConnector.fillTopics(course, project, onlyMissing = true)
+
+    assertSame(cachedTopics, course.taskToTopics[0])
+    for (taskIndex in 1 until course.stages.size) {
+      assertEquals(3, course.taskToTopics[taskIndex]?.size)
+    }
+  }
+
   fun `test do not apply old submissions on new user changes`() =
     doApplySubmissionOnNonCurrentTaskTest("submission_stage1_ancient_submission.json") {
       dir("lesson1") {
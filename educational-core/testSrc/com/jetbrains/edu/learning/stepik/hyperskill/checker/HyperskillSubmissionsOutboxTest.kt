@@ -0,0 +1,306 @@
+package com.jetbrains.edu.learning.stepik.hyperskill.checker
+
+import com.intellij.openapi.application.runWriteAction
+import com.intellij.util.xmlb.XmlSerializer
+import com.jetbrains.edu.learning.EduNames
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.MockResponseFactory
+import com.jetbrains.edu.learning.checker.CheckResult
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.document
+import com.jetbrains.edu.learning.stepik.hyperskill.api.HyperskillConnector
+import com.jetbrains.edu.learning.stepik.hyperskill.api.MockHyperskillConnector
+import com.jetbrains.edu.learning.stepik.hyperskill.courseFormat.HyperskillCourse
+import com.jetbrains.edu.learning.stepik.hyperskill.hyperskillCourseWithFiles
+import com.jetbrains.edu.learning.stepik.hyperskill.loginFakeUser
+import com.jetbrains.edu.learning.stepik.hyperskill.settings.HyperskillSettings
+import com.jetbrains.edu.learning.stepik.submissions.SubmissionsManager
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.SocketPolicy
+import org.apache.http.HttpStatus
+import org.intellij.lang.annotations.Language
+import java.net.HttpURLConnection
+
+class HyperskillSubmissionsOutboxTest : EduTestCase() {
+
+  private val mockConnector: MockHyperskillConnector get() = HyperskillConnector.getInstance() as MockHyperskillConnector
+  private val outbox: HyperskillSubmissionsOutbox get() = HyperskillSubmissionsOutbox.getInstance(project)
+
+  private var isAttemptsAvailable = true
+  private var attemptsResponse: MockResponse? = null
+  private val rejectedSteps = mutableSetOf<Int>()
+  private var isSubmissionsAvailable = true
+  private val postedSubmissions = mutableListOf<String>()
+
+  override fun setUp() {
+    super.setUp()
+    loginFakeUser()
+    mockConnector.withResponseHandler(testRootDisposable) { request ->
+      when {
+        request.path.startsWith("/api/attempts") -> when {
+          !isAttemptsAvailable -> unavailable()
+          attemptsResponse != null -> attemptsResponse
+          rejectedSteps.any { request.body.clone().readUtf8().contains(""""step":$it""") } -> rejected()
+          else -> MockResponseFactory.fromString(attempt)
+        }
+        request.path.startsWith("/api/submissions") -> {
+          if (isSubmissionsAvailable) {
+            postedSubmissions += request.body.clone().readUtf8()
+            MockResponseFactory.fromString(submission)
+          }
+          else unavailable()
+        }
+        else -> null
+      }
+    }
+  }
+
+  override fun tearDown() {
+    try {
+      outbox.loadState(HyperskillSubmissionsOutbox.State())
+      SubmissionsManager.getInstance(project).clear()
+    }
+    finally {
+      super.tearDown()
+    }
+  }
+
+  fun `test solution is sent right after check`() {
+    val course = createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Solved)
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+    assertNotNull(SubmissionsManager.getInstance(project).getSubmissionsFromMemory(setOf(1)))
+    assertTrue(course.stages[0].isCompleted)
+  }
+
+  fun `test solution checked offline is sent after restart`() {
+    isAttemptsAvailable = false
+    isSubmissionsAvailable = false
+    val course = createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Solved)
+
+    assertEquals(1, outbox.getPendingSubmissions().size)
+    assertNull(SubmissionsManager.getInstance(project).getSubmissionsFromMemory(setOf(1)))
+    assertFalse(course.stages[0].isCompleted)
+
+    restart()
+    isAttemptsAvailable = true
+    isSubmissionsAvailable = true
+    outbox.scheduleDelivery()
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+    assertTrue(postedSubmissions[0].contains("fun foo() {}"))
+    assertNotNull(SubmissionsManager.getInstance(project).getSubmissionsFromMemory(setOf(1)))
+    assertTrue(course.stages[0].isCompleted)
+  }
+
+  fun `test solution is kept if submission failed after attempt was created`() {
+    isSubmissionsAvailable = false
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+    assertEquals(1, outbox.getPendingSubmissions().size)
+
+    restart()
+    isSubmissionsAvailable = true
+    outbox.scheduleDelivery()
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+    assertTrue(postedSubmissions[0].contains(""""score":"0""""))
+    val submissions = SubmissionsManager.getInstance(project).getSubmissionsFromMemory(setOf(1))
+    assertEquals(EduNames.WRONG, submissions?.single()?.status)
+  }
+
+  fun `test same solution is sent once`() {
+    isAttemptsAvailable = false
+    createHyperskillCourse()
+    val task = findTask(0, 0)
+    postStageSolution(task, CheckStatus.Failed)
+    postStageSolution(task, CheckStatus.Failed)
+    assertEquals(1, outbox.getPendingSubmissions().size)
+
+    val document = findFileInTask(0, 0, "src/Task.kt").document
+    runWriteAction { document.setText("fun bar() {}") }
+    postStageSolution(task, CheckStatus.Failed)
+    assertEquals(2, outbox.getPendingSubmissions().size)
+
+    isAttemptsAvailable = true
+    outbox.scheduleDelivery()
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(2, postedSubmissions.size)
+    assertTrue(postedSubmissions[0].contains("fun foo() {}"))
+    assertTrue(postedSubmissions[1].contains("fun bar() {}"))
+  }
+
+  fun `test rejected solution does not block next ones`() {
+    rejectedSteps += 1
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+    postStageSolution(findTask(0, 1), CheckStatus.Failed)
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+    assertNull(SubmissionsManager.getInstance(project).getSubmissionsFromMemory(setOf(1)))
+    assertNotNull(SubmissionsManager.getInstance(project).getSubmissionsFromMemory(setOf(2)))
+  }
+
+  fun `test solutions wait for login`() {
+    HyperskillSettings.INSTANCE.account = null
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+    assertEquals(1, outbox.getPendingSubmissions().size)
+    assertEmpty(postedSubmissions)
+
+    loginFakeUser()
+    project.messageBus.syncPublisher(HyperskillConnector.AUTHORIZATION_TOPIC).userLoggedIn()
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+  }
+
+  fun `test failed deliveries are kept after restart`() {
+    isAttemptsAvailable = false
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+    assertEquals(1, outbox.state.failedDeliveries)
+
+    restart()
+    assertEquals(1, outbox.state.failedDeliveries)
+    outbox.scheduleDelivery()
+    assertEquals(2, outbox.state.failedDeliveries)
+
+    isAttemptsAvailable = true
+    outbox.scheduleDelivery()
+    assertEquals(0, outbox.state.failedDeliveries)
+  }
+
+  fun `test solution is retried on connection error`() = doTestRetried(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START))
+
+  fun `test solution is retried on request timeout`() = doTestRetried(errorResponse(HttpURLConnection.HTTP_CLIENT_TIMEOUT))
+
+  fun `test solution is retried on too many requests`() = doTestRetried(errorResponse(429))
+
+  fun `test solution is retried on server error`() = doTestRetried(errorResponse(HttpURLConnection.HTTP_INTERNAL_ERROR))
+
+  fun `test solution is retried on response without attempt`() = doTestRetried(MockResponseFactory.fromString("""{"attempts": []}"""))
+
+  fun `test solution waits for login on unauthorized`() = doTestWaitsForLogin(errorResponse(HttpURLConnection.HTTP_UNAUTHORIZED))
+
+  fun `test solution waits for login on forbidden`() = doTestWaitsForLogin(errorResponse(HttpURLConnection.HTTP_FORBIDDEN))
+
+  fun `test solution waits for login on forbidden with server message`() {
+    val response = MockResponse().setResponseCode(HttpURLConnection.HTTP_FORBIDDEN).setBody("""{"message": "Token is expired"}""")
+    doTestWaitsForLogin(response)
+  }
+
+  fun `test solution is dropped on not found`() {
+    attemptsResponse = errorResponse(HttpURLConnection.HTTP_NOT_FOUND)
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEmpty(postedSubmissions)
+    assertEquals(0, outbox.state.failedDeliveries)
+    assertFalse(outbox.state.isWaitingForLogin)
+  }
+
+  private fun doTestRetried(response: MockResponse) {
+    attemptsResponse = response
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+
+    assertEquals(1, outbox.getPendingSubmissions().size)
+    assertEquals(1, outbox.state.failedDeliveries)
+    assertFalse(outbox.state.isWaitingForLogin)
+
+    attemptsResponse = null
+    outbox.scheduleDelivery()
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+  }
+
+  private fun doTestWaitsForLogin(response: MockResponse) {
+    attemptsResponse = response
+    createHyperskillCourse()
+    postStageSolution(findTask(0, 0), CheckStatus.Failed)
+
+    assertEquals(1, outbox.getPendingSubmissions().size)
+    assertEquals(0, outbox.state.failedDeliveries)
+    assertTrue(outbox.state.isWaitingForLogin)
+
+    attemptsResponse = null
+    project.messageBus.syncPublisher(HyperskillConnector.AUTHORIZATION_TOPIC).userLoggedIn()
+    assertEmpty(outbox.getPendingSubmissions())
+    assertEquals(1, postedSubmissions.size)
+  }
+
+  private fun postStageSolution(task: Task, status: CheckStatus) {
+    task.status = status
+    HyperskillCheckConnector.postStageSolution(task, project, CheckResult(status, "Check result"))
+  }
+
+  /**
+   * Imitates IDE restart: pending solutions are saved to workspace file and loaded back
+   */
+  private fun restart() {
+    val serialized = XmlSerializer.serialize(outbox.state)
+    outbox.loadState(HyperskillSubmissionsOutbox.State())
+    outbox.loadState(XmlSerializer.deserialize(serialized, HyperskillSubmissionsOutbox.State::class.java))
+  }
+
+  private fun errorResponse(code: Int): MockResponse = MockResponse().setResponseCode(code).setBody("""{"detail": "Error"}""")
+
+  private fun unavailable(): MockResponse = MockResponse().setResponseCode(HttpStatus.SC_SERVICE_UNAVAILABLE)
+
+  private fun rejected(): MockResponse = MockResponse().setResponseCode(HttpStatus.SC_BAD_REQUEST).setBody("""{"detail": "Step is closed"}""")
+
+  private fun createHyperskillCourse(): HyperskillCourse = hyperskillCourseWithFiles {
+    frameworkLesson("lesson1") {
+      eduTask("task1", stepId = 1) {
+        taskFile("src/Task.kt", "fun foo() {}")
+        taskFile("test/Tests1.kt", "fun tests1() {}")
+      }
+      eduTask("task2", stepId = 2) {
+        taskFile("src/Task.kt", "fun foo() {}")
+        taskFile("test/Tests2.kt", "fun tests2() {}")
+      }
+    }
+  }
+
+  @Language("JSON")
+  private val attempt = """
+    {
+      "attempts": [
+        {
+          "dataset": "",
+          "id": 7565799,
+          "status": "active",
+          "step": 1,
+          "time": "2020-04-29T11:44:20.422Z",
+          "user": 6242591
+        }
+      ]
+    }
+  """
+
+  @Language("JSON")
+  private val submission = """
+    {
+      "submissions": [
+        {
+          "attempt": "7565799",
+          "id": "7565003",
+          "status": "evaluation",
+          "step": 1,
+          "time": "2020-04-29T11:44:20.422Z",
+          "user": 6242591
+        }
+      ]
+    }
+  """
+}
@@ -0,0 +1,44 @@
+package com.jetbrains.edu.learning.taskDescription
+
+import com.intellij.openapi.fileTypes.PlainTextLanguage
+import com.jetbrains.edu.learning.EduTestCase
+import com.jetbrains.edu.learning.taskDescription.ui.EduCodeHighlighter
+
+class EduCodeHighlighterTest : EduTestCase() {
+
+  fun `test highlighted fragments are cached`() {
+    val highlighter = EduCodeHighlighter.getInstance(project)
+    val html = descriptionWithCode("first", "second")
+
+    val text = highlighter.highlightCodeFragments(html, PlainTextLanguage.INSTANCE).text
+    val highlightedFragments = highlighter.getHighlightedFragmentsCount()
+
+    assertEquals(text, highlighter.highlightCodeFragments(html, PlainTextLanguage.INSTANCE).text)
+    assertEquals(highlightedFragments, highlighter.getHighlightedFragmentsCount())
+  }
+
+  fun `test only cached fragments are highlighted`() {
+    val highlighter = EduCodeHighlighter.getInstance(project)
+    highlighter.highlightCodeFragments(descriptionWithCode("cached"), PlainTextLanguage.INSTANCE)
+    val highlightedFragments = highlighter.getHighlightedFragmentsCount()
+
+    val html = descriptionWithCode("cached", "new")
+    val partiallyHighlighted = highlighter.highlightCodeFragments(html, PlainTextLanguage.INSTANCE, cachedOnly = true)
+    assertFalse(partiallyHighlighted.isComplete)
+    assertEquals(1, CODE_BLOCK_RE.findAll(partiallyHighlighted.text).count())
+    assertEquals(highlightedFragments, highlighter.getHighlightedFragmentsCount())
+
+    val highlighted = highlighter.highlightCodeFragments(html, PlainTextLanguage.INSTANCE)
+    assertTrue(highlighted.isComplete)
+    assertEquals(2, CODE_BLOCK_RE.findAll(highlighted.text).count())
+    assertTrue(highlighter.highlightCodeFragments(html, PlainTextLanguage.INSTANCE, cachedOnly = true).isComplete)
+  }
+
+  private fun descriptionWithCode(vararg fragments: String): String {
+    return fragments.joinToString("\n", prefix = "<html><body>", postfix = "</body></html>") { "<pre><code>$it</code></pre>" }
+  }
+
+  companion object {
+    private val CODE_BLOCK_RE = "class=\"code-block\"".toRegex()
+  }
+}
@@ -1,10 +1,14 @@
 package com.jetbrains.edu.learning.update
 
+import com.intellij.openapi.vfs.VfsUtil
+import com.jetbrains.edu.learning.CourseMode
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.EduCourse
 import com.jetbrains.edu.learning.courseFormat.Lesson
 import com.jetbrains.edu.learning.courseFormat.tasks.EduTask
+import com.jetbrains.edu.learning.createCourseFromJson
 import com.jetbrains.edu.learning.fileTree
+import com.jetbrains.edu.learning.stepik.StepikCourseUpdater
 
 open class StudentCourseUpdateTest : CourseUpdateTestBase<Unit>() {
   override val defaultSettings: Unit get() = Unit
@@ -300,6 +304,26 @@ open class StudentCourseUpdateTest : CourseUpdateTestBase<Unit>() {
     doTest(expectedFileTree, "testData/stepik/updateCourse/task_file_text_changed")
   }
 
+  fun `test unchanged files are not rewritten on task update`() {
+    val testPath = "testData/stepik/updateCourse/task_file_text_changed"
+    val course = createCourseFromJson("$testPath/course.json", CourseMode.STUDENT)
+    val courseFromServer = createCourseFromJson("$testPath/updated_course.json", CourseMode.STUDENT)
+    loadCourseStructure(course, courseFromServer)
+
+    val testFile = findFile("lesson1/task1/test/Tests.java")
+    val descriptionFile = findFile("lesson1/task1/task.html")
+    val testFileStamp = testFile.modificationStamp
+    val descriptionFileStamp = descriptionFile.modificationStamp
+
+    StepikCourseUpdater(project, course).doUpdate(courseFromServer)
+
+    assertTrue(testFile.isValid)
+    assertEquals(testFileStamp, testFile.modificationStamp)
+    assertTrue(descriptionFile.isValid)
+    assertEquals(descriptionFileStamp, descriptionFile.modificationStamp)
+    assertEquals("public class Task {\n  //Changed put your task here\n}", VfsUtil.loadText(findFile("lesson1/task1/src/Task.java")))
+  }
+
   private fun testsAdded(setFirstTaskSolved: (course: EduCourse) -> Unit = {}) {
     val expectedFileTree = fileTree {
       dir("lesson1") {
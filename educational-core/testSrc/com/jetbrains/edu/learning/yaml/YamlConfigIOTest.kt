@@ -0,0 +1,66 @@
+package com.jetbrains.edu.learning.yaml
+
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.vfs.VfsUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.ui.UIUtil
+import com.jetbrains.edu.coursecreator.yaml.createConfigFiles
+import com.jetbrains.edu.learning.courseFormat.CheckStatus
+import com.jetbrains.edu.learning.courseFormat.tasks.Task
+import com.jetbrains.edu.learning.yaml.YamlFormatSynchronizer.mapper
+
+class YamlConfigIOTest : YamlTestCase() {
+
+  override fun setUp() {
+    super.setUp()
+    courseWithFiles {
+      lesson {
+        eduTask {
+          taskFile("Task.kt", "fun foo() {}")
+        }
+      }
+    }
+    createConfigFiles(project)
+    UIUtil.dispatchAllInvocationEvents()
+  }
+
+  fun `test config is written to file`() {
+    val task = findTask(0, 0)
+    assertEquals(getCourse().mapper.writeValueAsString(task), VfsUtil.loadText(task.configFile))
+  }
+
+  fun `test unchanged config is not rewritten`() {
+    val task = findTask(0, 0)
+    val configFile = task.configFile
+    val modificationStamp = configFile.modificationStamp
+
+    YamlFormatSynchronizer.saveItem(task)
+    UIUtil.dispatchAllInvocationEvents()
+    assertEquals(modificationStamp, configFile.modificationStamp)
+  }
+
+  fun `test changed config is read back`() {
+    val task = findTask(0, 0)
+    task.status = CheckStatus.Solved
+    YamlFormatSynchronizer.saveItem(task)
+    UIUtil.dispatchAllInvocationEvents()
+
+    val loadedTask = YamlDeserializer.deserializeItem(task.configFile, project, getCourse().mapper) as Task
+    assertEquals(CheckStatus.Solved, loadedTask.status)
+    assertEquals("fun foo() {}", loadedTask.taskFiles["Task.kt"]?.text)
+  }
+
+  fun `test config opened in editor is written to document`() {
+    val task = findTask(0, 0)
+    myFixture.openFileInEditor(task.configFile)
+    task.status = CheckStatus.Failed
+    YamlFormatSynchronizer.saveItem(task)
+    UIUtil.dispatchAllInvocationEvents()
+
+    val document = FileDocumentManager.getInstance().getDocument(task.configFile)!!
+    assertEquals(getCourse().mapper.writeValueAsString(task), document.text)
+  }
+
+  private val Task.configFile: VirtualFile
+    get() = getConfigDir(project).findChild(configFileName) ?: error("No config file for task $name")
+}
@@ -20,6 +20,18 @@ open class GradleCodeExecutor : CodeExecutor {
       else -> runGradleRunTask(project, task, indicator)
     }
 
+  override fun execute(
+    project: Project,
+    task: Task,
+    indicator: ProgressIndicator,
+    input: String?,
+    outputConsumer: (String) -> Boolean
+  ): Result<String, CheckResult> =
+    when (task) {
+      is CodeforcesTask -> DefaultCodeExecutor().execute(project, task, indicator, input, outputConsumer)
+      else -> super.execute(project, task, indicator, input, outputConsumer)
+    }
+
   override fun createCodeforcesConfiguration(project: Project, factory: ConfigurationFactory): CodeforcesRunConfiguration {
     return GradleCodeforcesRunConfiguration(project, factory)
   }
@@ -15,7 +15,7 @@ open class GradleEduTaskChecker(task: EduTask, protected val envChecker: Environ
   TaskChecker<EduTask>(task, project) {
 
   override fun check(indicator: ProgressIndicator): CheckResult {
-    val possibleError = envChecker.getEnvironmentError(project, task)
+    val possibleError = validateEnvironmentIfNeeded()
     if (possibleError != null) {
       return possibleError
     }
@@ -28,9 +28,11 @@ open class GradleEduTaskChecker(task: EduTask, protected val envChecker: Environ
       return CheckResult(CheckStatus.Solved, EduJVMBundle.message("task.marked.completed"))
     }
 
-    return GradleCommandLine.create(project, taskName, *params.toTypedArray())?.launchAndCheck(indicator) ?: failedToCheck
+    return GradleCommandLine.create(project, taskName, *params.toTypedArray(), FAIL_FAST_ARG)?.launchAndCheck(indicator) ?: failedToCheck
   }
 
+  override fun validateEnvironment(): CheckResult? = envChecker.getEnvironmentError(project, task)
+
   protected open fun getGradleTask() = GradleTask(":${getGradleProjectName(task)}:$TEST_TASK_NAME")
 
   protected data class GradleTask(val taskName: String, val params: List<String> = emptyList())
@@ -1,15 +1,16 @@
 package com.jetbrains.edu.jvm.gradle.checker
 
+import com.google.common.annotations.VisibleForTesting
 import com.intellij.execution.ExecutionException
 import com.intellij.execution.configurations.GeneralCommandLine
-import com.intellij.execution.process.CapturingProcessHandler
-import com.intellij.execution.process.ProcessOutput
+import com.intellij.execution.process.*
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.externalSystem.util.ExternalSystemApiUtil
 import com.intellij.openapi.module.ModuleUtil
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.util.Key
 import com.intellij.openapi.util.SystemInfo
 import com.intellij.openapi.util.io.FileUtil
 import com.jetbrains.edu.jvm.MainFileProvider
@@ -22,6 +23,8 @@ import com.jetbrains.edu.learning.checker.CheckUtils.STUDY_PREFIX
 import com.jetbrains.edu.learning.checker.CheckUtils.hasCompilationErrors
 import com.jetbrains.edu.learning.checker.CheckUtils.postProcessOutput
 import com.jetbrains.edu.learning.checker.CodeExecutor
+import com.jetbrains.edu.learning.checker.LimitedOutputBuffer
+import com.jetbrains.edu.learning.checker.OutputLineSplitter
 import com.jetbrains.edu.learning.checker.TestsOutputParser
 import com.jetbrains.edu.learning.courseFormat.CheckStatus
 import com.jetbrains.edu.learning.courseFormat.ext.dirName
@@ -43,6 +46,9 @@ const val TEST_TASK_NAME = "test"
 
 const val TESTS_ARG = "--tests"
 
+// Gradle stops running tests after the first failure since only it is shown to a user
+const val FAIL_FAST_ARG = "--fail-fast"
+
 fun getGradleProjectName(task: Task) =
   if (task.lesson.section != null)
     "${sanitizeName(task.lesson.section!!.name)}-${sanitizeName(task.lesson.name)}-${sanitizeName(task.dirName)}"
@@ -55,79 +61,65 @@ class GradleCommandLine private constructor(
 ) {
 
   fun launchAndCheck(indicator: ProgressIndicator): CheckResult {
-    val output = launch(indicator) ?: return CheckResult.failedToCheck
+    val parser = TestsOutputParser()
+    // Messages are parsed while gradle is running, and it's stopped as soon as the first test failure is found
+    // since only this failure is shown to a user
+    val output = launch(indicator) { message -> parser.addCompleteMessage(STUDY_PREFIX + postProcessOutput(message)) }
+                 ?: return CheckResult.failedToCheck
     if (!output.isSuccess) return CheckResult(CheckStatus.Failed, output.firstMessage.xmlEscaped, output.messages.joinToString("\n"))
 
-    // TODO: do not use `TestsOutputParser` here
-    return TestsOutputParser().getCheckResult(output.messages.map { STUDY_PREFIX + it }, needEscapeResult = true)
+    return parser.finish(needEscapeResult = true)
   }
 
-  fun launch(indicator: ProgressIndicator): GradleOutput? {
-    val output = try {
-      val handler = CapturingProcessHandler(cmd)
-      handler.runProcessWithProgressIndicator(indicator)
+  /**
+   * @param onMessage is called for each educational message as soon as it's fully printed by gradle.
+   * If it returns `false`, the rest of the output is not needed and gradle process is stopped.
+   *
+   * Gradle client is stopped softly, like with Ctrl+C, so it cancels the build in gradle daemon as well
+   */
+  fun launch(indicator: ProgressIndicator, onMessage: (String) -> Boolean = { true }): GradleOutput? {
+    val collector = GradleOutputCollector(taskName, onMessage)
+    try {
+      val handler = KillableProcessHandler(cmd)
+      handler.setShouldKillProcessSoftly(true)
+      handler.addProcessListener(collector)
+      handler.startNotify()
+      while (!handler.waitFor(WAIT_TIMEOUT_MS)) {
+        if (indicator.isCanceled) {
+          handler.destroyProcess()
+          handler.waitFor()
+        }
+      }
     } catch (e: ExecutionException) {
       LOG.info("Failed to launch checking", e)
       return null
     }
 
-    val stderr = output.stderr
-    if (stderr.isNotEmpty() && output.stdout.isEmpty()) {
+    val stderr = collector.stderr.toString()
+    if (stderr.isNotEmpty() && collector.stdout.isEmpty()) {
       return GradleOutput(false, listOf(stderr))
     }
 
     //gradle prints compilation failures to error stream
-    if (hasCompilationErrors(output)) {
-      return GradleOutput(false, listOf(COMPILATION_FAILED_MESSAGE, output.stderr))
-    }
-
-    if (!output.stdout.contains(taskName)) {
-      LOG.warn("#educational: executing $taskName fails: \n" + output.stdout)
-      return GradleOutput(false, listOf(EduCoreBundle.message("error.failed.to.launch.checking"), stderr, output.stdout))
-    }
-
-    return GradleOutput(true, collectMessages(output))
-  }
-
-  private fun collectMessages(output: ProcessOutput): List<String> {
-    val currentMessage = mutableListOf<String>()
-    val allMessages = mutableListOf<String>()
-
-    var checkerVersion = 0
-
-    fun addCurrentMessageIfNeeded() {
-      if (currentMessage.isNotEmpty()) {
-        allMessages += currentMessage.joinToString("")
-      }
+    if (collector.isCompilationFailed) {
+      return GradleOutput(false, listOf(COMPILATION_FAILED_MESSAGE, stderr))
     }
 
-    for (line in output.stdoutLines) {
-      if (line.startsWith(CHECKER_VERSION)) {
-        checkerVersion = line.removePrefix(CHECKER_VERSION).toInt()
-        continue
-      }
-      if (line.startsWith(STUDY_PREFIX)) {
-        val messageLine = line.removePrefix(STUDY_PREFIX)
-        currentMessage.add(computeCurrentMessage(messageLine, checkerVersion))
-      } else {
-        addCurrentMessageIfNeeded()
-        currentMessage.clear()
-      }
+    if (!collector.isTaskLaunched) {
+      val stdout = collector.stdout.toString()
+      LOG.warn("#educational: executing $taskName fails: \n" + stdout)
+      return GradleOutput(false, listOf(EduCoreBundle.message("error.failed.to.launch.checking"), stderr, stdout))
     }
 
-    addCurrentMessageIfNeeded()
-    return allMessages
-  }
-
-  private fun computeCurrentMessage(messageLine: String, checkerVersion: Int): String {
-    if (checkerVersion == 0) return messageLine + "\n"
-    return messageLine.ifEmpty { "\n" }
+    return GradleOutput(true, collector.messages)
   }
 
   companion object {
 
     private val LOG: Logger = Logger.getInstance(GradleCommandLine::class.java)
 
+    private const val WAIT_TIMEOUT_MS = 100L
+
     fun create(project: Project, command: String, vararg additionalParams: String): GradleCommandLine? {
       val basePath = project.basePath ?: return null
       val projectJdkPath = ProjectRootManager.getInstance(project).projectSdk?.homePath ?: return null
@@ -150,6 +142,106 @@ class GradleOutput(val isSuccess: Boolean, _messages: List<String>) {
   val firstMessage: String get() = messages.firstOrNull { it.isNotBlank() } ?: "<no output>"
 }
 
+/**
+ * Collects gradle output while the process is running.
+ *
+ * Educational messages (consecutive lines started with [STUDY_PREFIX]) are extracted as soon as they are printed:
+ * a message is complete once any other non-empty line is split from the output or the process is terminated.
+ * Empty lines are skipped, so failure messages containing blank lines aren't split.
+ * The rest of the output is kept only partially not to store the whole output of a solution printing too much.
+ */
+@VisibleForTesting
+internal class GradleOutputCollector(
+  private val taskName: String,
+  private val onMessage: (String) -> Boolean
+) : ProcessAdapter() {
+  val stdout = LimitedOutputBuffer()
+  val stderr = LimitedOutputBuffer()
+
+  // Both flags are updated from different output reader threads
+  @Volatile
+  var isTaskLaunched: Boolean = false
+    private set
+  @Volatile
+  var isCompilationFailed: Boolean = false
+    private set
+
+  private val stdoutSplitter = OutputLineSplitter()
+  private val stderrSplitter = OutputLineSplitter()
+
+  private val _messages = mutableListOf<String>()
+  val messages: List<String> get() = _messages
+  private var messagesLength = 0L
+
+  private val currentMessage = StringBuilder()
+  private var checkerVersion = 0
+  private var isStopped = false
+
+  override fun onTextAvailable(event: ProcessEvent, outputType: Key<*>) {
+    val text = event.text ?: return
+    when {
+      ProcessOutputType.isStderr(outputType) -> {
+        stderr.append(text)
+        stderrSplitter.append(text, ::processStderrLine)
+      }
+      ProcessOutputType.isStdout(outputType) -> {
+        stdout.append(text)
+        stdoutSplitter.append(text) { processStdoutLine(it, event.processHandler) }
+      }
+    }
+  }
+
+  override fun processTerminated(event: ProcessEvent) {
+    stderrSplitter.flush(::processStderrLine)
+    stdoutSplitter.flush { processStdoutLine(it, event.processHandler) }
+    addCurrentMessageIfNeeded(event.processHandler)
+  }
+
+  private fun processStderrLine(line: String) {
+    if (!isCompilationFailed && hasCompilationErrors(line)) {
+      isCompilationFailed = true
+    }
+  }
+
+  private fun processStdoutLine(line: String, handler: ProcessHandler) {
+    // Empty lines are skipped the same way as `ProcessOutput.getStdoutLines` does
+    if (line.isEmpty()) return
+    if (!isTaskLaunched && taskName in line) {
+      isTaskLaunched = true
+    }
+    if (line.startsWith(CHECKER_VERSION)) {
+      checkerVersion = line.removePrefix(CHECKER_VERSION).toInt()
+      return
+    }
+    if (line.startsWith(STUDY_PREFIX)) {
+      val messageLine = line.removePrefix(STUDY_PREFIX)
+      if (messagesLength + currentMessage.length < LimitedOutputBuffer.DEFAULT_HEAD_LIMIT) {
+        currentMessage.append(computeCurrentMessage(messageLine, checkerVersion))
+      }
+    }
+    else {
+      addCurrentMessageIfNeeded(handler)
+    }
+  }
+
+  private fun addCurrentMessageIfNeeded(handler: ProcessHandler) {
+    if (currentMessage.isEmpty()) return
+    val message = currentMessage.toString()
+    currentMessage.setLength(0)
+    _messages += message
+    messagesLength += message.length
+    if (!isStopped && !onMessage(message)) {
+      isStopped = true
+      handler.destroyProcess()
+    }
+  }
+
+  private fun computeCurrentMessage(messageLine: String, checkerVersion: Int): String {
+    if (checkerVersion == 0) return messageLine + "\n"
+    return messageLine.ifEmpty { "\n" }
+  }
+}
+
 /**
  * Run gradle 'run' task.
  * Returns gradle output if task was successfully executed, otherwise returns CheckResult.
@@ -0,0 +1,46 @@
+package com.jetbrains.edu.jvm.gradle.checker
+
+import com.intellij.execution.process.NopProcessHandler
+import com.intellij.execution.process.ProcessEvent
+import com.intellij.execution.process.ProcessOutputTypes
+import com.jetbrains.edu.learning.checker.CheckUtils.STUDY_PREFIX
+import com.jetbrains.edu.learning.checker.CheckUtils.TEST_FAILED
+import com.jetbrains.edu.learning.checker.CheckUtils.TEST_OK
+import junit.framework.TestCase
+
+class GradleOutputCollectorTest : TestCase() {
+
+  fun `test message is complete after non-educational line`() {
+    val messages = collectMessages("$STUDY_PREFIX $TEST_OK\n",
+                                   "> Task :test\n",
+                                   "$STUDY_PREFIX $TEST_FAILED first\n",
+                                   "$STUDY_PREFIX second\n",
+                                   "BUILD FAILED\n")
+    assertEquals(listOf(" $TEST_OK\n", " $TEST_FAILED first\n second\n"), messages)
+  }
+
+  fun `test failure message with blank lines is not split`() {
+    val messages = collectMessages("$STUDY_PREFIX $TEST_FAILED first\n",
+                                   "\n",
+                                   "$STUDY_PREFIX after blank line\n",
+                                   "\n",
+                                   "\n",
+                                   "$STUDY_PREFIX after blank lines\n")
+    assertEquals(listOf(" $TEST_FAILED first\n after blank line\n after blank lines\n"), messages)
+  }
+
+  private fun collectMessages(vararg lines: String): List<String> {
+    val messages = mutableListOf<String>()
+    val collector = GradleOutputCollector("test") {
+      messages += it
+      true
+    }
+    val handler = NopProcessHandler()
+    for (line in lines) {
+      collector.onTextAvailable(ProcessEvent(handler, line), ProcessOutputTypes.STDOUT)
+    }
+    collector.processTerminated(ProcessEvent(handler))
+    assertEquals(collector.messages, messages)
+    return messages
+  }
+}